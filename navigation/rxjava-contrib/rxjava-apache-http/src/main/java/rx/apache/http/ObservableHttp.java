@@ -84,7 +84,7 @@ public class ObservableHttp<T> {
         this.onSubscribe = onSubscribe;
     }
 
-    private static <T> ObservableHttp<T> create(OnSubscribeFunc<T> onSubscribe) {
+    static <T> ObservableHttp<T> create(OnSubscribeFunc<T> onSubscribe) {
         return new ObservableHttp<T>(onSubscribe);
     }
 
@@ -134,6 +134,26 @@ public class ObservableHttp<T> {
      * @return
      */
     public static ObservableHttp<ObservableHttpResponse> createRequest(final HttpAsyncRequestProducer requestProducer, final HttpAsyncClient client) {
+        return createRequest(requestProducer, client, false);
+    }
+
+    /**
+     * Execute request like {@link #createRequest(HttpAsyncRequestProducer, HttpAsyncClient)} but stream the content
+     * while it is received instead of collecting it first, so a large download takes constant memory.
+     * <p>
+     * {@link ObservableHttpResponse#getContentBuffers()} then emits each read as a view of a pooled buffer that is only
+     * valid until <code>onNext</code> returns, and {@link ObservableHttpResponse#getContent()} a copy of each read.
+     * The content must be subscribed to when the response is emitted, bytes received before that are not replayed.
+     * 
+     * @param requestProducer
+     * @param client
+     * @return
+     */
+    public static ObservableHttp<ObservableHttpResponse> createStreamingRequest(final HttpAsyncRequestProducer requestProducer, final HttpAsyncClient client) {
+        return createRequest(requestProducer, client, true);
+    }
+
+    private static ObservableHttp<ObservableHttpResponse> createRequest(final HttpAsyncRequestProducer requestProducer, final HttpAsyncClient client, final boolean streaming) {
 
         return ObservableHttp.create(new OnSubscribeFunc<ObservableHttpResponse>() {
 
@@ -143,7 +163,7 @@ public class ObservableHttp<T> {
                 final CompositeSubscription parentSubscription = new CompositeSubscription();
 
                 // return a Subscription that wraps the Future so it can be cancelled
-                parentSubscription.add(Subscriptions.from(client.execute(requestProducer, new ResponseConsumerDelegate(observer, parentSubscription),
+                parentSubscription.add(Subscriptions.from(client.execute(requestProducer, new ResponseConsumerDelegate(observer, parentSubscription, streaming),
                         new FutureCallback<HttpResponse>() {
 
                             @Override
@@ -0,0 +1,405 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpHost;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+
+import rx.Observable.OnSubscribeFunc;
+import rx.Observer;
+import rx.Subscription;
+import rx.subscriptions.MultipleAssignmentSubscription;
+
+/**
+ * Executes requests of {@link ObservableHttp} with a limit on the requests running at the same time per host.
+ * <p>
+ * A request subscribed to while its host is at the limit waits in a queue of that host until a running one completes,
+ * fails or is unsubscribed. The queue is bounded: a request subscribed to while it is full fails right away with a
+ * {@link RejectedExecutionException} instead of waiting, so subscribing never blocks and is safe from the I/O threads
+ * of the client, such as in the callbacks of another response. To throttle a source that emits requests faster than
+ * the host answers them, limit it before it reaches the queue, for example with
+ * <code>Observable.from(uris).flatMap(...)</code> taking a maximum number of concurrent requests.
+ * <p>
+ * The limit should not exceed the connections per route of the {@link HttpAsyncClient}, otherwise requests queue
+ * inside the client without bounds again.
+ * <p>
+ * How long requests waited and ran is kept per host in {@link HostMetrics}.
+ * <p>
+ * Example:
+ * <pre> {@code
+ * ObservableHttpLimiter limiter = new ObservableHttpLimiter(httpClient, 20, 100);
+ * Observable.from(uris).flatMap(uri -> limiter.createGet(uri).toObservable());
+ * } </pre>
+ */
+public class ObservableHttpLimiter {
+
+    private final HttpAsyncClient client;
+    private final int maxConcurrentPerHost;
+    private final int maxQueuedPerHost;
+    private final ConcurrentHashMap<HttpHost, Host> hosts = new ConcurrentHashMap<HttpHost, Host>();
+
+    /**
+     * @param client
+     *            the client to execute the requests with
+     * @param maxConcurrentPerHost
+     *            the number of requests that may run at the same time per host
+     * @param maxQueuedPerHost
+     *            the number of requests that may wait per host before further ones are rejected
+     */
+    public ObservableHttpLimiter(HttpAsyncClient client, int maxConcurrentPerHost, int maxQueuedPerHost) {
+        if (maxConcurrentPerHost <= 0) {
+            throw new IllegalArgumentException("maxConcurrentPerHost must be positive");
+        }
+        if (maxQueuedPerHost < 0) {
+            throw new IllegalArgumentException("maxQueuedPerHost must not be negative");
+        }
+        this.client = client;
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+        this.maxQueuedPerHost = maxQueuedPerHost;
+    }
+
+    public ObservableHttp<ObservableHttpResponse> createGet(String uri) {
+        return createRequest(HttpAsyncMethods.createGet(uri));
+    }
+
+    /**
+     * Like {@link ObservableHttp#createRequest(HttpAsyncRequestProducer, HttpAsyncClient)} but the request is only
+     * executed once its host is below the limit.
+     * 
+     * @param requestProducer
+     * @return
+     */
+    public ObservableHttp<ObservableHttpResponse> createRequest(final HttpAsyncRequestProducer requestProducer) {
+        final ObservableHttp<ObservableHttpResponse> request = ObservableHttp.createRequest(requestProducer, client);
+        return ObservableHttp.create(new OnSubscribeFunc<ObservableHttpResponse>() {
+
+            @Override
+            public Subscription onSubscribe(Observer<? super ObservableHttpResponse> observer) {
+                PendingRequest pending = new PendingRequest(host(requestProducer.getTarget()), request, observer);
+                pending.host.enqueue(pending);
+                return pending;
+            }
+        });
+    }
+
+    /**
+     * @return the metrics of the host or null if no request was made to it yet
+     */
+    public HostMetrics getMetrics(HttpHost target) {
+        Host host = hosts.get(target);
+        return host == null ? null : host.metrics;
+    }
+
+    /**
+     * @return the metrics of all hosts requests were made to so far
+     */
+    public Map<HttpHost, HostMetrics> getAllMetrics() {
+        Map<HttpHost, HostMetrics> all = new HashMap<HttpHost, HostMetrics>();
+        for (Host host : hosts.values()) {
+            all.put(host.target, host.metrics);
+        }
+        return Collections.unmodifiableMap(all);
+    }
+
+    private Host host(HttpHost target) {
+        Host host = hosts.get(target);
+        if (host == null) {
+            Host created = new Host(target);
+            host = hosts.putIfAbsent(target, created);
+            if (host == null) {
+                host = created;
+            }
+        }
+        return host;
+    }
+
+    /**
+     * The running and waiting requests of one host. Only guarded by its monitor for the few instructions it takes to
+     * hand a slot over, never while a request runs.
+     */
+    private final class Host {
+        final HttpHost target;
+        final HostMetrics metrics;
+        private final ArrayDeque<PendingRequest> waiting = new ArrayDeque<PendingRequest>();
+        private int running;
+
+        Host(HttpHost target) {
+            this.target = target;
+            this.metrics = new HostMetrics(this);
+        }
+
+        void enqueue(PendingRequest request) {
+            boolean full;
+            synchronized (this) {
+                full = running >= maxConcurrentPerHost && waiting.size() >= maxQueuedPerHost;
+                if (!full) {
+                    if (running >= maxConcurrentPerHost) {
+                        waiting.add(request);
+                        return;
+                    }
+                    running++;
+                }
+            }
+            // outside the lock, the observer may subscribe to another request right away
+            if (full) {
+                request.reject();
+            } else {
+                request.start();
+            }
+        }
+
+        /**
+         * Hands the slot of a finished request to the next waiting one.
+         */
+        void release() {
+            PendingRequest next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    running--;
+                }
+            }
+            if (next != null) {
+                next.start();
+            }
+        }
+
+        void remove(PendingRequest request) {
+            synchronized (this) {
+                waiting.remove(request);
+            }
+        }
+
+        synchronized int running() {
+            return running;
+        }
+
+        synchronized int waiting() {
+            return waiting.size();
+        }
+    }
+
+    private static final int WAITING = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    /**
+     * A subscription to a request, from when it is queued until it terminates or is unsubscribed.
+     */
+    private static final class PendingRequest implements Observer<ObservableHttpResponse>, Subscription {
+        final Host host;
+        final ObservableHttp<ObservableHttpResponse> request;
+        final Observer<? super ObservableHttpResponse> actual;
+        final MultipleAssignmentSubscription subscription = new MultipleAssignmentSubscription();
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        final long queuedNanos = System.nanoTime();
+        volatile long startedNanos;
+
+        PendingRequest(Host host, ObservableHttp<ObservableHttpResponse> request, Observer<? super ObservableHttpResponse> actual) {
+            this.host = host;
+            this.request = request;
+            this.actual = actual;
+        }
+
+        void reject() {
+            state.set(DONE);
+            host.metrics.rejected.incrementAndGet();
+            actual.onError(new RejectedExecutionException("Too many requests waiting for " + host.target));
+        }
+
+        void start() {
+            if (!state.compareAndSet(WAITING, RUNNING)) {
+                // unsubscribed while it was handed the slot
+                host.release();
+                return;
+            }
+            startedNanos = System.nanoTime();
+            host.metrics.started(startedNanos - queuedNanos);
+            subscription.set(request.toObservable().subscribe(this));
+        }
+
+        @Override
+        public void onNext(ObservableHttpResponse response) {
+            actual.onNext(response);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (finish()) {
+                host.metrics.failed.incrementAndGet();
+            }
+            actual.onError(e);
+        }
+
+        @Override
+        public void onCompleted() {
+            if (finish()) {
+                host.metrics.completed.incrementAndGet();
+            }
+            actual.onCompleted();
+        }
+
+        /**
+         * @return true if the request was running and this ended it
+         */
+        private boolean finish() {
+            if (state.compareAndSet(RUNNING, DONE)) {
+                host.metrics.responseTime(System.nanoTime() - startedNanos);
+                host.release();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void unsubscribe() {
+            if (state.compareAndSet(WAITING, DONE)) {
+                host.remove(this);
+                host.metrics.cancelled.incrementAndGet();
+            } else if (finish()) {
+                host.metrics.cancelled.incrementAndGet();
+            }
+            subscription.unsubscribe();
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return subscription.isUnsubscribed();
+        }
+    }
+
+    /**
+     * Counts and latencies of the requests to one host. Times are in milliseconds.
+     */
+    public static final class HostMetrics {
+        private final Host host;
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong cancelled = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong queueNanos = new AtomicLong();
+        private final AtomicLong responses = new AtomicLong();
+        private final AtomicLong responseNanos = new AtomicLong();
+        private final AtomicLong maxResponseNanos = new AtomicLong();
+
+        HostMetrics(Host host) {
+            this.host = host;
+        }
+
+        void started(long waitedNanos) {
+            started.incrementAndGet();
+            queueNanos.addAndGet(waitedNanos);
+        }
+
+        void responseTime(long nanos) {
+            responses.incrementAndGet();
+            responseNanos.addAndGet(nanos);
+            for (;;) {
+                long max = maxResponseNanos.get();
+                if (nanos <= max || maxResponseNanos.compareAndSet(max, nanos)) {
+                    return;
+                }
+            }
+        }
+
+        public HttpHost getTarget() {
+            return host.target;
+        }
+
+        /**
+         * @return the requests running right now
+         */
+        public int getRunning() {
+            return host.running();
+        }
+
+        /**
+         * @return the requests waiting for one of the running ones to end
+         */
+        public int getWaiting() {
+            return host.waiting();
+        }
+
+        public long getStarted() {
+            return started.get();
+        }
+
+        public long getCompleted() {
+            return completed.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        /**
+         * @return the requests unsubscribed before they terminated, whether they were running or waiting
+         */
+        public long getCancelled() {
+            return cancelled.get();
+        }
+
+        /**
+         * @return the requests that failed because the queue of the host was full
+         */
+        public long getRejected() {
+            return rejected.get();
+        }
+
+        /**
+         * @return the mean time from subscribing to a request until it was started
+         */
+        public double getMeanWaitTime() {
+            long n = started.get();
+            return n == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(queueNanos.get()) / 1000 / n;
+        }
+
+        /**
+         * @return the mean time from starting a request until it terminated, including reading the response
+         */
+        public double getMeanResponseTime() {
+            long n = responses.get();
+            return n == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(responseNanos.get()) / 1000 / n;
+        }
+
+        /**
+         * @return the longest time from starting a request until it terminated
+         */
+        public double getMaxResponseTime() {
+            return (double) TimeUnit.NANOSECONDS.toMicros(maxResponseNanos.get()) / 1000;
+        }
+
+        @Override
+        public String toString() {
+            return "HostMetrics[" + host.target + ", running=" + getRunning() + ", waiting=" + getWaiting() + ", completed=" + getCompleted()
+                    + ", failed=" + getFailed() + ", cancelled=" + getCancelled() + ", rejected=" + getRejected() + ", meanWait="
+                    + getMeanWaitTime() + "ms, meanResponse=" + getMeanResponseTime() + "ms, maxResponse=" + getMaxResponseTime() + "ms]";
+        }
+    }
+}
@@ -15,9 +15,12 @@
  */
 package rx.apache.http;
 
+import java.nio.ByteBuffer;
+
 import org.apache.http.HttpResponse;
 
 import rx.Observable;
+import rx.util.functions.Func1;
 
 /**
  * The {@link HttpResponse} for the entire request and accessor to {@link Observable} of the content stream.
@@ -26,10 +29,28 @@ public class ObservableHttpResponse {
 
     private final HttpResponse response;
     private final Observable<byte[]> contentSubscription;
+    private final Observable<ServerSentEvent> eventSubscription;
+    private final Observable<ByteBuffer> bufferSubscription;
 
     public ObservableHttpResponse(HttpResponse response, Observable<byte[]> contentSubscription) {
+        this(response, contentSubscription, Observable.<ServerSentEvent> empty());
+    }
+
+    public ObservableHttpResponse(HttpResponse response, Observable<byte[]> contentSubscription, Observable<ServerSentEvent> eventSubscription) {
+        this(response, contentSubscription, eventSubscription, contentSubscription.map(new Func1<byte[], ByteBuffer>() {
+
+            @Override
+            public ByteBuffer call(byte[] bytes) {
+                return ByteBuffer.wrap(bytes);
+            }
+        }));
+    }
+
+    public ObservableHttpResponse(HttpResponse response, Observable<byte[]> contentSubscription, Observable<ServerSentEvent> eventSubscription, Observable<ByteBuffer> bufferSubscription) {
         this.response = response;
         this.contentSubscription = contentSubscription;
+        this.eventSubscription = eventSubscription;
+        this.bufferSubscription = bufferSubscription;
     }
 
     /**
@@ -48,4 +69,22 @@ public class ObservableHttpResponse {
         return contentSubscription;
     }
 
+    /**
+     * The content as buffers. For a request created with
+     * {@link ObservableHttp#createStreamingRequest(org.apache.http.nio.protocol.HttpAsyncRequestProducer, org.apache.http.nio.client.HttpAsyncClient)}
+     * these are read-only views of a pooled buffer that is only valid until <code>onNext</code> returns; read or copy
+     * the bytes there rather than keeping the buffer. Otherwise each wraps the array emitted by {@link #getContent()}.
+     */
+    public Observable<ByteBuffer> getContentBuffers() {
+        return bufferSubscription;
+    }
+
+    /**
+     * If the response is streamed, such as with <i>text/event-stream</i>, the events parsed from its lines. Otherwise
+     * empty.
+     */
+    public Observable<ServerSentEvent> getEvents() {
+        return eventSubscription;
+    }
+
 }
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http;
+
+/**
+ * An event of a <i>text/event-stream</i> response as defined by <a href="http://www.w3.org/TR/eventsource/">Server-Sent Events</a>.
+ */
+public class ServerSentEvent {
+
+    private final String id;
+    private final String event;
+    private final String data;
+    private final long retry;
+
+    public ServerSentEvent(String id, String event, String data, long retry) {
+        this.id = id;
+        this.event = event;
+        this.data = data;
+        this.retry = retry;
+    }
+
+    /**
+     * @return the last event id sent in the stream up to this event, null if there was none
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the event type, "message" if the event had no <code>event</code> field
+     */
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * @return the <code>data</code> fields of the event joined by line feeds
+     */
+    public String getData() {
+        return data;
+    }
+
+    /**
+     * @return the reconnection time in milliseconds sent with the event, -1 if there was none
+     */
+    public long getRetry() {
+        return retry;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerSentEvent[id=" + id + ", event=" + event + ", data=" + data + (retry < 0 ? "" : ", retry=" + retry) + "]";
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http.consumers;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read buffers shared by all streamed responses, so streaming many responses does not allocate a buffer for each.
+ */
+final class ByteBufferPool {
+    static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_POOLED = 256;
+
+    private static final ConcurrentLinkedQueue<ByteBuffer> pool = new ConcurrentLinkedQueue<ByteBuffer>();
+    private static final AtomicInteger pooled = new AtomicInteger();
+
+    private ByteBufferPool() {
+    }
+
+    static ByteBuffer take() {
+        ByteBuffer b = pool.poll();
+        if (b == null) {
+            return ByteBuffer.allocate(BUFFER_SIZE);
+        }
+        pooled.decrementAndGet();
+        b.clear();
+        return b;
+    }
+
+    static void give(ByteBuffer b) {
+        if (pooled.incrementAndGet() <= MAX_POOLED) {
+            pool.offer(b);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+}
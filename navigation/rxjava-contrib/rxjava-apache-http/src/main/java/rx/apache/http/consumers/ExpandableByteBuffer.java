@@ -17,6 +17,7 @@ package rx.apache.http.consumers;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.apache.http.nio.util.ExpandableBuffer;
 import org.apache.http.nio.util.HeapByteBufferAllocator;
@@ -37,6 +38,36 @@ class ExpandableByteBuffer extends ExpandableBuffer {
         this.buffer.put(b);
     }
 
+    /**
+     * Copies the next bytes of a buffer in one bulk put.
+     */
+    public void addBytes(ByteBuffer src, int length) {
+        ensureCapacity(this.buffer.position() + length);
+        int limit = src.limit();
+        src.limit(src.position() + length);
+        this.buffer.put(src);
+        src.limit(limit);
+    }
+
+    public void addBytes(byte[] src, int offset, int length) {
+        ensureCapacity(this.buffer.position() + length);
+        this.buffer.put(src, offset, length);
+    }
+
+    /**
+     * @return the backing array, its content starts at index 0 and is {@link #size()} bytes long
+     */
+    public byte[] array() {
+        return this.buffer.array();
+    }
+
+    /**
+     * @return the number of bytes added since the last reset
+     */
+    public int size() {
+        return this.buffer.position();
+    }
+
     public boolean hasContent() {
         return this.buffer.position() > 0;
     }
@@ -54,9 +85,10 @@ class ExpandableByteBuffer extends ExpandableBuffer {
 
     public void consumeInputStream(InputStream content) throws IOException {
         try {
-            int b = -1;
-            while ((b = content.read()) != -1) {
-                addByte((byte) b);
+            byte[] chunk = new byte[4 * 1024];
+            int n;
+            while ((n = content.read(chunk)) != -1) {
+                addBytes(chunk, 0, n);
             }
         } finally {
             content.close();
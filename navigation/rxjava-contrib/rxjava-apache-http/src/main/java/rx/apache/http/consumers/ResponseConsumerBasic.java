@@ -16,6 +16,8 @@
 package rx.apache.http.consumers;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpException;
@@ -76,10 +78,8 @@ class ResponseConsumerBasic extends BasicAsyncResponseConsumer implements Respon
                 if (length > Integer.MAX_VALUE) {
                     o.onError(new IllegalStateException("Content Length too large for a byte[] => " + length));
                 } else {
-                    ExpandableByteBuffer buf = new ExpandableByteBuffer((int) length);
                     try {
-                        buf.consumeInputStream(response.getEntity().getContent());
-                        o.onNext(buf.getBytes());
+                        o.onNext(readContent(response.getEntity().getContent(), (int) length));
                         o.onCompleted();
                     } catch (Throwable e) {
                         o.onError(e);
@@ -94,6 +94,31 @@ class ResponseConsumerBasic extends BasicAsyncResponseConsumer implements Respon
         return response;
     }
 
+    /**
+     * Reads content of a known length straight into the emitted array, and otherwise collects it first.
+     */
+    static byte[] readContent(InputStream content, int length) throws IOException {
+        if (length < 0) {
+            ExpandableByteBuffer buf = new ExpandableByteBuffer();
+            buf.consumeInputStream(content);
+            return buf.getBytes();
+        }
+        try {
+            byte[] bytes = new byte[length];
+            int n = 0;
+            while (n < length) {
+                int read = content.read(bytes, n, length - n);
+                if (read < 0) {
+                    return Arrays.copyOf(bytes, n);
+                }
+                n += read;
+            }
+            return bytes;
+        } finally {
+            content.close();
+        }
+    }
+
     @Override
     public void _releaseResources() {
         releaseResources();
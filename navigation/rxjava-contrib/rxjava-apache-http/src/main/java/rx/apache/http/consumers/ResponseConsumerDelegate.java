@@ -36,24 +36,40 @@ import rx.subscriptions.CompositeSubscription;
  * <p>
  * <ul>
  * <li>Content-Type:text/event-stream == {@link ResponseConsumerEventStream}</li>
+ * <li>All others when streaming == {@link ResponseConsumerStream}</li>
+ * <li>Transfer-Encoding:chunked == {@link ResponseConsumerEventStream}</li>
  * <li>All others == {@link ResponseConsumerBasic}</li>
  * </ul>
  */
 public class ResponseConsumerDelegate extends AbstractAsyncResponseConsumer<HttpResponse> {
 
-    private volatile ResponseDelegate consumer = null;
+    volatile ResponseDelegate consumer = null;
     final Observer<? super ObservableHttpResponse> observer;
     final CompositeSubscription subscription;
+    final boolean streaming;
 
     public ResponseConsumerDelegate(final Observer<? super ObservableHttpResponse> observer, CompositeSubscription subscription) {
+        this(observer, subscription, false);
+    }
+
+    /**
+     * @param streaming
+     *            whether to stream content that is not an event stream rather than collect it
+     */
+    public ResponseConsumerDelegate(final Observer<? super ObservableHttpResponse> observer, CompositeSubscription subscription, boolean streaming) {
         this.observer = observer;
         this.subscription = subscription;
+        this.streaming = streaming;
     }
 
     @Override
     protected void onResponseReceived(HttpResponse response) throws HttpException, IOException {
         // when we receive the response with headers we evaluate what type of consumer we want
-        if (responseIsStreamLike(response)) {
+        if (responseIsEventStream(response)) {
+            consumer = new ResponseConsumerEventStream(observer, subscription);
+        } else if (streaming) {
+            consumer = new ResponseConsumerStream(observer, subscription);
+        } else if (responseIsChunked(response)) {
             consumer = new ResponseConsumerEventStream(observer, subscription);
         } else {
             consumer = new ResponseConsumerBasic(observer, subscription);
@@ -62,18 +78,16 @@ public class ResponseConsumerDelegate extends AbstractAsyncResponseConsumer<Http
         consumer._onResponseReceived(response);
     }
 
-    private boolean responseIsStreamLike(HttpResponse response) {
+    private boolean responseIsEventStream(HttpResponse response) {
         final Header contentType = response.getFirstHeader("Content-Type");
         // use 'contains' instead of equals since Content-Type can contain additional information
         // such as charset ... see here: http://www.w3.org/International/O-HTTP-charset
-        if (contentType != null && contentType.getValue().contains("text/event-stream")) {
-            return true;
-        }
+        return contentType != null && contentType.getValue().contains("text/event-stream");
+    }
+
+    private boolean responseIsChunked(HttpResponse response) {
         final Header transferEncoding = response.getFirstHeader("Transfer-Encoding");
-        if (transferEncoding != null && transferEncoding.getValue().equals("chunked")) {
-            return true;
-        }
-        return false;
+        return transferEncoding != null && transferEncoding.getValue().equals("chunked");
     }
 
     @Override
@@ -33,18 +33,26 @@ import rx.Observable.OnSubscribeFunc;
 import rx.Observer;
 import rx.Subscription;
 import rx.apache.http.ObservableHttpResponse;
+import rx.apache.http.ServerSentEvent;
 import rx.subjects.PublishSubject;
 import rx.subscriptions.CompositeSubscription;
+import rx.subscriptions.Subscriptions;
+import rx.util.functions.Action0;
 
 /**
  * {@link HttpAsyncResponseConsumer} for Content-Type:text/event-stream
  * <p>
- * It will emit a byte[] via {@link Observer#onNext} for each non-empty line.
+ * It will emit a byte[] via {@link Observer#onNext} for each non-empty line, and a {@link ServerSentEvent} for each
+ * event to the subscribers of {@link ObservableHttpResponse#getEvents()}.
+ * <p>
+ * Received bytes are scanned for line terminators and copied a line at a time rather than byte by byte.
  */
 class ResponseConsumerEventStream extends AsyncByteConsumer<HttpResponse> implements ResponseDelegate {
 
     private final Observer<? super ObservableHttpResponse> observer;
     private final PublishSubject<byte[]> contentSubject = PublishSubject.<byte[]> create();
+    private final PublishSubject<ServerSentEvent> eventSubject = PublishSubject.<ServerSentEvent> create();
+    private final ServerSentEventParser parser = new ServerSentEventParser(eventSubject);
     private final CompositeSubscription parentSubscription;
 
     public ResponseConsumerEventStream(final Observer<? super ObservableHttpResponse> observer, CompositeSubscription parentSubscription) {
@@ -53,6 +61,10 @@ class ResponseConsumerEventStream extends AsyncByteConsumer<HttpResponse> implem
     }
 
     final ExpandableByteBuffer dataBuffer = new ExpandableByteBuffer();
+    /** Whether the last line ended with a carriage return, so a line feed right after it ends no line. */
+    private boolean afterCarriageReturn;
+    /** Set once the response ended, so the end of one stream no longer cancels the other. */
+    private volatile boolean ended;
 
     @Override
     public void _onResponseReceived(HttpResponse response) throws HttpException, IOException {
@@ -64,17 +76,54 @@ class ResponseConsumerEventStream extends AsyncByteConsumer<HttpResponse> implem
         if (parentSubscription.isUnsubscribed()) {
             ioctrl.shutdown();
         }
-        while (buf.position() < buf.limit()) {
-            byte b = buf.get();
-            if (b == 10 || b == 13) {
-                if (dataBuffer.hasContent()) {
-                    contentSubject.onNext(dataBuffer.getBytes());
+        int limit = buf.limit();
+        while (buf.hasRemaining()) {
+            int start = buf.position();
+            if (afterCarriageReturn) {
+                afterCarriageReturn = false;
+                if (buf.get(start) == '\n') {
+                    buf.position(start + 1);
+                    continue;
+                }
+            }
+            int end = indexOfLineTerminator(buf, start, limit);
+            if (end < 0) {
+                dataBuffer.addBytes(buf, limit - start);
+                return;
+            }
+            dataBuffer.addBytes(buf, end - start);
+            afterCarriageReturn = buf.get(end) == '\r';
+            buf.position(end + 1);
+            onLine();
+        }
+    }
+
+    private static int indexOfLineTerminator(ByteBuffer buf, int from, int limit) {
+        if (buf.hasArray()) {
+            byte[] a = buf.array();
+            int offset = buf.arrayOffset();
+            for (int i = from + offset; i < limit + offset; i++) {
+                if (a[i] == '\n' || a[i] == '\r') {
+                    return i - offset;
                 }
-                dataBuffer.reset();
-            } else {
-                dataBuffer.addByte(b);
             }
+            return -1;
+        }
+        for (int i = from; i < limit; i++) {
+            byte b = buf.get(i);
+            if (b == '\n' || b == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void onLine() {
+        parser.line(dataBuffer.array(), dataBuffer.size());
+        if (dataBuffer.hasContent()) {
+            contentSubject.onNext(dataBuffer.getBytes());
         }
+        dataBuffer.reset();
     }
 
     @Override
@@ -85,16 +134,44 @@ class ResponseConsumerEventStream extends AsyncByteConsumer<HttpResponse> implem
 
             @Override
             public Subscription onSubscribe(Observer<? super byte[]> observer) {
-                parentSubscription.add(contentSubject.subscribe(observer));
-                return parentSubscription;
+                return chain(contentSubject.subscribe(observer));
+            }
+        });
+        Observable<ServerSentEvent> eventObservable = Observable.create(new OnSubscribeFunc<ServerSentEvent>() {
+
+            @Override
+            public Subscription onSubscribe(Observer<? super ServerSentEvent> observer) {
+                return chain(eventSubject.subscribe(observer));
+            }
+        });
+        observer.onNext(new ObservableHttpResponse(response, contentObservable, eventObservable));
+    }
+
+    /**
+     * Unsubscribing from the content or the events cancels the request unless the response already ended; the
+     * subscriber of one stream is unsubscribed when it completes, which must not cut off the other.
+     */
+    private Subscription chain(final Subscription s) {
+        parentSubscription.add(s);
+        return Subscriptions.create(new Action0() {
+
+            @Override
+            public void call() {
+                if (ended) {
+                    s.unsubscribe();
+                } else {
+                    parentSubscription.unsubscribe();
+                }
             }
         });
-        observer.onNext(new ObservableHttpResponse(response, contentObservable));
     }
 
     @Override
     protected HttpResponse buildResult(HttpContext context) throws Exception {
-        // streaming results, so not returning anything here
+        // the response ended, streaming results, so not returning anything here
+        ended = true;
+        contentSubject.onCompleted();
+        eventSubject.onCompleted();
         return null;
     }
 
@@ -0,0 +1,167 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http.consumers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+
+import rx.Observable;
+import rx.Observable.OnSubscribeFunc;
+import rx.Observer;
+import rx.Subscription;
+import rx.apache.http.ObservableHttpResponse;
+import rx.apache.http.ServerSentEvent;
+import rx.subjects.PublishSubject;
+import rx.subscriptions.CompositeSubscription;
+import rx.subscriptions.Subscriptions;
+import rx.util.functions.Action0;
+import rx.util.functions.Func1;
+
+/**
+ * {@link HttpAsyncResponseConsumer} that streams the content as it is read instead of collecting it.
+ * <p>
+ * The content is read from the {@link ContentDecoder} into a buffer taken from a pool and emitted via
+ * {@link Observer#onNext} to the subscribers of {@link ObservableHttpResponse#getContentBuffers()}. The buffer is read
+ * into again once <code>onNext</code> returns and goes back to the pool when the response ends, so a download of any
+ * size takes one buffer. {@link ObservableHttpResponse#getContent()} emits a copy of each read.
+ */
+class ResponseConsumerStream extends AbstractAsyncResponseConsumer<HttpResponse> implements ResponseDelegate {
+
+    private final Observer<? super ObservableHttpResponse> observer;
+    private final PublishSubject<ByteBuffer> contentSubject = PublishSubject.<ByteBuffer> create();
+    private final CompositeSubscription parentSubscription;
+    private HttpResponse response;
+    private ByteBuffer buffer;
+    /** Set once the response ended, so the end of one subscriber no longer cancels the others. */
+    private volatile boolean ended;
+
+    public ResponseConsumerStream(final Observer<? super ObservableHttpResponse> observer, CompositeSubscription parentSubscription) {
+        this.observer = observer;
+        this.parentSubscription = parentSubscription;
+    }
+
+    @Override
+    public void _onResponseReceived(HttpResponse response) throws HttpException, IOException {
+        onResponseReceived(response);
+    }
+
+    @Override
+    protected void onResponseReceived(HttpResponse response) throws HttpException, IOException {
+        this.response = response;
+
+        // wrap the contentSubject so we can chain the Subscription between parent and child
+        Observable<ByteBuffer> buffers = Observable.create(new OnSubscribeFunc<ByteBuffer>() {
+
+            @Override
+            public Subscription onSubscribe(Observer<? super ByteBuffer> observer) {
+                final Subscription s = contentSubject.subscribe(observer);
+                parentSubscription.add(s);
+                return Subscriptions.create(new Action0() {
+
+                    @Override
+                    public void call() {
+                        if (ended) {
+                            s.unsubscribe();
+                        } else {
+                            parentSubscription.unsubscribe();
+                        }
+                    }
+                });
+            }
+        });
+        Observable<byte[]> content = buffers.map(new Func1<ByteBuffer, byte[]>() {
+
+            @Override
+            public byte[] call(ByteBuffer b) {
+                byte[] bytes = new byte[b.remaining()];
+                // through a duplicate so other subscribers still see the whole buffer
+                b.duplicate().get(bytes);
+                return bytes;
+            }
+        });
+        observer.onNext(new ObservableHttpResponse(response, content, Observable.<ServerSentEvent> empty(), buffers));
+    }
+
+    @Override
+    public void _onContentReceived(ContentDecoder decoder, IOControl ioctrl) throws IOException {
+        onContentReceived(decoder, ioctrl);
+    }
+
+    @Override
+    protected void onContentReceived(ContentDecoder decoder, IOControl ioctrl) throws IOException {
+        if (parentSubscription.isUnsubscribed()) {
+            ioctrl.shutdown();
+            return;
+        }
+        if (buffer == null) {
+            buffer = ByteBufferPool.take();
+        }
+        for (;;) {
+            buffer.clear();
+            if (decoder.read(buffer) <= 0) {
+                return;
+            }
+            buffer.flip();
+            contentSubject.onNext(buffer.asReadOnlyBuffer());
+        }
+    }
+
+    @Override
+    public void _onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+        onEntityEnclosed(entity, contentType);
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+        // the content is read in onContentReceived
+    }
+
+    @Override
+    public HttpResponse _buildResult(HttpContext context) throws Exception {
+        return buildResult(context);
+    }
+
+    @Override
+    protected HttpResponse buildResult(HttpContext context) throws Exception {
+        ended = true;
+        contentSubject.onCompleted();
+        return response;
+    }
+
+    @Override
+    public void _releaseResources() {
+        releaseResources();
+    }
+
+    @Override
+    protected void releaseResources() {
+        if (buffer != null) {
+            ByteBufferPool.give(buffer);
+            buffer = null;
+        }
+    }
+
+}
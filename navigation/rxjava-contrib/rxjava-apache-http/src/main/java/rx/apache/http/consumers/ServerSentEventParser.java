@@ -0,0 +1,121 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http.consumers;
+
+import java.nio.charset.Charset;
+
+import rx.Observer;
+import rx.apache.http.ServerSentEvent;
+
+/**
+ * Collects the fields of the lines of a <i>text/event-stream</i> into {@link ServerSentEvent}s.
+ * <p>
+ * Field names are compared as bytes so only the values are decoded. An event is emitted at the blank line that ends it
+ * if it had data, and an event not ended by a blank line is dropped, as the specification requires.
+ */
+class ServerSentEventParser {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final byte[] DATA = { 'd', 'a', 't', 'a' };
+    private static final byte[] EVENT = { 'e', 'v', 'e', 'n', 't' };
+    private static final byte[] ID = { 'i', 'd' };
+    private static final byte[] RETRY = { 'r', 'e', 't', 'r', 'y' };
+
+    private final Observer<? super ServerSentEvent> observer;
+    private final StringBuilder data = new StringBuilder();
+    private boolean hasData;
+    private String event;
+    private String lastId;
+    private long retry = -1;
+
+    ServerSentEventParser(Observer<? super ServerSentEvent> observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * @param line
+     *            the bytes of the line without its terminator
+     * @param length
+     *            the number of bytes of the line, 0 for a blank line
+     */
+    void line(byte[] line, int length) {
+        if (length == 0) {
+            dispatch();
+            return;
+        }
+        if (line[0] == ':') {
+            // comment
+            return;
+        }
+        int colon = 0;
+        while (colon < length && line[colon] != ':') {
+            colon++;
+        }
+        int valueStart = colon + 1;
+        if (valueStart < length && line[valueStart] == ' ') {
+            valueStart++;
+        }
+        if (valueStart > length) {
+            valueStart = length;
+        }
+        if (is(DATA, line, colon)) {
+            if (hasData) {
+                data.append('\n');
+            }
+            data.append(new String(line, valueStart, length - valueStart, UTF_8));
+            hasData = true;
+        } else if (is(EVENT, line, colon)) {
+            event = new String(line, valueStart, length - valueStart, UTF_8);
+        } else if (is(ID, line, colon)) {
+            lastId = new String(line, valueStart, length - valueStart, UTF_8);
+        } else if (is(RETRY, line, colon)) {
+            if (valueStart == length) {
+                // no digits at all
+                return;
+            }
+            long r = 0;
+            for (int i = valueStart; i < length; i++) {
+                if (line[i] < '0' || line[i] > '9') {
+                    // ignored unless all digits
+                    return;
+                }
+                r = r * 10 + line[i] - '0';
+            }
+            retry = r;
+        }
+    }
+
+    private void dispatch() {
+        if (hasData) {
+            observer.onNext(new ServerSentEvent(lastId, event == null ? "message" : event, data.toString(), retry));
+        }
+        data.setLength(0);
+        hasData = false;
+        event = null;
+        retry = -1;
+    }
+
+    private static boolean is(byte[] field, byte[] line, int length) {
+        if (field.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (field[i] != line[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHost;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import rx.Subscriber;
+import rx.Subscription;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class ObservableHttpLimiterTest {
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private CloseableHttpAsyncClient client;
+    private HttpHost target;
+
+    /** Requests the server received. */
+    private final AtomicInteger received = new AtomicInteger();
+    /** Released once per request to <code>/slow</code> the server may answer. */
+    private final Semaphore answer = new Semaphore(0);
+    /** Released once per request to <code>/slow</code> the server received. */
+    private final Semaphore arrived = new Semaphore(0);
+
+    @Before
+    public void before() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/slow", new HttpHandler() {
+
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                received.incrementAndGet();
+                arrived.release();
+                answer.acquireUninterruptibly();
+                respond(exchange);
+            }
+        });
+        server.createContext("/fast", new HttpHandler() {
+
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                received.incrementAndGet();
+                respond(exchange);
+            }
+        });
+        server.createContext("/fail", new HttpHandler() {
+
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                received.incrementAndGet();
+                // drop the connection without an answer
+                exchange.close();
+            }
+        });
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.start();
+        target = new HttpHost("localhost", server.getAddress().getPort());
+
+        client = HttpAsyncClients.custom().setMaxConnPerRoute(10).setMaxConnTotal(10).build();
+        client.start();
+    }
+
+    @After
+    public void after() throws IOException {
+        answer.release(100);
+        client.close();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        byte[] body = "hello".getBytes("UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+    }
+
+    private Subscription request(ObservableHttpLimiter limiter, String path, Recorder recorder) {
+        return limiter.createGet(target.toURI() + path).toObservable().subscribe(recorder);
+    }
+
+    @Test(timeout = 10000)
+    public void testLimitsRunningRequestsPerHost() throws InterruptedException {
+        ObservableHttpLimiter limiter = new ObservableHttpLimiter(client, 2, 10);
+        Recorder[] recorders = new Recorder[5];
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new Recorder();
+            request(limiter, "/slow", recorders[i]);
+        }
+
+        arrived.acquire(2);
+        assertFalse(arrived.tryAcquire(200, TimeUnit.MILLISECONDS));
+        assertEquals(2, received.get());
+        assertEquals(2, limiter.getMetrics(target).getRunning());
+        assertEquals(3, limiter.getMetrics(target).getWaiting());
+
+        answer.release(5);
+        for (Recorder r : recorders) {
+            r.await();
+            assertNull(r.error);
+            assertEquals(1, r.responses);
+        }
+        assertEquals(5, received.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testRejectsWhenQueueIsFull() throws InterruptedException {
+        ObservableHttpLimiter limiter = new ObservableHttpLimiter(client, 1, 1);
+        Recorder running = new Recorder();
+        Recorder waiting = new Recorder();
+        Recorder rejected = new Recorder();
+        request(limiter, "/slow", running);
+        request(limiter, "/slow", waiting);
+        arrived.acquire();
+
+        // fails right away instead of blocking the subscribing thread
+        request(limiter, "/slow", rejected);
+        assertTrue(rejected.terminated.await(0, TimeUnit.MILLISECONDS));
+        assertTrue(rejected.error instanceof RejectedExecutionException);
+        assertEquals(1, limiter.getMetrics(target).getRejected());
+
+        answer.release(2);
+        running.await();
+        waiting.await();
+        assertNull(running.error);
+        assertNull(waiting.error);
+        assertEquals(2, received.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testUnsubscribeWaitingRequest() throws InterruptedException {
+        ObservableHttpLimiter limiter = new ObservableHttpLimiter(client, 1, 10);
+        Recorder running = new Recorder();
+        Recorder waiting = new Recorder();
+        request(limiter, "/slow", running);
+        Subscription s = request(limiter, "/fast", waiting);
+        arrived.acquire();
+
+        s.unsubscribe();
+        assertEquals(0, limiter.getMetrics(target).getWaiting());
+        assertEquals(1, limiter.getMetrics(target).getCancelled());
+
+        answer.release();
+        running.await();
+        assertEquals(0, limiter.getMetrics(target).getRunning());
+        // the cancelled request was never sent
+        assertEquals(1, received.get());
+        assertEquals(1, limiter.getMetrics(target).getStarted());
+    }
+
+    @Test(timeout = 10000)
+    public void testUnsubscribeRunningRequestStartsNext() throws InterruptedException {
+        ObservableHttpLimiter limiter = new ObservableHttpLimiter(client, 1, 10);
+        Recorder running = new Recorder();
+        Recorder waiting = new Recorder();
+        Subscription s = request(limiter, "/slow", running);
+        request(limiter, "/fast", waiting);
+        arrived.acquire();
+        assertEquals(1, limiter.getMetrics(target).getWaiting());
+
+        s.unsubscribe();
+        waiting.await();
+        assertNull(waiting.error);
+        assertEquals(1, waiting.responses);
+        assertEquals(1, limiter.getMetrics(target).getCancelled());
+        assertEquals(2, limiter.getMetrics(target).getStarted());
+    }
+
+    @Test(timeout = 10000)
+    public void testMetrics() throws InterruptedException {
+        ObservableHttpLimiter limiter = new ObservableHttpLimiter(client, 2, 10);
+        assertNull(limiter.getMetrics(target));
+
+        Recorder ok1 = new Recorder();
+        Recorder ok2 = new Recorder();
+        Recorder failed = new Recorder();
+        request(limiter, "/fast", ok1);
+        request(limiter, "/fast", ok2);
+        request(limiter, "/fail", failed);
+        ok1.await();
+        ok2.await();
+        failed.await();
+        assertNotNull(failed.error);
+
+        ObservableHttpLimiter.HostMetrics metrics = limiter.getMetrics(target);
+        assertEquals(target, metrics.getTarget());
+        assertEquals(3, metrics.getStarted());
+        assertEquals(2, metrics.getCompleted());
+        assertEquals(1, metrics.getFailed());
+        assertEquals(0, metrics.getCancelled());
+        assertEquals(0, metrics.getRejected());
+        assertEquals(0, metrics.getRunning());
+        assertEquals(0, metrics.getWaiting());
+        assertTrue(metrics.getMaxResponseTime() > 0);
+        assertTrue(metrics.getMaxResponseTime() >= metrics.getMeanResponseTime());
+        assertEquals(1, limiter.getAllMetrics().size());
+        assertSame(metrics, limiter.getAllMetrics().get(target));
+    }
+
+    private static final class Recorder extends Subscriber<ObservableHttpResponse> {
+        final CountDownLatch terminated = new CountDownLatch(1);
+        volatile int responses;
+        volatile Throwable error;
+
+        @Override
+        public void onNext(ObservableHttpResponse response) {
+            responses++;
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            error = e;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onCompleted() {
+            terminated.countDown();
+        }
+
+        void await() throws InterruptedException {
+            terminated.await();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http.consumers;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ByteBufferPoolTest {
+
+    @Test
+    public void testTakeReturnsClearedBuffer() {
+        ByteBuffer b = ByteBufferPool.take();
+        assertEquals(ByteBufferPool.BUFFER_SIZE, b.capacity());
+        b.put((byte) 1).flip();
+        ByteBufferPool.give(b);
+
+        ByteBuffer again = ByteBufferPool.take();
+        assertEquals(0, again.position());
+        assertEquals(again.capacity(), again.limit());
+        ByteBufferPool.give(again);
+    }
+
+    @Test
+    public void testReusesGivenBuffers() {
+        // empty the pool of what earlier tests left
+        List<ByteBuffer> taken = new ArrayList<ByteBuffer>();
+        for (int i = 0; i < 300; i++) {
+            taken.add(ByteBufferPool.take());
+        }
+        IdentityHashMap<ByteBuffer, Boolean> given = new IdentityHashMap<ByteBuffer, Boolean>();
+        for (ByteBuffer b : taken) {
+            given.put(b, true);
+            ByteBufferPool.give(b);
+        }
+
+        int reused = 0;
+        taken.clear();
+        for (int i = 0; i < 300; i++) {
+            ByteBuffer b = ByteBufferPool.take();
+            if (given.containsKey(b)) {
+                reused++;
+            }
+            taken.add(b);
+        }
+        // the pool keeps a bounded number, the rest are left to the garbage collector
+        assertEquals(256, reused);
+        for (ByteBuffer b : taken) {
+            ByteBufferPool.give(b);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http.consumers;
+
+import org.apache.http.nio.IOControl;
+
+/**
+ * Records whether the connection was shut down and otherwise does nothing.
+ */
+class NoopIOControl implements IOControl {
+    volatile boolean shutdown;
+
+    @Override
+    public void requestInput() {
+    }
+
+    @Override
+    public void suspendInput() {
+    }
+
+    @Override
+    public void requestOutput() {
+    }
+
+    @Override
+    public void suspendOutput() {
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+}
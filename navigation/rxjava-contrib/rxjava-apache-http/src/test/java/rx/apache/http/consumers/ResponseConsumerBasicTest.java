@@ -0,0 +1,93 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http.consumers;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class ResponseConsumerBasicTest {
+
+    private static byte[] bytes(int n) {
+        byte[] b = new byte[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = (byte) i;
+        }
+        return b;
+    }
+
+    @Test
+    public void testKnownLength() throws IOException {
+        Content content = new Content(bytes(100), 100);
+        assertArrayEquals(bytes(100), ResponseConsumerBasic.readContent(content, 100));
+        assertTrue(content.closed);
+    }
+
+    @Test
+    public void testKnownLengthInSmallReads() throws IOException {
+        Content content = new Content(bytes(100), 7);
+        assertArrayEquals(bytes(100), ResponseConsumerBasic.readContent(content, 100));
+        assertTrue(content.closed);
+    }
+
+    @Test
+    public void testShortRead() throws IOException {
+        // the stream ends before the announced length
+        Content content = new Content(bytes(60), 7);
+        assertArrayEquals(bytes(60), ResponseConsumerBasic.readContent(content, 100));
+        assertTrue(content.closed);
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        assertArrayEquals(new byte[0], ResponseConsumerBasic.readContent(new Content(new byte[0], 7), 0));
+        assertArrayEquals(new byte[0], ResponseConsumerBasic.readContent(new Content(new byte[0], 7), -1));
+    }
+
+    @Test
+    public void testUnknownLength() throws IOException {
+        Content content = new Content(bytes(10000), 1000);
+        assertArrayEquals(bytes(10000), ResponseConsumerBasic.readContent(content, -1));
+        assertTrue(content.closed);
+    }
+
+    /**
+     * Returns at most <code>readSize</code> bytes per read and records whether it was closed.
+     */
+    private static final class Content extends ByteArrayInputStream {
+        final int readSize;
+        boolean closed;
+
+        Content(byte[] bytes, int readSize) {
+            super(bytes);
+            this.readSize = readSize;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, readSize));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http.consumers;
+
+import static org.junit.Assert.*;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+import rx.apache.http.ObservableHttpResponse;
+import rx.observers.TestObserver;
+import rx.subscriptions.CompositeSubscription;
+
+public class ResponseConsumerDelegateTest {
+
+    private static ResponseDelegate route(boolean streaming, String header, String value) throws Exception {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        if (header != null) {
+            response.addHeader(header, value);
+        }
+        ResponseConsumerDelegate delegate = new ResponseConsumerDelegate(new TestObserver<ObservableHttpResponse>(), new CompositeSubscription(), streaming);
+        delegate.onResponseReceived(response);
+        return delegate.consumer;
+    }
+
+    @Test
+    public void testEventStream() throws Exception {
+        assertTrue(route(false, "Content-Type", "text/event-stream") instanceof ResponseConsumerEventStream);
+        assertTrue(route(false, "Content-Type", "text/event-stream; charset=UTF-8") instanceof ResponseConsumerEventStream);
+        // whether streaming or not
+        assertTrue(route(true, "Content-Type", "text/event-stream") instanceof ResponseConsumerEventStream);
+    }
+
+    @Test
+    public void testChunked() throws Exception {
+        assertTrue(route(false, "Transfer-Encoding", "chunked") instanceof ResponseConsumerEventStream);
+        // streamed as bytes rather than split into lines
+        assertTrue(route(true, "Transfer-Encoding", "chunked") instanceof ResponseConsumerStream);
+    }
+
+    @Test
+    public void testOther() throws Exception {
+        assertTrue(route(false, null, null) instanceof ResponseConsumerBasic);
+        assertTrue(route(false, "Content-Type", "application/json") instanceof ResponseConsumerBasic);
+        assertTrue(route(true, null, null) instanceof ResponseConsumerStream);
+        assertTrue(route(true, "Content-Type", "application/json") instanceof ResponseConsumerStream);
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http.consumers;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+import rx.apache.http.ObservableHttpResponse;
+import rx.apache.http.ServerSentEvent;
+import rx.observers.TestObserver;
+import rx.subscriptions.CompositeSubscription;
+
+public class ResponseConsumerEventStreamTest {
+
+    private static final String STREAM = ": comment\r\n"
+            + "id: 1\r\n"
+            + "event: update\r\n"
+            + "data: first\r\n"
+            + "data: second\r\n"
+            + "\r\n"
+            + "data: lf only\n"
+            + "\n"
+            + "retry: 100\r"
+            + "data: cr only\r"
+            + "\r"
+            + "data: not ended\r\n";
+
+    /**
+     * The consumer with subscribers to its response, content and events.
+     */
+    private static final class Harness {
+        final CompositeSubscription parentSubscription = new CompositeSubscription();
+        final TestObserver<ObservableHttpResponse> responses = new TestObserver<ObservableHttpResponse>();
+        final ResponseConsumerEventStream consumer = new ResponseConsumerEventStream(responses, parentSubscription);
+        final TestObserver<ServerSentEvent> events = new TestObserver<ServerSentEvent>();
+        final List<String> lines = new ArrayList<String>();
+        final TestObserver<byte[]> content = new TestObserver<byte[]>() {
+            @Override
+            public void onNext(byte[] t) {
+                lines.add(new String(t));
+            }
+        };
+        final NoopIOControl ioctrl = new NoopIOControl();
+
+        Harness() throws Exception {
+            consumer._onResponseReceived(new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK"));
+            ObservableHttpResponse response = responses.getOnNextEvents().get(0);
+            response.getEvents().subscribe(events);
+            response.getContent().subscribe(content);
+        }
+
+        void receive(byte[] bytes, int readSize) throws Exception {
+            for (int i = 0; i < bytes.length; i += readSize) {
+                // a larger array around the read so array offsets matter
+                int n = Math.min(readSize, bytes.length - i);
+                byte[] a = new byte[n + 4];
+                System.arraycopy(bytes, i, a, 2, n);
+                ByteBuffer buf = ByteBuffer.wrap(a, 2, n).slice();
+                consumer.onByteReceived(buf, ioctrl);
+                assertFalse(buf.hasRemaining());
+            }
+        }
+    }
+
+    private static Harness receive(int readSize) throws Exception {
+        Harness h = new Harness();
+        h.receive(STREAM.getBytes("UTF-8"), readSize);
+        return h;
+    }
+
+    private static void assertStream(Harness h) {
+        List<ServerSentEvent> events = h.events.getOnNextEvents();
+        assertEquals(3, events.size());
+        assertEquals("1", events.get(0).getId());
+        assertEquals("update", events.get(0).getEvent());
+        assertEquals("first\nsecond", events.get(0).getData());
+        assertEquals("lf only", events.get(1).getData());
+        assertEquals("message", events.get(1).getEvent());
+        assertEquals("cr only", events.get(2).getData());
+        assertEquals(100, events.get(2).getRetry());
+
+        // a CRLF is one terminator, so no empty lines appear between the non-empty ones
+        assertEquals(9, h.lines.size());
+        assertEquals(": comment", h.lines.get(0));
+        assertEquals("data: second", h.lines.get(4));
+        assertEquals("data: not ended", h.lines.get(8));
+    }
+
+    @Test
+    public void testOneByteReads() throws Exception {
+        assertStream(receive(1));
+    }
+
+    @Test
+    public void testThreeByteReads() throws Exception {
+        assertStream(receive(3));
+    }
+
+    @Test
+    public void testHundredByteReads() throws Exception {
+        assertStream(receive(100));
+    }
+
+    @Test
+    public void testSingleRead() throws Exception {
+        assertStream(receive(STREAM.length()));
+    }
+
+    @Test
+    public void testCarriageReturnLineFeedSplitAcrossReads() throws Exception {
+        Harness h = new Harness();
+        h.receive("data: a\r".getBytes("UTF-8"), 100);
+        h.receive("\n\r".getBytes("UTF-8"), 100);
+        h.receive("\ndata: b\r\n\r\n".getBytes("UTF-8"), 100);
+
+        List<ServerSentEvent> events = h.events.getOnNextEvents();
+        assertEquals(2, events.size());
+        assertEquals("a", events.get(0).getData());
+        assertEquals("b", events.get(1).getData());
+    }
+
+    @Test
+    public void testLineLongerThanRead() throws Exception {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            data.append((char) ('a' + i % 26));
+        }
+        Harness h = new Harness();
+        h.receive(("data: " + data + "\n\n").getBytes("UTF-8"), 7);
+        assertEquals(data.toString(), h.events.getOnNextEvents().get(0).getData());
+    }
+
+    @Test
+    public void testDirectBuffer() throws Exception {
+        Harness h = new Harness();
+        byte[] bytes = STREAM.getBytes("UTF-8");
+        ByteBuffer buf = ByteBuffer.allocateDirect(bytes.length);
+        buf.put(bytes).flip();
+        h.consumer.onByteReceived(buf, h.ioctrl);
+        assertStream(h);
+    }
+
+    @Test
+    public void testShutsDownWhenUnsubscribed() throws Exception {
+        Harness h = new Harness();
+        h.parentSubscription.unsubscribe();
+        h.receive("data: a\n\n".getBytes("UTF-8"), 100);
+        assertTrue(h.ioctrl.shutdown);
+    }
+
+    @Test
+    public void testCompletesAtEndOfResponse() throws Exception {
+        Harness h = receive(100);
+        h.consumer._buildResult(null);
+        // the content completing first must not unsubscribe the events
+        assertEquals(1, h.content.getOnCompletedEvents().size());
+        assertEquals(1, h.events.getOnCompletedEvents().size());
+        assertFalse(h.ioctrl.shutdown);
+    }
+}
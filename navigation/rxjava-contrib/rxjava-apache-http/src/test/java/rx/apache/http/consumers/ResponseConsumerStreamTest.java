@@ -0,0 +1,191 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http.consumers;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.nio.ContentDecoder;
+import org.junit.Test;
+
+import rx.apache.http.ObservableHttpResponse;
+import rx.observers.TestObserver;
+import rx.subscriptions.CompositeSubscription;
+
+public class ResponseConsumerStreamTest {
+
+    private final CompositeSubscription parentSubscription = new CompositeSubscription();
+    private final TestObserver<ObservableHttpResponse> responses = new TestObserver<ObservableHttpResponse>();
+    private final ResponseConsumerStream consumer = new ResponseConsumerStream(responses, parentSubscription);
+    private final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+    private final NoopIOControl ioctrl = new NoopIOControl();
+
+    private ObservableHttpResponse receiveResponse() throws Exception {
+        consumer._onResponseReceived(response);
+        assertEquals(1, responses.getOnNextEvents().size());
+        return responses.getOnNextEvents().get(0);
+    }
+
+    private static byte[] bytes(int n) {
+        byte[] b = new byte[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = (byte) i;
+        }
+        return b;
+    }
+
+    private static byte[] concat(List<byte[]> chunks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] c : chunks) {
+            out.write(c, 0, c.length);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testStreamsEachRead() throws Exception {
+        ObservableHttpResponse r = receiveResponse();
+        TestObserver<byte[]> content = new TestObserver<byte[]>();
+        r.getContent().subscribe(content);
+
+        byte[] body = bytes(10);
+        StubDecoder decoder = new StubDecoder(body, 3);
+        // the decoder has 4 bytes now, the rest arrives with a later callback
+        decoder.available = 4;
+        consumer._onContentReceived(decoder, ioctrl);
+        assertEquals(2, content.getOnNextEvents().size());
+        assertArrayEquals(new byte[] { 0, 1, 2 }, content.getOnNextEvents().get(0));
+        assertArrayEquals(new byte[] { 3 }, content.getOnNextEvents().get(1));
+
+        decoder.available = body.length;
+        consumer._onContentReceived(decoder, ioctrl);
+        assertArrayEquals(body, concat(content.getOnNextEvents()));
+        assertEquals(0, content.getOnCompletedEvents().size());
+
+        assertSame(response, consumer._buildResult(null));
+        assertEquals(1, content.getOnCompletedEvents().size());
+        consumer._releaseResources();
+    }
+
+    @Test
+    public void testContentLargerThanBuffer() throws Exception {
+        ObservableHttpResponse r = receiveResponse();
+        TestObserver<byte[]> content = new TestObserver<byte[]>();
+        r.getContent().subscribe(content);
+
+        byte[] body = bytes(3 * ByteBufferPool.BUFFER_SIZE + 5);
+        consumer._onContentReceived(new StubDecoder(body, Integer.MAX_VALUE), ioctrl);
+        assertEquals(4, content.getOnNextEvents().size());
+        assertArrayEquals(body, concat(content.getOnNextEvents()));
+        consumer._releaseResources();
+    }
+
+    @Test
+    public void testBuffersAreReadOnlyViews() throws Exception {
+        ObservableHttpResponse r = receiveResponse();
+        final List<Integer> sizes = new ArrayList<Integer>();
+        final List<Boolean> readOnly = new ArrayList<Boolean>();
+        r.getContentBuffers().subscribe(new TestObserver<ByteBuffer>() {
+            @Override
+            public void onNext(ByteBuffer b) {
+                sizes.add(b.remaining());
+                readOnly.add(b.isReadOnly());
+            }
+        });
+        TestObserver<byte[]> content = new TestObserver<byte[]>();
+        // subscribed after the buffers, so it only gets a full copy if they were not consumed
+        r.getContent().subscribe(content);
+
+        consumer._onContentReceived(new StubDecoder(bytes(5), 2), ioctrl);
+        assertEquals(3, sizes.size());
+        assertEquals(Integer.valueOf(2), sizes.get(0));
+        assertEquals(Integer.valueOf(1), sizes.get(2));
+        assertFalse(readOnly.contains(false));
+        assertArrayEquals(bytes(5), concat(content.getOnNextEvents()));
+        consumer._releaseResources();
+    }
+
+    @Test
+    public void testCompletesAllSubscribers() throws Exception {
+        ObservableHttpResponse r = receiveResponse();
+        TestObserver<ByteBuffer> buffers = new TestObserver<ByteBuffer>();
+        TestObserver<byte[]> content = new TestObserver<byte[]>();
+        r.getContentBuffers().subscribe(buffers);
+        r.getContent().subscribe(content);
+
+        consumer._onContentReceived(new StubDecoder(bytes(5), 5), ioctrl);
+        consumer._buildResult(null);
+        // the first one to complete must not unsubscribe the other
+        assertEquals(1, buffers.getOnCompletedEvents().size());
+        assertEquals(1, content.getOnCompletedEvents().size());
+        assertFalse(parentSubscription.isUnsubscribed());
+        consumer._releaseResources();
+    }
+
+    @Test
+    public void testUnsubscribeShutsDown() throws Exception {
+        ObservableHttpResponse r = receiveResponse();
+        TestObserver<byte[]> content = new TestObserver<byte[]>();
+        r.getContent().subscribe(content).unsubscribe();
+        assertTrue(parentSubscription.isUnsubscribed());
+
+        StubDecoder decoder = new StubDecoder(bytes(5), 5);
+        consumer._onContentReceived(decoder, ioctrl);
+        assertTrue(ioctrl.shutdown);
+        assertEquals(0, decoder.position);
+        assertEquals(0, content.getOnNextEvents().size());
+        consumer._releaseResources();
+    }
+
+    /**
+     * Hands out the bytes up to <code>available</code>, at most <code>readSize</code> of them per read.
+     */
+    static final class StubDecoder implements ContentDecoder {
+        final byte[] bytes;
+        final int readSize;
+        int available;
+        int position;
+
+        StubDecoder(byte[] bytes, int readSize) {
+            this.bytes = bytes;
+            this.readSize = readSize;
+            this.available = bytes.length;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (position == bytes.length) {
+                return -1;
+            }
+            int n = Math.min(Math.min(readSize, available - position), dst.remaining());
+            dst.put(bytes, position, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return position == bytes.length;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.apache.http.consumers;
+
+import static org.junit.Assert.*;
+
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+
+import org.junit.Test;
+
+import rx.apache.http.ServerSentEvent;
+import rx.observers.TestObserver;
+
+public class ServerSentEventParserTest {
+
+    private static List<ServerSentEvent> parse(String... lines) throws UnsupportedEncodingException {
+        TestObserver<ServerSentEvent> observer = new TestObserver<ServerSentEvent>();
+        ServerSentEventParser parser = new ServerSentEventParser(observer);
+        for (String line : lines) {
+            byte[] bytes = line.getBytes("UTF-8");
+            parser.line(bytes, bytes.length);
+        }
+        return observer.getOnNextEvents();
+    }
+
+    @Test
+    public void testEvent() throws UnsupportedEncodingException {
+        List<ServerSentEvent> events = parse("id: 1", "event: update", "data: hello", "");
+        assertEquals(1, events.size());
+        assertEquals("1", events.get(0).getId());
+        assertEquals("update", events.get(0).getEvent());
+        assertEquals("hello", events.get(0).getData());
+        assertEquals(-1, events.get(0).getRetry());
+    }
+
+    @Test
+    public void testDefaultsToMessage() throws UnsupportedEncodingException {
+        List<ServerSentEvent> events = parse("data:hello", "");
+        assertEquals("message", events.get(0).getEvent());
+        assertEquals("hello", events.get(0).getData());
+        assertNull(events.get(0).getId());
+    }
+
+    @Test
+    public void testMultiLineData() throws UnsupportedEncodingException {
+        List<ServerSentEvent> events = parse("data: first", "data:second", "data:  third", "");
+        assertEquals(1, events.size());
+        // only the one space after the colon is dropped
+        assertEquals("first\nsecond\n third", events.get(0).getData());
+    }
+
+    @Test
+    public void testCommentsAreIgnored() throws UnsupportedEncodingException {
+        List<ServerSentEvent> events = parse(": keep-alive", "data: a", ":data: b", "");
+        assertEquals(1, events.size());
+        assertEquals("a", events.get(0).getData());
+    }
+
+    @Test
+    public void testFieldWithoutColon() throws UnsupportedEncodingException {
+        // the whole line is the name and the value is empty
+        List<ServerSentEvent> events = parse("data", "data", "");
+        assertEquals(1, events.size());
+        assertEquals("\n", events.get(0).getData());
+
+        assertEquals(0, parse("event", "").size());
+    }
+
+    @Test
+    public void testUnknownFieldIsIgnored() throws UnsupportedEncodingException {
+        List<ServerSentEvent> events = parse("foo: bar", "data: a", "");
+        assertEquals(1, events.size());
+        assertEquals("a", events.get(0).getData());
+    }
+
+    @Test
+    public void testEventWithoutDataIsNotEmitted() throws UnsupportedEncodingException {
+        assertEquals(0, parse("event: update", "id: 1", "").size());
+    }
+
+    @Test
+    public void testEventNotEndedIsDropped() throws UnsupportedEncodingException {
+        List<ServerSentEvent> events = parse("data: a", "", "data: b");
+        assertEquals(1, events.size());
+        assertEquals("a", events.get(0).getData());
+    }
+
+    @Test
+    public void testIdCarriesOverToLaterEvents() throws UnsupportedEncodingException {
+        List<ServerSentEvent> events = parse("id: 7", "event: update", "data: a", "", "data: b", "");
+        assertEquals(2, events.size());
+        assertEquals("7", events.get(1).getId());
+        // but the event type does not
+        assertEquals("message", events.get(1).getEvent());
+    }
+
+    @Test
+    public void testRetry() throws UnsupportedEncodingException {
+        List<ServerSentEvent> events = parse("retry: 3000", "data: a", "", "data: b", "");
+        assertEquals(3000, events.get(0).getRetry());
+        assertEquals(-1, events.get(1).getRetry());
+    }
+
+    @Test
+    public void testRetryWithoutDigitsIsIgnored() throws UnsupportedEncodingException {
+        assertEquals(-1, parse("retry:", "data: a", "").get(0).getRetry());
+        assertEquals(-1, parse("retry", "data: a", "").get(0).getRetry());
+        assertEquals(-1, parse("retry: ", "data: a", "").get(0).getRetry());
+        assertEquals(-1, parse("retry: 10s", "data: a", "").get(0).getRetry());
+        // an invalid value leaves a valid one in place
+        assertEquals(5, parse("retry: 5", "retry: x", "data: a", "").get(0).getRetry());
+    }
+
+    @Test
+    public void testUtf8Values() throws UnsupportedEncodingException {
+        assertEquals("gr\u00fc\u00dfe \u20ac", parse("data: gr\u00fc\u00dfe \u20ac", "").get(0).getData());
+    }
+}
@@ -26,14 +26,15 @@ import rx.Scheduler.Inner;
 import rx.Subscriber;
 import rx.Subscription;
 import rx.schedulers.Schedulers;
-import rx.subjects.AsyncSubject;
 import rx.subjects.PublishSubject;
 import rx.subjects.Subject;
 import rx.subscriptions.SerialSubscription;
+import rx.util.async.operators.AsyncResult;
 import rx.util.async.operators.Functionals;
 import rx.util.async.operators.OperationDeferFuture;
 import rx.util.async.operators.OperationForEachFuture;
 import rx.util.async.operators.OperationFromFunctionals;
+import rx.util.async.operators.OperationFromFuture;
 import rx.util.async.operators.OperationStartFuture;
 import rx.util.functions.Action0;
 import rx.util.functions.Action1;
@@ -598,22 +599,12 @@ public final class Async {
         return new Func0<Observable<R>>() {
             @Override
             public Observable<R> call() {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                scheduler.schedule(new Action1<Inner>() {
+                return AsyncResult.create(new Func0<R>() {
                     @Override
-                    public void call(Inner inner) {
-                        R result;
-                        try {
-                            result = func.call();
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
+                    public R call() {
+                        return func.call();
                     }
-                });
-                return subject;
+                }, scheduler);
             }
         };
     }
@@ -655,22 +646,12 @@ public final class Async {
         return new Func1<T1, Observable<R>>() {
             @Override
             public Observable<R> call(final T1 t1) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                scheduler.schedule(new Action1<Inner>() {
+                return AsyncResult.create(new Func0<R>() {
                     @Override
-                    public void call(Inner inner) {
-                        R result;
-                        try {
-                            result = func.call(t1);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
+                    public R call() {
+                        return func.call(t1);
                     }
-                });
-                return subject;
+                }, scheduler);
             }
         };
     }
@@ -714,22 +695,12 @@ public final class Async {
         return new Func2<T1, T2, Observable<R>>() {
             @Override
             public Observable<R> call(final T1 t1, final T2 t2) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                scheduler.schedule(new Action1<Inner>() {
+                return AsyncResult.create(new Func0<R>() {
                     @Override
-                    public void call(Inner inner) {
-                        R result;
-                        try {
-                            result = func.call(t1, t2);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
+                    public R call() {
+                        return func.call(t1, t2);
                     }
-                });
-                return subject;
+                }, scheduler);
             }
         };
     }
@@ -775,22 +746,12 @@ public final class Async {
         return new Func3<T1, T2, T3, Observable<R>>() {
             @Override
             public Observable<R> call(final T1 t1, final T2 t2, final T3 t3) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                scheduler.schedule(new Action1<Inner>() {
+                return AsyncResult.create(new Func0<R>() {
                     @Override
-                    public void call(Inner inner) {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
+                    public R call() {
+                        return func.call(t1, t2, t3);
                     }
-                });
-                return subject;
+                }, scheduler);
             }
         };
     }
@@ -838,22 +799,12 @@ public final class Async {
         return new Func4<T1, T2, T3, T4, Observable<R>>() {
             @Override
             public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                scheduler.schedule(new Action1<Inner>() {
+                return AsyncResult.create(new Func0<R>() {
                     @Override
-                    public void call(Inner inner) {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
+                    public R call() {
+                        return func.call(t1, t2, t3, t4);
                     }
-                });
-                return subject;
+                }, scheduler);
             }
         };
     }
@@ -903,22 +854,12 @@ public final class Async {
         return new Func5<T1, T2, T3, T4, T5, Observable<R>>() {
             @Override
             public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4, final T5 t5) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                scheduler.schedule(new Action1<Inner>() {
+                return AsyncResult.create(new Func0<R>() {
                     @Override
-                    public void call(Inner inner) {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4, t5);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
+                    public R call() {
+                        return func.call(t1, t2, t3, t4, t5);
                     }
-                });
-                return subject;
+                }, scheduler);
             }
         };
     }
@@ -970,22 +911,12 @@ public final class Async {
         return new Func6<T1, T2, T3, T4, T5, T6, Observable<R>>() {
             @Override
             public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4, final T5 t5, final T6 t6) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                scheduler.schedule(new Action1<Inner>() {
+                return AsyncResult.create(new Func0<R>() {
                     @Override
-                    public void call(Inner inner) {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4, t5, t6);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
+                    public R call() {
+                        return func.call(t1, t2, t3, t4, t5, t6);
                     }
-                });
-                return subject;
+                }, scheduler);
             }
         };
     }
@@ -1039,22 +970,12 @@ public final class Async {
         return new Func7<T1, T2, T3, T4, T5, T6, T7, Observable<R>>() {
             @Override
             public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4, final T5 t5, final T6 t6, final T7 t7) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                scheduler.schedule(new Action1<Inner>() {
+                return AsyncResult.create(new Func0<R>() {
                     @Override
-                    public void call(Inner inner) {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4, t5, t6, t7);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
+                    public R call() {
+                        return func.call(t1, t2, t3, t4, t5, t6, t7);
                     }
-                });
-                return subject;
+                }, scheduler);
             }
         };
     }
@@ -1110,22 +1031,12 @@ public final class Async {
         return new Func8<T1, T2, T3, T4, T5, T6, T7, T8, Observable<R>>() {
             @Override
             public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4, final T5 t5, final T6 t6, final T7 t7, final T8 t8) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                scheduler.schedule(new Action1<Inner>() {
+                return AsyncResult.create(new Func0<R>() {
                     @Override
-                    public void call(Inner inner) {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4, t5, t6, t7, t8);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
+                    public R call() {
+                        return func.call(t1, t2, t3, t4, t5, t6, t7, t8);
                     }
-                });
-                return subject;
+                }, scheduler);
             }
         };
     }
@@ -1183,22 +1094,12 @@ public final class Async {
         return new Func9<T1, T2, T3, T4, T5, T6, T7, T8, T9, Observable<R>>() {
             @Override
             public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4, final T5 t5, final T6 t6, final T7 t7, final T8 t8, final T9 t9) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                scheduler.schedule(new Action1<Inner>() {
+                return AsyncResult.create(new Func0<R>() {
                     @Override
-                    public void call(Inner inner) {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4, t5, t6, t7, t8, t9);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
+                    public R call() {
+                        return func.call(t1, t2, t3, t4, t5, t6, t7, t8, t9);
                     }
-                });
-                return subject;
+                }, scheduler);
             }
         };
     }
@@ -1236,22 +1137,12 @@ public final class Async {
         return new FuncN<Observable<R>>() {
             @Override
             public Observable<R> call(final Object... args) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                scheduler.schedule(new Action1<Inner>() {
+                return AsyncResult.create(new Func0<R>() {
                     @Override
-                    public void call(Inner inner) {
-                        R result;
-                        try {
-                            result = func.call(args);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
+                    public R call() {
+                        return func.call(args);
                     }
-                });
-                return subject;
+                }, scheduler);
             }
         };
     }
@@ -1349,14 +1240,18 @@ public final class Async {
     
     /**
      * Invokes the asynchronous function immediately, surfacing the result
-     * through an Observable and waits on the specified scheduler.
+     * through an Observable and checks its completion on the specified scheduler.
+     * <p>
+     * The Future is polled as with {@link #fromFuture(java.util.concurrent.Future, rx.Scheduler)},
+     * so no thread of the scheduler waits while it is outstanding. Unsubscribing
+     * before it is done cancels it with interruption.
      * <p>
      * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/startFuture.s.png">
      *
      * @param <T> the result type
      * @param functionAsync the asynchronous function to run
      * @param scheduler the scheduler where the completion of the Future is
-     *                  awaited
+     *                  checked
      * @return an Observable that surfaces the result of the future
      * @see <a href="https://github.com/Netflix/RxJava/wiki/Async-Operators#startfuture">RxJava Wiki: startFuture()</a>
      */
@@ -1396,7 +1291,7 @@ public final class Async {
      * @param observableFactoryAsync the asynchronous function to start for each
      *                               observer
      * @param scheduler the scheduler where the completion of the Future is
-     *                  awaited
+     *                  checked without waiting for it
      * @return the Observable emitting items produced by the asynchronous
      *         observer produced by the factory
      * @see <a href="https://github.com/Netflix/RxJava/wiki/Async-Operators#deferfuture">RxJava Wiki: deferFuture()</a>
@@ -1562,6 +1457,34 @@ public final class Async {
         return task;
     }
     
+    /**
+     * Subscribes to the given source and calls the callback for each emitted
+     * item on several workers at once, and surfaces the completion or error
+     * through a Future.
+     * <p>
+     * The items are handed to the workers through bounded queues, and the
+     * source waits while all of them are full. The returned Future completes
+     * by itself once every item has been processed, it does not have to be
+     * run.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element, called
+     *               concurrently
+     * @param parallelism the number of workers
+     * @param scheduler the scheduler to run the workers on, it has to run
+     *                  them on threads other than the source's
+     * @return the Future representing the entire for-each operation
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Async-Operators#foreachfuture">RxJava Wiki: forEachFuture()</a>
+     */
+    public static <T> FutureTask<Void> forEachFuture(
+            Observable<? extends T> source,
+            Action1<? super T> onNext,
+            int parallelism,
+            Scheduler scheduler) {
+        return OperationForEachFuture.forEachFuture(source, onNext, parallelism, scheduler);
+    }
+    
     /**
      * Return an Observable that calls the given action and emits the given
      * result when an Observer subscribes.
@@ -1684,6 +1607,8 @@ public final class Async {
      * result or Exception when an Observer subscribes.
      * <p>
      * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/fromCallable.s.png">
+     * <p>
+     * Unsubscribing while the callable runs interrupts the thread running it.
      * 
      * @param <R> the return type
      * @param callable the callable to call on each subscription
@@ -1696,7 +1621,52 @@ public final class Async {
      * @see <a href="https://github.com/Netflix/RxJava/wiki/Async-Operators#fromcallable">RxJava Wiki: fromCallable()</a>
      */
     public static <R> Observable<R> fromCallable(Callable<? extends R> callable, Scheduler scheduler) {
-        return Observable.create(OperationFromFunctionals.fromCallable(callable)).subscribeOn(scheduler);
+        return OperationFromFuture.fromCallable(callable, scheduler);
+    }
+
+    /**
+     * Return an Observable that emits the result of the Future when its
+     * completion hook runs the callback, without blocking a thread meanwhile.
+     * <p>
+     * For a listenable future the hook is typically
+     * {@code future.addListener(callback, executor)}. Unsubscribing before the
+     * Future is done cancels it with interruption.
+     *
+     * @param <R> the result type
+     * @param future the Future to observe
+     * @param onCompletion registers the callback to run when the Future is
+     *                     done, once for each Observer
+     * @return an Observable that emits the result of the Future or the
+     *         exception it failed with
+     * @see #fromFuture(java.util.concurrent.Future, rx.Scheduler)
+     */
+    public static <R> Observable<R> fromFuture(Future<? extends R> future, Action1<? super Runnable> onCompletion) {
+        return OperationFromFuture.fromFuture(future, onCompletion);
+    }
+
+    /**
+     * Return an Observable that emits the result of the Future, checking
+     * whether it is done on the scheduler instead of blocking one of its
+     * threads in {@code Future.get()}.
+     * <p>
+     * The checks start 1 ms apart and back off to 8 ms, so the result may be
+     * emitted up to 8 ms after the Future is done, and each outstanding
+     * Future schedules a check at that interval. Use
+     * {@link #fromFuture(java.util.concurrent.Future, rx.util.functions.Action1)}
+     * when the Future has a completion hook.
+     * <p>
+     * Unsubscribing before the Future is done cancels it with interruption.
+     *
+     * @param <R> the result type
+     * @param future the Future to observe
+     * @param scheduler the scheduler where the Future is checked and its
+     *                  result is emitted
+     * @return an Observable that emits the result of the Future or the
+     *         exception it failed with
+     * @see #fromFuture(java.util.concurrent.Future, rx.util.functions.Action1)
+     */
+    public static <R> Observable<R> fromFuture(Future<? extends R> future, Scheduler scheduler) {
+        return OperationFromFuture.fromFuture(future, scheduler);
     }
     
     /**
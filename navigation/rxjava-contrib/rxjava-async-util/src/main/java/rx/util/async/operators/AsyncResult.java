@@ -0,0 +1,180 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Scheduler.Inner;
+import rx.Subscriber;
+import rx.schedulers.ImmediateScheduler;
+import rx.subscriptions.Subscriptions;
+import rx.util.functions.Action0;
+import rx.util.functions.Action1;
+import rx.util.functions.Func0;
+
+/**
+ * Observable of the single result of a function called once on a scheduler, replayed to every subscriber like an
+ * {@link rx.subjects.AsyncSubject} but without its general subject machinery.
+ * <p>
+ * The pending subscribers are kept in a copy-on-write array that is swapped for a terminal marker exactly once, when
+ * the function returns or throws. The Observable is itself the scheduled task, so starting a call allocates the
+ * Observable and its state only. With the {@link ImmediateScheduler} the function is called right away without
+ * scheduling.
+ * 
+ * @param <T> the result type
+ */
+public final class AsyncResult<T> extends Observable<T> implements Action1<Inner> {
+    private final State<T> state;
+
+    /**
+     * Calls the function on the scheduler and returns an Observable of its result.
+     * 
+     * @param <T> the result type
+     * @param func the function to call
+     * @param scheduler the scheduler to call the function on
+     * @return the Observable that emits the value returned by the function or the exception it threw
+     */
+    public static <T> AsyncResult<T> create(Func0<? extends T> func, Scheduler scheduler) {
+        AsyncResult<T> result = new AsyncResult<T>(new State<T>(func));
+        if (scheduler instanceof ImmediateScheduler) {
+            result.state.run();
+        } else {
+            scheduler.schedule(result);
+        }
+        return result;
+    }
+
+    private AsyncResult(State<T> state) {
+        super(state);
+        this.state = state;
+    }
+
+    @Override
+    public void call(Inner inner) {
+        state.run();
+    }
+
+    /**
+     * @param <T> the result type
+     */
+    private static final class State<T> implements OnSubscribe<T> {
+        @SuppressWarnings("rawtypes")
+        static final Subscriber[] EMPTY = new Subscriber[0];
+        @SuppressWarnings("rawtypes")
+        static final Subscriber[] DONE = new Subscriber[0];
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<State, Subscriber[]> SUBSCRIBERS_UPDATER
+                = AtomicReferenceFieldUpdater.newUpdater(State.class, Subscriber[].class, "subscribers");
+
+        /** Cleared once called so the function can be collected while the result is kept. */
+        Func0<? extends T> func;
+        /** Written before subscribers becomes DONE and read after seeing DONE. */
+        T value;
+        Throwable error;
+        volatile Subscriber<? super T>[] subscribers;
+
+        @SuppressWarnings("unchecked")
+        State(Func0<? extends T> func) {
+            this.func = func;
+            this.subscribers = EMPTY;
+        }
+
+        void run() {
+            Func0<? extends T> f = func;
+            func = null;
+            try {
+                value = f.call();
+            } catch (Throwable t) {
+                error = t;
+            }
+            @SuppressWarnings("unchecked")
+            Subscriber<? super T>[] pending = SUBSCRIBERS_UPDATER.getAndSet(this, DONE);
+            for (Subscriber<? super T> s : pending) {
+                emit(s);
+            }
+        }
+
+        @Override
+        public void call(final Subscriber<? super T> child) {
+            for (;;) {
+                Subscriber<? super T>[] current = subscribers;
+                if (current == DONE) {
+                    emit(child);
+                    return;
+                }
+                int n = current.length;
+                @SuppressWarnings("unchecked")
+                Subscriber<? super T>[] next = new Subscriber[n + 1];
+                System.arraycopy(current, 0, next, 0, n);
+                next[n] = child;
+                if (SUBSCRIBERS_UPDATER.compareAndSet(this, current, next)) {
+                    child.add(Subscriptions.create(new Action0() {
+
+                        @Override
+                        public void call() {
+                            remove(child);
+                        }
+                    }));
+                    return;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void remove(Subscriber<? super T> child) {
+            for (;;) {
+                Subscriber<? super T>[] current = subscribers;
+                int n = current.length;
+                int j = -1;
+                for (int i = 0; i < n; i++) {
+                    if (current[i] == child) {
+                        j = i;
+                        break;
+                    }
+                }
+                if (j < 0) {
+                    // not pending, or the result has been emitted already
+                    return;
+                }
+                Subscriber<? super T>[] next;
+                if (n == 1) {
+                    next = EMPTY;
+                } else {
+                    next = new Subscriber[n - 1];
+                    System.arraycopy(current, 0, next, 0, j);
+                    System.arraycopy(current, j + 1, next, j, n - j - 1);
+                }
+                if (SUBSCRIBERS_UPDATER.compareAndSet(this, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        void emit(Subscriber<? super T> child) {
+            if (child.isUnsubscribed()) {
+                return;
+            }
+            if (error != null) {
+                child.onError(error);
+            } else {
+                child.onNext(value);
+                child.onCompleted();
+            }
+        }
+    }
+}
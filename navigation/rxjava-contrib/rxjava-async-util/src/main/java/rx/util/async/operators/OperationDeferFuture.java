@@ -59,7 +59,7 @@ public final class OperationDeferFuture {
      * factory function whenever a new observer subscribes.
      * @param <T> the result type
      * @param observableFactoryAsync the asynchronous function to start for each observer
-     * @param scheduler the scheduler where the completion of the Future is awaited
+     * @param scheduler the scheduler where the completion of the Future is checked
      * @return the observable sequence containing values produced by the asynchronous observer
      * produced by the factory
      */
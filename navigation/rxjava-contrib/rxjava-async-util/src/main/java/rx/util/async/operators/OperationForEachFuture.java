@@ -15,10 +15,16 @@
  */
 package rx.util.async.operators;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import rx.Observable;
+import rx.Scheduler;
+import rx.Scheduler.Inner;
+import rx.Subscriber;
 import rx.Subscription;
 import rx.util.Exceptions;
 import rx.util.functions.Action0;
@@ -87,6 +93,194 @@ public final class OperationForEachFuture {
         
         return task;
     }
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item on up to
+     * <code>parallelism</code> workers running on the scheduler, and surfaces the completion
+     * or error through a Future.
+     * <p>
+     * Each worker has a bounded queue that the items are handed to round-robin, skipping full
+     * queues. When every queue is full the emitting thread blocks until a worker catches up,
+     * so the scheduler has to run the workers on threads other than the one of the source.
+     * <p>
+     * The returned Future completes by itself once the source completed and every item has
+     * been processed, running it has no effect. The first exception thrown by the callback or
+     * emitted by the source fails the Future, unsubscribes the source and drops the items
+     * still queued.
+     * @param <T> the element type of the Observable
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element, concurrently from several workers
+     * @param parallelism the number of workers
+     * @param scheduler the scheduler to run the workers on
+     * @return the Future representing the entire for-each operation
+     */
+    public static <T> FutureTask<Void> forEachFuture(
+            Observable<? extends T> source,
+            Action1<? super T> onNext,
+            int parallelism,
+            Scheduler scheduler) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism > 0 required but it was " + parallelism);
+        }
+        ParallelForEach<T> parent = new ParallelForEach<T>(onNext, parallelism, scheduler);
+        source.subscribe(parent);
+        return parent.future;
+    }
+
+    /**
+     * Hands the items to the workers and counts the ones not yet processed, plus one for the
+     * source until it completes.
+     * @param <T> the element type
+     */
+    private static final class ParallelForEach<T> extends Subscriber<T> {
+        /** Items each worker may have queued before the source has to wait. */
+        static final int QUEUE_CAPACITY = 128;
+        /** Stands in for null items which the queues do not accept. */
+        static final Object NULL = new Object();
+
+        final Action1<? super T> onNext;
+        final Scheduler scheduler;
+        final Worker[] workers;
+        final AtomicLong pending = new AtomicLong(1);
+        final AtomicInteger once = new AtomicInteger();
+        final ParallelFuture future = new ParallelFuture();
+        volatile boolean stopped;
+        /** Only accessed from onNext, which is not called concurrently. */
+        int next;
+
+        @SuppressWarnings("unchecked")
+        ParallelForEach(Action1<? super T> onNext, int parallelism, Scheduler scheduler) {
+            this.onNext = onNext;
+            this.scheduler = scheduler;
+            this.workers = new ParallelForEach.Worker[parallelism];
+            for (int i = 0; i < parallelism; i++) {
+                workers[i] = new Worker();
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (stopped) {
+                return;
+            }
+            Object v = t == null ? NULL : t;
+            pending.incrementAndGet();
+            int n = workers.length;
+            int start = next;
+            next = start + 1 == n ? 0 : start + 1;
+            try {
+                for (int i = 0; i < n; i++) {
+                    int j = start + i;
+                    if (workers[j < n ? j : j - n].offer(v)) {
+                        return;
+                    }
+                }
+                workers[start].put(v);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            fail(e);
+        }
+
+        @Override
+        public void onCompleted() {
+            processed();
+        }
+
+        void processed() {
+            if (pending.decrementAndGet() == 0 && once.compareAndSet(0, 1)) {
+                future.complete();
+            }
+        }
+
+        void fail(Throwable e) {
+            stopped = true;
+            if (once.compareAndSet(0, 1)) {
+                future.fail(e);
+            }
+            unsubscribe();
+        }
+
+        /** Runs the action for the items of one queue, scheduled whenever the queue becomes non-empty. */
+        final class Worker implements Action1<Inner> {
+            final ArrayBlockingQueue<Object> queue = new ArrayBlockingQueue<Object>(QUEUE_CAPACITY);
+            /** The number of items put and not yet processed. */
+            final AtomicInteger wip = new AtomicInteger();
+
+            boolean offer(Object v) {
+                if (queue.offer(v)) {
+                    added();
+                    return true;
+                }
+                return false;
+            }
+
+            void put(Object v) throws InterruptedException {
+                queue.put(v);
+                added();
+            }
+
+            void added() {
+                if (wip.getAndIncrement() == 0) {
+                    scheduler.schedule(this);
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public void call(Inner inner) {
+                do {
+                    Object v = queue.poll();
+                    // after a failure keep polling so a waiting source is released
+                    if (!stopped) {
+                        try {
+                            onNext.call(v == NULL ? null : (T) v);
+                        } catch (Throwable e) {
+                            fail(e);
+                        }
+                    }
+                    processed();
+                } while (wip.decrementAndGet() != 0);
+            }
+        }
+
+        /** Completed by the for-each instead of by running it; cancelling stops the for-each. */
+        final class ParallelFuture extends FutureTask<Void> {
+            ParallelFuture() {
+                super(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        return null;
+                    }
+                });
+            }
+
+            @Override
+            public void run() {
+                // completes when the items have been processed
+            }
+
+            void complete() {
+                set(null);
+            }
+
+            void fail(Throwable e) {
+                setException(e);
+            }
+
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                stopped = true;
+                unsubscribe();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        }
+    }
+
     /**
      * A future task that unsubscribes the given subscription when cancelled.
      * @param <T> the return value type
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.Observable.OnSubscribe;
+import rx.Scheduler;
+import rx.Scheduler.Inner;
+import rx.Subscriber;
+import rx.subscriptions.Subscriptions;
+import rx.util.functions.Action1;
+
+/**
+ * Observe the result of a Future without blocking a thread until it completes.
+ * <p>
+ * Unlike {@link Observable#from(Future, Scheduler)}, which waits in <code>Future.get()</code> on a thread of the
+ * scheduler, the result is emitted from a completion callback or found by polling on the scheduler. Unsubscribing
+ * cancels the Future and interrupts the work if it is running.
+ */
+public final class OperationFromFuture {
+    /** Utility class. */
+    private OperationFromFuture() { throw new IllegalStateException("No instances!"); }
+
+    /** The longest time between two checks of a polled Future. */
+    static final long MAX_POLL_INTERVAL_MILLIS = 8;
+
+    /**
+     * Emits the result of the Future once the completion hook runs the given callback.
+     * <p>
+     * The hook registers the callback with the Future, such as <code>future.addListener(callback, executor)</code>
+     * of a listenable future, and may run it right away when the Future is already done. The result is emitted on
+     * the thread that runs the callback.
+     * @param <T> the result type
+     * @param future the Future to observe, cancelled when a subscriber unsubscribes before it is done
+     * @param onCompletion registers the callback to run when the Future is done, once for each subscriber
+     * @return the Observable emitting the result of the Future or the exception it failed with
+     */
+    public static <T> Observable<T> fromFuture(final Future<? extends T> future, final Action1<? super Runnable> onCompletion) {
+        return Observable.create(new OnSubscribe<T>() {
+            @Override
+            public void call(final Subscriber<? super T> child) {
+                child.add(Subscriptions.from(future));
+                onCompletion.call(new Runnable() {
+                    @Override
+                    public void run() {
+                        emit(future, child);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Emits the result of the Future, checking whether it is done on the scheduler.
+     * <p>
+     * The checks start 1 ms apart and back off to {@value #MAX_POLL_INTERVAL_MILLIS} ms, so an outstanding Future
+     * takes no thread between the checks but its result may be emitted up to that long after it is done. Prefer
+     * {@link #fromFuture(Future, Action1)} when the Future offers a completion hook.
+     * @param <T> the result type
+     * @param future the Future to observe, cancelled when a subscriber unsubscribes before it is done
+     * @param scheduler the scheduler to check the Future and emit its result on
+     * @return the Observable emitting the result of the Future or the exception it failed with
+     */
+    public static <T> Observable<T> fromFuture(final Future<? extends T> future, final Scheduler scheduler) {
+        return Observable.create(new OnSubscribe<T>() {
+            @Override
+            public void call(Subscriber<? super T> child) {
+                child.add(Subscriptions.from(future));
+                child.add(scheduler.schedule(new PollFuture<T>(future, child)));
+            }
+        });
+    }
+
+    /**
+     * Calls the Callable on the scheduler for each subscriber and emits its result or exception.
+     * <p>
+     * Unsubscribing while the Callable runs interrupts the thread running it.
+     * @param <T> the result type
+     * @param callable the Callable to call
+     * @param scheduler the scheduler to call the Callable and emit its result on
+     * @return the Observable emitting the result of the Callable or the exception it threw
+     */
+    public static <T> Observable<T> fromCallable(final Callable<? extends T> callable, final Scheduler scheduler) {
+        return Observable.create(new OnSubscribe<T>() {
+            @Override
+            public void call(final Subscriber<? super T> child) {
+                // only ever reads a T from the Callable
+                @SuppressWarnings("unchecked")
+                final FutureTask<T> task = new FutureTask<T>((Callable<T>) callable) {
+                    @Override
+                    protected void done() {
+                        emit(this, child);
+                    }
+                };
+                child.add(Subscriptions.from(task));
+                child.add(scheduler.schedule(new Action1<Inner>() {
+                    @Override
+                    public void call(Inner inner) {
+                        task.run();
+                    }
+                }));
+            }
+        });
+    }
+
+    /** Emits the result of a done Future unless the subscriber is gone. */
+    static <T> void emit(Future<? extends T> future, Subscriber<? super T> child) {
+        if (child.isUnsubscribed()) {
+            return;
+        }
+        T value;
+        try {
+            value = future.get();
+        } catch (ExecutionException e) {
+            child.onError(e.getCause());
+            return;
+        } catch (Throwable e) {
+            // cancelled by someone else or interrupted
+            child.onError(e);
+            return;
+        }
+        child.onNext(value);
+        child.onCompleted();
+    }
+
+    /** Checks a Future and reschedules itself with a growing delay until it is done. */
+    private static final class PollFuture<T> implements Action1<Inner> {
+        final Future<? extends T> future;
+        final Subscriber<? super T> child;
+        long delayMillis = 1;
+
+        PollFuture(Future<? extends T> future, Subscriber<? super T> child) {
+            this.future = future;
+            this.child = child;
+        }
+
+        @Override
+        public void call(Inner inner) {
+            if (child.isUnsubscribed()) {
+                return;
+            }
+            if (future.isDone()) {
+                emit(future, child);
+                return;
+            }
+            inner.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+            delayMillis = Math.min(delayMillis * 2, MAX_POLL_INTERVAL_MILLIS);
+        }
+    }
+}
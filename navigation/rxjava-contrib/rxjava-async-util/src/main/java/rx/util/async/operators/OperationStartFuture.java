@@ -64,9 +64,13 @@ public final class OperationStartFuture {
     /**
      * Invokes the asynchronous function, surfacing the result through an observable sequence
      * running on the given scheduler.
+     * <p>
+     * The Future is polled on the scheduler as with {@link OperationFromFuture#fromFuture(Future, Scheduler)},
+     * so no thread of the scheduler waits while it is outstanding, and unsubscribing before it is done
+     * cancels it.
      * @param <T> the result type
      * @param functionAsync the asynchronous function to run
-     * @param scheduler the scheduler where the completion of the Future is awaited
+     * @param scheduler the scheduler where the completion of the Future is checked
      * @return the observable
      */
     public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync,
@@ -77,6 +81,6 @@ public final class OperationStartFuture {
         } catch (Throwable t) {
             return Observable.error(t);
         }
-        return Observable.from(task, scheduler);
+        return OperationFromFuture.fromFuture(task, scheduler);
     }
 }
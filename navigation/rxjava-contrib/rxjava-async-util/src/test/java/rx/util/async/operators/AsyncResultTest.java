@@ -0,0 +1,184 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import rx.Observable;
+import rx.Observer;
+import rx.Scheduler.Inner;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.util.functions.Action1;
+import rx.util.functions.Func0;
+
+public class AsyncResultTest {
+
+    static Func0<Integer> counting(final AtomicInteger calls) {
+        return new Func0<Integer>() {
+            @Override
+            public Integer call() {
+                return calls.incrementAndGet();
+            }
+        };
+    }
+
+    @Test
+    public void testImmediateRunsInline() {
+        AtomicInteger calls = new AtomicInteger();
+        AsyncResult.create(counting(calls), Schedulers.immediate());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testTrampolineKeepsOrderOfScheduledActions() {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger callsWhenOuterReturned = new AtomicInteger(-1);
+        Schedulers.trampoline().schedule(new Action1<Inner>() {
+
+            @Override
+            public void call(Inner inner) {
+                AsyncResult.create(counting(calls), Schedulers.trampoline());
+                // the function is queued behind this action like any other trampolined action
+                callsWhenOuterReturned.set(calls.get());
+            }
+
+        });
+        assertEquals(0, callsWhenOuterReturned.get());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testReplaysToEarlyAndLateSubscribers() {
+        TestScheduler scheduler = new TestScheduler();
+        AtomicInteger calls = new AtomicInteger();
+        Observable<Integer> result = AsyncResult.create(counting(calls), scheduler);
+
+        @SuppressWarnings("unchecked")
+        Observer<Object> early = mock(Observer.class);
+        @SuppressWarnings("unchecked")
+        Observer<Object> late = mock(Observer.class);
+
+        result.subscribe(early);
+        verify(early, never()).onNext(any());
+
+        scheduler.triggerActions();
+        result.subscribe(late);
+
+        for (Observer<Object> o : new Observer[] { early, late }) {
+            InOrder inOrder = inOrder(o);
+            inOrder.verify(o).onNext(1);
+            inOrder.verify(o).onCompleted();
+            verify(o, never()).onError(any(Throwable.class));
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testError() {
+        TestScheduler scheduler = new TestScheduler();
+        final RuntimeException ex = new RuntimeException("Forced failure");
+        Observable<Integer> result = AsyncResult.create(new Func0<Integer>() {
+            @Override
+            public Integer call() {
+                throw ex;
+            }
+        }, scheduler);
+
+        @SuppressWarnings("unchecked")
+        Observer<Object> early = mock(Observer.class);
+        @SuppressWarnings("unchecked")
+        Observer<Object> late = mock(Observer.class);
+
+        result.subscribe(early);
+        scheduler.triggerActions();
+        result.subscribe(late);
+
+        for (Observer<Object> o : new Observer[] { early, late }) {
+            verify(o).onError(ex);
+            verify(o, never()).onNext(any());
+            verify(o, never()).onCompleted();
+        }
+    }
+
+    @Test
+    public void testUnsubscribeBeforeResult() {
+        TestScheduler scheduler = new TestScheduler();
+        Observable<Integer> result = AsyncResult.create(counting(new AtomicInteger()), scheduler);
+
+        @SuppressWarnings("unchecked")
+        Observer<Object> first = mock(Observer.class);
+        @SuppressWarnings("unchecked")
+        Observer<Object> second = mock(Observer.class);
+
+        Subscription s = result.subscribe(first);
+        result.subscribe(second);
+        s.unsubscribe();
+
+        scheduler.triggerActions();
+
+        verify(first, never()).onNext(any());
+        verify(first, never()).onCompleted();
+        verify(second).onNext(1);
+        verify(second).onCompleted();
+    }
+
+    @Test
+    public void testConcurrentSubscribers() throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        Observable<Integer> result = AsyncResult.create(new Func0<Integer>() {
+            @Override
+            public Integer call() {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 42;
+            }
+        }, Schedulers.computation());
+
+        int n = 100;
+        final CountDownLatch done = new CountDownLatch(n);
+        final AtomicInteger values = new AtomicInteger();
+        for (int i = 0; i < n; i++) {
+            if (i == n / 2) {
+                start.countDown();
+            }
+            result.subscribe(new Action1<Integer>() {
+                @Override
+                public void call(Integer t1) {
+                    values.addAndGet(t1);
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(42 * n, values.get());
+    }
+}
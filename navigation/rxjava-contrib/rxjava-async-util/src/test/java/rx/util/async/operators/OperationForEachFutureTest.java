@@ -32,6 +32,7 @@ package rx.util.async.operators;
 
 import static org.junit.Assert.*;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -39,6 +40,7 @@ import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Test;
 
@@ -184,4 +186,115 @@ public class OperationForEachFutureTest {
         
         assertEquals(0, sum.get());
     }
+
+    @Test
+    public void testParallel() throws Exception {
+        Observable<Integer> source = Observable.range(1, 10000)
+                .subscribeOn(Schedulers.newThread());
+
+        final AtomicLong sum = new AtomicLong();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch overlap = new CountDownLatch(1);
+        Action1<Integer> add = new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+                int r = running.incrementAndGet();
+                if (r > 1) {
+                    overlap.countDown();
+                } else if (t1 == 1) {
+                    // hold the first item until another worker runs too
+                    try {
+                        overlap.await(1, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                maxRunning.set(Math.max(maxRunning.get(), r));
+                sum.addAndGet(t1);
+                running.decrementAndGet();
+            }
+        };
+
+        FutureTask<Void> task = Async.forEachFuture(source, add, 4, Schedulers.io());
+
+        assertEquals(null, task.get(5, TimeUnit.SECONDS));
+        assertEquals(10000L * 10001 / 2, sum.get());
+        assertTrue("Not run in parallel", maxRunning.get() > 1);
+    }
+
+    @Test
+    public void testParallelSynchronousSource() throws Exception {
+        final AtomicLong sum = new AtomicLong();
+        Action1<Integer> add = new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+                sum.addAndGet(t1);
+            }
+        };
+
+        // more items than all queues hold, so the source has to wait for the workers
+        FutureTask<Void> task = Async.forEachFuture(Observable.range(1, 5000), add, 2, Schedulers.computation());
+
+        assertEquals(null, task.get(5, TimeUnit.SECONDS));
+        assertEquals(5000L * 5001 / 2, sum.get());
+    }
+
+    @Test
+    public void testParallelEmpty() throws Exception {
+        FutureTask<Void> task = Async.forEachFuture(Observable.<Integer> empty(), new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+                fail("No items expected");
+            }
+        }, 4, Schedulers.computation());
+
+        assertTrue(task.isDone());
+        assertEquals(null, task.get());
+    }
+
+    @Test
+    public void testParallelActionThrowing() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        Action1<Integer> throwing = new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+                calls.incrementAndGet();
+                throw new CustomException();
+            }
+        };
+
+        FutureTask<Void> task = Async.forEachFuture(Observable.range(1, 5000), throwing, 2, Schedulers.computation());
+
+        try {
+            task.get(5, TimeUnit.SECONDS);
+            fail("Exception expected");
+        } catch (ExecutionException ex) {
+            if (!(ex.getCause() instanceof CustomException)) {
+                fail("Got different exception: " + ex.getCause());
+            }
+        }
+        assertTrue(calls.get() < 5000);
+    }
+
+    @Test
+    public void testParallelSourceThrowing() throws Exception {
+        Observable<Integer> source = Observable.<Integer>error(new CustomException())
+                .subscribeOn(Schedulers.newThread());
+
+        FutureTask<Void> task = Async.forEachFuture(source, new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+            }
+        }, 4, Schedulers.computation());
+
+        try {
+            task.get(1000, TimeUnit.MILLISECONDS);
+            fail("Exception expected");
+        } catch (ExecutionException ex) {
+            if (!(ex.getCause() instanceof CustomException)) {
+                fail("Got different exception: " + ex.getCause());
+            }
+        }
+    }
 }
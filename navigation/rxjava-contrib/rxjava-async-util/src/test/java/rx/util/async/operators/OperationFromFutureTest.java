@@ -0,0 +1,242 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import rx.Observable;
+import rx.Observer;
+import rx.Subscription;
+import rx.observers.TestObserver;
+import rx.schedulers.Schedulers;
+import rx.util.async.Async;
+import rx.util.functions.Action1;
+
+public class OperationFromFutureTest {
+    /** A FutureTask that runs callbacks once done, like a listenable future. */
+    static final class ListenableTask<T> extends FutureTask<T> {
+        final CopyOnWriteArrayList<Runnable> listeners = new CopyOnWriteArrayList<Runnable>();
+
+        ListenableTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        void addListener(Runnable r) {
+            listeners.add(r);
+            if (isDone() && listeners.remove(r)) {
+                r.run();
+            }
+        }
+
+        @Override
+        protected void done() {
+            for (Runnable r : listeners) {
+                if (listeners.remove(r)) {
+                    r.run();
+                }
+            }
+        }
+    }
+
+    static <T> Action1<Runnable> listenerOf(final ListenableTask<T> task) {
+        return new Action1<Runnable>() {
+            @Override
+            public void call(Runnable r) {
+                task.addListener(r);
+            }
+        };
+    }
+
+    @Test
+    public void testCompletionHook() throws InterruptedException {
+        ListenableTask<Integer> task = new ListenableTask<Integer>(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return 1;
+            }
+        });
+
+        @SuppressWarnings("unchecked")
+        Observer<Object> observer = mock(Observer.class);
+        Async.fromFuture(task, listenerOf(task)).subscribe(new TestObserver<Object>(observer));
+
+        verify(observer, never()).onNext(any());
+
+        task.run();
+
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onNext(1);
+        inOrder.verify(observer).onCompleted();
+        verify(observer, never()).onError(any(Throwable.class));
+
+        // already done when subscribing
+        @SuppressWarnings("unchecked")
+        Observer<Object> late = mock(Observer.class);
+        Async.fromFuture(task, listenerOf(task)).subscribe(new TestObserver<Object>(late));
+        verify(late).onNext(1);
+        verify(late).onCompleted();
+    }
+
+    @Test
+    public void testCompletionHookError() {
+        ListenableTask<Integer> task = new ListenableTask<Integer>(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                throw new IOException("Forced failure!");
+            }
+        });
+
+        @SuppressWarnings("unchecked")
+        Observer<Object> observer = mock(Observer.class);
+        Async.fromFuture(task, listenerOf(task)).subscribe(new TestObserver<Object>(observer));
+        task.run();
+
+        verify(observer).onError(any(IOException.class));
+        verify(observer, never()).onNext(any());
+        verify(observer, never()).onCompleted();
+    }
+
+    @Test
+    public void testCompletionHookUnsubscribeCancels() {
+        ListenableTask<Integer> task = new ListenableTask<Integer>(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return 1;
+            }
+        });
+
+        @SuppressWarnings("unchecked")
+        Observer<Object> observer = mock(Observer.class);
+        Subscription s = Async.fromFuture(task, listenerOf(task)).subscribe(new TestObserver<Object>(observer));
+        s.unsubscribe();
+
+        assertTrue(task.isCancelled());
+        verify(observer, never()).onNext(any());
+        verify(observer, never()).onError(any(Throwable.class));
+        verify(observer, never()).onCompleted();
+    }
+
+    @Test
+    public void testPolling() throws InterruptedException {
+        ExecutorService exec = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch ready = new CountDownLatch(1);
+            Future<Integer> future = exec.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    ready.await();
+                    return 1;
+                }
+            });
+
+            @SuppressWarnings("unchecked")
+            Observer<Object> observer = mock(Observer.class);
+            final CountDownLatch done = new CountDownLatch(1);
+            Async.fromFuture(future, Schedulers.computation()).subscribe(new OperationStartFutureTest.MockHelper<Object>(observer, done));
+
+            Thread.sleep(20);
+            verify(observer, never()).onNext(any());
+
+            ready.countDown();
+            assertTrue("Not completed in time!", done.await(1000, TimeUnit.MILLISECONDS));
+
+            InOrder inOrder = inOrder(observer);
+            inOrder.verify(observer).onNext(1);
+            inOrder.verify(observer).onCompleted();
+            verify(observer, never()).onError(any(Throwable.class));
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPollingUnsubscribeInterrupts() throws InterruptedException {
+        ExecutorService exec = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch interrupted = new CountDownLatch(1);
+            Future<Integer> future = exec.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    started.countDown();
+                    try {
+                        Thread.sleep(5000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return 1;
+                }
+            });
+
+            @SuppressWarnings("unchecked")
+            Observer<Object> observer = mock(Observer.class);
+            Subscription s = Async.fromFuture(future, Schedulers.computation()).subscribe(new TestObserver<Object>(observer));
+
+            assertTrue(started.await(1000, TimeUnit.MILLISECONDS));
+            s.unsubscribe();
+
+            assertTrue("Not interrupted", interrupted.await(1000, TimeUnit.MILLISECONDS));
+            assertTrue(future.isCancelled());
+            verify(observer, never()).onNext(any());
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFromCallableUnsubscribeInterrupts() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        Callable<Integer> callable = new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                started.countDown();
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return 1;
+            }
+        };
+
+        @SuppressWarnings("unchecked")
+        Observer<Object> observer = mock(Observer.class);
+        Subscription s = Async.fromCallable(callable, Schedulers.io()).subscribe(new TestObserver<Object>(observer));
+
+        assertTrue(started.await(1000, TimeUnit.MILLISECONDS));
+        s.unsubscribe();
+
+        assertTrue("Not interrupted", interrupted.await(1000, TimeUnit.MILLISECONDS));
+        verify(observer, never()).onNext(any());
+        verify(observer, never()).onCompleted();
+    }
+}
@@ -19,11 +19,15 @@ import static org.junit.Assert.*;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
@@ -31,8 +35,12 @@ import org.mockito.InOrder;
 
 import rx.Observable;
 import rx.Observer;
+import rx.Scheduler;
+import rx.Scheduler.Inner;
+import rx.observers.TestObserver;
 import rx.schedulers.Schedulers;
 import rx.util.async.Async;
+import rx.util.functions.Action1;
 import rx.util.functions.Func0;
 
 public class OperationStartFutureTest {
@@ -148,4 +156,64 @@ public class OperationStartFutureTest {
         verify(observer, never()).onCompleted();
         verify(observer).onError(any(CustomException.class));
     }
+
+    @Test(timeout = 10000)
+    public void testOutstandingFuturesDoNotHoldSchedulerThread() throws InterruptedException {
+        ExecutorService exec = Executors.newSingleThreadExecutor();
+        try {
+            Scheduler scheduler = Schedulers.executor(exec);
+            final List<SettableFuture> futures = new ArrayList<SettableFuture>();
+            final List<TestObserver<Integer>> observers = new ArrayList<TestObserver<Integer>>();
+            CountDownLatch done = new CountDownLatch(3);
+            for (int i = 0; i < 3; i++) {
+                final SettableFuture f = new SettableFuture();
+                futures.add(f);
+                TestObserver<Integer> o = new TestObserver<Integer>();
+                observers.add(o);
+                Async.startFuture(new Func0<Future<Integer>>() {
+                    @Override
+                    public Future<Integer> call() {
+                        return f;
+                    }
+                }, scheduler).subscribe(new MockHelper<Integer>(o, done));
+            }
+
+            // the only thread of the scheduler is still free for other work
+            final CountDownLatch ran = new CountDownLatch(1);
+            scheduler.schedule(new Action1<Inner>() {
+                @Override
+                public void call(Inner inner) {
+                    ran.countDown();
+                }
+            });
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < futures.size(); i++) {
+                futures.get(i).set(i);
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < observers.size(); i++) {
+                assertEquals(Arrays.asList(i), observers.get(i).getOnNextEvents());
+            }
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    /** A Future completed by the test. */
+    static final class SettableFuture extends FutureTask<Integer> {
+        SettableFuture() {
+            super(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    throw new IllegalStateException();
+                }
+            });
+        }
+
+        @Override
+        public void set(Integer v) {
+            super.set(v);
+        }
+    }
 }
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.plugins;
+
+import java.util.concurrent.TimeUnit;
+
+import rx.Scheduler;
+import rx.Subscription;
+import rx.util.functions.Action1;
+
+/**
+ * A {@link Scheduler} that runs actions on another Scheduler and records in a {@link SchedulerMetrics} how long each
+ * waited after it was due and how long it ran.
+ * <p>
+ * Actions scheduled recursively through the {@link Scheduler.Inner} are measured as well. Periodic actions only have
+ * their execution time recorded.
+ */
+public class InstrumentedScheduler extends Scheduler {
+    private final Scheduler actual;
+    private final SchedulerMetrics metrics;
+
+    public InstrumentedScheduler(Scheduler actual, SchedulerMetrics metrics) {
+        this.actual = actual;
+        this.metrics = metrics;
+    }
+
+    public SchedulerMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Subscription schedule(Action1<Inner> action) {
+        return actual.schedule(new MeasuredAction(action, metrics, System.nanoTime()));
+    }
+
+    @Override
+    public Subscription schedule(Action1<Inner> action, long delayTime, TimeUnit unit) {
+        return actual.schedule(new MeasuredAction(action, metrics, System.nanoTime() + unit.toNanos(delayTime)), delayTime, unit);
+    }
+
+    @Override
+    public Subscription schedulePeriodically(final Action1<Inner> action, long initialDelay, long period, TimeUnit unit) {
+        return actual.schedulePeriodically(new Action1<Inner>() {
+
+            @Override
+            public void call(Inner inner) {
+                run(action, new MeasuredInner(inner, metrics), metrics);
+            }
+        }, initialDelay, period, unit);
+    }
+
+    @Override
+    public int degreeOfParallelism() {
+        return actual.degreeOfParallelism();
+    }
+
+    @Override
+    public boolean isCurrentThread() {
+        return actual.isCurrentThread();
+    }
+
+    @Override
+    public long now() {
+        return actual.now();
+    }
+
+    static void run(Action1<Inner> action, Inner inner, SchedulerMetrics metrics) {
+        metrics.running.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            action.call(inner);
+        } finally {
+            metrics.executionTime.record(System.nanoTime() - start);
+            metrics.running.decrementAndGet();
+            metrics.completed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Wraps an action with the time it is due, so the queue latency leaves out any requested delay.
+     */
+    private static final class MeasuredAction implements Action1<Inner> {
+        final Action1<Inner> action;
+        final SchedulerMetrics metrics;
+        final long dueNanos;
+
+        MeasuredAction(Action1<Inner> action, SchedulerMetrics metrics, long dueNanos) {
+            this.action = action;
+            this.metrics = metrics;
+            this.dueNanos = dueNanos;
+        }
+
+        @Override
+        public void call(Inner inner) {
+            metrics.queueLatency.record(System.nanoTime() - dueNanos);
+            run(action, new MeasuredInner(inner, metrics), metrics);
+        }
+    }
+
+    private static final class MeasuredInner extends Inner {
+        final Inner actual;
+        final SchedulerMetrics metrics;
+
+        MeasuredInner(Inner actual, SchedulerMetrics metrics) {
+            this.actual = actual;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void schedule(Action1<Inner> action, long delayTime, TimeUnit unit) {
+            actual.schedule(new MeasuredAction(action, metrics, System.nanoTime() + unit.toNanos(delayTime)), delayTime, unit);
+        }
+
+        @Override
+        public void schedule(Action1<Inner> action) {
+            actual.schedule(new MeasuredAction(action, metrics, System.nanoTime()));
+        }
+
+        @Override
+        public long now() {
+            return actual.now();
+        }
+
+        @Override
+        public void unsubscribe() {
+            actual.unsubscribe();
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return actual.isUnsubscribed();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.plugins;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+/**
+ * Schedulers hook that wraps every built-in {@link Scheduler} in an {@link InstrumentedScheduler}.
+ * <p>
+ * Register it before {@link Schedulers} is first used, either with
+ * {@link RxJavaPlugins#registerSchedulersHook(RxJavaSchedulersHook)} or by setting the system property
+ * <code>rxjava.plugin.RxJavaSchedulersHook.implementation</code> to <code>rx.plugins.InstrumentedSchedulersHook</code>.
+ * The metrics are then polled by name, for example <code>getMetrics("computation").snapshotAndReset()</code>.
+ */
+public class InstrumentedSchedulersHook extends RxJavaSchedulersHook {
+    private static final ConcurrentHashMap<String, SchedulerMetrics> metrics = new ConcurrentHashMap<String, SchedulerMetrics>();
+
+    @Override
+    public Scheduler onScheduler(String name, Scheduler scheduler) {
+        SchedulerMetrics m = new SchedulerMetrics(name);
+        SchedulerMetrics existing = metrics.putIfAbsent(name, m);
+        return new InstrumentedScheduler(scheduler, existing == null ? m : existing);
+    }
+
+    /**
+     * @param name
+     *            "computation", "io", "newThread" or "trampoline"
+     * @return the metrics of the built-in Scheduler or null if it was not instrumented
+     */
+    public static SchedulerMetrics getMetrics(String name) {
+        return metrics.get(name);
+    }
+
+    /**
+     * @return a live view of the metrics of all instrumented Schedulers by name
+     */
+    public static Map<String, SchedulerMetrics> getAllMetrics() {
+        return Collections.<String, SchedulerMetrics> unmodifiableMap(metrics);
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.plugins;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent histogram of non-negative durations in nanoseconds with log-linear buckets.
+ * <p>
+ * Like HdrHistogram every power of two is split into equally wide sub-buckets, eight here, so any recorded value is
+ * reported with an error of at most 12.5% over the full range of <code>long</code>. Recording is an index computation
+ * and two atomic additions, with no allocation and no locking.
+ * <p>
+ * A snapshot is taken bucket by bucket while recording continues, so it may include part of the values recorded
+ * while it is being taken.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * @param nanos
+     *            the duration to record, negative values count as zero
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(index(nanos));
+        sum.addAndGet(nanos);
+    }
+
+    /**
+     * @return the values recorded so far
+     */
+    public Snapshot snapshot() {
+        long[] c = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            c[i] = counts.get(i);
+        }
+        return new Snapshot(c, sum.get());
+    }
+
+    /**
+     * Returns the values recorded since the previous reset and starts over, for polling at fixed intervals.
+     *
+     * @return the values recorded since the previous reset
+     */
+    public Snapshot snapshotAndReset() {
+        long[] c = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            c[i] = counts.getAndSet(i, 0);
+        }
+        return new Snapshot(c, sum.getAndSet(0));
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long lowestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return ((long) (SUB_BUCKETS | (index & (SUB_BUCKETS - 1)))) << shift;
+    }
+
+    static long highestValue(int index) {
+        return index == BUCKETS - 1 ? Long.MAX_VALUE : lowestValue(index + 1) - 1;
+    }
+
+    /**
+     * Immutable distribution of recorded values.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+
+        Snapshot(long[] counts, long sum) {
+            this.counts = counts;
+            long n = 0;
+            for (long c : counts) {
+                n += c;
+            }
+            this.count = n;
+            this.sum = sum;
+        }
+
+        /**
+         * @return the number of recorded values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the mean of the recorded values in nanoseconds, 0 if there are none
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @return an upper bound of the largest recorded value in nanoseconds, 0 if there are none
+         */
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return highestValue(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @param percentile
+         *            between 0 and 100
+         * @return an upper bound of the value below which the given percentage of recorded values fall, 0 if there
+         *         are none
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValue(i);
+                }
+            }
+            return getMax();
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot[count=" + count + ", mean=" + (long) getMean() + "ns, p50=" + getValueAtPercentile(50) + "ns, p99="
+                    + getValueAtPercentile(99) + "ns, max=" + getMax() + "ns]";
+        }
+    }
+}
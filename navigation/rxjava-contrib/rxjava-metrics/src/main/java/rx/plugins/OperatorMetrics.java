@@ -0,0 +1,102 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.plugins;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of one operator, summed over all places it is used and all of their subscriptions.
+ */
+public final class OperatorMetrics implements OperatorMetricsMBean {
+    private final String name;
+    final AtomicLong subscriptions = new AtomicLong();
+    final AtomicLong active = new AtomicLong();
+    final AtomicLong itemsIn = new AtomicLong();
+    final AtomicLong itemsOut = new AtomicLong();
+    /** Whether each received item is emitted once, so that the difference is a queue depth. */
+    private final boolean queue;
+    /** Guarded by this. */
+    private long lastItemsOut;
+    /** Guarded by this. */
+    private long lastNanos = System.nanoTime();
+
+    OperatorMetrics(String name, boolean queue) {
+        this.name = name;
+        this.queue = queue;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getSubscriptions() {
+        return subscriptions.get();
+    }
+
+    @Override
+    public long getActiveSubscribers() {
+        return active.get();
+    }
+
+    @Override
+    public long getItemsIn() {
+        return itemsIn.get();
+    }
+
+    @Override
+    public long getItemsOut() {
+        return itemsOut.get();
+    }
+
+    @Override
+    public long getPending() {
+        if (!queue) {
+            return -1;
+        }
+        // read out first so a concurrent emission never makes it negative
+        long out = itemsOut.get();
+        return Math.max(0, itemsIn.get() - out);
+    }
+
+    @Override
+    public synchronized double getEmissionsPerSecond() {
+        long now = System.nanoTime();
+        long out = itemsOut.get();
+        long elapsed = now - lastNanos;
+        double rate = elapsed <= 0 ? 0 : (out - lastItemsOut) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        lastNanos = now;
+        lastItemsOut = out;
+        return rate;
+    }
+
+    @Override
+    public synchronized void reset() {
+        subscriptions.set(0);
+        itemsIn.set(0);
+        itemsOut.set(0);
+        lastItemsOut = 0;
+        lastNanos = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        return "OperatorMetrics[" + name + ", subscriptions=" + getSubscriptions() + ", active=" + getActiveSubscribers()
+                + ", in=" + getItemsIn() + ", out=" + getItemsOut() + ", pending=" + getPending() + "]";
+    }
+}
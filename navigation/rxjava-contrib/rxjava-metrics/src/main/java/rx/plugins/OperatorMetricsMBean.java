@@ -0,0 +1,64 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.plugins;
+
+/**
+ * JMX view of the {@link OperatorMetrics} of one operator.
+ */
+public interface OperatorMetricsMBean {
+
+    /**
+     * @return the name the operator is tracked under
+     */
+    String getName();
+
+    /**
+     * @return the number of times the operator was subscribed to
+     */
+    long getSubscriptions();
+
+    /**
+     * @return the number of subscriptions that are not unsubscribed yet
+     */
+    long getActiveSubscribers();
+
+    /**
+     * @return the number of items the operator received, received Observables count as one item each
+     */
+    long getItemsIn();
+
+    /**
+     * @return the number of items the operator emitted
+     */
+    long getItemsOut();
+
+    /**
+     * @return the items received but not emitted yet for operators that emit every item they receive once, such as
+     *         observeOn, which is their queue depth; -1 for all other operators, such as filter or merge, where the
+     *         difference does not measure a queue
+     */
+    long getPending();
+
+    /**
+     * @return the items emitted per second since the previous call
+     */
+    double getEmissionsPerSecond();
+
+    /**
+     * Sets all counters except the active subscribers back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.plugins;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.operators.OperatorObserveOn;
+import rx.subscriptions.Subscriptions;
+import rx.util.functions.Action0;
+import rx.util.functions.Func1;
+
+/**
+ * Execution hook that counts the items going in and out of every operator applied through {@link Observable#lift}.
+ * <p>
+ * Register it before the first Observable is used, either with
+ * {@link RxJavaPlugins#registerObservableExecutionHook(RxJavaObservableExecutionHook)} or by setting the system property
+ * <code>rxjava.plugin.RxJavaObservableExecutionHook.implementation</code> to <code>rx.plugins.RxJavaMetricsHook</code>.
+ * <p>
+ * The counters are kept per operator name, by default the simple class name of the operator, and each set is
+ * published as an {@link OperatorMetricsMBean} named <code>rx:type=Operator,name=&lt;name&gt;</code>. Comparing
+ * the emission rates along a pipeline, and the pending counts of queueing operators such as observeOn, shows which
+ * stage holds it up.
+ * <p>
+ * Items are counted where they enter and leave the operator and passed on unchanged; Observables emitted to merge or
+ * zip count as one item each. Every item passes two extra subscribers and increments shared counters, so this is
+ * meant for diagnosing a system rather than being left on everywhere.
+ */
+public class RxJavaMetricsHook extends RxJavaObservableExecutionHook {
+    public static final String DOMAIN = "rx";
+
+    private final ConcurrentHashMap<String, OperatorMetrics> metrics = new ConcurrentHashMap<String, OperatorMetrics>();
+    private final MBeanServer server;
+
+    /**
+     * Publishes the metrics on the platform MBean server.
+     */
+    public RxJavaMetricsHook() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * @param server
+     *            the MBean server to publish the metrics on, or null to not publish them
+     */
+    public RxJavaMetricsHook(MBeanServer server) {
+        this.server = server;
+    }
+
+    /**
+     * @param name
+     *            the operator name
+     * @return the metrics of the operator or null if it was not lifted yet
+     */
+    public OperatorMetrics getMetrics(String name) {
+        return metrics.get(name);
+    }
+
+    /**
+     * @return a live view of the metrics of all operators lifted so far by name
+     */
+    public Map<String, OperatorMetrics> getAllMetrics() {
+        return Collections.<String, OperatorMetrics> unmodifiableMap(metrics);
+    }
+
+    /**
+     * Returns the name the metrics of an operator are kept under. Override to tell apart uses of the same operator.
+     *
+     * @param bind
+     *            the operator function
+     * @return the simple class name of the operator, or its full name for anonymous classes
+     */
+    protected String nameOf(Func1<?, ?> bind) {
+        Class<?> c = bind.getClass();
+        String name = c.getSimpleName();
+        return name.length() == 0 ? c.getName() : name;
+    }
+
+    /**
+     * Returns whether the operator emits each received item once, in order, after possibly queueing it, so that the
+     * received items not emitted yet are its queue depth. Override to report pending items of other operators.
+     *
+     * @param bind
+     *            the operator function
+     * @return true for observeOn
+     */
+    protected boolean isQueue(Func1<?, ?> bind) {
+        return bind instanceof OperatorObserveOn;
+    }
+
+    @Override
+    public <T, R> Func1<Subscriber<? super R>, Subscriber<? super T>> onLift(Observable<? extends T> observableInstance, final Func1<Subscriber<? super R>, Subscriber<? super T>> bind) {
+        final OperatorMetrics m = metricsFor(nameOf(bind), isQueue(bind));
+        return new Func1<Subscriber<? super R>, Subscriber<? super T>>() {
+
+            @Override
+            public Subscriber<? super T> call(Subscriber<? super R> child) {
+                m.subscriptions.incrementAndGet();
+                m.active.incrementAndGet();
+                OutSubscriber<R> out = new OutSubscriber<R>(child, m);
+                out.add(Subscriptions.create(new Action0() {
+
+                    @Override
+                    public void call() {
+                        m.active.decrementAndGet();
+                    }
+                }));
+                return new InSubscriber<T>(bind.call(out), m);
+            }
+        };
+    }
+
+    private OperatorMetrics metricsFor(String name, boolean queue) {
+        OperatorMetrics m = metrics.get(name);
+        if (m == null) {
+            OperatorMetrics created = new OperatorMetrics(name, queue);
+            m = metrics.putIfAbsent(name, created);
+            if (m == null) {
+                m = created;
+                register(m);
+            }
+        }
+        return m;
+    }
+
+    private void register(OperatorMetrics m) {
+        if (server == null) {
+            return;
+        }
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=Operator,name=" + ObjectName.quote(m.getName()));
+            if (server.isRegistered(objectName)) {
+                // left behind by a previous hook, the counters of this one take over
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(m, objectName);
+        } catch (JMException e) {
+            // metrics stay available through getMetrics
+        }
+    }
+
+    /**
+     * Counts what the operator emits, passing every item on as it is.
+     */
+    private static final class OutSubscriber<R> extends Subscriber<R> {
+        final Subscriber<? super R> child;
+        final OperatorMetrics m;
+
+        OutSubscriber(Subscriber<? super R> child, OperatorMetrics m) {
+            super(child);
+            this.child = child;
+            this.m = m;
+        }
+
+        @Override
+        public void onNext(R r) {
+            m.itemsOut.incrementAndGet();
+            child.onNext(r);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            child.onError(e);
+        }
+
+        @Override
+        public void onCompleted() {
+            child.onCompleted();
+        }
+    }
+
+    /**
+     * Counts what the operator receives, passing every item on as it is.
+     */
+    private static final class InSubscriber<T> extends Subscriber<T> {
+        final Subscriber<? super T> actual;
+        final OperatorMetrics m;
+
+        InSubscriber(Subscriber<? super T> actual, OperatorMetrics m) {
+            // not an internal operator so subscribe wraps it and unsubscribes it when the source terminates, which
+            // must not reach the operator that may still be emitting
+            super();
+            this.actual = actual;
+            this.m = m;
+            actual.add(this);
+        }
+
+        @Override
+        public void onNext(T t) {
+            m.itemsIn.incrementAndGet();
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            actual.onError(e);
+        }
+
+        @Override
+        public void onCompleted() {
+            actual.onCompleted();
+        }
+    }
+}
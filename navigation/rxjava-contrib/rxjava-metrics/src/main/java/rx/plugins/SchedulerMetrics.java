@@ -0,0 +1,111 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.plugins;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and histograms of the actions run by one {@link InstrumentedScheduler}.
+ * <p>
+ * A Scheduler is saturated when the queue latency rises while the number of running actions stays at its number of
+ * threads: work arrives faster than the threads run it.
+ */
+public final class SchedulerMetrics {
+    private final String name;
+    final LatencyHistogram queueLatency = new LatencyHistogram();
+    final LatencyHistogram executionTime = new LatencyHistogram();
+    final AtomicLong running = new AtomicLong();
+    final AtomicLong completed = new AtomicLong();
+
+    public SchedulerMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the current counters and all durations recorded so far
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(name, running.get(), completed.get(), queueLatency.snapshot(), executionTime.snapshot());
+    }
+
+    /**
+     * @return the current counters and the durations recorded since the previous call of this method
+     */
+    public Snapshot snapshotAndReset() {
+        return new Snapshot(name, running.get(), completed.get(), queueLatency.snapshotAndReset(), executionTime.snapshotAndReset());
+    }
+
+    /**
+     * Immutable state of a {@link SchedulerMetrics} at one point in time.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final long running;
+        private final long completed;
+        private final LatencyHistogram.Snapshot queueLatency;
+        private final LatencyHistogram.Snapshot executionTime;
+
+        Snapshot(String name, long running, long completed, LatencyHistogram.Snapshot queueLatency, LatencyHistogram.Snapshot executionTime) {
+            this.name = name;
+            this.running = running;
+            this.completed = completed;
+            this.queueLatency = queueLatency;
+            this.executionTime = executionTime;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the actions running right now, the in-flight count
+         */
+        public long getRunning() {
+            return running;
+        }
+
+        /**
+         * @return the actions that finished running
+         */
+        public long getCompleted() {
+            return completed;
+        }
+
+        /**
+         * @return the time from when an action was due until it started, in nanoseconds
+         */
+        public LatencyHistogram.Snapshot getQueueLatency() {
+            return queueLatency;
+        }
+
+        /**
+         * @return the time actions ran, in nanoseconds
+         */
+        public LatencyHistogram.Snapshot getExecutionTime() {
+            return executionTime;
+        }
+
+        @Override
+        public String toString() {
+            return "SchedulerMetrics[" + name + ", running=" + running + ", completed=" + completed
+                    + ", queueLatency=" + queueLatency + ", executionTime=" + executionTime + "]";
+        }
+    }
+}
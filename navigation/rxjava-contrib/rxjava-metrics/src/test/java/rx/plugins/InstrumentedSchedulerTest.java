@@ -0,0 +1,144 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.plugins;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Scheduler.Inner;
+import rx.schedulers.Schedulers;
+import rx.util.functions.Action1;
+
+public class InstrumentedSchedulerTest {
+
+    @Test
+    public void testHistogramBucketsContainTheirValues() {
+        for (long v = 0; v < 100000; v += 7) {
+            int index = LatencyHistogram.index(v);
+            assertTrue(LatencyHistogram.lowestValue(index) <= v);
+            assertTrue(LatencyHistogram.highestValue(index) >= v);
+        }
+        int last = LatencyHistogram.index(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(last));
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 1000; v++) {
+            h.record(v);
+        }
+        LatencyHistogram.Snapshot s = h.snapshot();
+        assertEquals(1000, s.getCount());
+        assertEquals(500.5, s.getMean(), 0.001);
+        long p50 = s.getValueAtPercentile(50);
+        assertTrue("p50 " + p50, p50 >= 500 && p50 <= 500 * 1.125);
+        long max = s.getMax();
+        assertTrue("max " + max, max >= 1000 && max <= 1000 * 1.125);
+
+        assertEquals(1000, h.snapshotAndReset().getCount());
+        assertEquals(0, h.snapshot().getCount());
+        assertEquals(0, h.snapshot().getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testRecordsExecutionOfRecursiveActions() throws InterruptedException {
+        SchedulerMetrics metrics = new SchedulerMetrics("test");
+        Scheduler scheduler = new InstrumentedScheduler(Schedulers.newThread(), metrics);
+        final CountDownLatch latch = new CountDownLatch(2);
+        scheduler.schedule(new Action1<Inner>() {
+
+            @Override
+            public void call(Inner inner) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                latch.countDown();
+                if (latch.getCount() > 0) {
+                    inner.schedule(this);
+                }
+            }
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        // the second run records after counting down
+        while (metrics.snapshot().getCompleted() < 2) {
+            Thread.sleep(1);
+        }
+
+        SchedulerMetrics.Snapshot s = metrics.snapshot();
+        assertEquals(0, s.getRunning());
+        assertEquals(2, s.getQueueLatency().getCount());
+        assertEquals(2, s.getExecutionTime().getCount());
+        assertTrue(s.getExecutionTime().getValueAtPercentile(50) >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void testQueueLatencyExcludesDelay() throws InterruptedException {
+        SchedulerMetrics metrics = new SchedulerMetrics("test");
+        Scheduler scheduler = new InstrumentedScheduler(Schedulers.newThread(), metrics);
+        final CountDownLatch latch = new CountDownLatch(1);
+        scheduler.schedule(new Action1<Inner>() {
+
+            @Override
+            public void call(Inner inner) {
+                latch.countDown();
+            }
+        }, 300, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        while (metrics.snapshot().getCompleted() < 1) {
+            Thread.sleep(1);
+        }
+
+        assertTrue(metrics.snapshot().getQueueLatency().getMax() < TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void testHookWrapsAndRegistersSchedulers() {
+        Scheduler s = new InstrumentedSchedulersHook().onScheduler("hookTest", Schedulers.immediate());
+        assertTrue(s instanceof InstrumentedScheduler);
+        assertSame(((InstrumentedScheduler) s).getMetrics(), InstrumentedSchedulersHook.getMetrics("hookTest"));
+    }
+
+    @Test
+    public void testKeepsCurrentThreadFastPath() {
+        SchedulerMetrics metrics = new SchedulerMetrics("test");
+        assertTrue(new InstrumentedScheduler(Schedulers.immediate(), metrics).isCurrentThread());
+        assertFalse(new InstrumentedScheduler(Schedulers.newThread(), metrics).isCurrentThread());
+
+        // observeOn hands nothing to a wrapped trampoline, so the items arrive before subscribe returns
+        final List<Integer> values = new ArrayList<Integer>();
+        Observable.from(1, 2, 3).observeOn(new InstrumentedScheduler(Schedulers.trampoline(), metrics)).subscribe(new Action1<Integer>() {
+
+            @Override
+            public void call(Integer t) {
+                values.add(t);
+            }
+        });
+        assertEquals(Arrays.asList(1, 2, 3), values);
+        assertEquals(0, metrics.completed.get());
+    }
+}
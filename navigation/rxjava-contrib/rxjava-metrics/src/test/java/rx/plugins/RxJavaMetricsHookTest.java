@@ -0,0 +1,170 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.plugins;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import rx.Observable;
+import rx.Observer;
+import rx.Subscription;
+import rx.observables.GroupedObservable;
+import rx.operators.OperatorGroupBy;
+import rx.operators.OperatorMap;
+import rx.operators.OperatorMerge;
+import rx.operators.OperatorObserveOn;
+import rx.schedulers.TestScheduler;
+import rx.util.functions.Func1;
+import rx.util.functions.Func2;
+
+public class RxJavaMetricsHookTest {
+
+    private static final Func1<Integer, Integer> DOUBLE = new Func1<Integer, Integer>() {
+
+        @Override
+        public Integer call(Integer t) {
+            return t * 2;
+        }
+    };
+
+    @Test
+    public void testCountsItemsAndSubscriptions() {
+        RxJavaMetricsHook hook = new RxJavaMetricsHook(null);
+        Observable<Integer> source = Observable.from(1, 2, 3);
+        Observable<Integer> mapped = source.lift(hook.onLift(source, new OperatorMap<Integer, Integer>(DOUBLE)));
+
+        assertEquals(Integer.valueOf(12), mapped.reduce(new Func2<Integer, Integer, Integer>() {
+
+            @Override
+            public Integer call(Integer a, Integer b) {
+                return a + b;
+            }
+        }).toBlockingObservable().single());
+        mapped.toBlockingObservable().last();
+
+        OperatorMetrics m = hook.getMetrics("OperatorMap");
+        assertEquals(2, m.getSubscriptions());
+        assertEquals(0, m.getActiveSubscribers());
+        assertEquals(6, m.getItemsIn());
+        assertEquals(6, m.getItemsOut());
+        // map is not a queue
+        assertEquals(-1, m.getPending());
+    }
+
+    @Test
+    public void testObserveOnPending() {
+        RxJavaMetricsHook hook = new RxJavaMetricsHook(null);
+        TestScheduler scheduler = new TestScheduler();
+        Observable<Integer> source = Observable.from(1, 2, 3);
+        @SuppressWarnings("unchecked")
+        Observer<Integer> observer = mock(Observer.class);
+        Subscription s = source.lift(hook.onLift(source, new OperatorObserveOn<Integer>(scheduler))).subscribe(observer);
+
+        OperatorMetrics m = hook.getMetrics("OperatorObserveOn");
+        assertEquals(1, m.getActiveSubscribers());
+        assertEquals(3, m.getItemsIn());
+        assertEquals(0, m.getItemsOut());
+        assertEquals(3, m.getPending());
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        verify(observer).onCompleted();
+        assertEquals(3, m.getItemsOut());
+        assertEquals(0, m.getPending());
+        s.unsubscribe();
+        assertEquals(0, m.getActiveSubscribers());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testMergeCountsReceivedObservables() {
+        RxJavaMetricsHook hook = new RxJavaMetricsHook(null);
+        Observable<Observable<Integer>> source = Observable.from(Observable.from(1, 2), Observable.from(3));
+        Observable<Integer> merged = source.lift(hook.onLift(source, (Func1) new OperatorMerge<Integer>()));
+
+        assertEquals(3, merged.toList().toBlockingObservable().single().size());
+        OperatorMetrics m = hook.getMetrics("OperatorMerge");
+        assertEquals(2, m.getItemsIn());
+        assertEquals(3, m.getItemsOut());
+        assertEquals(-1, m.getPending());
+    }
+
+    @Test
+    public void testGroupByEmitsGroupedObservables() {
+        RxJavaMetricsHook hook = new RxJavaMetricsHook(null);
+        Observable<Integer> source = Observable.range(0, 10);
+        Observable<GroupedObservable<Integer, Integer>> grouped = source.lift(hook.onLift(source, new OperatorGroupBy<Integer, Integer>(new Func1<Integer, Integer>() {
+
+            @Override
+            public Integer call(Integer t) {
+                return t % 2;
+            }
+        })));
+
+        List<Integer> keys = grouped.map(new Func1<GroupedObservable<Integer, Integer>, Integer>() {
+
+            @Override
+            public Integer call(GroupedObservable<Integer, Integer> g) {
+                return g.getKey();
+            }
+        }).toList().toBlockingObservable().single();
+
+        assertEquals(Arrays.asList(0, 1), keys);
+        OperatorMetrics m = hook.getMetrics("OperatorGroupBy");
+        assertEquals(10, m.getItemsIn());
+        assertEquals(2, m.getItemsOut());
+    }
+
+    @Test
+    public void testItemsPassedUnchanged() {
+        RxJavaMetricsHook hook = new RxJavaMetricsHook(null);
+        Observable<Observable<Integer>> source = Observable.just(Observable.from(1, 2));
+        final Observable<Integer> inner = source.toBlockingObservable().single();
+        Observable<Observable<Integer>> mapped = source.lift(hook.onLift(source, new OperatorMap<Observable<Integer>, Observable<Integer>>(new Func1<Observable<Integer>, Observable<Integer>>() {
+
+            @Override
+            public Observable<Integer> call(Observable<Integer> t) {
+                return t;
+            }
+        })));
+
+        assertSame(inner, mapped.toBlockingObservable().single());
+    }
+
+    @Test
+    public void testPublishedAsMBean() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        RxJavaMetricsHook hook = new RxJavaMetricsHook(server);
+        Observable<Integer> source = Observable.from(1, 2);
+        source.lift(hook.onLift(source, new OperatorMap<Integer, Integer>(DOUBLE))).toBlockingObservable().last();
+
+        ObjectName name = new ObjectName(RxJavaMetricsHook.DOMAIN + ":type=Operator,name=" + ObjectName.quote("OperatorMap"));
+        assertEquals(2L, server.getAttribute(name, "ItemsOut"));
+        assertEquals(1L, server.getAttribute(name, "Subscriptions"));
+
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, server.getAttribute(name, "ItemsOut"));
+    }
+}
@@ -0,0 +1,496 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.observables;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import rx.Observable;
+import rx.Observable.OnSubscribeFunc;
+import rx.Observer;
+import rx.Subscription;
+
+/**
+ * Rechunks streams of bytes into frames, for binary protocols and line based text before it is decoded.
+ * <p>
+ * The chunks are scanned in bulk. A frame that lies within one chunk is copied out of it once, and only the bytes of
+ * a frame spanning chunks are collected, in a buffer every subscription reuses for all its frames.
+ */
+public class ByteObservable {
+
+    /**
+     * Rechunks the bytes into the frames between delimiters and works on infinite stream. The delimiter is not part of
+     * the frames and the last frame does not need one.
+     *
+     * delimited([[1, 0, 2], [3, 0]], 0) --> [[1], [2, 3]]
+     *
+     * @param src
+     * @param delimiter
+     * @return
+     */
+    public static Observable<byte[]> delimited(Observable<byte[]> src, byte... delimiter) {
+        return frame(src, Framing.delimiter(delimiter));
+    }
+
+    /**
+     * Rechunks the bytes into frames of the given length and works on infinite stream. The last frame may be shorter.
+     *
+     * @param src
+     * @param length
+     * @return
+     */
+    public static Observable<byte[]> fixedLength(Observable<byte[]> src, int length) {
+        return frame(src, Framing.fixedLength(length));
+    }
+
+    /**
+     * Rechunks the bytes into frames that each start with their length as an unsigned big-endian number of 1 or 2 bytes
+     * or a signed big-endian int of 4 bytes. The prefix is not part of the frames.
+     *
+     * @param src
+     * @param prefixLength
+     *            1, 2 or 4
+     * @return
+     */
+    public static Observable<byte[]> lengthPrefixed(Observable<byte[]> src, int prefixLength) {
+        return frame(src, Framing.lengthPrefix(prefixLength));
+    }
+
+    /**
+     * Rechunks the bytes into frames that each start with their length as a base 128 varint, as written by Protocol
+     * Buffers for delimited messages. The prefix is not part of the frames.
+     *
+     * @param src
+     * @return
+     */
+    public static Observable<byte[]> varintPrefixed(Observable<byte[]> src) {
+        return frame(src, Framing.varintPrefix());
+    }
+
+    /**
+     * Rechunks the bytes into frames and works on infinite stream.
+     *
+     * @param src
+     * @param framing
+     * @return
+     */
+    public static Observable<byte[]> frame(final Observable<byte[]> src, final Framing framing) {
+        return Observable.create(new OnSubscribeFunc<byte[]>() {
+            @Override
+            public Subscription onSubscribe(final Observer<? super byte[]> observer) {
+                final Decoder decoder = framing.newDecoder(observer);
+                return src.subscribe(new Observer<byte[]>() {
+                    @Override
+                    public void onNext(byte[] bytes) {
+                        decoder.decode(ByteBuffer.wrap(bytes));
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        decoder.onError(e);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        decoder.onCompleted();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Rechunks the bytes into frames and works on infinite stream.
+     * <p>
+     * The remaining bytes of each buffer are consumed before <code>onNext</code> returns, so the source may reuse its
+     * buffer afterwards.
+     *
+     * @param src
+     * @param framing
+     * @return
+     */
+    public static Observable<byte[]> frameBuffers(final Observable<ByteBuffer> src, final Framing framing) {
+        return Observable.create(new OnSubscribeFunc<byte[]>() {
+            @Override
+            public Subscription onSubscribe(final Observer<? super byte[]> observer) {
+                final Decoder decoder = framing.newDecoder(observer);
+                return src.subscribe(new Observer<ByteBuffer>() {
+                    @Override
+                    public void onNext(ByteBuffer buffer) {
+                        decoder.decode(buffer);
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        decoder.onError(e);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        decoder.onCompleted();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Describes where frames end. Instances are immutable and can be shared; the state of a stream is kept per
+     * subscription.
+     */
+    public static abstract class Framing {
+        Framing() {
+        }
+
+        abstract Decoder newDecoder(Observer<? super byte[]> observer);
+
+        /**
+         * @param delimiter
+         *            the bytes that end a frame
+         * @return frames ending with a delimiter, or the end of the stream
+         */
+        public static Framing delimiter(final byte... delimiter) {
+            if (delimiter == null || delimiter.length == 0) {
+                throw new IllegalArgumentException("delimiter must not be empty");
+            }
+            final byte[] d = delimiter.clone();
+            return new Framing() {
+                @Override
+                Decoder newDecoder(Observer<? super byte[]> observer) {
+                    return new DelimiterDecoder(observer, d);
+                }
+            };
+        }
+
+        /**
+         * @param length
+         *            the number of bytes of every frame
+         * @return frames of the same length, only the last one may be shorter
+         */
+        public static Framing fixedLength(final int length) {
+            if (length <= 0) {
+                throw new IllegalArgumentException("length must be positive");
+            }
+            return new Framing() {
+                @Override
+                Decoder newDecoder(Observer<? super byte[]> observer) {
+                    return new LengthDecoder(observer, 0, length);
+                }
+            };
+        }
+
+        /**
+         * @param prefixLength
+         *            the number of bytes of the big-endian length in front of every frame, 1, 2 or 4
+         * @return frames of the length given by their prefix
+         */
+        public static Framing lengthPrefix(final int prefixLength) {
+            if (prefixLength != 1 && prefixLength != 2 && prefixLength != 4) {
+                throw new IllegalArgumentException("prefixLength must be 1, 2 or 4");
+            }
+            return new Framing() {
+                @Override
+                Decoder newDecoder(Observer<? super byte[]> observer) {
+                    return new LengthDecoder(observer, prefixLength, -1);
+                }
+            };
+        }
+
+        /**
+         * @return frames of the length given by their base 128 varint prefix
+         */
+        public static Framing varintPrefix() {
+            return new Framing() {
+                @Override
+                Decoder newDecoder(Observer<? super byte[]> observer) {
+                    return new LengthDecoder(observer, LengthDecoder.VARINT, -1);
+                }
+            };
+        }
+    }
+
+    /**
+     * The state of one framed stream: the bytes of a frame that spans chunks.
+     */
+    static abstract class Decoder {
+        final Observer<? super byte[]> observer;
+        byte[] partial = new byte[256];
+        int partialLength;
+        boolean done;
+
+        Decoder(Observer<? super byte[]> observer) {
+            this.observer = observer;
+        }
+
+        final void decode(ByteBuffer in) {
+            if (!done) {
+                decodeChunk(in);
+            }
+        }
+
+        abstract void decodeChunk(ByteBuffer in);
+
+        /**
+         * @return null if the end of the stream is a valid end of a frame, otherwise the error to report
+         */
+        abstract Throwable finish();
+
+        final void onError(Throwable e) {
+            if (!done) {
+                finish();
+                done = true;
+                observer.onError(e);
+            }
+        }
+
+        final void onCompleted() {
+            if (!done) {
+                Throwable e = finish();
+                done = true;
+                if (e != null) {
+                    observer.onError(e);
+                } else {
+                    observer.onCompleted();
+                }
+            }
+        }
+
+        final void fail(Throwable e) {
+            done = true;
+            observer.onError(e);
+        }
+
+        final void append(ByteBuffer in, int length) {
+            ensureCapacity(partialLength + length);
+            in.get(partial, partialLength, length);
+            partialLength += length;
+        }
+
+        final void ensureCapacity(int capacity) {
+            if (partial.length < capacity) {
+                partial = Arrays.copyOf(partial, Math.max(partial.length * 2, capacity));
+            }
+        }
+
+        final void emitPartial() {
+            observer.onNext(Arrays.copyOf(partial, partialLength));
+            partialLength = 0;
+        }
+    }
+
+    /**
+     * Finds a single byte delimiter with a plain scan and a longer one with Boyer-Moore-Horspool.
+     */
+    static final class DelimiterDecoder extends Decoder {
+        private final byte[] delimiter;
+        private final int[] shifts;
+
+        DelimiterDecoder(Observer<? super byte[]> observer, byte[] delimiter) {
+            super(observer);
+            this.delimiter = delimiter;
+            int last = delimiter.length - 1;
+            if (last == 0) {
+                shifts = null;
+            } else {
+                shifts = new int[256];
+                Arrays.fill(shifts, last + 1);
+                for (int j = 0; j < last; j++) {
+                    shifts[delimiter[j] & 0xff] = last - j;
+                }
+            }
+        }
+
+        @Override
+        void decodeChunk(ByteBuffer in) {
+            if (!in.hasArray()) {
+                // scan a heap copy, direct buffers have no array to search
+                byte[] copy = new byte[in.remaining()];
+                in.get(copy);
+                in = ByteBuffer.wrap(copy);
+            }
+            byte[] a = in.array();
+            int offset = in.arrayOffset();
+            int from = in.position();
+            int limit = in.limit();
+            if (shifts != null && partialLength > 0) {
+                from = matchAcrossChunks(a, offset + from, offset + limit) - offset;
+            }
+            for (;;) {
+                int i = indexOf(a, offset + from, offset + limit);
+                if (i < 0) {
+                    break;
+                }
+                i -= offset;
+                in.position(from);
+                if (partialLength == 0) {
+                    byte[] frame = new byte[i - from];
+                    in.get(frame);
+                    observer.onNext(frame);
+                } else {
+                    append(in, i - from);
+                    emitPartial();
+                }
+                from = i + delimiter.length;
+            }
+            in.position(from);
+            append(in, limit - from);
+        }
+
+        /**
+         * @return the array index after a delimiter that started in the partial frame, otherwise from
+         */
+        private int matchAcrossChunks(byte[] a, int from, int limit) {
+            int old = partialLength;
+            int extra = Math.min(delimiter.length - 1, limit - from);
+            ensureCapacity(old + extra);
+            System.arraycopy(a, from, partial, old, extra);
+            int i = indexOf(partial, Math.max(0, old - delimiter.length + 1), old + extra);
+            if (i >= 0 && i < old) {
+                partialLength = i;
+                emitPartial();
+                return from + i + delimiter.length - old;
+            }
+            return from;
+        }
+
+        private int indexOf(byte[] a, int from, int limit) {
+            if (shifts == null) {
+                byte d = delimiter[0];
+                for (int i = from; i < limit; i++) {
+                    if (a[i] == d) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            int last = delimiter.length - 1;
+            byte lastByte = delimiter[last];
+            outer: for (int i = from + last; i < limit; i += shifts[a[i] & 0xff]) {
+                if (a[i] == lastByte) {
+                    int start = i - last;
+                    for (int j = 0; j < last; j++) {
+                        if (a[start + j] != delimiter[j]) {
+                            continue outer;
+                        }
+                    }
+                    return start;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Throwable finish() {
+            if (partialLength > 0) {
+                emitPartial();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Reads the header of a frame byte by byte, at most 5 bytes, and copies its body in bulk.
+     */
+    static final class LengthDecoder extends Decoder {
+        static final int VARINT = -1;
+
+        /** The number of header bytes, 0 for fixed length frames or VARINT. */
+        private final int prefixLength;
+        private final int fixedLength;
+        private int header;
+        private int headerBytes;
+        /** The length of the current frame or -1 while its header is read. */
+        private int frameLength;
+
+        LengthDecoder(Observer<? super byte[]> observer, int prefixLength, int fixedLength) {
+            super(observer);
+            this.prefixLength = prefixLength;
+            this.fixedLength = fixedLength;
+            this.frameLength = fixedLength;
+        }
+
+        @Override
+        void decodeChunk(ByteBuffer in) {
+            while (in.hasRemaining()) {
+                if (frameLength < 0 && !readHeader(in)) {
+                    return;
+                }
+                if (partialLength == 0 && in.remaining() >= frameLength) {
+                    byte[] frame = new byte[frameLength];
+                    in.get(frame);
+                    frameLength = fixedLength;
+                    observer.onNext(frame);
+                } else {
+                    append(in, Math.min(frameLength - partialLength, in.remaining()));
+                    if (partialLength == frameLength) {
+                        frameLength = fixedLength;
+                        emitPartial();
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return true once the frame length is known, false if more bytes are needed or the header is invalid
+         */
+        private boolean readHeader(ByteBuffer in) {
+            while (in.hasRemaining()) {
+                int b = in.get() & 0xff;
+                if (prefixLength == VARINT) {
+                    header |= (b & 0x7f) << (7 * headerBytes++);
+                    if ((b & 0x80) == 0) {
+                        return startFrame(header);
+                    }
+                    if (headerBytes == 5) {
+                        fail(new IllegalStateException("Varint frame length longer than 5 bytes"));
+                        return false;
+                    }
+                } else {
+                    header = (header << 8) | b;
+                    if (++headerBytes == prefixLength) {
+                        return startFrame(header);
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean startFrame(int length) {
+            header = 0;
+            headerBytes = 0;
+            if (length < 0) {
+                fail(new IllegalStateException("Negative frame length " + length));
+                return false;
+            }
+            frameLength = length;
+            return true;
+        }
+
+        @Override
+        Throwable finish() {
+            if (fixedLength > 0) {
+                if (partialLength > 0) {
+                    emitPartial();
+                }
+                return null;
+            }
+            if (partialLength > 0 || headerBytes > 0 || frameLength > 0) {
+                return new IllegalStateException("Stream ended within a frame");
+            }
+            return null;
+        }
+    }
+}
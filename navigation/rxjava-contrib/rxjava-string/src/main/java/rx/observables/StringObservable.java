@@ -68,79 +68,192 @@ public class StringObservable {
         return Observable.create(new OnSubscribeFunc<String>() {
             @Override
             public Subscription onSubscribe(final Observer<? super String> observer) {
-                return src.subscribe(new Observer<byte[]>() {
-                    private ByteBuffer leftOver = null;
+                return src.subscribe(new DecodeObserver(observer, charsetDecoder));
+            }
+        });
+    }
 
-                    @Override
-                    public void onCompleted() {
-                        if (process(null, leftOver, true))
-                            observer.onCompleted();
-                    }
+    /**
+     * Decodes the chunks into one reused char array, so the only allocation per chunk is the emitted String.
+     * <p>
+     * The bytes of a character split across chunks are carried over in a small array and completed with the first
+     * bytes of the next chunk. ISO-8859-1 is decoded without the decoder since every byte is one char, and for
+     * UTF-8 and US-ASCII the leading ASCII bytes of a chunk are copied directly.
+     */
+    private static final class DecodeObserver implements Observer<byte[]> {
+        private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+        private static final Charset US_ASCII = Charset.forName("US-ASCII");
+        private static final Charset UTF_8 = Charset.forName("UTF-8");
 
-                    @Override
-                    public void onError(Throwable e) {
-                        if (process(null, leftOver, true))
-                            observer.onError(e);
-                    }
+        private final Observer<? super String> observer;
+        private final CharsetDecoder decoder;
+        private final boolean latin1;
+        private final boolean asciiCompatible;
+        private char[] chars = new char[256];
+        private CharBuffer out = CharBuffer.wrap(chars);
+        /** The start of a character whose remaining bytes are in the next chunk. */
+        private byte[] carry = new byte[16];
+        private int carried;
+        private boolean done;
 
-                    @Override
-                    public void onNext(byte[] bytes) {
-                        process(bytes, leftOver, false);
+        DecodeObserver(Observer<? super String> observer, CharsetDecoder decoder) {
+            this.observer = observer;
+            this.decoder = decoder;
+            Charset charset = decoder.charset();
+            this.latin1 = charset.equals(ISO_8859_1);
+            this.asciiCompatible = charset.equals(UTF_8) || charset.equals(US_ASCII);
+            decoder.reset();
+        }
+
+        @Override
+        public void onNext(byte[] bytes) {
+            if (done) {
+                return;
+            }
+            out.clear();
+            int offset = 0;
+            if (carried > 0) {
+                offset = completeCarried(bytes);
+                if (offset < 0) {
+                    return;
+                }
+            }
+            if (latin1) {
+                ensureCapacity(bytes.length - offset);
+                int p = out.position();
+                for (int i = offset; i < bytes.length; i++) {
+                    chars[p++] = (char) (bytes[i] & 0xff);
+                }
+                out.position(p);
+            } else {
+                if (asciiCompatible && carried == 0) {
+                    ensureCapacity(bytes.length - offset);
+                    int p = out.position();
+                    while (offset < bytes.length && bytes[offset] >= 0) {
+                        chars[p++] = (char) bytes[offset++];
                     }
+                    out.position(p);
+                }
+                if (offset < bytes.length) {
+                    ByteBuffer in = ByteBuffer.wrap(bytes, offset, bytes.length - offset);
+                    if (!decode(in, false)) {
+                        return;
+                    }
+                    keep(in);
+                }
+            }
+            emit();
+        }
 
-                    public boolean process(byte[] next, ByteBuffer last, boolean endOfInput) {
-                        ByteBuffer bb;
-                        if (last != null) {
-                            if (next != null) {
-                                // merge leftover in front of the next bytes
-                                bb = ByteBuffer.allocate(last.remaining() + next.length);
-                                bb.put(last);
-                                bb.put(next);
-                                bb.flip();
-                            }
-                            else { // next == null
-                                bb = last;
-                            }
-                        }
-                        else { // last == null
-                            if (next != null) {
-                                bb = ByteBuffer.wrap(next);
-                            }
-                            else { // next == null
-                                return true;
-                            }
-                        }
+        @Override
+        public void onError(Throwable e) {
+            if (!done && flush()) {
+                done = true;
+                observer.onError(e);
+            }
+        }
 
-                        CharBuffer cb = CharBuffer.allocate((int) (bb.limit() * charsetDecoder.averageCharsPerByte()));
-                        CoderResult cr = charsetDecoder.decode(bb, cb, endOfInput);
-                        cb.flip();
-
-                        if (cr.isError()) {
-                            try {
-                                cr.throwException();
-                            }
-                            catch (CharacterCodingException e) {
-                                observer.onError(e);
-                                return false;
-                            }
-                        }
+        @Override
+        public void onCompleted() {
+            if (!done && flush()) {
+                done = true;
+                observer.onCompleted();
+            }
+        }
 
-                        if (bb.remaining() > 0) {
-                            leftOver = bb;
-                        }
-                        else {
-                            leftOver = null;
-                        }
+        /**
+         * Decodes the carried bytes together with the start of the chunk.
+         *
+         * @return the offset in the chunk to continue decoding at, or -1 after an error
+         */
+        private int completeCarried(byte[] bytes) {
+            int take = Math.min(bytes.length, carry.length - carried);
+            System.arraycopy(bytes, 0, carry, carried, take);
+            ByteBuffer in = ByteBuffer.wrap(carry, 0, carried + take);
+            if (!decode(in, false)) {
+                return -1;
+            }
+            int consumed = in.position();
+            if (consumed >= carried) {
+                // the bytes after the completed character are decoded from the chunk itself
+                int offset = consumed - carried;
+                carried = 0;
+                return offset;
+            }
+            if (take == bytes.length) {
+                keep(in);
+                return bytes.length;
+            }
+            // a character longer than the carry array, which no common charset has
+            ByteBuffer merged = ByteBuffer.allocate(in.remaining() + bytes.length - take);
+            merged.put(in).put(bytes, take, bytes.length - take).flip();
+            carried = 0;
+            if (!decode(merged, false)) {
+                return -1;
+            }
+            keep(merged);
+            return bytes.length;
+        }
 
-                        String string = cb.toString();
-                        if (!string.isEmpty())
-                            observer.onNext(string);
+        private boolean flush() {
+            out.clear();
+            ByteBuffer in = ByteBuffer.wrap(carry, 0, carried);
+            carried = 0;
+            if (!decode(in, true)) {
+                return false;
+            }
+            while (decoder.flush(out).isOverflow()) {
+                ensureCapacity(out.remaining() + 1);
+            }
+            emit();
+            return true;
+        }
 
-                        return true;
+        private boolean decode(ByteBuffer in, boolean endOfInput) {
+            ensureCapacity((int) Math.ceil(in.remaining() * decoder.maxCharsPerByte()));
+            for (;;) {
+                CoderResult cr = decoder.decode(in, out, endOfInput);
+                if (cr.isOverflow()) {
+                    ensureCapacity(out.capacity() + 1);
+                } else if (cr.isError()) {
+                    try {
+                        cr.throwException();
+                    } catch (CharacterCodingException e) {
+                        done = true;
+                        observer.onError(e);
                     }
-                });
+                    return false;
+                } else {
+                    return true;
+                }
             }
-        });
+        }
+
+        private void keep(ByteBuffer in) {
+            int n = in.remaining();
+            if (n >= carry.length) {
+                carry = new byte[n * 2];
+            }
+            in.get(carry, 0, n);
+            carried = n;
+        }
+
+        private void ensureCapacity(int n) {
+            if (out.remaining() < n) {
+                char[] a = new char[Math.max(chars.length * 2, out.position() + n)];
+                System.arraycopy(chars, 0, a, 0, out.position());
+                CharBuffer b = CharBuffer.wrap(a);
+                b.position(out.position());
+                chars = a;
+                out = b;
+            }
+        }
+
+        private void emit() {
+            if (out.position() > 0) {
+                observer.onNext(new String(chars, 0, out.position()));
+            }
+        }
     }
 
     /**
@@ -211,12 +324,24 @@ public class StringObservable {
      * resplit(["boo:an", "d:foo"], "o") --> ["b", "", ":and:f", "", ""]
      * 
      * See {@link Pattern}
+     * <p>
+     * A regex without special characters, or a single escaped character, is matched literally: each chunk is scanned
+     * once and a part spanning chunks is collected in a reused buffer, so a long part costs linear time.
      * 
      * @param src
      * @param regex
      * @return
      */
     public static Observable<String> split(final Observable<String> src, String regex) {
+        final String literal = literal(regex);
+        if (literal != null) {
+            return Observable.create(new OnSubscribeFunc<String>() {
+                @Override
+                public Subscription onSubscribe(final Observer<? super String> observer) {
+                    return src.subscribe(new SplitObserver<String>(observer, literal, false, false));
+                }
+            });
+        }
         final Pattern pattern = Pattern.compile(regex);
         return Observable.create(new OnSubscribeFunc<String>() {
             @Override
@@ -268,6 +393,198 @@ public class StringObservable {
             }
         });
     }
+
+    /**
+     * Rechunks the strings into lines and works on infinite stream.
+     * <p>
+     * Lines end with "\n" or "\r\n", which is not part of the emitted line. Like {@link java.io.BufferedReader#readLine()}
+     * an empty line is emitted for every line terminator in a row and the last line does not need one.
+     * 
+     * lines(["a\r\nb", "b\n\nc"]) --> ["a", "bb", "", "c"]
+     * 
+     * @param src
+     * @return
+     */
+    public static Observable<String> lines(final Observable<String> src) {
+        return Observable.create(new OnSubscribeFunc<String>() {
+            @Override
+            public Subscription onSubscribe(final Observer<? super String> observer) {
+                return src.subscribe(new SplitObserver<String>(observer, "\n", true, false));
+            }
+        });
+    }
+
+    /**
+     * Rechunks the strings into lines like {@link #lines(Observable)} but does not copy a line that lies within one
+     * chunk: it is emitted as a read-only view of the chunk. Lines spanning chunks are emitted as Strings.
+     * 
+     * @param src
+     * @return
+     */
+    public static Observable<CharSequence> lineViews(final Observable<String> src) {
+        return Observable.create(new OnSubscribeFunc<CharSequence>() {
+            @Override
+            public Subscription onSubscribe(final Observer<? super CharSequence> observer) {
+                return src.subscribe(new SplitObserver<CharSequence>(observer, "\n", true, true));
+            }
+        });
+    }
+
+    /**
+     * @return the text a regex matches if it has no special characters or is one escaped character, otherwise null
+     */
+    static String literal(String regex) {
+        if (regex.length() == 2 && regex.charAt(0) == '\\' && !Character.isLetterOrDigit(regex.charAt(1))) {
+            return regex.substring(1);
+        }
+        if (regex.isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < regex.length(); i++) {
+            if (".$|()[]{}^?*+\\".indexOf(regex.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+        return regex;
+    }
+
+    /**
+     * Splits on a literal delimiter, scanning every char once.
+     * <p>
+     * A single char delimiter is found with {@link String#indexOf(int, int)} and a longer one with Boyer-Moore-Horspool.
+     * A part that spans chunks is collected in one reused StringBuilder and only the last delimiter length - 1 chars
+     * of it are searched again, for a delimiter that starts in one chunk and ends in the next.
+     */
+    private static final class SplitObserver<R extends CharSequence> implements Observer<String> {
+        private final Observer<? super R> observer;
+        private final String delimiter;
+        /** Horspool shifts by the low byte of a char, the smallest one on collisions; null for a single char. */
+        private final int[] shifts;
+        /** Line semantics: strip a "\r" before the delimiter and keep trailing empty lines. */
+        private final boolean lines;
+        private final boolean views;
+        private final StringBuilder partial = new StringBuilder();
+        private int emptyPartCount;
+
+        SplitObserver(Observer<? super R> observer, String delimiter, boolean lines, boolean views) {
+            this.observer = observer;
+            this.delimiter = delimiter;
+            this.lines = lines;
+            this.views = views;
+            int last = delimiter.length() - 1;
+            if (last == 0) {
+                shifts = null;
+            } else {
+                shifts = new int[256];
+                Arrays.fill(shifts, last + 1);
+                for (int j = 0; j < last; j++) {
+                    shifts[delimiter.charAt(j) & 0xff] = last - j;
+                }
+            }
+        }
+
+        @Override
+        public void onNext(String chunk) {
+            int from = 0;
+            if (shifts != null && partial.length() > 0) {
+                from = matchAcrossChunks(chunk);
+            }
+            for (;;) {
+                int i = indexOf(chunk, from);
+                if (i < 0) {
+                    break;
+                }
+                if (partial.length() == 0) {
+                    int end = lines && i > from && chunk.charAt(i - 1) == '\r' ? i - 1 : i;
+                    output(views ? CharBuffer.wrap(chunk, from, end) : chunk.substring(from, end));
+                } else {
+                    partial.append(chunk, from, i);
+                    outputPartial();
+                }
+                from = i + delimiter.length();
+            }
+            partial.append(chunk, from, chunk.length());
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            finish();
+            observer.onError(e);
+        }
+
+        @Override
+        public void onCompleted() {
+            finish();
+            observer.onCompleted();
+        }
+
+        private void finish() {
+            if (partial.length() > 0) {
+                outputPartial();
+            } else if (!lines) {
+                emptyPartCount++;
+            }
+        }
+
+        /**
+         * @return the offset in the chunk after a delimiter that started in the partial part, otherwise 0
+         */
+        private int matchAcrossChunks(String chunk) {
+            int old = partial.length();
+            partial.append(chunk, 0, Math.min(delimiter.length() - 1, chunk.length()));
+            int i = partial.indexOf(delimiter, Math.max(0, old - delimiter.length() + 1));
+            if (i >= 0 && i < old) {
+                partial.setLength(i);
+                outputPartial();
+                return i + delimiter.length() - old;
+            }
+            partial.setLength(old);
+            return 0;
+        }
+
+        private int indexOf(String s, int from) {
+            if (shifts == null) {
+                return s.indexOf(delimiter.charAt(0), from);
+            }
+            int last = delimiter.length() - 1;
+            char lastChar = delimiter.charAt(last);
+            int n = s.length();
+            for (int i = from + last; i < n;) {
+                char c = s.charAt(i);
+                if (c == lastChar && s.regionMatches(i - last, delimiter, 0, last)) {
+                    return i - last;
+                }
+                i += shifts[c & 0xff];
+            }
+            return -1;
+        }
+
+        private void outputPartial() {
+            int end = partial.length();
+            if (lines && end > 0 && partial.charAt(end - 1) == '\r') {
+                end--;
+            }
+            output(partial.substring(0, end));
+            partial.setLength(0);
+        }
+
+        /**
+         * when splitting trailing empty parts are not emitted.
+         */
+        @SuppressWarnings("unchecked")
+        private void output(CharSequence part) {
+            if (lines) {
+                observer.onNext((R) part);
+            } else if (part.length() == 0) {
+                emptyPartCount++;
+            } else {
+                for (; emptyPartCount > 0; emptyPartCount--)
+                    observer.onNext((R) "");
+                observer.onNext((R) part);
+            }
+        }
+    }
+
     /**
      * Concatenates the sequence of values by adding a separator
      * between them and emitting the result once the source completes.
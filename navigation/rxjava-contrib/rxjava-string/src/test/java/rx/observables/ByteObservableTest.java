@@ -0,0 +1,126 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.observables;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import rx.Observable;
+import rx.observables.ByteObservable.Framing;
+
+public class ByteObservableTest {
+
+    @Test
+    public void testDelimited() {
+        assertFrames(ByteObservable.delimited(Observable.from(new byte[] { 1, 0, 2 }, new byte[] { 3, 0, 0, 4 }), (byte) 0),
+                new byte[] { 1 }, new byte[] { 2, 3 }, new byte[] {}, new byte[] { 4 });
+    }
+
+    @Test
+    public void testDelimitedInChunksOfEverySize() {
+        byte[] stream = "ab\r\ncd\r\n\r\nefg\r\r\nh".getBytes();
+        for (int size = 1; size <= stream.length; size++) {
+            assertFrames(Framing.delimiter((byte) '\r', (byte) '\n'), stream, size,
+                    "ab".getBytes(), "cd".getBytes(), new byte[] {}, "efg\r".getBytes(), "h".getBytes());
+        }
+    }
+
+    @Test
+    public void testFixedLength() {
+        byte[] stream = { 1, 2, 3, 4, 5, 6, 7 };
+        for (int size = 1; size <= stream.length; size++) {
+            assertFrames(Framing.fixedLength(3), stream, size, new byte[] { 1, 2, 3 }, new byte[] { 4, 5, 6 }, new byte[] { 7 });
+        }
+    }
+
+    @Test
+    public void testLengthPrefixed() {
+        byte[] stream = { 0, 2, 1, 2, 0, 0, 0, 3, 3, 4, 5 };
+        for (int size = 1; size <= stream.length; size++) {
+            assertFrames(Framing.lengthPrefix(2), stream, size, new byte[] { 1, 2 }, new byte[] {}, new byte[] { 3, 4, 5 });
+        }
+    }
+
+    @Test
+    public void testVarintPrefixed() {
+        byte[] body = new byte[300];
+        Arrays.fill(body, (byte) 7);
+        byte[] stream = new byte[2 + 300 + 2];
+        // 300 = 0b10_0101100
+        stream[0] = (byte) 0xac;
+        stream[1] = 0x02;
+        System.arraycopy(body, 0, stream, 2, 300);
+        stream[302] = 1;
+        stream[303] = 9;
+        for (int size = 1; size <= 10; size++) {
+            assertFrames(Framing.varintPrefix(), stream, size, body, new byte[] { 9 });
+        }
+    }
+
+    @Test
+    public void testTruncatedFrame() {
+        try {
+            ByteObservable.lengthPrefixed(Observable.from(new byte[] { 3, 1, 2 }), 1).toList().toBlockingObservable().single();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNegativeLength() {
+        try {
+            ByteObservable.lengthPrefixed(Observable.from(new byte[] { (byte) 0xff, 0, 0, 0, 1 }), 4).toList().toBlockingObservable().single();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFrameBuffersConsumesReusedBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.put(new byte[] { 1, 2, 10, 3 }).flip();
+        List<byte[]> frames = ByteObservable.frameBuffers(Observable.from(buffer), Framing.delimiter((byte) 10)).toList().toBlockingObservable().single();
+
+        assertEquals(2, frames.size());
+        assertArrayEquals(new byte[] { 1, 2 }, frames.get(0));
+        assertArrayEquals(new byte[] { 3 }, frames.get(1));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    private static void assertFrames(Framing framing, byte[] stream, int chunkSize, byte[]... expected) {
+        List<byte[]> chunks = new ArrayList<byte[]>();
+        for (int i = 0; i < stream.length; i += chunkSize) {
+            chunks.add(Arrays.copyOfRange(stream, i, Math.min(stream.length, i + chunkSize)));
+        }
+        assertFrames(ByteObservable.frame(Observable.from(chunks), framing), expected);
+    }
+
+    private static void assertFrames(Observable<byte[]> frames, byte[]... expected) {
+        List<byte[]> actual = frames.toList().toBlockingObservable().single();
+        assertEquals(expected.length, actual.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals("frame " + i, expected[i], actual.get(i));
+        }
+    }
+}
@@ -23,6 +23,9 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.MalformedInputException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -41,6 +44,48 @@ public class StringObservableTest {
         assertEquals("\u00A1", out);
     }
 
+    @Test
+    public void testMultibyteSpanningThreeBuffers() {
+        Observable<byte[]> src = Observable.from(new byte[] { 65, (byte) 0xe2 }, new byte[] { (byte) 0x82 }, new byte[] { (byte) 0xac, 66 });
+        String out = StringObservable.stringConcat(StringObservable.decode(src, "UTF-8")).toBlockingObservable().single();
+
+        assertEquals("A\u20ACB", out);
+    }
+
+    @Test
+    public void testChunksOfEverySize() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("a\u00A1\u20AC\uD83D\uDE00".charAt(i % 5));
+        }
+        String text = sb.toString();
+        byte[] bytes = text.getBytes(Charset.forName("UTF-8"));
+        for (int size = 1; size <= 9; size++) {
+            List<byte[]> chunks = new ArrayList<byte[]>();
+            for (int i = 0; i < bytes.length; i += size) {
+                chunks.add(Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + size)));
+            }
+            String out = StringObservable.stringConcat(StringObservable.decode(Observable.from(chunks), "UTF-8")).toBlockingObservable().single();
+            assertEquals("chunk size " + size, text, out);
+        }
+    }
+
+    @Test
+    public void testLatin1() {
+        Observable<byte[]> src = Observable.from(new byte[] { 65, (byte) 0xe9 }, new byte[] { (byte) 0xff });
+        String out = StringObservable.stringConcat(StringObservable.decode(src, "ISO-8859-1")).toBlockingObservable().single();
+
+        assertEquals("A\u00E9\u00FF", out);
+    }
+
+    @Test
+    public void testAsciiNonAsciiReplace() {
+        Observable<byte[]> src = Observable.from(new byte[] { 65, (byte) 0x80, 66 });
+        String out = StringObservable.decode(src, "US-ASCII").toBlockingObservable().single();
+
+        assertEquals("A\uFFFDB", out);
+    }
+
     @Test
     public void testMalformedAtTheEndReplace() {
         Observable<byte[]> src = Observable.from(new byte[] { (byte) 0xc2 });
@@ -115,6 +160,73 @@ public class StringObservableTest {
         testSplit("boo:and:foo", "o", 0, "b", "", ":and:f");
     }
 
+    @Test
+    public void testSplitOnMultiCharLiteral() {
+        testSplit("boo::and::::foo::", "::", 0, "boo", "and", "", "foo");
+    }
+
+    @Test
+    public void testSplitOnEscapedChar() {
+        testSplit("boo|and|foo", "\\|", 0, "boo", "and", "foo");
+    }
+
+    @Test
+    public void testSplitOnRegex() {
+        testSplit("boo:and;foo", "[:;]", 0, "boo", "and", "foo");
+    }
+
+    @Test
+    public void testSplitLiteralSpanningManyChunks() {
+        Observable<String> src = Observable.from("ab<", "-", "->cd<-", "-", ">e");
+        AssertObservable.assertObservableEqualsBlocking("", Observable.from("ab", "cd", "e"), StringObservable.split(src, "<-->"));
+    }
+
+    @Test
+    public void testLiteral() {
+        assertEquals(":", StringObservable.literal(":"));
+        assertEquals("|", StringObservable.literal("\\|"));
+        assertEquals("ab", StringObservable.literal("ab"));
+        assertNull(StringObservable.literal("a|b"));
+        assertNull(StringObservable.literal("\\s"));
+        assertNull(StringObservable.literal(""));
+    }
+
+    @Test
+    public void testLines() {
+        String str = "a\r\nbb\n\nc\r\n\nd";
+        for (int i = 0; i < str.length(); i++) {
+            Observable<String> src = Observable.from(str.substring(0, i), str.substring(i));
+            AssertObservable.assertObservableEqualsBlocking("split at " + i, Observable.from("a", "bb", "", "c", "", "d"), StringObservable.lines(src));
+        }
+    }
+
+    @Test
+    public void testLinesDoNotEmitAfterLastTerminator() {
+        AssertObservable.assertObservableEqualsBlocking("", Observable.from("a", "b"), StringObservable.lines(Observable.from("a\nb\n")));
+    }
+
+    @Test
+    public void testLongLineSpanningChunks() {
+        List<String> chunks = new ArrayList<String>();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            chunks.add("0123456789");
+            expected.append("0123456789");
+        }
+        chunks.add("\nx");
+        List<String> lines = StringObservable.lines(Observable.from(chunks)).toList().toBlockingObservable().single();
+        assertEquals(Arrays.asList(expected.toString(), "x"), lines);
+    }
+
+    @Test
+    public void testLineViews() {
+        List<CharSequence> lines = StringObservable.lineViews(Observable.from("a\nbc\nd", "e\n")).toList().toBlockingObservable().single();
+        assertEquals(3, lines.size());
+        assertEquals("a", lines.get(0).toString());
+        assertEquals("bc", lines.get(1).toString());
+        assertEquals("de", lines.get(2).toString());
+    }
+
     public void testSplit(String str, String regex, int limit, String... parts) {
         testSplit(str, regex, 0, Observable.from(str), parts);
         for (int i = 0; i < str.length(); i++) {
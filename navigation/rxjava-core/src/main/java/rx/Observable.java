@@ -30,6 +30,7 @@ import java.util.concurrent.TimeUnit;
 import rx.joins.Pattern2;
 import rx.joins.Plan0;
 import rx.observables.BlockingObservable;
+import rx.observables.CachedObservable;
 import rx.observables.ConnectableObservable;
 import rx.observables.GroupedObservable;
 import rx.observers.SafeSubscriber;
@@ -63,7 +64,6 @@ import rx.operators.OperationMaterialize;
 import rx.operators.OperationMergeDelayError;
 import rx.operators.OperationMinMax;
 import rx.operators.OperationMulticast;
-import rx.operators.OperationObserveOn;
 import rx.operators.OperationOnErrorResumeNextViaFunction;
 import rx.operators.OperationOnErrorResumeNextViaObservable;
 import rx.operators.OperationOnErrorReturn;
@@ -99,10 +99,12 @@ import rx.operators.OperationUsing;
 import rx.operators.OperationWindow;
 import rx.operators.OperatorZip;
 import rx.operators.OperatorCast;
+import rx.operators.OperatorConcatEager;
 import rx.operators.OperatorFromIterable;
 import rx.operators.OperatorGroupBy;
 import rx.operators.OperatorMap;
 import rx.operators.OperatorMerge;
+import rx.operators.OperatorObserveOn;
 import rx.operators.OperatorParallel;
 import rx.operators.OperatorTake;
 import rx.operators.OperatorTimestamp;
@@ -118,6 +120,7 @@ import rx.subjects.PublishSubject;
 import rx.subjects.ReplaySubject;
 import rx.subjects.Subject;
 import rx.subscriptions.Subscriptions;
+import rx.util.Backoff;
 import rx.util.OnErrorNotImplementedException;
 import rx.util.Range;
 import rx.util.TimeInterval;
@@ -246,15 +249,18 @@ public class Observable<T> {
      * observable.map(...).filter(...).take(5).lift(new ObserverA()).lift(new ObserverB(...)).subscribe()
      * }
      * 
+     * The function is passed through {@link RxJavaObservableExecutionHook#onLift} once, when this method is called.
+     * 
      * @param bind
      * @return an Observable that emits values that are the result of applying the bind function to the values of the current Observable
      */
     public <R> Observable<R> lift(final Func1<Subscriber<? super R>, Subscriber<? super T>> bind) {
+        final Func1<Subscriber<? super R>, Subscriber<? super T>> hooked = hook.onLift(this, bind);
         return new Observable<R>(new OnSubscribe<R>() {
 
             @Override
             public void call(Subscriber<? super R> o) {
-                subscribe(bind.call(o));
+                subscribe(hooked.call(o));
             }
         });
     }
@@ -810,6 +816,29 @@ public class Observable<T> {
         return create(OperationConcat.concat(observables));
     }
 
+    /**
+     * Returns an Observable that emits the items emitted by each of the Observables emitted by an
+     * Observable, one after the other, without interleaving them, while subscribing to up to
+     * {@code maxConcurrent} of them at the same time.
+     * <p>
+     * Unlike {@link #concat(Observable)}, which subscribes to the next Observable only after the
+     * previous one completed, this subscribes eagerly and buffers the items of the Observables that
+     * are not at the front yet. The emitted sequence is the same as with {@code concat}.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/concat.png">
+     * 
+     * @param observables
+     *            an Observable that emits Observables
+     * @param maxConcurrent
+     *            the maximum number of Observables subscribed to at the same time
+     * @return an Observable that emits all of the items emitted by the Observables emitted by {@code observables}, one after the other, without interleaving them
+     * @see #concat(Observable)
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public final static <T> Observable<T> concatEager(Observable<? extends Observable<? extends T>> observables, int maxConcurrent) {
+        return observables.lift(new OperatorConcatEager(maxConcurrent));
+    }
+
     /**
      * Returns an Observable that emits the items emitted by two Observables, one after the other,
      * without interleaving them.
@@ -1793,6 +1822,63 @@ public class Observable<T> {
         return source.lift(new OperatorMerge(maxConcurrent)); // any idea how to get these generics working?!
     }
 
+    /**
+     * Flattens an Observable that emits Observables into a single Observable that emits the items
+     * emitted by those Observables, without any transformation, while limiting the maximum number
+     * of concurrent subscriptions to these Observables and the number of Observables waiting for one.
+     * <p>
+     * When {@code maxBacklog} Observables are already waiting, the thread on which {@code source}
+     * emits the next one is blocked until a subscribed Observable completes. This throttles
+     * {@code source} instead of buffering an unbounded number of Observables, so the subscribed
+     * Observables must not need that thread to complete.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/merge.oo.png">
+     * 
+     * @param source
+     *            an Observable that emits Observables
+     * @param maxConcurrent
+     *            the maximum number of Observables that may be subscribed to concurrently
+     * @param maxBacklog
+     *            the maximum number of Observables that may wait for a subscription slot
+     * @return an Observable that emits items that are the result of flattening the Observables
+     *         emitted by the {@code source} Observable
+     * @throw IllegalArgumentException if {@code maxConcurrent} or {@code maxBacklog} is less than or equal to 0
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Combining-Observables#wiki-merge">RxJava Wiki: merge()</a>
+     */
+    public final static <T> Observable<T> merge(Observable<? extends Observable<? extends T>> source, int maxConcurrent, int maxBacklog) {
+        return merge(source, maxConcurrent, maxBacklog, OperatorMerge.BacklogPolicy.BLOCK);
+    }
+
+    /**
+     * Flattens an Observable that emits Observables into a single Observable that emits the items
+     * emitted by those Observables, without any transformation, while limiting the maximum number
+     * of concurrent subscriptions to these Observables and the number of Observables waiting for one.
+     * <p>
+     * The {@code policy} decides what happens to an Observable emitted while {@code maxBacklog}
+     * Observables are already waiting: {@link OperatorMerge.BacklogPolicy#BLOCK} throttles
+     * {@code source} by blocking the thread it emits on until a subscribed Observable completes,
+     * {@link OperatorMerge.BacklogPolicy#ERROR} fails with a
+     * {@link java.util.concurrent.RejectedExecutionException}.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/merge.oo.png">
+     * 
+     * @param source
+     *            an Observable that emits Observables
+     * @param maxConcurrent
+     *            the maximum number of Observables that may be subscribed to concurrently
+     * @param maxBacklog
+     *            the maximum number of Observables that may wait for a subscription slot
+     * @param policy
+     *            what to do when the backlog is full
+     * @return an Observable that emits items that are the result of flattening the Observables
+     *         emitted by the {@code source} Observable
+     * @throw IllegalArgumentException if {@code maxConcurrent} or {@code maxBacklog} is less than or equal to 0
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Combining-Observables#wiki-merge">RxJava Wiki: merge()</a>
+     */
+    public final static <T> Observable<T> merge(Observable<? extends Observable<? extends T>> source, int maxConcurrent, int maxBacklog, OperatorMerge.BacklogPolicy policy) {
+        return source.lift(new OperatorMerge(maxConcurrent, maxBacklog, policy)); // any idea how to get these generics working?!
+    }
+
     /**
      * Flattens two Observables into a single Observable, without any transformation.
      * <p>
@@ -3795,6 +3881,78 @@ public class Observable<T> {
         return create(OperationCache.cache(this));
     }
 
+    /**
+     * Returns a {@link CachedObservable} that subscribes to the source Observable when it is first
+     * subscribed to and replays at most the last {@code maxItems} items it emitted, plus its
+     * terminal notification, to all subsequent {@link Subscriber}s.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/cache.png">
+     * <p>
+     * Unlike {@link #cache()} this is safe to use on Observables that emit a large or infinite
+     * number of items. Call {@link CachedObservable#invalidate} to release the source and let the
+     * next {@link Subscriber} start a new cache.
+     * 
+     * @param maxItems
+     *            the maximum number of items to cache
+     * @return a {@link CachedObservable} that, when first subscribed to, caches the last
+     *         {@code maxItems} items and the notifications of the source Observable
+     * @throws IllegalArgumentException
+     *             if {@code maxItems} is less than or equal to 0
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Observable-Utility-Operators#wiki-cache">RxJava Wiki: cache()</a>
+     */
+    public final CachedObservable<T> cache(int maxItems) {
+        return OperationCache.cache(this, maxItems);
+    }
+
+    /**
+     * Returns a {@link CachedObservable} that subscribes to the source Observable when it is first
+     * subscribed to, caches all of its items and notifications for the benefit of subsequent
+     * {@link Subscriber}s and expires after a specified time.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/cache.png">
+     * <p>
+     * The first {@link Subscriber} to arrive once {@code time} has passed since the source was
+     * subscribed to drops the cache and subscribes to the source again. Call
+     * {@link CachedObservable#invalidate} to do the same before the time is up.
+     * 
+     * @param time
+     *            how long the cached items are replayed
+     * @param unit
+     *            the time unit of {@code time}
+     * @return a {@link CachedObservable} that, when first subscribed to, caches all of the items
+     *         and notifications of the source Observable for {@code time}
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Observable-Utility-Operators#wiki-cache">RxJava Wiki: cache()</a>
+     */
+    public final CachedObservable<T> cache(long time, TimeUnit unit) {
+        return cache(time, unit, Schedulers.computation());
+    }
+
+    /**
+     * Returns a {@link CachedObservable} that subscribes to the source Observable when it is first
+     * subscribed to, caches all of its items and notifications for the benefit of subsequent
+     * {@link Subscriber}s and expires after a specified time, measured by a specified
+     * {@link Scheduler}.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/cache.png">
+     * <p>
+     * The first {@link Subscriber} to arrive once {@code time} has passed since the source was
+     * subscribed to drops the cache and subscribes to the source again. Call
+     * {@link CachedObservable#invalidate} to do the same before the time is up.
+     * 
+     * @param time
+     *            how long the cached items are replayed
+     * @param unit
+     *            the time unit of {@code time}
+     * @param scheduler
+     *            the scheduler that is the time source for the expiration
+     * @return a {@link CachedObservable} that, when first subscribed to, caches all of the items
+     *         and notifications of the source Observable for {@code time}
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Observable-Utility-Operators#wiki-cache">RxJava Wiki: cache()</a>
+     */
+    public final CachedObservable<T> cache(long time, TimeUnit unit, Scheduler scheduler) {
+        return OperationCache.cache(this, time, unit, scheduler);
+    }
+
     /**
      * Returns an Observable that emits the items emitted by the source Observable, converted to the
      * specified type.
@@ -3857,6 +4015,51 @@ public class Observable<T> {
         return concat(map(func));
     }
 
+    /**
+     * Returns a new Observable that emits items resulting from applying a function that you supply
+     * to each item emitted by the source Observable, where that function returns an Observable, and
+     * then emitting the items of those resulting Observables in the order of the source items.
+     * <p>
+     * Unlike {@link #concatMap(Func1)} the resulting Observables are all subscribed to as soon as they
+     * are created, so they run concurrently while their items are still emitted without interleaving.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/concatMap.png">
+     * 
+     * @param func
+     *            a function that, when applied to an item emitted by the source Observable, returns
+     *            an Observable
+     * @return an Observable that emits the result of applying the transformation function to each
+     *         item emitted by the source Observable and concatinating the Observables obtained from
+     *         this transformation
+     * @see #concatMapEager(Func1, int)
+     */
+    public final <R> Observable<R> concatMapEager(Func1<? super T, ? extends Observable<? extends R>> func) {
+        return concatEager(map(func), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a new Observable that emits items resulting from applying a function that you supply
+     * to each item emitted by the source Observable, where that function returns an Observable, and
+     * then emitting the items of those resulting Observables in the order of the source items.
+     * <p>
+     * Up to {@code maxConcurrent} of the resulting Observables are subscribed to at the same time;
+     * the items of those that are not at the front yet are buffered until it is their turn.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/concatMap.png">
+     * 
+     * @param func
+     *            a function that, when applied to an item emitted by the source Observable, returns
+     *            an Observable
+     * @param maxConcurrent
+     *            the maximum number of resulting Observables subscribed to at the same time
+     * @return an Observable that emits the result of applying the transformation function to each
+     *         item emitted by the source Observable and concatinating the Observables obtained from
+     *         this transformation
+     */
+    public final <R> Observable<R> concatMapEager(Func1<? super T, ? extends Observable<? extends R>> func, int maxConcurrent) {
+        return concatEager(map(func), maxConcurrent);
+    }
+
     /**
      * Returns an Observable that emits a Boolean that indicates whether the source Observable
      * emitted a specified item.
@@ -4536,6 +4739,32 @@ public class Observable<T> {
         return mergeMap(func);
     }
 
+    /**
+     * Creates a new Observable by applying a function that you supply to each item emitted by the
+     * source Observable, where that function returns an Observable, and then merging those resulting
+     * Observables while subscribing to at most {@code maxConcurrent} of them at the same time.
+     * <p>
+     * Up to 128 further resulting Observables wait for a free slot. Beyond that the source Observable
+     * is throttled: the thread emitting its items is blocked until one of the subscribed Observables
+     * completes, so the resulting Observables must not need that thread to complete.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/flatMap.png">
+     * 
+     * @param func
+     *            a function that, when applied to an item emitted by the source Observable, returns
+     *            an Observable
+     * @param maxConcurrent
+     *            the maximum number of resulting Observables subscribed to at the same time
+     * @return an Observable that emits the result of applying the transformation function to each
+     *         item emitted by the source Observable and merging the results of the Observables
+     *         obtained from this transformation
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Transforming-Observables#wiki-mapmany-or-flatmap-and-mapmanydelayerror">RxJava Wiki: flatMap()</a>
+     * @see #mergeMap(Func1, int)
+     */
+    public final <R> Observable<R> flatMap(Func1<? super T, ? extends Observable<? extends R>> func, int maxConcurrent) {
+        return mergeMap(func, maxConcurrent);
+    }
+
     /**
      * Groups the items emitted by an Observable according to a specified criterion, and emits these
      * grouped items as {@link GroupedObservable}s, one {@code GroupedObservable} per group.
@@ -4555,6 +4784,125 @@ public class Observable<T> {
         return lift(new OperatorGroupBy<K, T>(keySelector));
     }
 
+    /**
+     * Groups the items emitted by an Observable according to a specified criterion while keeping
+     * at most {@code maxGroups} groups open, and emits these grouped items as {@link GroupedObservable}s.
+     * <p>
+     * Opening a group beyond {@code maxGroups} completes the least recently used group. A later item
+     * with the key of a completed group opens a new {@code GroupedObservable} for that key. Each group
+     * buffers up to {@link OperatorGroupBy#DEFAULT_GROUP_BUFFER_SIZE} items until it is subscribed to;
+     * one more fails the Observable with a {@link java.util.concurrent.RejectedExecutionException}.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/groupBy.png">
+     * 
+     * @param keySelector
+     *            a function that extracts the key for each item
+     * @param maxGroups
+     *            the maximum number of groups open at the same time
+     * @param <K>
+     *            the key type
+     * @return an Observable that emits {@link GroupedObservable}s, each of which emits those items
+     *         from the source Observable that share a key value while the group is open
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Transforming-Observables#wiki-groupby-and-groupbyuntil">RxJava Wiki: groupBy</a>
+     */
+    public final <K> Observable<GroupedObservable<K, T>> groupBy(final Func1<? super T, ? extends K> keySelector, int maxGroups) {
+        return lift(new OperatorGroupBy<K, T>(keySelector, maxGroups, 0, TimeUnit.MILLISECONDS, Schedulers.computation()));
+    }
+
+    /**
+     * Groups the items emitted by an Observable according to a specified criterion while keeping
+     * at most {@code maxGroups} groups open and completing groups that stay idle for
+     * {@code maxIdleTime}, and emits these grouped items as {@link GroupedObservable}s.
+     * <p>
+     * Idle groups are detected on the {@code computation} {@link Scheduler}.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/groupBy.png">
+     * 
+     * @param keySelector
+     *            a function that extracts the key for each item
+     * @param maxGroups
+     *            the maximum number of groups open at the same time
+     * @param maxIdleTime
+     *            the time after which a group that received no item is completed
+     * @param unit
+     *            the unit of {@code maxIdleTime}
+     * @param <K>
+     *            the key type
+     * @return an Observable that emits {@link GroupedObservable}s, each of which emits those items
+     *         from the source Observable that share a key value while the group is open
+     * @see #groupBy(Func1, int)
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Transforming-Observables#wiki-groupby-and-groupbyuntil">RxJava Wiki: groupBy</a>
+     */
+    public final <K> Observable<GroupedObservable<K, T>> groupBy(final Func1<? super T, ? extends K> keySelector, int maxGroups, long maxIdleTime, TimeUnit unit) {
+        return groupBy(keySelector, maxGroups, maxIdleTime, unit, Schedulers.computation());
+    }
+
+    /**
+     * Groups the items emitted by an Observable according to a specified criterion while keeping
+     * at most {@code maxGroups} groups open and completing groups that stay idle for
+     * {@code maxIdleTime}, and emits these grouped items as {@link GroupedObservable}s.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/groupBy.png">
+     * 
+     * @param keySelector
+     *            a function that extracts the key for each item
+     * @param maxGroups
+     *            the maximum number of groups open at the same time
+     * @param maxIdleTime
+     *            the time after which a group that received no item is completed
+     * @param unit
+     *            the unit of {@code maxIdleTime}
+     * @param scheduler
+     *            the {@link Scheduler} on which idle groups are detected
+     * @param <K>
+     *            the key type
+     * @return an Observable that emits {@link GroupedObservable}s, each of which emits those items
+     *         from the source Observable that share a key value while the group is open
+     * @see #groupBy(Func1, int)
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Transforming-Observables#wiki-groupby-and-groupbyuntil">RxJava Wiki: groupBy</a>
+     */
+    public final <K> Observable<GroupedObservable<K, T>> groupBy(final Func1<? super T, ? extends K> keySelector, int maxGroups, long maxIdleTime, TimeUnit unit, Scheduler scheduler) {
+        return lift(new OperatorGroupBy<K, T>(keySelector, maxGroups, maxIdleTime, unit, scheduler));
+    }
+
+    /**
+     * Groups the items emitted by an Observable according to a specified criterion while keeping
+     * at most {@code maxGroups} groups open and completing groups that stay idle for
+     * {@code maxIdleTime}, and emits these grouped items as {@link GroupedObservable}s.
+     * <p>
+     * Each group buffers up to {@code groupBufferSize} items until it is subscribed to. The
+     * {@code policy} decides what happens to an item for a group whose buffer is full:
+     * {@link OperatorGroupBy.OverflowPolicy#DROP} drops it, {@link OperatorGroupBy.OverflowPolicy#ERROR}
+     * fails the Observable with a {@link java.util.concurrent.RejectedExecutionException}.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/groupBy.png">
+     * 
+     * @param keySelector
+     *            a function that extracts the key for each item
+     * @param maxGroups
+     *            the maximum number of groups open at the same time
+     * @param maxIdleTime
+     *            the time after which a group that received no item is completed, or 0 to keep
+     *            idle groups open
+     * @param unit
+     *            the unit of {@code maxIdleTime}
+     * @param scheduler
+     *            the {@link Scheduler} on which idle groups are detected
+     * @param groupBufferSize
+     *            the maximum number of items a group buffers
+     * @param policy
+     *            what to do when the buffer of a group is full
+     * @param <K>
+     *            the key type
+     * @return an Observable that emits {@link GroupedObservable}s, each of which emits those items
+     *         from the source Observable that share a key value while the group is open
+     * @see #groupBy(Func1, int)
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Transforming-Observables#wiki-groupby-and-groupbyuntil">RxJava Wiki: groupBy</a>
+     */
+    public final <K> Observable<GroupedObservable<K, T>> groupBy(final Func1<? super T, ? extends K> keySelector, int maxGroups, long maxIdleTime, TimeUnit unit, Scheduler scheduler, int groupBufferSize, OperatorGroupBy.OverflowPolicy policy) {
+        return lift(new OperatorGroupBy<K, T>(keySelector, maxGroups, maxIdleTime, unit, scheduler, groupBufferSize, policy));
+    }
+
     /**
      * Groups the items emitted by an Observable according to a specified criterion, and emits these
      * grouped items, transformed by a selector, within {@link GroupedObservable}s, one {@code GroupedObservable} per group.
@@ -4935,6 +5283,31 @@ public class Observable<T> {
         return merge(map(func));
     }
 
+    /**
+     * Creates a new Observable by applying a function that you supply to each item emitted by the
+     * source Observable, where that function returns an Observable, and then merging those resulting
+     * Observables while subscribing to at most {@code maxConcurrent} of them at the same time.
+     * <p>
+     * Up to 128 further resulting Observables wait for a free slot. Beyond that the source Observable
+     * is throttled: the thread emitting its items is blocked until one of the subscribed Observables
+     * completes, so the resulting Observables must not need that thread to complete.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/mergeMap.png">
+     * 
+     * @param func
+     *            a function that, when applied to an item emitted by the source Observable, returns
+     *            an Observable
+     * @param maxConcurrent
+     *            the maximum number of resulting Observables subscribed to at the same time
+     * @return an Observable that emits the result of applying the transformation function to each
+     *         item emitted by the source Observable and merging the results of the Observables
+     *         obtained from these transformations
+     * @see #merge(Observable, int, int)
+     */
+    public final <R> Observable<R> mergeMap(Func1<? super T, ? extends Observable<? extends R>> func, int maxConcurrent) {
+        return merge(map(func), maxConcurrent, OperatorMerge.DEFAULT_MAX_BACKLOG);
+    }
+
     /**
      * Returns an Observable that applies a function to each item emitted or notification raised by
      * the source Observable and then flattens the Observables returned from these functions and
@@ -5128,6 +5501,27 @@ public class Observable<T> {
         return OperationMulticast.multicast(this, subject);
     }
 
+    /**
+     * Returns a {@link ConnectableObservable} that upon connection causes the source Observable to
+     * push results into a subject created by the specified factory.
+     * <p>
+     * Observers that subscribe after the source Observable terminated receive the terminal
+     * notification of the subject, as with {@link #multicast(Subject)}. Only when a
+     * {@link ConnectableObservable#refCount refCount}'d Observable is subscribed to again after that,
+     * a new subject is created for the new connection, so that it can reconnect.
+     * 
+     * @param subjectFactory
+     *            the {@link Subject} factory
+     * @param <R>
+     *            the type of items emitted by the resulting {@code ConnectableObservable}
+     * @return a {@link ConnectableObservable} that upon connection causes the source Observable to
+     *         push results into a {@link Subject} created by {@code subjectFactory}
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Connectable-Observable-Operators#wiki-observablepublish-and-observablemulticast">RxJava Wiki: Observable.publish() and Observable.multicast()</a>
+     */
+    public final <R> ConnectableObservable<R> multicast(Func0<? extends Subject<? super T, ? extends R>> subjectFactory) {
+        return OperationMulticast.multicast(this, subjectFactory);
+    }
+
     /**
      * Modify the source Observable so that it asynchronously notifies {@link Observer}s on the
      * specified {@link Scheduler}.
@@ -5141,7 +5535,7 @@ public class Observable<T> {
      * @see <a href="https://github.com/Netflix/RxJava/wiki/Observable-Utility-Operators#wiki-observeon">RxJava Wiki: observeOn()</a>
      */
     public final Observable<T> observeOn(Scheduler scheduler) {
-        return create(OperationObserveOn.observeOn(this, scheduler));
+        return lift(new OperatorObserveOn<T>(scheduler));
     }
 
     /**
@@ -5307,6 +5701,93 @@ public class Observable<T> {
         return lift(new OperatorParallel<T, R>(f, s));
     }
 
+    /**
+     * Perform work on the source {@code Observable<T>} in parallel by partitioning it by key on a {@link Schedulers#computation()} {@link Scheduler}, and return the resulting {@code Observable<R>}.
+     * <p>
+     * Items for which {@code partitioner} returns equal keys are processed by the same rail, in the order the source
+     * emitted them. Each rail buffers up to {@link OperatorParallel#DEFAULT_RAIL_QUEUE_SIZE} items; when a rail is full
+     * the source is throttled, by processing the rail's items on its own thread if no other thread is doing so.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/parallel.png">
+     * 
+     * @param f
+     *            a {@link Func1} that applies Observable Observers to {@code Observable<T>} in
+     *            parallel and returns an {@code Observable<R>}
+     * @param partitioner
+     *            a {@link Func1} that returns the key an item is partitioned by
+     * @return an Observable that emits the results of applying {@link Func1} to the items emitted
+     *         by the source Observable
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Observable-Utility-Operators#wiki-parallel">RxJava Wiki: parallel()</a>
+     */
+    public final <R> Observable<R> parallel(final Func1<Observable<T>, Observable<R>> f, final Func1<? super T, ?> partitioner) {
+        return parallel(f, partitioner, false, Schedulers.computation());
+    }
+
+    /**
+     * Perform work on the source {@code Observable<T>} in parallel by partitioning it by key on a {@link Scheduler}, and return the resulting {@code Observable<R>}.
+     * <p>
+     * Items for which {@code partitioner} returns equal keys are processed by the same rail, in the order the source
+     * emitted them. Each rail buffers up to {@link OperatorParallel#DEFAULT_RAIL_QUEUE_SIZE} items; when a rail is full
+     * the source is throttled, by processing the rail's items on its own thread if no other thread is doing so.
+     * <p>
+     * If {@code ordered} is true the results of all rails are emitted in the order of the source items. This requires
+     * {@code f} to emit exactly one item for each item it receives, as {@code map} does.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/parallel.png">
+     * 
+     * @param f
+     *            a {@link Func1} that applies Observable Observers to {@code Observable<T>} in
+     *            parallel and returns an {@code Observable<R>}
+     * @param partitioner
+     *            a {@link Func1} that returns the key an item is partitioned by
+     * @param ordered
+     *            whether to emit the results in the order of the source items
+     * @param s
+     *            a {@link Scheduler} to perform the work on
+     * @return an Observable that emits the results of applying {@link Func1} to the items emitted
+     *         by the source Observable
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Observable-Utility-Operators#wiki-parallel">RxJava Wiki: parallel()</a>
+     */
+    public final <R> Observable<R> parallel(final Func1<Observable<T>, Observable<R>> f, final Func1<? super T, ?> partitioner, boolean ordered, final Scheduler s) {
+        return parallel(f, partitioner, ordered, OperatorParallel.DEFAULT_RAIL_QUEUE_SIZE, OperatorParallel.OverflowPolicy.BLOCK, s);
+    }
+
+    /**
+     * Perform work on the source {@code Observable<T>} in parallel by partitioning it by key on a {@link Scheduler}, and return the resulting {@code Observable<R>}.
+     * <p>
+     * Items for which {@code partitioner} returns equal keys are processed by the same rail, in the order the source
+     * emitted them. Each rail buffers up to {@code railQueueSize} items. The {@code policy} decides what happens to an
+     * item for a full rail: {@link OperatorParallel.OverflowPolicy#BLOCK} throttles the source, by processing the
+     * rail's items on its own thread if no other thread is doing so, {@link OperatorParallel.OverflowPolicy#ERROR}
+     * fails with a {@link java.util.concurrent.RejectedExecutionException}.
+     * <p>
+     * If {@code ordered} is true the results of all rails are emitted in the order of the source items. This requires
+     * {@code f} to emit exactly one item for each item it receives, as {@code map} does.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/parallel.png">
+     * 
+     * @param f
+     *            a {@link Func1} that applies Observable Observers to {@code Observable<T>} in
+     *            parallel and returns an {@code Observable<R>}
+     * @param partitioner
+     *            a {@link Func1} that returns the key an item is partitioned by
+     * @param ordered
+     *            whether to emit the results in the order of the source items
+     * @param railQueueSize
+     *            the maximum number of items a rail buffers
+     * @param policy
+     *            what to do when a rail is full
+     * @param s
+     *            a {@link Scheduler} to perform the work on
+     * @return an Observable that emits the results of applying {@link Func1} to the items emitted
+     *         by the source Observable
+     * @throw IllegalArgumentException if {@code railQueueSize} is less than or equal to 0
+     * @see <a href="https://github.com/Netflix/RxJava/wiki/Observable-Utility-Operators#wiki-parallel">RxJava Wiki: parallel()</a>
+     */
+    public final <R> Observable<R> parallel(final Func1<Observable<T>, Observable<R>> f, final Func1<? super T, ?> partitioner, boolean ordered, int railQueueSize, OperatorParallel.OverflowPolicy policy, final Scheduler s) {
+        return lift(new OperatorParallel<T, R>(f, partitioner, railQueueSize, policy, ordered, s));
+    }
+
     /**
      * Protects against errors being thrown from Observer implementations and ensures
      * onNext/onError/onCompleted contract compliance.
@@ -5323,13 +5804,24 @@ public class Observable<T> {
      * items to those {@link Observer}s that have subscribed to it.
      * <p>
      * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/publishConnect.png">
+     * <p>
+     * After the source Observable terminated, {@link Observer}s that subscribe receive the terminal
+     * notification, unless the Observable is {@link ConnectableObservable#refCount refCount}'d and
+     * connects again for them.
      * 
      * @return a {@link ConnectableObservable} that upon connection causes the source Observable to
      *         emit items to its {@link Observer}s
      * @see <a href="https://github.com/Netflix/RxJava/wiki/Connectable-Observable-Operators#wiki-observablepublish-and-observablemulticast">RxJava Wiki: publish()</a>
      */
     public final ConnectableObservable<T> publish() {
-        return OperationMulticast.multicast(this, PublishSubject.<T> create());
+        return OperationMulticast.multicast(this, new Func0<Subject<T, T>>() {
+
+            @Override
+            public Subject<T, T> call() {
+                return PublishSubject.<T> create();
+            }
+
+        });
     }
 
     /**
@@ -5538,6 +6030,43 @@ public class Observable<T> {
         return create(OperationRepeat.repeat(this, scheduler));
     }
 
+    /**
+     * Returns an Observable that repeats the sequence of items emitted by the source Observable
+     * as long as the {@link Backoff} policy allows, waiting the delay of the policy before each
+     * repetition.
+     * <p>
+     * The error predicate of the policy is not used; an error of the source Observable is always
+     * passed on.
+     * 
+     * @param policy
+     *            decides whether and after which delay to resubscribe after the source completes
+     * @return an Observable that emits the items emitted by the source Observable repeatedly and in
+     *         sequence
+     * @see #repeat(Backoff, Scheduler)
+     */
+    public final Observable<T> repeat(Backoff policy) {
+        return repeat(policy, Schedulers.computation());
+    }
+
+    /**
+     * Returns an Observable that repeats the sequence of items emitted by the source Observable
+     * as long as the {@link Backoff} policy allows, waiting the delay of the policy on a
+     * particular scheduler before each repetition.
+     * <p>
+     * The error predicate of the policy is not used; an error of the source Observable is always
+     * passed on.
+     * 
+     * @param policy
+     *            decides whether and after which delay to resubscribe after the source completes
+     * @param scheduler
+     *            the scheduler to wait on between repetitions
+     * @return an Observable that emits the items emitted by the source Observable repeatedly and in
+     *         sequence
+     */
+    public final Observable<T> repeat(Backoff policy, Scheduler scheduler) {
+        return create(OperationRepeat.repeat(this, policy, scheduler));
+    }
+
     /**
      * Returns a {@link ConnectableObservable} that shares a single subscription to the underlying
      * Observable that will replay all of its items and notifications to any future {@link Observer}.
@@ -5991,6 +6520,40 @@ public class Observable<T> {
         return create(OperationRetry.retry(this, retryCount));
     }
 
+    /**
+     * Return an Observable that mirrors the source Observable, resubscribing to it if it calls {@code onError} as long as the {@link Backoff} policy allows.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/retry.png">
+     * <p>
+     * Before each resubscription this method waits the delay of the policy, for example growing
+     * exponentially with random jitter, so that a failing source is not resubscribed to in a
+     * tight loop. Errors rejected by the predicate of the policy, or occurring after its retry
+     * count or elapsed time is used up, are passed on.
+     * 
+     * @param policy
+     *            decides whether and after which delay to resubscribe
+     * @return the source Observable modified with retry logic
+     * @see #retry(Backoff, Scheduler)
+     */
+    public final Observable<T> retry(Backoff policy) {
+        return retry(policy, Schedulers.computation());
+    }
+
+    /**
+     * Return an Observable that mirrors the source Observable, resubscribing to it if it calls {@code onError} as long as the {@link Backoff} policy allows, waiting on a particular scheduler.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/Netflix/RxJava/images/rx-operators/retry.png">
+     * 
+     * @param policy
+     *            decides whether and after which delay to resubscribe
+     * @param scheduler
+     *            the scheduler to wait on before resubscribing
+     * @return the source Observable modified with retry logic
+     */
+    public final Observable<T> retry(Backoff policy, Scheduler scheduler) {
+        return create(OperationRetry.retry(this, policy, scheduler));
+    }
+
     /**
      * Returns an Observable that emits the results of sampling the items emitted by the source
      * Observable at a specified time interval.
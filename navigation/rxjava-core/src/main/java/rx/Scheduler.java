@@ -131,6 +131,19 @@ public abstract class Scheduler {
         return Runtime.getRuntime().availableProcessors();
     }
 
+    /**
+     * Whether actions scheduled without a delay run on the thread that schedules them, as they do on
+     * {@link rx.schedulers.ImmediateScheduler} and {@link rx.schedulers.TrampolineScheduler}.
+     * <p>
+     * Operators use this to skip handing work to the Scheduler when that would not move it to another thread. A
+     * Scheduler that delegates to another one should return the value of its delegate.
+     * 
+     * @return true if actions run on the scheduling thread; false by default
+     */
+    public boolean isCurrentThread() {
+        return false;
+    }
+
     /**
      * @return the scheduler's notion of current absolute time in milliseconds.
      */
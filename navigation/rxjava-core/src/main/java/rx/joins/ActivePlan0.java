@@ -15,24 +15,68 @@
  */
 package rx.joins;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Represents an activated plan.
+ * <p>
+ * Each join observer of the plan owns one bit of a readiness mask which is set while the observer has a value or has
+ * completed. The plan only looks at its queues once all bits are set, so an arrival costs a bit operation per plan of
+ * the arriving source. The mask is only touched from the drain loop of the {@link JoinDrain}.
  */
 public abstract class ActivePlan0 {
-    protected final Map<JoinObserver, JoinObserver> joinObservers = new HashMap<JoinObserver, JoinObserver>();
+    private JoinObserver[] joinObservers = new JoinObserver[0];
+    private int ready;
+    private int all;
 
     public abstract void match();
 
     protected void addJoinObserver(JoinObserver joinObserver) {
-        joinObservers.put(joinObserver, joinObserver);
+        if (bitOf(joinObserver) != 0) {
+            return;
+        }
+        JoinObserver[] a = new JoinObserver[joinObservers.length + 1];
+        System.arraycopy(joinObservers, 0, a, 0, joinObservers.length);
+        a[joinObservers.length] = joinObserver;
+        joinObservers = a;
+        all = (1 << a.length) - 1;
     }
 
     protected void dequeue() {
-        for (JoinObserver jo : joinObservers.values()) {
+        for (JoinObserver jo : joinObservers) {
             jo.dequeue();
         }
     }
+
+    /**
+     * @return true if every join observer of this plan has a value or has completed
+     */
+    protected boolean isReady() {
+        return ready == all;
+    }
+
+    /**
+     * Called by the drain loop when the join observer received a value or completed.
+     */
+    void arrived(JoinObserver joinObserver) {
+        ready |= bitOf(joinObserver);
+        if (ready == all) {
+            match();
+        }
+    }
+
+    /**
+     * Called by the drain loop when the queue of the join observer ran empty.
+     */
+    void emptied(JoinObserver joinObserver) {
+        ready &= ~bitOf(joinObserver);
+    }
+
+    private int bitOf(JoinObserver joinObserver) {
+        JoinObserver[] a = joinObservers;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == joinObserver) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
 }
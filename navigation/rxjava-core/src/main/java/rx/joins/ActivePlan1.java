@@ -15,7 +15,6 @@
  */
 package rx.joins;
 
-import rx.Notification;
 import rx.util.functions.Action0;
 import rx.util.functions.Action1;
 
@@ -36,13 +35,13 @@ public class ActivePlan1<T1> extends ActivePlan0 {
 
     @Override
     public void match() {
-        if (!first.queue().isEmpty()) {
-            Notification<T1> n1 = first.queue().peek();
-            if (n1.isOnCompleted()) {
+        if (isReady()) {
+            if (first.isCompleted()) {
                 onCompleted.call();
             } else {
+                T1 v1 = first.peek();
                 dequeue();
-                onNext.call(n1.getValue());
+                onNext.call(v1);
             }
         }
     }
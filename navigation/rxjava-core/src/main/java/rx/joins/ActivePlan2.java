@@ -15,7 +15,6 @@
  */
 package rx.joins;
 
-import rx.Notification;
 import rx.util.functions.Action0;
 import rx.util.functions.Action2;
 
@@ -39,15 +38,14 @@ public class ActivePlan2<T1, T2> extends ActivePlan0 {
 
     @Override
     public void match() {
-        if (!first.queue().isEmpty() && !second.queue().isEmpty()) {
-            Notification<T1> n1 = first.queue().peek();
-            Notification<T2> n2 = second.queue().peek();
-
-            if (n1.isOnCompleted() || n2.isOnCompleted()) {
+        if (isReady()) {
+            if (first.isCompleted() || second.isCompleted()) {
                 onCompleted.call();
             } else {
+                T1 v1 = first.peek();
+                T2 v2 = second.peek();
                 dequeue();
-                onNext.call(n1.getValue(), n2.getValue());
+                onNext.call(v1, v2);
             }
         }
     }
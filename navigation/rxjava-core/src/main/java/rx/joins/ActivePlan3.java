@@ -15,7 +15,6 @@
  */
 package rx.joins;
 
-import rx.Notification;
 import rx.util.functions.Action0;
 import rx.util.functions.Action3;
 
@@ -46,18 +45,15 @@ public class ActivePlan3<T1, T2, T3> extends ActivePlan0 {
 
     @Override
     public void match() {
-        if (!first.queue().isEmpty()
-                && !second.queue().isEmpty()
-                && !third.queue().isEmpty()) {
-            Notification<T1> n1 = first.queue().peek();
-            Notification<T2> n2 = second.queue().peek();
-            Notification<T3> n3 = third.queue().peek();
-
-            if (n1.isOnCompleted() || n2.isOnCompleted() || n3.isOnCompleted()) {
+        if (isReady()) {
+            if (first.isCompleted() || second.isCompleted() || third.isCompleted()) {
                 onCompleted.call();
             } else {
+                T1 v1 = first.peek();
+                T2 v2 = second.peek();
+                T3 v3 = third.peek();
                 dequeue();
-                onNext.call(n1.getValue(), n2.getValue(), n3.getValue());
+                onNext.call(v1, v2, v3);
             }
         }
     }
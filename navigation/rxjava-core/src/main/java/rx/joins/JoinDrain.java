@@ -0,0 +1,60 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rx.joins;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serializes the events of all join observers of one <code>when</code> subscription.
+ * <p>
+ * Sources queue their values in their own join observer and then signal here. Whichever thread finds the drain idle
+ * processes the signals of all sources in arrival order, so plans are matched by one thread at a time without a
+ * lock, and a source is never blocked by another one being matched.
+ */
+public final class JoinDrain {
+    private final ConcurrentLinkedQueue<JoinObserver1<?>> arrivals = new ConcurrentLinkedQueue<JoinObserver1<?>>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean terminated;
+
+    /**
+     * Stops processing signals, for when the joined sequence terminated.
+     */
+    public void terminate() {
+        terminated = true;
+    }
+
+    void signal(JoinObserver1<?> joinObserver) {
+        arrivals.offer(joinObserver);
+        if (wip.getAndIncrement() == 0) {
+            boolean completedNormally = false;
+            try {
+                do {
+                    JoinObserver1<?> jo = arrivals.poll();
+                    if (!terminated) {
+                        jo.process();
+                    }
+                } while (wip.decrementAndGet() > 0);
+                completedNormally = true;
+            } finally {
+                if (!completedNormally) {
+                    // an observer threw, the counter is left raised so no other thread enters a broken drain
+                    terminated = true;
+                }
+            }
+        }
+    }
+}
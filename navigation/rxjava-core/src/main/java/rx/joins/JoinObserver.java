@@ -21,7 +21,7 @@ import rx.Subscription;
  * Base interface to manage joined observations.
  */
 public interface JoinObserver extends Subscription {
-    void subscribe(Object gate);
+    void subscribe(JoinDrain drain);
 
     void dequeue();
 }
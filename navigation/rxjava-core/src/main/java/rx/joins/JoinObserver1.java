@@ -1,68 +1,92 @@
 /**
  * Copyright 2014 Netflix, Inc.
  * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
  * 
  * http://www.apache.org/licenses/LICENSE-2.0
  * 
  * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
  */
 package rx.joins;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import rx.Notification;
 import rx.Observable;
 import rx.Subscriber;
-import rx.observers.SafeSubscriber;
-import rx.operators.SafeObservableSubscription;
+import rx.operators.SpscLinkedArrayQueue;
 import rx.util.functions.Action1;
 
 /**
  * Default implementation of a join observer.
+ * <p>
+ * Values are kept in a single-producer/single-consumer queue: the source is the only producer and the drain loop of
+ * the {@link JoinDrain} the only consumer, so receiving a value takes neither a lock nor a wrapping notification.
  */
-public final class JoinObserver1<T> extends Subscriber<Notification<T>> implements JoinObserver {
-    private Object gate;
+public final class JoinObserver1<T> extends Subscriber<T> implements JoinObserver {
+    private static final Object NULL_SENTINEL = new Object();
+    private static final ActivePlan0[] NO_PLANS = new ActivePlan0[0];
+
     private final Observable<T> source;
     private final Action1<Throwable> onError;
-    private final List<ActivePlan0> activePlans;
-    private final Queue<Notification<T>> queue;
+    private final SpscLinkedArrayQueue<Object> queue = new SpscLinkedArrayQueue<Object>(16);
     private final AtomicBoolean subscribed = new AtomicBoolean(false);
-    private final SafeSubscriber<Notification<T>> safeObserver;
+    private JoinDrain drain;
+    /** Replaced rather than modified so the drain loop can iterate it while plans deactivate. */
+    private ActivePlan0[] activePlans = NO_PLANS;
+    /** Values received from the source; only touched by the source. */
+    private long received;
+    /** Values received before the error, published by the write to {@link #error}. */
+    private long receivedBeforeError;
+    /** Signals processed; only touched by the drain loop. */
+    private long processed;
+    private volatile boolean done;
+    private volatile Throwable error;
 
     public JoinObserver1(Observable<T> source, Action1<Throwable> onError) {
         this.source = source;
         this.onError = onError;
-        queue = new LinkedList<Notification<T>>();
-        activePlans = new ArrayList<ActivePlan0>();
-        safeObserver = new SafeSubscriber<Notification<T>>(new InnerObserver());
-        // add this subscription so it gets unsubscribed when the parent does
-        add(safeObserver);
     }
 
-    public Queue<Notification<T>> queue() {
-        return queue;
+    /**
+     * @return the oldest value not yet matched; must only be called from the drain loop
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        Object o = queue.peek();
+        return o == NULL_SENTINEL ? null : (T) o;
+    }
+
+    /**
+     * @return true if the source completed and all its values were matched; must only be called from the drain loop
+     */
+    public boolean isCompleted() {
+        // read the flag first, the source queued all its values before setting it
+        return done && queue.isEmpty();
     }
 
     public void addActivePlan(ActivePlan0 activePlan) {
-        activePlans.add(activePlan);
+        for (ActivePlan0 a : activePlans) {
+            if (a == activePlan) {
+                return;
+            }
+        }
+        ActivePlan0[] a = new ActivePlan0[activePlans.length + 1];
+        System.arraycopy(activePlans, 0, a, 0, activePlans.length);
+        a[activePlans.length] = activePlan;
+        activePlans = a;
     }
 
     @Override
-    public void subscribe(Object gate) {
+    public void subscribe(JoinDrain drain) {
         if (subscribed.compareAndSet(false, true)) {
-            this.gate = gate;
-            source.materialize().subscribe(this);
+            this.drain = drain;
+            source.subscribe(this);
         } else {
             throw new IllegalStateException("Can only be subscribed to once.");
         }
@@ -70,62 +94,68 @@ public final class JoinObserver1<T> extends Subscriber<Notification<T>> implemen
 
     @Override
     public void dequeue() {
-        queue.remove();
+        queue.poll();
+        if (!done && queue.isEmpty()) {
+            for (ActivePlan0 a : activePlans) {
+                a.emptied(this);
+            }
+        }
     }
 
-
     @Override
-    public void onNext(Notification<T> args) {
-        safeObserver.onNext(args);
+    public void onNext(T args) {
+        queue.offer(args == null ? NULL_SENTINEL : args);
+        received++;
+        drain.signal(this);
     }
 
     @Override
     public void onError(Throwable e) {
-        safeObserver.onError(e);
+        // the error goes behind the values already queued, just like completion does
+        receivedBeforeError = received;
+        error = e;
+        drain.signal(this);
     }
 
     @Override
     public void onCompleted() {
-        safeObserver.onCompleted();
+        done = true;
+        drain.signal(this);
     }
 
-    void removeActivePlan(ActivePlan0 activePlan) {
-        activePlans.remove(activePlan);
-        if (activePlans.isEmpty()) {
-            unsubscribe();
+    /**
+     * Called by the drain loop for each value or terminal event received.
+     */
+    void process() {
+        Throwable e = error;
+        if (e != null && processed == receivedBeforeError) {
+            // every value that arrived before the error has had its chance to match
+            onError.call(e);
+            return;
         }
-    }
-    
-    
-    private final class InnerObserver extends Subscriber<Notification<T>> {
-
-        @Override
-        public void onNext(Notification<T> args) {
-            synchronized (gate) {
-                if (!isUnsubscribed()) {
-                    if (args.isOnError()) {
-                        onError.call(args.getThrowable());
-                        return;
-                    }
-                    queue.add(args);
-
-                    // remark: activePlans might change while iterating
-                    for (ActivePlan0 a : new ArrayList<ActivePlan0>(activePlans)) {
-                        a.match();
-                    }
-                }
+        processed++;
+        for (ActivePlan0 a : activePlans) {
+            if (!done && queue.isEmpty()) {
+                // an earlier plan matched what arrived
+                break;
             }
+            a.arrived(this);
         }
+    }
 
-        @Override
-        public void onError(Throwable e) {
-            // not expected
+    void removeActivePlan(ActivePlan0 activePlan) {
+        int n = activePlans.length;
+        for (int i = 0; i < n; i++) {
+            if (activePlans[i] == activePlan) {
+                ActivePlan0[] a = new ActivePlan0[n - 1];
+                System.arraycopy(activePlans, 0, a, 0, i);
+                System.arraycopy(activePlans, i + 1, a, i, n - i - 1);
+                activePlans = a;
+                break;
+            }
         }
-
-        @Override
-        public void onCompleted() {
-            // not expected or ignored
+        if (activePlans.length == 0) {
+            unsubscribe();
         }
     }
-
-}
\ No newline at end of file
+}
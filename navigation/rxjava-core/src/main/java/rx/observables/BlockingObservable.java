@@ -153,6 +153,10 @@ public class BlockingObservable<T> {
      * specified {@link Observable}.
      * <p>
      * <img width="640" src="https://github.com/Netflix/RxJava/wiki/images/rx-operators/B.getIterator.png">
+     * <p>
+     * The {@link Iterator} is also a {@link Subscription} and a {@link java.io.Closeable}. Close it
+     * if you stop iterating before the end, otherwise the {@link Observable} stays subscribed and
+     * its thread waits forever once the iterator's buffer is full.
      * 
      * @return an {@link Iterator} that can iterate over the items emitted by
      *         the {@link Observable}
@@ -449,6 +453,9 @@ public class BlockingObservable<T> {
      * Converts an {@link Observable} into an {@link Iterable}.
      * <p>
      * <img width="640" src="https://github.com/Netflix/RxJava/wiki/images/rx-operators/B.toIterable.png">
+     * <p>
+     * Each {@link Iterator} it returns subscribes to the {@link Observable} and should be closed if
+     * the iteration stops before the end, see {@link #getIterator()}.
      * 
      * @return an {@link Iterable} version of the underlying {@link Observable}
      * @see <a href="https://github.com/Netflix/RxJava/wiki/Blocking-Observable-Operators#transformations-tofuture-toiterable-and-toiteratorgetiterator">RxJava Wiki: toIterable()</a>
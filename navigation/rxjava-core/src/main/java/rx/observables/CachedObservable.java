@@ -0,0 +1,45 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.observables;
+
+import rx.Observable;
+import rx.Subscriber;
+
+/**
+ * A CachedObservable subscribes to its underlying {@link Observable} when it is first subscribed to
+ * and replays what that Observable emitted to all later {@link Subscriber}s, like
+ * {@link Observable#cache()}. In addition the cached items can be dropped with
+ * {@link #invalidate}, after which the next {@link Subscriber} subscribes to the underlying
+ * Observable again.
+ * <p>
+ * <img width="640" src="https://github.com/Netflix/RxJava/wiki/images/rx-operators/cache.png">
+ * 
+ * @param <T>
+ */
+public abstract class CachedObservable<T> extends Observable<T> {
+
+    protected CachedObservable(OnSubscribe<T> onSubscribe) {
+        super(onSubscribe);
+    }
+
+    /**
+     * Drops the cached items and unsubscribes from the underlying {@link Observable}.
+     * <p>
+     * {@link Subscriber}s that are still receiving the cached items are completed. The next
+     * {@link Subscriber} subscribes to the underlying Observable again and starts a new cache.
+     */
+    public abstract void invalidate();
+}
@@ -15,13 +15,20 @@
  */
 package rx.operators;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import rx.Observable;
 import rx.Observable.OnSubscribeFunc;
 import rx.Observer;
+import rx.Scheduler;
+import rx.Subscriber;
 import rx.Subscription;
+import rx.observables.CachedObservable;
+import rx.observers.SynchronizedObserver;
 import rx.subjects.ReplaySubject;
+import rx.subjects.Subject;
+import rx.util.functions.Func0;
 
 /**
  * This method has similar behavior to {@link Observable#replay()} except that this auto-subscribes
@@ -34,7 +41,8 @@ import rx.subjects.ReplaySubject;
  * <p>
  * NOTE: You sacrifice the ability to unsubscribe from the origin when you use this operator, so be
  * careful not to use this operator on Observables that emit infinite or very large numbers of
- * items, as this will use up memory.
+ * items, as this will use up memory. The {@link CachedObservable} variants bound the number of cached
+ * items or their age and can be invalidated.
  */
 public class OperationCache {
 
@@ -61,4 +69,159 @@ public class OperationCache {
 
         };
     }
+
+    /**
+     * Returns a CachedObservable that replays at most the last <code>maxItems</code> items of the source.
+     */
+    public static <T> CachedObservable<T> cache(Observable<? extends T> source, final int maxItems) {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive");
+        }
+        return new EvictableCache<T>(new CacheState<T>(source, new Func0<Subject<T, T>>() {
+
+            @Override
+            public Subject<T, T> call() {
+                return OperationReplay.<T> replayBuffered(maxItems);
+            }
+
+        }, -1, null));
+    }
+
+    /**
+     * Returns a CachedObservable that invalidates itself once <code>time</code> has passed since it subscribed to the
+     * source, as measured by <code>scheduler</code>; the next subscriber after that subscribes to the source again.
+     */
+    public static <T> CachedObservable<T> cache(Observable<? extends T> source, long time, TimeUnit unit, Scheduler scheduler) {
+        long maxAge = unit.toMillis(time);
+        if (maxAge <= 0) {
+            throw new IllegalArgumentException("The time to live is less than 1 millisecond!");
+        }
+        return new EvictableCache<T>(new CacheState<T>(source, new Func0<Subject<T, T>>() {
+
+            @Override
+            public Subject<T, T> call() {
+                return ReplaySubject.create();
+            }
+
+        }, maxAge, scheduler));
+    }
+
+    private static final class EvictableCache<T> extends CachedObservable<T> {
+        private final CacheState<T> state;
+
+        EvictableCache(final CacheState<T> state) {
+            super(new OnSubscribe<T>() {
+
+                @Override
+                public void call(Subscriber<? super T> s) {
+                    state.subscribe(s);
+                }
+
+            });
+            this.state = state;
+        }
+
+        @Override
+        public void invalidate() {
+            state.invalidate();
+        }
+    }
+
+    private static final class CacheState<T> {
+        final Observable<? extends T> source;
+        final Func0<Subject<T, T>> subjectFactory;
+        /** Milliseconds after which the cache expires, negative if it never does. */
+        final long maxAge;
+        final Scheduler scheduler;
+        /** Guarded by this. The subject holding the current cache, null if the source has to be subscribed. */
+        Subject<T, T> subject;
+        /**
+         * Guarded by this. Feeds <code>subject</code> from the source, serialized so the cache can be completed while
+         * the source is still emitting.
+         */
+        Observer<T> feed;
+        /** Guarded by this. The subscription to the source feeding <code>subject</code>. */
+        Subscription subscription;
+        /** Guarded by this. */
+        long subscribedAt;
+
+        CacheState(Observable<? extends T> source, Func0<Subject<T, T>> subjectFactory, long maxAge, Scheduler scheduler) {
+            this.source = source;
+            this.subjectFactory = subjectFactory;
+            this.maxAge = maxAge;
+            this.scheduler = scheduler;
+        }
+
+        void subscribe(Subscriber<? super T> s) {
+            Subject<T, T> current;
+            Observer<T> currentFeed;
+            Observer<T> expiredFeed = null;
+            Subscription expired = null;
+            boolean connect = false;
+            synchronized (this) {
+                if (subject != null && maxAge >= 0 && scheduler.now() - subscribedAt >= maxAge) {
+                    expiredFeed = feed;
+                    expired = subscription;
+                    subject = null;
+                    feed = null;
+                    subscription = null;
+                }
+                if (subject == null) {
+                    subject = subjectFactory.call();
+                    feed = new SynchronizedObserver<T>(subject);
+                    if (maxAge >= 0) {
+                        subscribedAt = scheduler.now();
+                    }
+                    connect = true;
+                }
+                current = subject;
+                currentFeed = feed;
+            }
+            if (expiredFeed != null) {
+                terminate(expiredFeed, expired);
+            }
+            // subscribe before connecting so the first subscriber sees everything even if the cache is bounded
+            current.subscribe(s);
+            if (connect) {
+                // subscribe to the source once per cache
+                Subscription sub = source.subscribe(currentFeed);
+                synchronized (this) {
+                    if (subject == current) {
+                        subscription = sub;
+                        sub = null;
+                    }
+                }
+                if (sub != null) {
+                    // invalidated while subscribing, which already completed the cache
+                    sub.unsubscribe();
+                }
+            }
+        }
+
+        void invalidate() {
+            Observer<T> f;
+            Subscription sub;
+            synchronized (this) {
+                f = feed;
+                sub = subscription;
+                subject = null;
+                feed = null;
+                subscription = null;
+            }
+            if (f != null) {
+                terminate(f, sub);
+            }
+        }
+
+        /**
+         * Detaches a dropped cache from the source and completes it, so its subscribers do not wait for items that
+         * will never arrive.
+         */
+        private static <T> void terminate(Observer<T> feed, Subscription subscription) {
+            if (subscription != null) {
+                subscription.unsubscribe();
+            }
+            feed.onCompleted();
+        }
+    }
 }
@@ -26,6 +26,7 @@ import rx.Observable.OnSubscribeFunc;
 import rx.Observer;
 import rx.Subscription;
 import rx.joins.ActivePlan0;
+import rx.joins.JoinDrain;
 import rx.joins.JoinObserver;
 import rx.joins.Pattern1;
 import rx.joins.Pattern2;
@@ -36,6 +37,9 @@ import rx.util.functions.Func1;
 
 /**
  * Join patterns: And, Then, When.
+ * <p>
+ * Every source of a <code>when</code> queues its values separately and all of them are matched by a single
+ * {@link JoinDrain} loop, so sources do not contend on a lock and an arrival only checks the plans of its source.
  */
 public class OperationJoinPatterns {
     /**
@@ -85,7 +89,7 @@ public class OperationJoinPatterns {
             @Override
             public Subscription onSubscribe(final Observer<? super R> t1) {
                 final Map<Object, JoinObserver> externalSubscriptions = new HashMap<Object, JoinObserver>();
-                final Object gate = new Object();
+                final JoinDrain drain = new JoinDrain();
                 final List<ActivePlan0> activePlans = new ArrayList<ActivePlan0>();
 
                 final Observer<R> out = new Observer<R>() {
@@ -96,6 +100,7 @@ public class OperationJoinPatterns {
 
                     @Override
                     public void onError(Throwable e) {
+                        drain.terminate();
                         for (JoinObserver po : externalSubscriptions.values()) {
                             po.unsubscribe();
                         }
@@ -104,6 +109,7 @@ public class OperationJoinPatterns {
 
                     @Override
                     public void onCompleted() {
+                        drain.terminate();
                         t1.onCompleted();
                     }
                 };
@@ -125,7 +131,7 @@ public class OperationJoinPatterns {
                 }
                 CompositeSubscription group = new CompositeSubscription();
                 for (JoinObserver jo : externalSubscriptions.values()) {
-                    jo.subscribe(gate);
+                    jo.subscribe(drain);
                     group.add(jo);
                 }
                 return group;
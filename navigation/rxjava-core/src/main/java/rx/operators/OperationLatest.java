@@ -17,12 +17,11 @@ package rx.operators;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
-import rx.Notification;
 import rx.Observable;
-import rx.Observer;
+import rx.Subscriber;
 import rx.util.Exceptions;
 
 /**
@@ -41,71 +40,103 @@ public final class OperationLatest {
             @Override
             public Iterator<T> iterator() {
                 LatestObserverIterator<T> lio = new LatestObserverIterator<T>();
-                source.materialize().subscribe(lio);
+                source.subscribe(lio);
                 return lio;
             }
         };
     }
 
+    private static final Object NULL_SENTINEL = new Object();
+
     /** Observer of source, iterator for output. */
-    static final class LatestObserverIterator<T> implements Observer<Notification<? extends T>>, Iterator<T> {
-        final Semaphore notify = new Semaphore(0);
-        // observer's notification
-        final AtomicReference<Notification<? extends T>> reference = new AtomicReference<Notification<? extends T>>();
+    static final class LatestObserverIterator<T> extends Subscriber<T> implements Iterator<T> {
+        /** The latest value not yet taken by the iterator; overwritten by every onNext. */
+        final AtomicReference<Object> value = new AtomicReference<Object>();
+        /** The iterating thread while it waits for a value. */
+        volatile Thread waiting;
+        /** Set after error, which makes the termination visible to the iterator. */
+        volatile boolean done;
+        Throwable error;
 
         @Override
-        public void onNext(Notification<? extends T> args) {
-            boolean wasntAvailable = reference.getAndSet(args) == null;
-            if (wasntAvailable) {
-                notify.release();
-            }
+        public void onNext(T args) {
+            value.set(args == null ? NULL_SENTINEL : args);
+            wakeUp();
         }
 
         @Override
         public void onError(Throwable e) {
-            // not expected
+            error = e;
+            done = true;
+            wakeUp();
         }
 
         @Override
         public void onCompleted() {
-            // not expected
+            done = true;
+            wakeUp();
+        }
+
+        private void wakeUp() {
+            Thread t = waiting;
+            if (t != null) {
+                LockSupport.unpark(t);
+            }
         }
 
-        // iterator's notification
-        Notification<? extends T> iNotif;
+        // iterator's value, null if none has been taken yet
+        Object iValue;
+        // iterator's termination, either the source's or the interruption of the iterating thread
+        boolean iDone;
+        Throwable iError;
 
         @Override
         public boolean hasNext() {
-            if (iNotif != null && iNotif.isOnError()) {
-                throw Exceptions.propagate(iNotif.getThrowable());
+            if (iValue == null && !iDone) {
+                take();
             }
-            if (iNotif == null || !iNotif.isOnCompleted()) {
-                if (iNotif == null) {
-                    try {
-                        notify.acquire();
-                    } catch (InterruptedException ex) {
-                        Thread.currentThread().interrupt();
-                        iNotif = new Notification<T>(ex);
-                        throw Exceptions.propagate(ex);
-                    }
+            if (iError != null) {
+                throw Exceptions.propagate(iError);
+            }
+            return !iDone;
+        }
 
-                    iNotif = reference.getAndSet(null);
-                    if (iNotif.isOnError()) {
-                        throw Exceptions.propagate(iNotif.getThrowable());
+        private void take() {
+            Thread current = Thread.currentThread();
+            waiting = current;
+            try {
+                for (;;) {
+                    // a terminal event wins over a value the iterator has not taken yet
+                    if (done) {
+                        iDone = true;
+                        iError = error;
+                        return;
+                    }
+                    Object v = value.getAndSet(null);
+                    if (v != null) {
+                        iValue = v;
+                        return;
+                    }
+                    LockSupport.park(this);
+                    if (Thread.interrupted()) {
+                        current.interrupt();
+                        iDone = true;
+                        iError = new InterruptedException();
+                        return;
                     }
                 }
+            } finally {
+                waiting = null;
             }
-            return !iNotif.isOnCompleted();
         }
 
+        @SuppressWarnings("unchecked")
         @Override
         public T next() {
             if (hasNext()) {
-                if (iNotif.isOnNext()) {
-                    T v = iNotif.getValue();
-                    iNotif = null;
-                    return v;
-                }
+                Object v = iValue;
+                iValue = null;
+                return v == NULL_SENTINEL ? null : (T) v;
             }
             throw new NoSuchElementException();
         }
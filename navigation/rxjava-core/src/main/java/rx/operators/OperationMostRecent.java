@@ -16,8 +16,6 @@
 package rx.operators;
 
 import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 
 import rx.Observable;
 import rx.Observer;
@@ -75,39 +73,40 @@ public final class OperationMostRecent {
     }
 
     private static class MostRecentObserver<T> implements Observer<T> {
-        private final AtomicBoolean completed = new AtomicBoolean(false);
-        private final AtomicReference<T> value;
-        private final AtomicReference<Throwable> exception = new AtomicReference<Throwable>();
+        // plain volatile fields, every onNext is a single write and nothing is allocated per item
+        private volatile boolean completed;
+        private volatile T value;
+        private volatile Throwable exception;
 
         private MostRecentObserver(T value) {
-            this.value = new AtomicReference<T>(value);
+            this.value = value;
         }
 
         @Override
         public void onCompleted() {
-            completed.set(true);
+            completed = true;
         }
 
         @Override
         public void onError(Throwable e) {
-            exception.set(e);
+            exception = e;
         }
 
         @Override
         public void onNext(T args) {
-            value.set(args);
+            value = args;
         }
 
         private boolean isCompleted() {
-            return completed.get();
+            return completed;
         }
 
         private Throwable getThrowable() {
-            return exception.get();
+            return exception;
         }
 
         private T getRecentValue() {
-            return value.get();
+            return value;
         }
 
     }
@@ -15,6 +15,8 @@
  */
 package rx.operators;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import rx.Observable;
 import rx.Observable.OnSubscribeFunc;
 import rx.Observer;
@@ -23,6 +25,7 @@ import rx.Subscription;
 import rx.observables.ConnectableObservable;
 import rx.subjects.Subject;
 import rx.subscriptions.CompositeSubscription;
+import rx.subscriptions.MultipleAssignmentSubscription;
 import rx.subscriptions.Subscriptions;
 import rx.util.functions.Action0;
 import rx.util.functions.Func0;
@@ -30,65 +33,165 @@ import rx.util.functions.Func1;
 
 public class OperationMulticast {
     public static <T, R> ConnectableObservable<R> multicast(Observable<? extends T> source, final Subject<? super T, ? extends R> subject) {
-        return new MulticastConnectableObservable<T, R>(source, subject);
+        return new MulticastConnectableObservable<T, R>(source, new ConnectionState<T, R>(subject, null));
     }
 
-    private static class MulticastConnectableObservable<T, R> extends ConnectableObservable<R> {
-        private final Object lock = new Object();
+    /**
+     * Returns a ConnectableObservable that pushes the source into a Subject created by
+     * <code>subjectFactory</code>. When refCount() connects it again after the source terminated, a fresh Subject
+     * is created for the new run. Otherwise the Subject is kept, as with a Subject instance.
+     */
+    public static <T, R> ConnectableObservable<R> multicast(Observable<? extends T> source, Func0<? extends Subject<? super T, ? extends R>> subjectFactory) {
+        return new MulticastConnectableObservable<T, R>(source, new ConnectionState<T, R>(subjectFactory.call(), subjectFactory));
+    }
 
-        private final Observable<? extends T> source;
-        private final Subject<? super T, ? extends R> subject;
+    /**
+     * Prepares a ConnectableObservable created with a Subject factory for another run: if its source terminated and
+     * it is disconnected, later subscribers get a fresh Subject. Called by refCount() before the subscriber that
+     * will connect it again subscribes.
+     */
+    static void renew(ConnectableObservable<?> connectable) {
+        if (connectable instanceof MulticastConnectableObservable) {
+            ((MulticastConnectableObservable<?, ?>) connectable).state.renew();
+        }
+    }
 
-        private Subscription subscription;
+    private static class MulticastConnectableObservable<T, R> extends ConnectableObservable<R> {
+        private final Observable<? extends T> source;
+        private final ConnectionState<T, R> state;
 
-        public MulticastConnectableObservable(Observable<? extends T> source, final Subject<? super T, ? extends R> subject) {
+        public MulticastConnectableObservable(Observable<? extends T> source, final ConnectionState<T, R> state) {
             super(new OnSubscribe<R>() {
                 @Override
                 public void call(Subscriber<? super R> observer) {
-                    subject.subscribe(observer);
+                    state.get().subject.subscribe(observer);
                 }
             });
             this.source = source;
-            this.subject = subject;
+            this.state = state;
         }
 
         public Subscription connect() {
-            synchronized (lock) {
-                if (subscription == null) {
-                    subscription = source.subscribe(new Observer<T>() {
-                        @Override
-                        public void onCompleted() {
-                            subject.onCompleted();
-                        }
+            Connection<T, R> oldState;
+            Connection<T, R> newState;
+            do {
+                oldState = state.get();
+                if (oldState.subscription != null) {
+                    // already connected
+                    return disconnect(oldState);
+                }
+                newState = oldState.connect();
+            } while (!state.compareAndSet(oldState, newState));
 
-                        @Override
-                        public void onError(Throwable e) {
-                            subject.onError(e);
-                        }
+            final Connection<T, R> connection = newState;
+            connection.subscription.set(source.subscribe(new Observer<T>() {
+                @Override
+                public void onCompleted() {
+                    connection.subject.onCompleted();
+                    state.terminated(connection);
+                }
 
-                        @Override
-                        public void onNext(T args) {
-                            subject.onNext(args);
-                        }
-                    });
+                @Override
+                public void onError(Throwable e) {
+                    connection.subject.onError(e);
+                    state.terminated(connection);
                 }
-            }
 
+                @Override
+                public void onNext(T args) {
+                    connection.subject.onNext(args);
+                }
+            }));
+            return disconnect(connection);
+        }
+
+        private Subscription disconnect(final Connection<T, R> connection) {
             return Subscriptions.create(new Action0() {
                 @Override
                 public void call() {
-                    synchronized (lock) {
-                        if (subscription != null) {
-                            subscription.unsubscribe();
-                            subscription = null;
+                    Connection<T, R> current;
+                    do {
+                        current = state.get();
+                        if (current.subscription != connection.subscription) {
+                            break;
                         }
-                    }
+                    } while (!state.compareAndSet(current, current.disconnect()));
+                    connection.subscription.unsubscribe();
                 }
             });
         }
 
     }
 
+    /**
+     * The current Subject and, while connected, the subscription to the source.
+     */
+    private static final class Connection<T, R> {
+        final Subject<? super T, ? extends R> subject;
+        /** Null while not connected. */
+        final MultipleAssignmentSubscription subscription;
+        /** Whether the source terminated the Subject. */
+        final boolean terminated;
+
+        Connection(Subject<? super T, ? extends R> subject, MultipleAssignmentSubscription subscription, boolean terminated) {
+            this.subject = subject;
+            this.subscription = subscription;
+            this.terminated = terminated;
+        }
+
+        Connection<T, R> connect() {
+            return new Connection<T, R>(subject, new MultipleAssignmentSubscription(), terminated);
+        }
+
+        Connection<T, R> disconnect() {
+            return new Connection<T, R>(subject, null, terminated);
+        }
+
+        Connection<T, R> terminate() {
+            return new Connection<T, R>(subject, subscription, true);
+        }
+    }
+
+    /**
+     * Holds the current Connection; subscribing, connecting and disconnecting swap it with compareAndSet.
+     */
+    private static final class ConnectionState<T, R> extends AtomicReference<Connection<T, R>> {
+        private static final long serialVersionUID = 1L;
+        /** Creates the Subject for the next connection, null if the Subject is reused. */
+        private final Func0<? extends Subject<? super T, ? extends R>> subjectFactory;
+
+        ConnectionState(Subject<? super T, ? extends R> subject, Func0<? extends Subject<? super T, ? extends R>> subjectFactory) {
+            super(new Connection<T, R>(subject, null, false));
+            this.subjectFactory = subjectFactory;
+        }
+
+        /**
+         * The source of <code>connection</code> terminated its Subject.
+         */
+        void terminated(Connection<T, R> connection) {
+            Connection<T, R> current;
+            do {
+                current = get();
+                if (current.subject != connection.subject || current.terminated) {
+                    return;
+                }
+            } while (!compareAndSet(current, current.terminate()));
+        }
+
+        /**
+         * Replaces a terminated Subject of a disconnected Connection with a fresh one if there is a factory.
+         */
+        void renew() {
+            if (subjectFactory == null) {
+                return;
+            }
+            Connection<T, R> current = get();
+            if (current.terminated && current.subscription == null) {
+                compareAndSet(current, new Connection<T, R>(subjectFactory.call(), null, false));
+            }
+        }
+    }
+
     /**
      * Returns an observable sequence that contains the elements of a sequence
      * produced by multicasting the source sequence within a selector function.
@@ -128,7 +231,7 @@ public class OperationMulticast {
             try {
                 Subject<? super TInput, ? extends TIntermediate> subject = subjectFactory.call();
 
-                connectable = new MulticastConnectableObservable<TInput, TIntermediate>(source, subject);
+                connectable = OperationMulticast.<TInput, TIntermediate> multicast(source, subject);
 
                 observable = resultSelector.call(connectable);
             } catch (Throwable t) {
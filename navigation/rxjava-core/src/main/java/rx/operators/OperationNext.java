@@ -17,13 +17,11 @@ package rx.operators;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
-import rx.Notification;
 import rx.Observable;
-import rx.Observer;
+import rx.Subscriber;
 import rx.util.Exceptions;
 
 /**
@@ -40,7 +38,7 @@ public final class OperationNext {
                 NextObserver<T> nextObserver = new NextObserver<T>();
                 final NextIterator<T> nextIterator = new NextIterator<T>(nextObserver);
 
-                items.materialize().subscribe(nextObserver);
+                items.subscribe(nextObserver);
 
                 return nextIterator;
             }
@@ -79,25 +77,23 @@ public final class OperationNext {
             return moveToNext();
         }
 
+        @SuppressWarnings("unchecked")
         private boolean moveToNext() {
             try {
-                Notification<? extends T> nextNotification = observer.takeNext();
-                if (nextNotification.isOnNext()) {
+                Object v = observer.takeNext();
+                if (v != null) {
                     isNextConsumed = false;
-                    next = nextNotification.getValue();
+                    next = v == NULL_SENTINEL ? null : (T) v;
                     return true;
                 }
                 // If an observable is completed or fails,
                 // hasNext() always return false.
                 hasNext = false;
-                if (nextNotification.isOnCompleted()) {
-                    return false;
-                }
-                if (nextNotification.isOnError()) {
-                    error = nextNotification.getThrowable();
+                if (observer.error != null) {
+                    error = observer.error;
                     throw Exceptions.propagate(error);
                 }
-                throw new IllegalStateException("Should not reach here");
+                return false;
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 error = e;
@@ -126,40 +122,71 @@ public final class OperationNext {
         }
     }
 
-    private static class NextObserver<T> implements Observer<Notification<? extends T>> {
-        private final BlockingQueue<Notification<? extends T>> buf = new ArrayBlockingQueue<Notification<? extends T>>(1);
-        private final AtomicBoolean waiting = new AtomicBoolean(false);
+    private static final Object NULL_SENTINEL = new Object();
+
+    private static class NextObserver<T> extends Subscriber<T> {
+        /** The item handed to the waiting iterator. */
+        private final AtomicReference<Object> value = new AtomicReference<Object>();
+        /** The iterating thread while it waits; items are only kept while it is set. */
+        private final AtomicReference<Thread> waiting = new AtomicReference<Thread>();
+        /** Set after error, which makes the termination visible to the iterator. */
+        private volatile boolean done;
+        private Throwable error;
 
         @Override
         public void onCompleted() {
-            // ignore
+            done = true;
+            wakeUp(waiting.getAndSet(null));
         }
 
         @Override
         public void onError(Throwable e) {
-            // ignore
+            error = e;
+            done = true;
+            wakeUp(waiting.getAndSet(null));
         }
 
         @Override
-        public void onNext(Notification<? extends T> args) {
-
-            if (waiting.getAndSet(false) || !args.isOnNext()) {
-                Notification<? extends T> toOffer = args;
-                while (!buf.offer(toOffer)) {
-                    Notification<? extends T> concurrentItem = buf.poll();
-
-                    // in case if we won race condition with onComplete/onError method
-                    if (concurrentItem != null && !concurrentItem.isOnNext()) {
-                        toOffer = concurrentItem;
-                    }
+        public void onNext(T args) {
+            // items nobody waits for are dropped without touching any shared state
+            if (waiting.get() != null) {
+                Thread t = waiting.getAndSet(null);
+                if (t != null) {
+                    value.set(args == null ? NULL_SENTINEL : args);
+                    wakeUp(t);
                 }
             }
+        }
 
+        private void wakeUp(Thread t) {
+            if (t != null) {
+                LockSupport.unpark(t);
+            }
         }
 
-        public Notification<? extends T> takeNext() throws InterruptedException {
-            waiting.set(true);
-            return buf.take();
+        /**
+         * Waits for the next item.
+         * 
+         * @return the item or null if the source terminated
+         */
+        public Object takeNext() throws InterruptedException {
+            Thread current = Thread.currentThread();
+            waiting.set(current);
+            for (;;) {
+                // a terminal event wins over an item the iterator has not taken yet
+                if (done) {
+                    return null;
+                }
+                Object v = value.getAndSet(null);
+                if (v != null) {
+                    return v;
+                }
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    waiting.compareAndSet(current, null);
+                    throw new InterruptedException();
+                }
+            }
         }
 
     }
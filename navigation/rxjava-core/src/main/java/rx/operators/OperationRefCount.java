@@ -15,6 +15,8 @@
  */
 package rx.operators;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import rx.Observable;
 import rx.Observer;
 import rx.Subscription;
@@ -33,9 +35,12 @@ public final class OperationRefCount<T> {
 
     private static class RefCount<T> implements Observable.OnSubscribeFunc<T> {
         private final ConnectableObservable<T> innerConnectableObservable;
-        private final Object gate = new Object();
-        private int count = 0;
-        private Subscription connection = null;
+        /** Number of subscribers. */
+        private final AtomicInteger count = new AtomicInteger();
+        /** Work-in-progress counter so only one thread at a time connects or disconnects. */
+        private final AtomicInteger wip = new AtomicInteger();
+        /** The current connection, only accessed by the thread holding wip. */
+        private Subscription connection;
 
         public RefCount(ConnectableObservable<T> innerConnectableObservable) {
             this.innerConnectableObservable = innerConnectableObservable;
@@ -43,24 +48,44 @@ public final class OperationRefCount<T> {
 
         @Override
         public Subscription onSubscribe(Observer<? super T> observer) {
-            final Subscription subscription = innerConnectableObservable.subscribe(observer);
-            synchronized (gate) {
-                if (count++ == 0) {
-                    connection = innerConnectableObservable.connect();
-                }
+            if (count.get() == 0) {
+                // a new run: do not hand the subscriber a Subject the previous run terminated
+                OperationMulticast.renew(innerConnectableObservable);
             }
+            final Subscription subscription = innerConnectableObservable.subscribe(observer);
+            count.incrementAndGet();
+            update();
             return Subscriptions.create(new Action0() {
                 @Override
                 public void call() {
-                    synchronized (gate) {
-                        if (--count == 0) {
-                            connection.unsubscribe();
-                            connection = null;
-                        }
-                    }
+                    count.decrementAndGet();
+                    update();
                     subscription.unsubscribe();
                 }
             });
         }
+
+        /**
+         * Connects if there are subscribers but no connection, and disconnects if the last subscriber left.
+         * <p>
+         * A connect() returns the handle of a connection that is still up, so connecting and disconnecting must not
+         * overlap: a subscriber arriving while the last one leaves would otherwise get a handle that is unsubscribed
+         * right after. A thread that finds another one at work leaves the changed count for it to pick up.
+         */
+        private void update() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                boolean wanted = count.get() > 0;
+                if (wanted && connection == null) {
+                    connection = innerConnectableObservable.connect();
+                } else if (!wanted && connection != null) {
+                    Subscription c = connection;
+                    connection = null;
+                    c.unsubscribe();
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
     }
-}
\ No newline at end of file
+}
@@ -23,6 +23,7 @@ import rx.Scheduler.Inner;
 import rx.Subscription;
 import rx.subscriptions.CompositeSubscription;
 import rx.subscriptions.MultipleAssignmentSubscription;
+import rx.util.Backoff;
 import rx.util.functions.Action0;
 import rx.util.functions.Action1;
 
@@ -35,6 +36,14 @@ public class OperationRepeat<T> implements Observable.OnSubscribeFunc<T> {
         return new OperationRepeat<T>(source, scheduler);
     }
 
+    /**
+     * Resubscribes after each completion as decided by the policy, waiting the policy's delay on the scheduler. The
+     * error predicate of the policy is not used, errors are always passed on.
+     */
+    public static <T> Observable.OnSubscribeFunc<T> repeat(Observable<T> source, Backoff policy, Scheduler scheduler) {
+        return new OperationRetry.Resubscribe<T>(source, policy, scheduler, true);
+    }
+
     private OperationRepeat(Observable<T> source, Scheduler scheduler) {
         this.source = source;
         this.scheduler = scheduler;
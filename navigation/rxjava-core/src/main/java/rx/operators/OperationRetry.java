@@ -31,74 +31,171 @@ package rx.operators;
  * limitations under the License.
  */
 
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import rx.Observable;
 import rx.Observable.OnSubscribeFunc;
 import rx.Observer;
+import rx.Scheduler;
 import rx.Scheduler.Inner;
 import rx.Subscription;
 import rx.schedulers.Schedulers;
+import rx.subscriptions.CompositeSubscription;
+import rx.subscriptions.MultipleAssignmentSubscription;
+import rx.util.Backoff;
 import rx.util.functions.Action1;
 
+/**
+ * Resubscribes to the source Observable when it fails, as decided by a {@link Backoff} policy.
+ * <p>
+ * Resubscriptions without delay run in a loop on the thread that saw the failure, so a source failing synchronously
+ * neither grows the stack nor goes through a trampoline. Delayed resubscriptions are scheduled on the given Scheduler.
+ * Each subscription keeps its own attempt count and reuses one observer and one scheduled action for all attempts.
+ */
 public class OperationRetry {
 
-    private static final int INFINITE_RETRY = -1;
-
+    /**
+     * @param retryCount
+     *            the number of resubscriptions, a negative number to resubscribe as often as the source fails
+     */
     public static <T> OnSubscribeFunc<T> retry(final Observable<T> observable, final int retryCount) {
-        return new Retry<T>(observable, retryCount);
+        Backoff policy = Backoff.immediate();
+        if (retryCount >= 0) {
+            policy = policy.withMaxRetries(retryCount);
+        }
+        return retry(observable, policy, Schedulers.immediate());
     }
 
     public static <T> OnSubscribeFunc<T> retry(final Observable<T> observable) {
-        return new Retry<T>(observable, INFINITE_RETRY);
+        return retry(observable, Backoff.immediate(), Schedulers.immediate());
     }
 
-    private static class Retry<T> implements OnSubscribeFunc<T> {
+    public static <T> OnSubscribeFunc<T> retry(final Observable<T> observable, final Backoff policy, final Scheduler scheduler) {
+        return new Resubscribe<T>(observable, policy, scheduler, false);
+    }
+
+    /**
+     * Subscribes to the source again after a failure or, for <code>repeat</code>, after completion.
+     */
+    static final class Resubscribe<T> implements OnSubscribeFunc<T> {
 
         private final Observable<T> source;
-        private final int retryCount;
-        private final AtomicInteger attempts = new AtomicInteger(0);
+        private final Backoff policy;
+        private final Scheduler scheduler;
+        private final boolean repeat;
 
-        public Retry(Observable<T> source, int retryCount) {
+        Resubscribe(Observable<T> source, Backoff policy, Scheduler scheduler, boolean repeat) {
             this.source = source;
-            this.retryCount = retryCount;
+            this.policy = policy;
+            this.scheduler = scheduler;
+            this.repeat = repeat;
         }
 
         @Override
         public Subscription onSubscribe(final Observer<? super T> observer) {
-            return Schedulers.trampoline().schedule(new Action1<Inner>() {
-
-                @Override
-                public void call(final Inner inner) {
-                    final Action1<Inner> _self = this;
-                    attempts.incrementAndGet();
-                    source.subscribe(new Observer<T>() {
-
-                        @Override
-                        public void onCompleted() {
-                            observer.onCompleted();
-                        }
-
-                        @Override
-                        public void onError(Throwable e) {
-                            if ((retryCount == INFINITE_RETRY || attempts.get() <= retryCount) && !inner.isUnsubscribed()) {
-                                // retry again
-                                inner.schedule(_self);
-                            } else {
-                                // give up and pass the failure
-                                observer.onError(e);
-                            }
-                        }
-
-                        @Override
-                        public void onNext(T v) {
-                            observer.onNext(v);
-                        }
-
-                    });
+            return new ResubscribeLoop<T>(source, observer, policy, scheduler, repeat).start();
+        }
+    }
+
+    private static final class ResubscribeLoop<T> implements Observer<T>, Action1<Inner> {
+        final Observable<T> source;
+        final Observer<? super T> observer;
+        final Backoff policy;
+        final Scheduler scheduler;
+        final boolean repeat;
+        final Random random;
+        final MultipleAssignmentSubscription sourceSubscription = new MultipleAssignmentSubscription();
+        final MultipleAssignmentSubscription timer = new MultipleAssignmentSubscription();
+        final CompositeSubscription subscription = new CompositeSubscription(sourceSubscription, timer);
+        final AtomicInteger wip = new AtomicInteger();
+        /** Attempts follow each other, the resubscription publishes these to the next one. */
+        long startMillis;
+        int retries;
+
+        ResubscribeLoop(Observable<T> source, Observer<? super T> observer, Backoff policy, Scheduler scheduler, boolean repeat) {
+            this.source = source;
+            this.observer = observer;
+            this.policy = policy;
+            this.scheduler = scheduler;
+            this.repeat = repeat;
+            this.random = policy.hasJitter() ? new Random() : null;
+        }
+
+        Subscription start() {
+            startMillis = scheduler.now();
+            subscribe();
+            return subscription;
+        }
+
+        void subscribe() {
+            if (wip.getAndIncrement() != 0) {
+                // the source terminated synchronously, the loop below subscribes again
+                return;
+            }
+            do {
+                if (subscription.isUnsubscribed()) {
+                    return;
                 }
-            });
+                sourceSubscription.set(source.subscribe(this));
+            } while (wip.decrementAndGet() != 0);
         }
 
+        @Override
+        public void call(Inner inner) {
+            subscribe();
+        }
+
+        @Override
+        public void onNext(T v) {
+            observer.onNext(v);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (repeat) {
+                observer.onError(e);
+            } else {
+                resubscribeOr(e);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            if (repeat) {
+                resubscribeOr(null);
+            } else {
+                observer.onCompleted();
+            }
+        }
+
+        private void resubscribeOr(Throwable e) {
+            if (subscription.isUnsubscribed()) {
+                return;
+            }
+            int retry = ++retries;
+            long delay;
+            boolean again;
+            try {
+                delay = policy.delayMillis(retry, random);
+                again = policy.shouldResubscribe(retry, scheduler.now() - startMillis + delay, e);
+            } catch (Throwable t) {
+                observer.onError(t);
+                return;
+            }
+            if (!again) {
+                // give up and pass the notification
+                if (e != null) {
+                    observer.onError(e);
+                } else {
+                    observer.onCompleted();
+                }
+            } else if (delay == 0) {
+                subscribe();
+            } else {
+                timer.set(scheduler.schedule(this, delay, TimeUnit.MILLISECONDS));
+            }
+        }
     }
 }
@@ -16,8 +16,6 @@
 package rx.operators;
 
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 
 import rx.Observable;
 import rx.Observable.OnSubscribeFunc;
@@ -51,15 +49,14 @@ public final class OperationSample {
         return new Sample<T>(source, period, unit, scheduler);
     }
 
+    private static final Object EMPTY = new Object();
+
     private static class Sample<T> implements OnSubscribeFunc<T> {
         private final Observable<? extends T> source;
         private final long period;
         private final TimeUnit unit;
         private final Scheduler scheduler;
 
-        private final AtomicBoolean hasValue = new AtomicBoolean();
-        private final AtomicReference<T> latestValue = new AtomicReference<T>();
-
         private Sample(Observable<? extends T> source, long interval, TimeUnit unit, Scheduler scheduler) {
             this.source = source;
             this.period = interval;
@@ -69,51 +66,65 @@ public final class OperationSample {
 
         @Override
         public Subscription onSubscribe(final Observer<? super T> observer) {
-            Observable<Long> clock = Observable.create(OperationInterval.interval(period, unit, scheduler));
-            final Subscription clockSubscription = clock.subscribe(new Observer<Long>() {
-                @Override
-                public void onCompleted() { /* the clock never completes */
-                }
-
-                @Override
-                public void onError(Throwable e) { /* the clock has no errors */
-                }
+            final SampleObserver<T> sampler = new SampleObserver<T>(observer);
+            // all subscriptions with the same scheduler and period share one periodic task
+            sampler.clockSubscription = Ticker.register(scheduler, period, unit, sampler);
+            final Subscription sourceSubscription = source.subscribe(sampler);
 
+            return Subscriptions.create(new Action0() {
                 @Override
-                public void onNext(Long tick) {
-                    if (hasValue.get()) {
-                        observer.onNext(latestValue.get());
-                    }
+                public void call() {
+                    sampler.clockSubscription.unsubscribe();
+                    sourceSubscription.unsubscribe();
                 }
             });
+        }
+    }
 
-            final Subscription sourceSubscription = source.subscribe(new Observer<T>() {
-                @Override
-                public void onCompleted() {
-                    clockSubscription.unsubscribe();
-                    observer.onCompleted();
-                }
+    /**
+     * Keeps the latest value of the source and emits it on every tick.
+     */
+    private static final class SampleObserver<T> implements Observer<T>, Action0 {
+        private final Observer<? super T> observer;
+        /** The latest value or EMPTY before the first one; a single write per item. */
+        private volatile Object latestValue = EMPTY;
+        volatile Subscription clockSubscription;
+
+        SampleObserver(Observer<? super T> observer) {
+            this.observer = observer;
+        }
 
-                @Override
-                public void onError(Throwable e) {
-                    clockSubscription.unsubscribe();
-                    observer.onError(e);
-                }
+        @Override
+        public void onCompleted() {
+            clockSubscription.unsubscribe();
+            observer.onCompleted();
+        }
 
-                @Override
-                public void onNext(T value) {
-                    latestValue.set(value);
-                    hasValue.set(true);
-                }
-            });
+        @Override
+        public void onError(Throwable e) {
+            clockSubscription.unsubscribe();
+            observer.onError(e);
+        }
 
-            return Subscriptions.create(new Action0() {
-                @Override
-                public void call() {
+        @Override
+        public void onNext(T value) {
+            latestValue = value;
+        }
+
+        /** Called on every tick of the clock. */
+        @SuppressWarnings("unchecked")
+        @Override
+        public void call() {
+            Object v = latestValue;
+            if (v != EMPTY) {
+                try {
+                    observer.onNext((T) v);
+                } catch (Throwable e) {
+                    // do not let one subscriber break the clock shared with others
                     clockSubscription.unsubscribe();
-                    sourceSubscription.unsubscribe();
+                    observer.onError(e);
                 }
-            });
+            }
         }
     }
 
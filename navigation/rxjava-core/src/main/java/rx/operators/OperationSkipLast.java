@@ -17,11 +17,8 @@ package rx.operators;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
 
 import rx.Observable;
 import rx.Observable.OnSubscribeFunc;
@@ -77,12 +74,10 @@ public class OperationSkipLast {
             final SafeObservableSubscription subscription = new SafeObservableSubscription();
             return subscription.wrap(source.subscribe(new Observer<T>() {
 
-                private final ReentrantLock lock = new ReentrantLock();
-
                 /**
-                 * Store the last count elements until now.
+                 * Store the last count elements until now; onNext is serial so no lock is needed.
                  */
-                private final Deque<T> deque = new LinkedList<T>();
+                private final RingBuffer<T> buffer = count == 0 ? null : new RingBuffer<T>(count);
 
                 @Override
                 public void onCompleted() {
@@ -96,8 +91,8 @@ public class OperationSkipLast {
 
                 @Override
                 public void onNext(T value) {
-                    if (count == 0) {
-                        // If count == 0, we do not need to put value into deque
+                    if (buffer == null) {
+                        // If count == 0, we do not need to put value into the buffer
                         // and remove it at once. We can emit the value
                         // directly.
                         try {
@@ -108,21 +103,20 @@ public class OperationSkipLast {
                         }
                         return;
                     }
-                    lock.lock();
                     try {
-                        deque.offerLast(value);
-                        if (deque.size() > count) {
-                            // Now deque has count + 1 elements, so the first
-                            // element in the deque definitely does not belong
+                        if (buffer.isFull()) {
+                            // The oldest element definitely does not belong
                             // to the last count elements of the source
                             // sequence. We can emit it now.
-                            observer.onNext(deque.removeFirst());
+                            T first = buffer.poll();
+                            buffer.offer(value);
+                            observer.onNext(first);
+                        } else {
+                            buffer.offer(value);
                         }
                     } catch (Throwable ex) {
                         observer.onError(ex);
                         subscription.unsubscribe();
-                    } finally {
-                        lock.unlock();
                     }
                 }
 
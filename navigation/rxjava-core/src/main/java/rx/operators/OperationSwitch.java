@@ -15,6 +15,10 @@
  */
 package rx.operators;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 import rx.Observable;
 import rx.Observable.OnSubscribeFunc;
 import rx.Observer;
@@ -70,75 +74,76 @@ public final class OperationSwitch {
         }
     }
 
+    private static final Object NULL_SENTINEL = new Object();
+    private static final Object COMPLETED = new Object();
+    /** The id of signals from the outer Observable, which are not subject to the latest check. */
+    private static final long OUTER = -1L;
+
+    /** A signal that could not be emitted right away because another thread was emitting. */
+    private static final class Signal {
+        final long id;
+        final Object value;
+
+        Signal(long id, Object value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    private static final class ErrorSignal {
+        final Throwable error;
+
+        ErrorSignal(Throwable error) {
+            this.error = error;
+        }
+    }
+
     private static class SwitchObserver<T> implements Observer<Observable<? extends T>> {
 
-        private final Object gate;
         private final Observer<? super T> observer;
         private final SafeObservableSubscription parent;
         private final SerialSubscription child;
-        private long latest;
+        /** The id of the most recent inner Observable; signals of older ones are dropped. */
+        private final AtomicLong latest = new AtomicLong();
+        /** Number of signals to emit; the thread that increments it from zero emits until it drops back. */
+        private final AtomicInteger wip = new AtomicInteger();
+        private final ConcurrentLinkedQueue<Signal> queue = new ConcurrentLinkedQueue<Signal>();
+        // accessed only by the emitting thread
+        private long lastCompleted;
         private boolean stopped;
-        private boolean hasLatest;
+        private boolean done;
 
         public SwitchObserver(Observer<? super T> observer, SafeObservableSubscription parent,
                 SerialSubscription child) {
             this.observer = observer;
             this.parent = parent;
             this.child = child;
-            this.gate = new Object();
         }
 
         @Override
         public void onNext(Observable<? extends T> args) {
-            final long id;
-            synchronized (gate) {
-                id = ++latest;
-                this.hasLatest = true;
-            }
+            final long id = latest.incrementAndGet();
 
             final SafeObservableSubscription sub = new SafeObservableSubscription();
             sub.wrap(args.subscribe(new Observer<T>() {
                 @Override
                 public void onNext(T args) {
-                    synchronized (gate) {
-                        if (latest == id) {
-                            SwitchObserver.this.observer.onNext(args);
-                        }
+                    // a newer inner Observable has taken over, drop without contending with it
+                    if (latest.get() == id) {
+                        emit(id, args == null ? NULL_SENTINEL : args);
                     }
                 }
 
                 @Override
                 public void onError(Throwable e) {
                     sub.unsubscribe();
-                    SafeObservableSubscription s = null;
-                    synchronized (gate) {
-                        if (latest == id) {
-                            SwitchObserver.this.observer.onError(e);
-                            s = SwitchObserver.this.parent;
-                        }
-                    }
-                    if (s != null) {
-                        s.unsubscribe();
-                    }
+                    emit(id, new ErrorSignal(e));
                 }
 
                 @Override
                 public void onCompleted() {
                     sub.unsubscribe();
-                    SafeObservableSubscription s = null;
-                    synchronized (gate) {
-                        if (latest == id) {
-                            SwitchObserver.this.hasLatest = false;
-
-                            if (stopped) {
-                                SwitchObserver.this.observer.onCompleted();
-                                s = SwitchObserver.this.parent;
-                            }
-                        }
-                    }
-                    if (s != null) {
-                        s.unsubscribe();
-                    }
+                    emit(id, COMPLETED);
                 }
 
             }));
@@ -148,26 +153,79 @@ public final class OperationSwitch {
 
         @Override
         public void onError(Throwable e) {
-            synchronized (gate) {
-                this.observer.onError(e);
-            }
-
-            this.parent.unsubscribe();
+            emit(OUTER, new ErrorSignal(e));
         }
 
         @Override
         public void onCompleted() {
-            SafeObservableSubscription s = null;
-            synchronized (gate) {
-                this.stopped = true;
-                if (!this.hasLatest) {
-                    this.observer.onCompleted();
-                    s = this.parent;
+            emit(OUTER, COMPLETED);
+        }
+
+        /**
+         * Emits the signal if no other thread is emitting, otherwise queues it for the emitting thread.
+         */
+        private void emit(long id, Object value) {
+            if (wip.compareAndSet(0, 1)) {
+                deliver(id, value);
+                if (wip.compareAndSet(1, 0)) {
+                    return;
+                }
+            } else {
+                queue.offer(new Signal(id, value));
+                if (wip.getAndIncrement() != 0) {
+                    return;
+                }
+            }
+            int missed = 1;
+            for (;;) {
+                Signal signal;
+                while ((signal = queue.poll()) != null) {
+                    deliver(signal.id, signal.value);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void deliver(long id, Object value) {
+            if (done) {
+                return;
+            }
+            long current = latest.get();
+            if (id != OUTER) {
+                if (id != current) {
+                    return;
+                }
+                if (value == COMPLETED) {
+                    lastCompleted = id;
+                    if (stopped) {
+                        complete();
+                    }
+                    return;
+                }
+            } else if (value == COMPLETED) {
+                stopped = true;
+                if (lastCompleted == current) {
+                    complete();
                 }
+                return;
             }
-            if (s != null) {
-                s.unsubscribe();
+            if (value instanceof ErrorSignal) {
+                done = true;
+                observer.onError(((ErrorSignal) value).error);
+                parent.unsubscribe();
+                return;
             }
+            observer.onNext(value == NULL_SENTINEL ? null : (T) value);
+        }
+
+        private void complete() {
+            done = true;
+            observer.onCompleted();
+            parent.unsubscribe();
         }
 
     }
@@ -15,17 +15,13 @@
  */
 package rx.operators;
 
-import java.util.Deque;
-import java.util.LinkedList;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
 
 import rx.Observable;
 import rx.Observable.OnSubscribeFunc;
 import rx.Observer;
 import rx.Scheduler;
 import rx.Subscription;
-import rx.util.Timestamped;
 
 /**
  * Returns an Observable that emits the last <code>count</code> items emitted by the source
@@ -67,11 +63,10 @@ public final class OperationTakeLast {
         private class ItemObserver implements Observer<T> {
 
             /**
-             * Store the last count elements until now.
+             * Store the last count elements until now; onNext is serial so no lock is needed.
              */
-            private Deque<T> deque = new LinkedList<T>();
+            private final RingBuffer<T> buffer = count == 0 ? null : new RingBuffer<T>(count);
             private final Observer<? super T> observer;
-            private final ReentrantLock lock = new ReentrantLock();
 
             public ItemObserver(Observer<? super T> observer) {
                 this.observer = observer;
@@ -80,8 +75,10 @@ public final class OperationTakeLast {
             @Override
             public void onCompleted() {
                 try {
-                    for (T value : deque) {
-                        observer.onNext(value);
+                    if (buffer != null) {
+                        while (buffer.size() > 0) {
+                            observer.onNext(buffer.poll());
+                        }
                     }
                     observer.onCompleted();
                 } catch (Throwable e) {
@@ -96,27 +93,18 @@ public final class OperationTakeLast {
 
             @Override
             public void onNext(T value) {
-                if (count == 0) {
-                    // If count == 0, we do not need to put value into deque and
+                if (buffer == null) {
+                    // If count == 0, we do not need to put value into the buffer and
                     // remove it at once. We can ignore the value directly.
                     return;
                 }
-                lock.lock();
-                try {
-                    deque.offerLast(value);
-                    if (deque.size() > count) {
-                        // Now deque has count + 1 elements, so the first
-                        // element in the deque definitely does not belong
-                        // to the last count elements of the source
-                        // sequence. We can drop it now.
-                        deque.removeFirst();
-                    }
-                } catch (Throwable e) {
-                    observer.onError(e);
-                    subscription.unsubscribe();
-                } finally {
-                    lock.unlock();
+                if (buffer.isFull()) {
+                    // The oldest element definitely does not belong
+                    // to the last count elements of the source
+                    // sequence. We can drop it now.
+                    buffer.poll();
                 }
+                buffer.offer(value);
             }
 
         }
@@ -170,7 +158,14 @@ public final class OperationTakeLast {
         /** -1 indicates unlimited buffer. */
         final int count;
 
-        final Deque<Timestamped<T>> buffer = new LinkedList<Timestamped<T>>();
+        private static final int INITIAL_SIZE = 16;
+
+        /** Buffered values and their timestamps in parallel circular arrays. */
+        Object[] values;
+        long[] timestamps;
+        /** Index of the oldest entry. */
+        int head;
+        int size;
 
         public TakeLastTimedObserver(Observer<? super T> observer, Subscription cancel,
                 int count, long ageMillis, Scheduler scheduler) {
@@ -179,34 +174,87 @@ public final class OperationTakeLast {
             this.ageMillis = ageMillis;
             this.scheduler = scheduler;
             this.count = count;
+            int initial = count >= 0 ? Math.min(count, INITIAL_SIZE) : INITIAL_SIZE;
+            this.values = new Object[initial];
+            this.timestamps = new long[initial];
         }
 
         protected void runEvictionPolicy(long now) {
             // trim size
-            while (count >= 0 && buffer.size() > count) {
-                buffer.pollFirst();
+            while (count >= 0 && size > count) {
+                pollFirst();
             }
             // remove old entries
-            while (!buffer.isEmpty()) {
-                Timestamped<T> v = buffer.peekFirst();
-                if (v.getTimestampMillis() < now - ageMillis) {
-                    buffer.pollFirst();
+            long limit = now - ageMillis;
+            while (size > 0 && timestamps[head] < limit) {
+                pollFirst();
+            }
+        }
+
+        private void pollFirst() {
+            values[head] = null;
+            if (++head == values.length) {
+                head = 0;
+            }
+            size--;
+        }
+
+        private void add(long t, T value) {
+            if (size == values.length) {
+                if (count >= 0 && size == count) {
+                    // full at the count bound, the oldest entry is evicted anyway
+                    pollFirst();
                 } else {
-                    break;
+                    grow();
                 }
             }
+            int index = head + size;
+            if (index >= values.length) {
+                index -= values.length;
+            }
+            values[index] = value;
+            timestamps[index] = t;
+            size++;
+        }
+
+        private void grow() {
+            int length = values.length;
+            int newLength = length == 0 ? 1 : length << 1;
+            if (count >= 0 && newLength > count) {
+                newLength = count;
+            }
+            Object[] v = new Object[newLength];
+            long[] ts = new long[newLength];
+            int firstPart = Math.min(size, length - head);
+            System.arraycopy(values, head, v, 0, firstPart);
+            System.arraycopy(values, 0, v, firstPart, size - firstPart);
+            System.arraycopy(timestamps, head, ts, 0, firstPart);
+            System.arraycopy(timestamps, 0, ts, firstPart, size - firstPart);
+            values = v;
+            timestamps = ts;
+            head = 0;
+        }
+
+        private void clear() {
+            values = new Object[0];
+            timestamps = new long[0];
+            head = 0;
+            size = 0;
         }
 
         @Override
         public void onNext(T args) {
+            if (count == 0) {
+                return;
+            }
             long t = scheduler.now();
-            buffer.add(new Timestamped<T>(t, args));
+            add(t, args);
             runEvictionPolicy(t);
         }
 
         @Override
         public void onError(Throwable e) {
-            buffer.clear();
+            clear();
             observer.onError(e);
             cancel.unsubscribe();
         }
@@ -216,17 +264,19 @@ public final class OperationTakeLast {
          * 
          * @return true if no exception was raised in the process
          */
+        @SuppressWarnings("unchecked")
         protected boolean emitBuffer() {
-            for (Timestamped<T> v : buffer) {
+            while (size > 0) {
+                T v = (T) values[head];
+                pollFirst();
                 try {
-                    observer.onNext(v.getValue());
+                    observer.onNext(v);
                 } catch (Throwable t) {
-                    buffer.clear();
+                    clear();
                     observer.onError(t);
                     return false;
                 }
             }
-            buffer.clear();
             return true;
         }
 
@@ -15,26 +15,43 @@
  */
 package rx.operators;
 
+import java.io.Closeable;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
-import rx.Notification;
 import rx.Observable;
-import rx.Observer;
+import rx.Subscriber;
+import rx.subscriptions.Subscriptions;
 import rx.util.Exceptions;
+import rx.util.functions.Action0;
 
 /**
  * Returns an Iterator that iterates over all items emitted by a specified Observable.
  * <p>
  * <img width="640" src="https://github.com/Netflix/RxJava/wiki/images/rx-operators/B.toIterator.png">
  * <p>
+ * The items are buffered in a bounded ring. When it is full the thread the Observable emits on waits until the
+ * iterator has consumed a batch of items; an empty ring makes the iterating thread wait until the Observable emits.
+ * Neither side wakes the other up for every single item.
+ * <p>
+ * The returned Iterator is also a {@link rx.Subscription} and a {@link Closeable}. A caller that stops iterating
+ * before the end should close or unsubscribe it: this unsubscribes from the Observable and releases a thread waiting
+ * for the full ring, which otherwise waits forever. A closed iterator has no more items.
  * 
  * @see <a href="https://github.com/Netflix/RxJava/issues/50">Issue #50</a>
  */
 public class OperationToIterator {
 
+    /**
+     * Number of items buffered before the Observable has to wait, used if no size is given.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 128;
+
+    private static final Object NULL_SENTINEL = new Object();
+
     /**
      * Returns an iterator that iterates all values of the observable.
      * 
@@ -43,62 +60,217 @@ public class OperationToIterator {
      * @return the iterator that could be used to iterate over the elements of the observable.
      */
     public static <T> Iterator<T> toIterator(Observable<? extends T> source) {
-        final BlockingQueue<Notification<? extends T>> notifications = new LinkedBlockingQueue<Notification<? extends T>>();
+        return toIterator(source, DEFAULT_BUFFER_SIZE);
+    }
 
-        source.materialize().subscribe(new Observer<Notification<? extends T>>() {
-            @Override
-            public void onCompleted() {
-                // ignore
-            }
+    /**
+     * Returns an iterator that iterates all values of the observable, buffering at most <code>bufferSize</code> of
+     * them.
+     * <p>
+     * Items the observable emits synchronously while it is being subscribed to are buffered regardless of the size
+     * because the iterating thread cannot consume them before the subscription returns.
+     * 
+     * @param <T>
+     *            the type of source.
+     * @param bufferSize
+     *            the number of items buffered before the observable has to wait
+     * @return the iterator that could be used to iterate over the elements of the observable.
+     */
+    public static <T> Iterator<T> toIterator(Observable<? extends T> source, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        BufferedIterator<T> iterator = new BufferedIterator<T>(bufferSize);
+        source.subscribe(iterator);
+        iterator.subscribing = null;
+        return iterator;
+    }
 
-            @Override
-            public void onError(Throwable e) {
-                // ignore
-            }
+    private static final class BufferedIterator<T> extends Subscriber<T> implements Iterator<T>, Closeable {
+        final int capacity;
+        /** Number of consumed items after which the producer is told about the free space. */
+        final int limit;
+        final SpscLinkedArrayQueue<Object> queue;
+        /** Number of items taken out of the queue, published by the consumer in batches. */
+        final AtomicLong consumed = new AtomicLong();
+        /** The thread subscribing to the source; it must not wait for itself to consume. */
+        volatile Thread subscribing;
+        /**
+         * The threads about to park. Both sides swap them atomically after publishing their progress and the waiting
+         * side checks that progress again after registering, so one of them always sees the other.
+         */
+        final AtomicReference<Thread> waitingProducer = new AtomicReference<Thread>();
+        final AtomicReference<Thread> waitingConsumer = new AtomicReference<Thread>();
+        volatile boolean done;
+        Throwable error;
+        /** Set if the iterator was unsubscribed before the source terminated. */
+        volatile boolean cancelled;
 
-            @Override
-            public void onNext(Notification<? extends T> args) {
-                notifications.offer(args);
-            }
-        });
+        // producer side
+        long produced;
 
-        return new Iterator<T>() {
-            private Notification<? extends T> buf;
+        // consumer side
+        long consumedLocal;
+        int consumedSincePublish;
+        Object buf;
 
-            @Override
-            public boolean hasNext() {
-                if (buf == null) {
-                    buf = take();
+        BufferedIterator(int capacity) {
+            this.capacity = capacity;
+            this.limit = Math.max(1, capacity >> 2);
+            // the queue keeps a free slot, so it only grows beyond capacity for synchronous emissions
+            this.queue = new SpscLinkedArrayQueue<Object>(capacity + 1);
+            this.subscribing = Thread.currentThread();
+            add(Subscriptions.create(new Action0() {
+                @Override
+                public void call() {
+                    if (!done) {
+                        cancelled = true;
+                    }
+                    // let a waiting producer notice it was unsubscribed, and a waiting consumer that it was closed
+                    unpark(waitingProducer);
+                    unpark(waitingConsumer);
                 }
-                if (buf.isOnError()) {
-                    throw Exceptions.propagate(buf.getThrowable());
+            }));
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (produced - consumed.get() >= capacity && subscribing != Thread.currentThread()) {
+                Thread current = Thread.currentThread();
+                for (;;) {
+                    waitingProducer.getAndSet(current);
+                    if (produced - consumed.get() < capacity) {
+                        break;
+                    }
+                    if (isUnsubscribed()) {
+                        waitingProducer.compareAndSet(current, null);
+                        return;
+                    }
+                    LockSupport.park(this);
                 }
-                return !buf.isOnCompleted();
+                waitingProducer.compareAndSet(current, null);
+            }
+            produced++;
+            queue.offer(t == null ? NULL_SENTINEL : t);
+            unpark(waitingConsumer);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            error = e;
+            done = true;
+            unpark(waitingConsumer);
+        }
+
+        @Override
+        public void onCompleted() {
+            done = true;
+            unpark(waitingConsumer);
+        }
+
+        /**
+         * Wakes up the thread waiting on the other side; the swap orders it after the progress just published.
+         */
+        private static void unpark(AtomicReference<Thread> waiting) {
+            Thread t = waiting.getAndSet(null);
+            if (t != null) {
+                LockSupport.unpark(t);
             }
+        }
 
-            @Override
-            public T next() {
-                if (hasNext()) {
-                    T result = buf.getValue();
-                    buf = null;
-                    return result;
+        @Override
+        public boolean hasNext() {
+            if (buf == null) {
+                buf = take();
+            }
+            if (buf == NULL_SENTINEL) {
+                return true;
+            }
+            if (buf == this) {
+                Throwable e = error;
+                if (e != null) {
+                    throw Exceptions.propagate(e);
                 }
-                throw new NoSuchElementException();
+                return false;
             }
+            return true;
+        }
 
-            private Notification<? extends T> take() {
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            if (hasNext()) {
+                Object o = buf;
+                buf = null;
+                return o == NULL_SENTINEL ? null : (T) o;
+            }
+            throw new NoSuchElementException();
+        }
+
+        /**
+         * Polls the next item, waiting if there is none yet.
+         * 
+         * @return the item or this iterator itself once the source terminated and everything was consumed
+         */
+        private Object take() {
+            if (cancelled) {
+                return this;
+            }
+            Object o = queue.poll();
+            if (o == null) {
+                // let the producer refill the ring before going to sleep
+                publishConsumed();
+                Thread current = Thread.currentThread();
                 try {
-                    return notifications.take();
-                } catch (InterruptedException e) {
-                    throw Exceptions.propagate(e);
+                    for (;;) {
+                        waitingConsumer.getAndSet(current);
+                        boolean d = done;
+                        o = queue.poll();
+                        if (o != null) {
+                            break;
+                        }
+                        if (d || cancelled) {
+                            // stay terminated on further calls
+                            return this;
+                        }
+                        LockSupport.park(this);
+                        if (Thread.interrupted()) {
+                            unsubscribe();
+                            current.interrupt();
+                            throw Exceptions.propagate(new InterruptedException());
+                        }
+                    }
+                } finally {
+                    waitingConsumer.compareAndSet(current, null);
                 }
             }
+            consumedLocal++;
+            if (++consumedSincePublish == limit) {
+                publishConsumed();
+            }
+            return o;
+        }
 
-            @Override
-            public void remove() {
-                throw new UnsupportedOperationException("Read-only iterator");
+        private void publishConsumed() {
+            if (consumedSincePublish != 0) {
+                consumedSincePublish = 0;
+                consumed.set(consumedLocal);
+                unpark(waitingProducer);
             }
-        };
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Read-only iterator");
+        }
+
+        /**
+         * Unsubscribes from the source; see {@link OperationToIterator}.
+         */
+        @Override
+        public void close() {
+            unsubscribe();
+        }
     }
 
 }
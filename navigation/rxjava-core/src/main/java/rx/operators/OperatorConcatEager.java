@@ -0,0 +1,213 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.operators;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.subscriptions.CompositeSubscription;
+
+/**
+ * Concatenates the Observables emitted by an Observable while subscribing to up to <code>maxConcurrent</code> of them
+ * at the same time.
+ * <p>
+ * Every inner Observable is subscribed to as soon as a slot is free and buffers what it emits. Only the oldest
+ * running inner Observable emits directly; the items of the ones behind it are replayed in order once it completes.
+ * The result is the same sequence as <code>concat</code> while the inner Observables run concurrently.
+ */
+public final class OperatorConcatEager<T> implements Operator<T, Observable<? extends T>> {
+    private final int maxConcurrent;
+
+    public OperatorConcatEager() {
+        this.maxConcurrent = Integer.MAX_VALUE;
+    }
+
+    public OperatorConcatEager(int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    @Override
+    public Subscriber<? super Observable<? extends T>> call(Subscriber<? super T> child) {
+        return new ConcatEagerSubscriber<T>(child, maxConcurrent);
+    }
+
+    private static final Object NULL_SENTINEL = new Object();
+
+    private static final class ConcatEagerSubscriber<T> extends Subscriber<Observable<? extends T>> {
+        final Subscriber<? super T> child;
+        final int maxConcurrent;
+        final Object gate = new Object();
+        /** Guarded by gate. Subscribed inner Observables in source order. */
+        final ArrayDeque<InnerSubscriber<T>> inners = new ArrayDeque<InnerSubscriber<T>>();
+        /** Guarded by gate. Inner Observables waiting for a free slot. */
+        final ArrayDeque<Observable<? extends T>> pending = new ArrayDeque<Observable<? extends T>>();
+        /** Guarded by gate. */
+        int active;
+        /** Subscriptions of the running inner Observables, removed again once they finish. */
+        final CompositeSubscription innerSubscriptions = new CompositeSubscription();
+        final AtomicInteger wip = new AtomicInteger();
+        /** Only accessed by the draining thread. */
+        InnerSubscriber<T> head;
+        volatile boolean outerDone;
+        volatile Throwable error;
+
+        ConcatEagerSubscriber(Subscriber<? super T> child, int maxConcurrent) {
+            super(child);
+            this.child = child;
+            this.maxConcurrent = maxConcurrent;
+            child.add(innerSubscriptions);
+        }
+
+        @Override
+        public void onNext(Observable<? extends T> o) {
+            InnerSubscriber<T> inner = null;
+            synchronized (gate) {
+                if (active < maxConcurrent) {
+                    active++;
+                    inner = new InnerSubscriber<T>(this);
+                    inners.offer(inner);
+                } else {
+                    pending.offer(o);
+                }
+            }
+            if (inner != null) {
+                subscribeInner(inner, o);
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            error = e;
+            drain();
+        }
+
+        @Override
+        public void onCompleted() {
+            outerDone = true;
+            drain();
+        }
+
+        void subscribeInner(InnerSubscriber<T> inner, Observable<? extends T> o) {
+            innerSubscriptions.add(inner.subscription);
+            o.subscribe(inner);
+        }
+
+        /** Frees the slot of a finished inner Observable and starts the next pending one. */
+        void innerFinished(InnerSubscriber<T> finished) {
+            innerSubscriptions.remove(finished.subscription);
+            Observable<? extends T> next;
+            InnerSubscriber<T> inner = null;
+            synchronized (gate) {
+                inners.poll();
+                next = pending.poll();
+                if (next == null) {
+                    active--;
+                } else {
+                    inner = new InnerSubscriber<T>(this);
+                    inners.offer(inner);
+                }
+            }
+            if (inner != null) {
+                subscribeInner(inner, next);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                for (;;) {
+                    Throwable e = error;
+                    if (e != null) {
+                        child.onError(e);
+                        unsubscribe();
+                        return;
+                    }
+                    InnerSubscriber<T> h = head;
+                    if (h == null) {
+                        boolean done = outerDone;
+                        synchronized (gate) {
+                            h = inners.peek();
+                            // nothing can be waiting for a slot once all inner Observables finished
+                            done = done && h == null;
+                        }
+                        if (h == null) {
+                            if (done) {
+                                child.onCompleted();
+                                return;
+                            }
+                            break;
+                        }
+                        head = h;
+                    }
+                    boolean d = h.done;
+                    Object v = h.queue.poll();
+                    if (v == null) {
+                        if (d) {
+                            head = null;
+                            innerFinished(h);
+                            continue;
+                        }
+                        break;
+                    }
+                    child.onNext(v == NULL_SENTINEL ? null : (T) v);
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+    }
+
+    private static final class InnerSubscriber<T> extends Subscriber<T> {
+        final ConcatEagerSubscriber<T> parent;
+        final CompositeSubscription subscription;
+        final SpscLinkedArrayQueue<Object> queue = new SpscLinkedArrayQueue<Object>(16);
+        volatile boolean done;
+
+        InnerSubscriber(ConcatEagerSubscriber<T> parent) {
+            this(parent, new CompositeSubscription());
+        }
+
+        private InnerSubscriber(ConcatEagerSubscriber<T> parent, CompositeSubscription subscription) {
+            super(subscription);
+            this.parent = parent;
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T t) {
+            queue.offer(t == null ? NULL_SENTINEL : t);
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            parent.error = e;
+            parent.drain();
+        }
+
+        @Override
+        public void onCompleted() {
+            done = true;
+            parent.drain();
+        }
+    }
+}
@@ -15,17 +15,27 @@
  */
 package rx.operators;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import rx.Observable.OnSubscribe;
+import rx.Scheduler;
 import rx.Subscriber;
 import rx.observables.GroupedObservable;
 import rx.subjects.PublishSubject;
 import rx.subscriptions.CompositeSubscription;
 import rx.subscriptions.Subscriptions;
 import rx.util.functions.Action0;
+import rx.util.functions.Action1;
 import rx.util.functions.Func1;
 
 /**
@@ -33,17 +43,121 @@ import rx.util.functions.Func1;
  * grouped items as Observables, one Observable per group.
  * <p>
  * <img width="640" src="https://github.com/Netflix/RxJava/wiki/images/rx-Observers/groupBy.png">
+ * <p>
+ * By default every group lives until the source terminates. In bounded mode at most <code>maxGroups</code> groups are
+ * open at a time: opening another one completes the least recently used group, and groups that received no item for
+ * <code>maxIdleTime</code> are completed as well. An item whose key belongs to a completed group opens a new group for
+ * that key. Each group created in bounded mode buffers up to <code>groupBufferSize</code> items until it is subscribed
+ * to, so that items emitted before the subscription are not lost; a full buffer is handled by the
+ * {@link OverflowPolicy}.
  */
 public final class OperatorGroupBy<K, T> implements Operator<GroupedObservable<K, T>, T> {
 
+    /**
+     * Number of items a group buffers in bounded mode, used if no size is given.
+     */
+    public static final int DEFAULT_GROUP_BUFFER_SIZE = 128;
+
+    /**
+     * What to do with an item for a group whose buffer is full.
+     */
+    public static enum OverflowPolicy {
+        /**
+         * Drop the item.
+         */
+        DROP,
+        /**
+         * Fail with a {@link RejectedExecutionException}.
+         */
+        ERROR
+    }
+
     final Func1<? super T, ? extends K> keySelector;
+    final boolean bounded;
+    final int maxGroups;
+    final long maxIdleTime;
+    final TimeUnit unit;
+    final Scheduler scheduler;
+    final int groupBufferSize;
+    final OverflowPolicy policy;
 
     public OperatorGroupBy(final Func1<? super T, ? extends K> keySelector) {
         this.keySelector = keySelector;
+        this.bounded = false;
+        this.maxGroups = Integer.MAX_VALUE;
+        this.maxIdleTime = 0;
+        this.unit = null;
+        this.scheduler = null;
+        this.groupBufferSize = 0;
+        this.policy = null;
+    }
+
+    /**
+     * Creates a bounded groupBy.
+     * 
+     * @param keySelector
+     *            a function that extracts the key for each item
+     * @param maxGroups
+     *            the maximum number of groups open at the same time
+     * @param maxIdleTime
+     *            the time after which a group that received no item is completed, or 0 to keep idle groups open
+     * @param unit
+     *            the unit of <code>maxIdleTime</code>
+     * @param scheduler
+     *            the scheduler used to check for idle groups
+     */
+    public OperatorGroupBy(final Func1<? super T, ? extends K> keySelector, int maxGroups, long maxIdleTime, TimeUnit unit, Scheduler scheduler) {
+        this(keySelector, maxGroups, maxIdleTime, unit, scheduler, DEFAULT_GROUP_BUFFER_SIZE, OverflowPolicy.ERROR);
+    }
+
+    /**
+     * Creates a bounded groupBy.
+     * 
+     * @param keySelector
+     *            a function that extracts the key for each item
+     * @param maxGroups
+     *            the maximum number of groups open at the same time
+     * @param maxIdleTime
+     *            the time after which a group that received no item is completed, or 0 to keep idle groups open
+     * @param unit
+     *            the unit of <code>maxIdleTime</code>
+     * @param scheduler
+     *            the scheduler used to check for idle groups
+     * @param groupBufferSize
+     *            the maximum number of items a group buffers
+     * @param policy
+     *            what to do when the buffer of a group is full
+     */
+    public OperatorGroupBy(final Func1<? super T, ? extends K> keySelector, int maxGroups, long maxIdleTime, TimeUnit unit, Scheduler scheduler, int groupBufferSize, OverflowPolicy policy) {
+        if (maxGroups <= 0) {
+            throw new IllegalArgumentException("maxGroups must be positive");
+        }
+        if (maxIdleTime < 0) {
+            throw new IllegalArgumentException("maxIdleTime must not be negative");
+        }
+        if (groupBufferSize <= 0) {
+            throw new IllegalArgumentException("groupBufferSize must be positive");
+        }
+        if (policy == null) {
+            throw new NullPointerException("policy");
+        }
+        this.keySelector = keySelector;
+        this.bounded = true;
+        this.maxGroups = maxGroups;
+        this.maxIdleTime = maxIdleTime;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.groupBufferSize = groupBufferSize;
+        this.policy = policy;
     }
 
     @Override
     public Subscriber<? super T> call(final Subscriber<? super GroupedObservable<K, T>> childObserver) {
+        if (bounded) {
+            BoundedGroupBySubscriber parent = new BoundedGroupBySubscriber(childObserver);
+            parent.start();
+            return parent;
+        }
         // a new CompositeSubscription to decouple the subscription as the inner subscriptions need a separate lifecycle
         // and will unsubscribe on this parent if they are all unsubscribed
         return new Subscriber<T>(new CompositeSubscription()) {
@@ -52,12 +166,14 @@ public final class OperatorGroupBy<K, T> implements Operator<GroupedObservable<K
 
             @Override
             public void onCompleted() {
+                // checked first as children completing synchronously below complete the child themselves
+                boolean noChildren = completionCounter.get() == 0;
                 // if we receive onCompleted from our parent we onComplete children
                 for (PublishSubject<T> ps : groups.values()) {
                     ps.onCompleted();
                 }
 
-                if (completionCounter.get() == 0) {
+                if (noChildren) {
                     // special case if no children are running (such as an empty sequence, or just getting the groups and not subscribing)
                     childObserver.onCompleted();
                 }
@@ -89,11 +205,15 @@ public final class OperatorGroupBy<K, T> implements Operator<GroupedObservable<K
                             public void call(final Subscriber<? super T> o) {
                                 // number of children we have running
                                 completionCounter.incrementAndGet();
+                                // completing and unsubscribing both end the child but must only be counted once
+                                final AtomicBoolean ended = new AtomicBoolean();
                                 o.add(Subscriptions.create(new Action0() {
 
                                     @Override
                                     public void call() {
-                                        completeInner();
+                                        if (ended.compareAndSet(false, true)) {
+                                            completeInner();
+                                        }
                                     }
 
                                 }));
@@ -102,7 +222,9 @@ public final class OperatorGroupBy<K, T> implements Operator<GroupedObservable<K
                                     @Override
                                     public void onCompleted() {
                                         o.onCompleted();
-                                        completeInner();
+                                        if (ended.compareAndSet(false, true)) {
+                                            completeInner();
+                                        }
                                     }
 
                                     @Override
@@ -142,4 +264,370 @@ public final class OperatorGroupBy<K, T> implements Operator<GroupedObservable<K
         };
     }
 
+    /**
+     * Source subscriber for the bounded mode.
+     * <p>
+     * The group bookkeeping is guarded by <code>gate</code> since groups are opened by the source thread, subscribed to
+     * from arbitrary threads and evicted from the scheduler. Nothing is emitted while holding it: items and terminal
+     * events are queued per group under the gate and delivered by the drain loop of the group afterwards. An item for
+     * a subscribed group with nothing queued claims the drain loop under the gate and is emitted directly.
+     */
+    private final class BoundedGroupBySubscriber extends Subscriber<T> {
+        final Subscriber<? super GroupedObservable<K, T>> childObserver;
+        final Object gate = new Object();
+        /** Guarded by gate. Iterates from the least to the most recently used group. */
+        final LinkedHashMap<K, BufferedGroup> groups = new LinkedHashMap<K, BufferedGroup>(16, 0.75f, true);
+        /** Guarded by gate. Subscribers currently attached to an open group. */
+        int activeSubscribers;
+        /** Guarded by gate. Groups that were emitted but have not been subscribed to yet. */
+        int pendingGroups;
+        /** Guarded by gate. */
+        boolean childUnsubscribed;
+        /** Guarded by gate. */
+        boolean done;
+
+        BoundedGroupBySubscriber(Subscriber<? super GroupedObservable<K, T>> childObserver) {
+            // decoupled from the child as groups may outlive the subscription to the outer Observable
+            super(new CompositeSubscription());
+            this.childObserver = childObserver;
+        }
+
+        void start() {
+            childObserver.add(Subscriptions.create(new Action0() {
+
+                @Override
+                public void call() {
+                    boolean release;
+                    synchronized (gate) {
+                        childUnsubscribed = true;
+                        release = isUnused();
+                    }
+                    if (release) {
+                        unsubscribe();
+                    }
+                }
+
+            }));
+            if (maxIdleTime > 0) {
+                add(scheduler.schedulePeriodically(new Action1<Scheduler.Inner>() {
+
+                    @Override
+                    public void call(Scheduler.Inner inner) {
+                        evictIdle(now());
+                    }
+
+                }, maxIdleTime, maxIdleTime, unit));
+            }
+        }
+
+        /**
+         * @return the time of the scheduler in nanoseconds, so idle times below a millisecond are not rounded to 0
+         */
+        long now() {
+            return TimeUnit.MILLISECONDS.toNanos(scheduler.now());
+        }
+
+        @Override
+        public void onNext(T t) {
+            final K key;
+            try {
+                key = keySelector.call(t);
+            } catch (Throwable e) {
+                onError(e);
+                return;
+            }
+            BufferedGroup g;
+            BufferedGroup evicted = null;
+            BufferedGroup opened = null;
+            boolean direct = false;
+            boolean overflow = false;
+            synchronized (gate) {
+                if (done) {
+                    return;
+                }
+                g = groups.get(key);
+                if (g == null) {
+                    if (childUnsubscribed) {
+                        // nobody can receive new groups anymore
+                        return;
+                    }
+                    if (groups.size() >= maxGroups) {
+                        Iterator<BufferedGroup> it = groups.values().iterator();
+                        evicted = it.next();
+                        it.remove();
+                        evicted.complete();
+                    }
+                    g = new BufferedGroup(key);
+                    groups.put(key, g);
+                    pendingGroups++;
+                    opened = g;
+                }
+                if (maxIdleTime > 0) {
+                    g.lastSeen = now();
+                }
+                if (g.connected && g.queue.isEmpty() && g.wip.compareAndSet(0, 1)) {
+                    // holding the drain loop keeps later events of the group behind this item
+                    direct = true;
+                } else if (g.size.get() >= groupBufferSize) {
+                    if (policy == OverflowPolicy.DROP) {
+                        return;
+                    }
+                    overflow = true;
+                } else {
+                    g.onNext(t);
+                }
+            }
+            if (overflow) {
+                onError(new RejectedExecutionException("The buffer of the group for " + key + " with " + groupBufferSize + " items is full"));
+                return;
+            }
+            if (evicted != null) {
+                evicted.drain();
+            }
+            if (opened != null) {
+                childObserver.onNext(opened.observable);
+            }
+            if (direct) {
+                g.emit(t);
+            } else {
+                g.drain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            List<BufferedGroup> gs;
+            synchronized (gate) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                gs = new ArrayList<BufferedGroup>(groups.values());
+                groups.clear();
+                for (BufferedGroup g : gs) {
+                    g.error(e);
+                }
+            }
+            for (BufferedGroup g : gs) {
+                g.drain();
+            }
+            childObserver.onError(e);
+            unsubscribe();
+        }
+
+        @Override
+        public void onCompleted() {
+            List<BufferedGroup> gs;
+            synchronized (gate) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                gs = new ArrayList<BufferedGroup>(groups.values());
+                groups.clear();
+                for (BufferedGroup g : gs) {
+                    g.complete();
+                }
+            }
+            for (BufferedGroup g : gs) {
+                g.drain();
+            }
+            childObserver.onCompleted();
+            unsubscribe();
+        }
+
+        void evictIdle(long now) {
+            final long idle = unit.toNanos(maxIdleTime);
+            List<BufferedGroup> expired = null;
+            boolean release;
+            synchronized (gate) {
+                if (done) {
+                    return;
+                }
+                Iterator<BufferedGroup> it = groups.values().iterator();
+                while (it.hasNext()) {
+                    BufferedGroup g = it.next();
+                    if (now - g.lastSeen < idle) {
+                        // all remaining groups were used more recently
+                        break;
+                    }
+                    it.remove();
+                    if (expired == null) {
+                        expired = new ArrayList<BufferedGroup>();
+                    }
+                    expired.add(g);
+                    g.complete();
+                }
+                release = isUnused();
+            }
+            if (expired != null) {
+                for (BufferedGroup g : expired) {
+                    g.drain();
+                }
+            }
+            if (release) {
+                unsubscribe();
+            }
+        }
+
+        /** Must be called while holding gate; the caller unsubscribes from the source after releasing it. */
+        boolean isUnused() {
+            return childUnsubscribed && activeSubscribers == 0 && pendingGroups == 0;
+        }
+
+        /**
+         * A group that queues its items until it is subscribed to and then hands them to a PublishSubject.
+         */
+        final class BufferedGroup {
+            final PublishSubject<T> subject = PublishSubject.create();
+            final GroupedObservable<K, T> observable;
+            /** Items and the terminal event, offered under gate and drained to the subject once connected. */
+            final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<Object>();
+            /** Number of items in the queue. */
+            final AtomicInteger size = new AtomicInteger();
+            final AtomicInteger wip = new AtomicInteger();
+            /** Set once the first subscriber is attached to the subject. */
+            volatile boolean connected;
+            /** Guarded by gate. */
+            boolean subscribed;
+            /** Guarded by gate. */
+            boolean completed;
+            /** Guarded by gate. */
+            long lastSeen;
+
+            BufferedGroup(K key) {
+                this.observable = new GroupedObservable<K, T>(key, new OnSubscribe<T>() {
+
+                    @Override
+                    public void call(Subscriber<? super T> o) {
+                        subscribe(o);
+                    }
+
+                });
+            }
+
+            /** Must be called while holding gate. */
+            void onNext(T t) {
+                size.incrementAndGet();
+                queue.offer(t == null ? NULL_SENTINEL : t);
+            }
+
+            /** Must be called while holding gate. */
+            void complete() {
+                if (!subscribed) {
+                    // it keeps its items for a late subscriber but no longer holds the source open
+                    pendingGroups--;
+                }
+                completed = true;
+                queue.offer(COMPLETED_SENTINEL);
+            }
+
+            /** Must be called while holding gate. */
+            void error(Throwable e) {
+                completed = true;
+                queue.offer(new ErrorSentinel(e));
+            }
+
+            void drain() {
+                if (!connected || wip.getAndIncrement() != 0) {
+                    return;
+                }
+                drainLoop();
+            }
+
+            /**
+             * Emits an item without queueing it; the caller moved wip from 0 to 1 while holding gate.
+             */
+            void emit(T t) {
+                subject.onNext(t);
+                if (wip.decrementAndGet() != 0) {
+                    drainLoop();
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            private void drainLoop() {
+                do {
+                    Object o;
+                    while ((o = queue.poll()) != null) {
+                        if (o == COMPLETED_SENTINEL) {
+                            subject.onCompleted();
+                        } else if (o instanceof ErrorSentinel) {
+                            subject.onError(((ErrorSentinel) o).e);
+                        } else {
+                            size.decrementAndGet();
+                            subject.onNext(o == NULL_SENTINEL ? null : (T) o);
+                        }
+                    }
+                } while (wip.decrementAndGet() != 0);
+            }
+
+            void subscribe(final Subscriber<? super T> o) {
+                boolean first;
+                boolean open;
+                synchronized (gate) {
+                    first = !subscribed;
+                    subscribed = true;
+                    open = !completed;
+                    if (open) {
+                        if (first) {
+                            pendingGroups--;
+                        }
+                        activeSubscribers++;
+                    }
+                }
+                if (open) {
+                    o.add(Subscriptions.create(new Action0() {
+
+                        @Override
+                        public void call() {
+                            boolean release;
+                            synchronized (gate) {
+                                activeSubscribers--;
+                                release = isUnused();
+                            }
+                            if (release) {
+                                unsubscribe();
+                            }
+                        }
+
+                    }));
+                }
+                subject.subscribe(new Subscriber<T>(o) {
+
+                    @Override
+                    public void onCompleted() {
+                        o.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        o.onError(e);
+                    }
+
+                    @Override
+                    public void onNext(T t) {
+                        o.onNext(t);
+                    }
+
+                });
+                if (first) {
+                    // the first subscriber receives what was queued before it arrived
+                    connected = true;
+                    drain();
+                }
+            }
+        }
+    }
+
+    private static final Object NULL_SENTINEL = new Object();
+    private static final Object COMPLETED_SENTINEL = new Object();
+
+    private static final class ErrorSentinel {
+        final Throwable e;
+
+        ErrorSentinel(Throwable e) {
+            this.e = e;
+        }
+    }
 }
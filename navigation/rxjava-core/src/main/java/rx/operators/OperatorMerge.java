@@ -16,12 +16,16 @@
 package rx.operators;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import rx.Observable;
 import rx.Subscriber;
 import rx.observers.SynchronizedSubscriber;
 import rx.subscriptions.CompositeSubscription;
+import rx.subscriptions.Subscriptions;
+import rx.util.functions.Action0;
 
 /**
  * Flattens a list of Observables into one Observable sequence, without any transformation.
@@ -30,28 +34,83 @@ import rx.subscriptions.CompositeSubscription;
  * <p>
  * You can combine the items emitted by multiple Observables so that they act like a single
  * Observable, by using the merge operation.
+ * <p>
+ * With <code>maxConcurrent</code> only that many Observables are subscribed to at the same time and the others wait
+ * in a backlog until a running one completes. A full backlog is handled by the {@link BacklogPolicy}.
  */
 public final class OperatorMerge<T> implements Operator<T, Observable<T>> {
+    /**
+     * Number of Observables that may wait for a free slot, used if no size is given.
+     */
+    public static final int DEFAULT_MAX_BACKLOG = 128;
+
+    /**
+     * What to do with an Observable emitted while the backlog is full.
+     */
+    public static enum BacklogPolicy {
+        /**
+         * Block the thread emitting the Observables until a running one completes, which throttles the outer
+         * source. The inner Observables must not need that thread to complete, or they never will.
+         */
+        BLOCK,
+        /**
+         * Fail with a {@link RejectedExecutionException}.
+         */
+        ERROR
+    }
+
     private final int maxConcurrent;
+    private final int maxBacklog;
+    private final BacklogPolicy policy;
 
     public OperatorMerge() {
         maxConcurrent = Integer.MAX_VALUE;
+        maxBacklog = Integer.MAX_VALUE;
+        policy = BacklogPolicy.BLOCK;
     }
 
     public OperatorMerge(int maxConcurrent) {
+        this(maxConcurrent, Integer.MAX_VALUE, BacklogPolicy.BLOCK);
+    }
+
+    public OperatorMerge(int maxConcurrent, int maxBacklog, BacklogPolicy policy) {
         if (maxConcurrent <= 0) {
             throw new IllegalArgumentException("maxConcurrent must be positive");
         }
+        if (maxBacklog <= 0) {
+            throw new IllegalArgumentException("maxBacklog must be positive");
+        }
+        if (policy == null) {
+            throw new NullPointerException("policy");
+        }
         this.maxConcurrent = maxConcurrent;
+        this.maxBacklog = maxBacklog;
+        this.policy = policy;
     }
 
     @Override
     public Subscriber<Observable<T>> call(final Subscriber<? super T> outerOperation) {
 
         final AtomicInteger completionCounter = new AtomicInteger(1);
-        final AtomicInteger concurrentCounter = new AtomicInteger(1);
+        // number of running inner Observables
+        final AtomicInteger concurrentCounter = new AtomicInteger();
+        // work-in-progress counter so only one thread at a time moves Observables from the backlog into free slots
+        final AtomicInteger pendingWip = new AtomicInteger();
         // Concurrent* since we'll be accessing them from the inner Observers which can be on other threads
-        final ConcurrentLinkedQueue<Observable<T>> pending = new ConcurrentLinkedQueue<Observable<T>>();
+        final ConcurrentLinkedQueue<Observable<T>> pending = maxConcurrent == Integer.MAX_VALUE ? null : new ConcurrentLinkedQueue<Observable<T>>();
+        // one permit per free place in a bounded backlog
+        final Semaphore backlog = pending == null || maxBacklog == Integer.MAX_VALUE ? null : new Semaphore(maxBacklog);
+        if (backlog != null && policy == BacklogPolicy.BLOCK) {
+            outerOperation.add(Subscriptions.create(new Action0() {
+
+                @Override
+                public void call() {
+                    // wakes up the outer source if it is blocked so it can see the unsubscription
+                    backlog.release();
+                }
+
+            }));
+        }
 
         final Subscriber<T> o = new SynchronizedSubscriber<T>(outerOperation);
         return new Subscriber<Observable<T>>(outerOperation) {
@@ -70,39 +129,83 @@ public final class OperatorMerge<T> implements Operator<T, Observable<T>> {
             public void onNext(Observable<T> innerObservable) {
                 // track so we send onComplete only when all have finished
                 completionCounter.incrementAndGet();
-                // check concurrency
-                if (concurrentCounter.incrementAndGet() > maxConcurrent) {
-                    pending.add(innerObservable);
-                    concurrentCounter.decrementAndGet();
-                } else {
-                    // we are able to proceed
-                    CompositeSubscription innerSubscription = new CompositeSubscription();
-                    outerOperation.add(innerSubscription);
-                    innerObservable.subscribe(new InnerObserver(innerSubscription));
+                if (pending == null) {
+                    // no concurrency limit so we can proceed
+                    subscribeInner(innerObservable);
+                    return;
                 }
+                if (backlog != null && !enterBacklog()) {
+                    return;
+                }
+                pending.offer(innerObservable);
+                drainPending();
             }
 
-            private void complete() {
-                if (completionCounter.decrementAndGet() == 0) {
-                    o.onCompleted();
-                    return;
-                } else {
-                    // not all are completed and some may still need to run
-                    concurrentCounter.decrementAndGet();
+            /**
+             * Takes a place in the backlog, waiting for one if the policy says so.
+             * 
+             * @return false if the Observable must not be added
+             */
+            private boolean enterBacklog() {
+                if (backlog.tryAcquire()) {
+                    return true;
+                }
+                if (policy == BacklogPolicy.ERROR) {
+                    onError(new RejectedExecutionException("The backlog of " + maxBacklog + " Observables is full"));
+                    return false;
+                }
+                if (isUnsubscribed()) {
+                    return false;
+                }
+                try {
+                    backlog.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    onError(e);
+                    return false;
                 }
+                if (isUnsubscribed()) {
+                    // pass the wake-up on in case the source emits once more
+                    backlog.release();
+                    return false;
+                }
+                return true;
+            }
+
+            private void subscribeInner(Observable<T> innerObservable) {
+                CompositeSubscription innerSubscription = new CompositeSubscription();
+                outerOperation.add(innerSubscription);
+                innerObservable.subscribe(new InnerObserver(innerSubscription));
+            }
 
-                // do work-stealing on whatever thread we're on and subscribe to pending observables
-                if (concurrentCounter.incrementAndGet() > maxConcurrent) {
-                    // still not space to run
-                    concurrentCounter.decrementAndGet();
-                } else {
-                    // we can run
-                    Observable<? extends T> outstandingObservable = pending.poll();
-                    if (outstandingObservable != null) {
-                        CompositeSubscription innerSubscription = new CompositeSubscription();
-                        outerOperation.add(innerSubscription);
-                        outstandingObservable.subscribe(new InnerObserver(innerSubscription));
+            /**
+             * Subscribes to as many waiting Observables as there are free slots.
+             * <p>
+             * An inner Observable that completes synchronously while being subscribed to re-enters here; the
+             * work-in-progress counter turns that into another pass of the loop instead of recursion.
+             */
+            private void drainPending() {
+                if (pendingWip.getAndIncrement() != 0) {
+                    return;
+                }
+                do {
+                    while (concurrentCounter.get() < maxConcurrent) {
+                        Observable<T> next = pending.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        if (backlog != null) {
+                            backlog.release();
+                        }
+                        concurrentCounter.incrementAndGet();
+                        subscribeInner(next);
                     }
+                } while (pendingWip.decrementAndGet() != 0);
+            }
+
+            private void complete() {
+                if (completionCounter.decrementAndGet() == 0) {
+                    o.onCompleted();
                 }
             }
 
@@ -114,6 +217,11 @@ public final class OperatorMerge<T> implements Operator<T, Observable<T>> {
 
                 @Override
                 public void onCompleted() {
+                    if (pending != null) {
+                        // free the slot and fill it (and any others) from the backlog
+                        concurrentCounter.decrementAndGet();
+                        drainPending();
+                    }
                     complete();
                 }
 
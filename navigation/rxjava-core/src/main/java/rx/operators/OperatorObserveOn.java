@@ -0,0 +1,123 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.operators;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import rx.Notification;
+import rx.Scheduler;
+import rx.Scheduler.Inner;
+import rx.Subscriber;
+import rx.util.functions.Action1;
+
+/**
+ * Asynchronously notify Observers on the specified Scheduler.
+ * <p>
+ * <img width="640" src="https://github.com/Netflix/RxJava/wiki/images/rx-operators/observeOn.png">
+ * <p>
+ * Each subscriber gets its own queue which is drained on the Scheduler. Being an {@link Operator} it is applied
+ * through <code>lift</code> and therefore visible to the <code>onLift</code> execution hook.
+ */
+public final class OperatorObserveOn<T> implements Operator<T, T> {
+
+    private final Scheduler scheduler;
+
+    public OperatorObserveOn(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Subscriber<? super T> call(Subscriber<? super T> child) {
+        if (scheduler.isCurrentThread()) {
+            // these execute on the calling thread anyway so avoid the overhead
+            return child;
+        }
+        return new ObserveOnSubscriber<T>(scheduler, child);
+    }
+
+    /** Observe through individual queue per observer. */
+    private static final class ObserveOnSubscriber<T> extends Subscriber<T> {
+        final Scheduler scheduler;
+        final Subscriber<? super T> child;
+        final ConcurrentLinkedQueue<Notification<? extends T>> queue = new ConcurrentLinkedQueue<Notification<? extends T>>();
+        final AtomicLong counter = new AtomicLong(0);
+        private volatile Scheduler.Inner recursiveScheduler;
+
+        ObserveOnSubscriber(Scheduler scheduler, Subscriber<? super T> child) {
+            // a subscription of its own so the source terminating does not cancel the queued notifications
+            super();
+            this.scheduler = scheduler;
+            this.child = child;
+            child.add(this);
+        }
+
+        @Override
+        public void onNext(T t) {
+            enqueue(Notification.createOnNext(t));
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            enqueue(Notification.<T> createOnError(e));
+        }
+
+        @Override
+        public void onCompleted() {
+            enqueue(Notification.<T> createOnCompleted());
+        }
+
+        private void enqueue(Notification<? extends T> n) {
+            queue.offer(n);
+            if (counter.getAndIncrement() == 0) {
+                if (recursiveScheduler == null) {
+                    // the child subscription holds the outer scheduler, recursive for inner
+                    child.add(scheduler.schedule(new Action1<Inner>() {
+
+                        @Override
+                        public void call(Inner inner) {
+                            // record innerScheduler so 'processQueue' can use it for all subsequent executions
+                            recursiveScheduler = inner;
+                            // once we have the innerScheduler we can start doing real work
+                            processQueue();
+                        }
+
+                    }));
+                } else {
+                    processQueue();
+                }
+            }
+        }
+
+        void processQueue() {
+            recursiveScheduler.schedule(new Action1<Inner>() {
+                @Override
+                public void call(Inner inner) {
+                    Notification<? extends T> not = queue.poll();
+                    if (not != null) {
+                        not.accept(child);
+                    }
+
+                    // decrement count and if we still have work to do
+                    // recursively schedule ourselves to process again
+                    if (counter.decrementAndGet() > 0) {
+                        inner.schedule(this);
+                    }
+                }
+            });
+        }
+    }
+}
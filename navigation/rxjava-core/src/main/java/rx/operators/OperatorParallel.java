@@ -1,12 +1,12 @@
 /**
  * Copyright 2014 Netflix, Inc.
- * 
+ *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
- * 
+ *
  * http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing, software
  * distributed under the License is distributed on an "AS IS" BASIS,
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
@@ -15,27 +15,114 @@
  */
 package rx.operators;
 
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
 import rx.Observable;
+import rx.Observable.OnSubscribe;
 import rx.Scheduler;
+import rx.Scheduler.Inner;
 import rx.Subscriber;
 import rx.observables.GroupedObservable;
+import rx.schedulers.ImmediateScheduler;
+import rx.schedulers.TrampolineScheduler;
+import rx.subscriptions.CompositeSubscription;
+import rx.util.functions.Action1;
 import rx.util.functions.Func1;
 
 /**
  * Identifies unit of work that can be executed in parallel on a given Scheduler.
+ * <p>
+ * Without a partitioner items are distributed round-robin over groups that are each observed on the Scheduler.
+ * <p>
+ * With a partitioner the items are split over <code>scheduler.degreeOfParallelism()</code> rails by the hash of the
+ * key the partitioner returns, so items with equal keys are processed by the same rail in their original order. Each
+ * rail buffers a bounded number of items; a full rail is handled by the {@link OverflowPolicy}. The rails are merged
+ * back into a single stream, optionally restoring the order in which the source emitted the items.
  */
 public final class OperatorParallel<T, R> implements Operator<R, T> {
 
+    /**
+     * Number of items each rail buffers before the {@link OverflowPolicy} applies, used if no size is given.
+     */
+    public static final int DEFAULT_RAIL_QUEUE_SIZE = 128;
+
+    /**
+     * What to do with an item for a rail that is full.
+     */
+    public static enum OverflowPolicy {
+        /**
+         * Throttle the source until the rail has room. If no other thread is draining the rail, the source thread
+         * processes the rail's items itself, so it never waits for a Scheduler thread it occupies.
+         */
+        BLOCK,
+        /**
+         * Fail with a {@link RejectedExecutionException}.
+         */
+        ERROR
+    }
+
+    /**
+     * How long a throttled source waits before checking its rail again while another thread drains it.
+     */
+    private static final long PARK_NANOS = 100L * 1000L;
+
     private final Scheduler scheduler;
     private final Func1<Observable<T>, Observable<R>> f;
+    private final Func1<? super T, ?> partitioner;
+    private final int railQueueSize;
+    private final OverflowPolicy policy;
+    private final boolean ordered;
 
     public OperatorParallel(Func1<Observable<T>, Observable<R>> f, Scheduler scheduler) {
         this.scheduler = scheduler;
         this.f = f;
+        this.partitioner = null;
+        this.railQueueSize = 0;
+        this.policy = null;
+        this.ordered = false;
+    }
+
+    /**
+     * Creates a keyed parallel operator.
+     *
+     * @param f
+     *            applied once per rail
+     * @param partitioner
+     *            returns the key of an item, items with equal keys go to the same rail
+     * @param railQueueSize
+     *            the number of items a rail buffers
+     * @param policy
+     *            what to do when a rail is full
+     * @param ordered
+     *            if true the results are emitted in the order of the source items, which requires <code>f</code> to
+     *            emit exactly one item per item it receives
+     * @param scheduler
+     *            the Scheduler the rails run on
+     */
+    public OperatorParallel(Func1<Observable<T>, Observable<R>> f, Func1<? super T, ?> partitioner, int railQueueSize, OverflowPolicy policy, boolean ordered, Scheduler scheduler) {
+        if (railQueueSize <= 0) {
+            throw new IllegalArgumentException("railQueueSize must be positive");
+        }
+        if (policy == null) {
+            throw new NullPointerException("policy");
+        }
+        this.scheduler = scheduler;
+        this.f = f;
+        this.partitioner = partitioner;
+        this.railQueueSize = railQueueSize;
+        this.policy = policy;
+        this.ordered = ordered;
     }
 
     @Override
     public Subscriber<? super T> call(Subscriber<? super R> op) {
+        if (partitioner != null) {
+            return new Rails(op).start();
+        }
 
         Func1<Subscriber<? super GroupedObservable<Integer, T>>, Subscriber<? super T>> groupBy =
                 new OperatorGroupBy<Integer, T>(new Func1<T, Integer>() {
@@ -62,4 +149,359 @@ public final class OperatorParallel<T, R> implements Operator<R, T> {
         // bind together Observers
         return groupBy.call(map.call(new OperatorMerge<R>().call(op)));
     }
+
+    private static final Object NULL_SENTINEL = new Object();
+
+    /**
+     * The source subscriber of the keyed mode; routes every item to the rail its key hashes to.
+     */
+    private final class Rails extends Subscriber<T> {
+        final Subscriber<? super R> child;
+        final Rail[] rails;
+        /** Rail index of every source item in emission order; only used in ordered mode. */
+        final SpscLinkedArrayQueue<Integer> assignments;
+        /** Drain on the emitting thread, as these schedulers would run the drain there anyway. */
+        final boolean inline;
+        /** Set once a full rail rejected an item; only accessed by the source thread. */
+        boolean rejected;
+
+        @SuppressWarnings("unchecked")
+        Rails(Subscriber<? super R> child) {
+            super(child);
+            this.child = child;
+            this.rails = new OperatorParallel.Rail[Math.max(1, scheduler.degreeOfParallelism())];
+            this.assignments = ordered ? new SpscLinkedArrayQueue<Integer>(railQueueSize) : null;
+            this.inline = scheduler instanceof ImmediateScheduler || scheduler instanceof TrampolineScheduler;
+        }
+
+        Subscriber<? super T> start() {
+            for (int i = 0; i < rails.length; i++) {
+                rails[i] = new Rail(this);
+            }
+            if (ordered) {
+                new OrderedMerge(this).start();
+            } else {
+                Subscriber<Observable<R>> merge = new OperatorMerge<R>().call(child);
+                for (Rail rail : rails) {
+                    merge.onNext(f.call(rail.observable));
+                }
+                merge.onCompleted();
+            }
+            return this;
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (rejected) {
+                return;
+            }
+            final Object key;
+            try {
+                key = partitioner.call(t);
+            } catch (Throwable e) {
+                onError(e);
+                return;
+            }
+            int h = key == null ? 0 : key.hashCode();
+            h ^= h >>> 16;
+            int index = (h & Integer.MAX_VALUE) % rails.length;
+            if (!rails[index].enter()) {
+                return;
+            }
+            if (assignments != null) {
+                assignments.offer(index);
+            }
+            rails[index].offer(t == null ? NULL_SENTINEL : t);
+        }
+
+        void reject() {
+            onError(new RejectedExecutionException("The rail queue of " + railQueueSize + " items is full"));
+            rejected = true;
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (rejected) {
+                return;
+            }
+            for (Rail rail : rails) {
+                rail.terminate(e);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            if (rejected) {
+                return;
+            }
+            for (Rail rail : rails) {
+                rail.terminate(null);
+            }
+        }
+    }
+
+    /**
+     * A queue drained in order on the Scheduler into the Observable handed to <code>f</code>.
+     */
+    private final class Rail {
+        final Rails parent;
+        final SpscLinkedArrayQueue<Object> queue;
+        /** Number of items in the queue. */
+        final AtomicInteger size = new AtomicInteger();
+        /** Held by the thread emitting the rail's items, the scheduled drain or the throttled source. */
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicLong counter = new AtomicLong();
+        final Observable<T> observable;
+        volatile Subscriber<? super T> subscriber;
+        volatile boolean done;
+        Throwable error;
+        private volatile Scheduler.Inner recursiveScheduler;
+
+        Rail(Rails parent) {
+            this.parent = parent;
+            this.queue = new SpscLinkedArrayQueue<Object>(railQueueSize);
+            this.observable = Observable.create(new OnSubscribe<T>() {
+
+                @Override
+                public void call(Subscriber<? super T> s) {
+                    subscriber = s;
+                    // anything queued before f subscribed can be delivered now
+                    schedule();
+                }
+
+            });
+        }
+
+        /**
+         * Called by the source before it offers an item; applies the policy if the rail is full.
+         * 
+         * @return false if the item must be dropped
+         */
+        boolean enter() {
+            if (size.get() < railQueueSize) {
+                return true;
+            }
+            if (policy == OverflowPolicy.ERROR) {
+                parent.reject();
+                return false;
+            }
+            // only the source adds items, so the rail cannot fill up again while it waits here
+            while (size.get() >= railQueueSize) {
+                if (parent.isUnsubscribed()) {
+                    return false;
+                }
+                if (!tryDrain()) {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+            return true;
+        }
+
+        void offer(Object t) {
+            size.incrementAndGet();
+            queue.offer(t);
+            schedule();
+        }
+
+        /**
+         * Emits the queued items on the source thread if no other thread is draining the rail.
+         */
+        private boolean tryDrain() {
+            Subscriber<? super T> s = subscriber;
+            if (s == null || !draining.compareAndSet(false, true)) {
+                return false;
+            }
+            try {
+                emit(s);
+            } finally {
+                draining.set(false);
+            }
+            return true;
+        }
+
+        void terminate(Throwable e) {
+            error = e;
+            done = true;
+            schedule();
+        }
+
+        void schedule() {
+            if (counter.getAndIncrement() == 0) {
+                if (inlineOrUnsubscribed()) {
+                    drain();
+                } else if (recursiveScheduler == null) {
+                    parent.add(scheduler.schedule(new Action1<Inner>() {
+
+                        @Override
+                        public void call(Inner inner) {
+                            // record the inner scheduler so later drains run on it
+                            recursiveScheduler = inner;
+                            drain();
+                        }
+
+                    }));
+                } else {
+                    recursiveScheduler.schedule(new Action1<Inner>() {
+
+                        @Override
+                        public void call(Inner inner) {
+                            drain();
+                        }
+
+                    });
+                }
+            }
+        }
+
+        private boolean inlineOrUnsubscribed() {
+            return parent.inline || parent.isUnsubscribed();
+        }
+
+        void drain() {
+            do {
+                Subscriber<? super T> s = subscriber;
+                if (s == null) {
+                    // f has not subscribed yet, keep the items until it does
+                    continue;
+                }
+                if (!draining.compareAndSet(false, true)) {
+                    // the throttled source is emitting the items, it empties the queue before it offers again
+                    continue;
+                }
+                try {
+                    if (emit(s)) {
+                        return;
+                    }
+                } finally {
+                    draining.set(false);
+                }
+            } while (counter.decrementAndGet() > 0);
+        }
+
+        /**
+         * Emits the queued items; the caller holds <code>draining</code>.
+         * 
+         * @return true if the rail terminated or was unsubscribed
+         */
+        @SuppressWarnings("unchecked")
+        private boolean emit(Subscriber<? super T> s) {
+            for (;;) {
+                if (parent.isUnsubscribed()) {
+                    return true;
+                }
+                boolean d = done;
+                Object o = queue.poll();
+                if (o == null) {
+                    if (d) {
+                        Throwable e = error;
+                        if (e != null) {
+                            s.onError(e);
+                        } else {
+                            s.onCompleted();
+                        }
+                        return true;
+                    }
+                    return false;
+                }
+                size.decrementAndGet();
+                s.onNext(o == NULL_SENTINEL ? null : (T) o);
+            }
+        }
+    }
+
+    /**
+     * Merges the rails back in the order the source emitted the items by following the rail assignments.
+     */
+    private final class OrderedMerge {
+        final Rails parent;
+        final Subscriber<? super R> child;
+        final SpscLinkedArrayQueue<Object>[] results;
+        final AtomicInteger[] railDone;
+        final AtomicLong counter = new AtomicLong();
+        final AtomicInteger doneCount = new AtomicInteger();
+        volatile Throwable error;
+
+        @SuppressWarnings("unchecked")
+        OrderedMerge(Rails parent) {
+            this.parent = parent;
+            this.child = parent.child;
+            int n = parent.rails.length;
+            this.results = new SpscLinkedArrayQueue[n];
+            this.railDone = new AtomicInteger[n];
+            for (int i = 0; i < n; i++) {
+                results[i] = new SpscLinkedArrayQueue<Object>(railQueueSize);
+                railDone[i] = new AtomicInteger();
+            }
+        }
+
+        void start() {
+            for (int i = 0; i < results.length; i++) {
+                final int index = i;
+                // each rail gets its own subscription so that one completing does not unsubscribe the others
+                CompositeSubscription innerSubscription = new CompositeSubscription();
+                child.add(innerSubscription);
+                f.call(parent.rails[i].observable).subscribe(new Subscriber<R>(innerSubscription) {
+
+                    @Override
+                    public void onCompleted() {
+                        railDone[index].set(1);
+                        doneCount.incrementAndGet();
+                        drain();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        error = e;
+                        drain();
+                    }
+
+                    @Override
+                    public void onNext(R r) {
+                        results[index].offer(r == null ? NULL_SENTINEL : r);
+                        drain();
+                    }
+
+                });
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (counter.getAndIncrement() != 0) {
+                return;
+            }
+            final SpscLinkedArrayQueue<Integer> assignments = parent.assignments;
+            do {
+                for (;;) {
+                    Throwable e = error;
+                    if (e != null) {
+                        child.onError(e);
+                        child.unsubscribe();
+                        return;
+                    }
+                    Integer index = assignments.peek();
+                    if (index == null) {
+                        if (doneCount.get() == results.length) {
+                            child.onCompleted();
+                            return;
+                        }
+                        break;
+                    }
+                    int i = index.intValue();
+                    boolean d = railDone[i].get() != 0;
+                    Object o = results[i].poll();
+                    if (o == null) {
+                        if (d) {
+                            // f emitted fewer items than it received, nothing will arrive for this slot
+                            assignments.poll();
+                            continue;
+                        }
+                        break;
+                    }
+                    assignments.poll();
+                    child.onNext(o == NULL_SENTINEL ? null : (R) o);
+                }
+            } while (counter.decrementAndGet() > 0);
+        }
+    }
 }
@@ -15,7 +15,6 @@
  */
 package rx.operators;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
 import rx.Observable;
@@ -54,49 +53,63 @@ public final class OperatorZip<R> implements Operator<R, Observable<?>[]> {
      */
 
     final FuncN<? extends R> zipFunction;
+    final boolean reuseArguments;
 
     public OperatorZip(FuncN<? extends R> f) {
+        this(f, false);
+    }
+
+    /**
+     * @param f
+     *            the zip function
+     * @param reuseArguments
+     *            if true the same <code>Object[]</code> is passed to every invocation of <code>f</code>, which must
+     *            therefore not retain or expose the array beyond the call
+     */
+    public OperatorZip(FuncN<? extends R> f, boolean reuseArguments) {
         this.zipFunction = f;
+        this.reuseArguments = reuseArguments;
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public OperatorZip(Func2 f) {
-        this.zipFunction = Functions.fromFunc(f);
+        // the FuncN adapters unpack the arguments immediately so the array can be reused
+        this(Functions.fromFunc(f), true);
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public OperatorZip(Func3 f) {
-        this.zipFunction = Functions.fromFunc(f);
+        this(Functions.fromFunc(f), true);
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public OperatorZip(Func4 f) {
-        this.zipFunction = Functions.fromFunc(f);
+        this(Functions.fromFunc(f), true);
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public OperatorZip(Func5 f) {
-        this.zipFunction = Functions.fromFunc(f);
+        this(Functions.fromFunc(f), true);
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public OperatorZip(Func6 f) {
-        this.zipFunction = Functions.fromFunc(f);
+        this(Functions.fromFunc(f), true);
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public OperatorZip(Func7 f) {
-        this.zipFunction = Functions.fromFunc(f);
+        this(Functions.fromFunc(f), true);
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public OperatorZip(Func8 f) {
-        this.zipFunction = Functions.fromFunc(f);
+        this(Functions.fromFunc(f), true);
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public OperatorZip(Func9 f) {
-        this.zipFunction = Functions.fromFunc(f);
+        this(Functions.fromFunc(f), true);
     }
 
     @SuppressWarnings("rawtypes")
@@ -116,32 +129,39 @@ public final class OperatorZip<R> implements Operator<R, Observable<?>[]> {
 
             @Override
             public void onNext(Observable[] observables) {
-                new Zip<R>(observables, observer, zipFunction).zip();
+                new Zip<R>(observables, observer, zipFunction, reuseArguments).zip();
             }
 
         };
     }
 
-    private static class Zip<R> {
+    /**
+     * Size of the ring each zipped source buffers into before it has to link another segment.
+     */
+    static final int RING_SIZE = 128;
+
+    private static final class Zip<R> {
         @SuppressWarnings("rawtypes")
         final Observable[] os;
-        final Object[] observers;
+        final InnerSubscriber[] subscribers;
         final Observer<? super R> observer;
         final FuncN<? extends R> zipFunction;
+        final Object[] reusableArguments;
         final CompositeSubscription childSubscription = new CompositeSubscription();
 
-        static Object NULL_SENTINEL = new Object();
-        static Object COMPLETE_SENTINEL = new Object();
+        static final Object NULL_SENTINEL = new Object();
+        static final Object COMPLETE_SENTINEL = new Object();
 
         @SuppressWarnings("rawtypes")
-        public Zip(Observable[] os, final Subscriber<? super R> observer, FuncN<? extends R> zipFunction) {
+        public Zip(Observable[] os, final Subscriber<? super R> observer, FuncN<? extends R> zipFunction, boolean reuseArguments) {
             this.os = os;
             this.observer = observer;
             this.zipFunction = zipFunction;
-            observers = new Object[os.length];
+            this.reusableArguments = reuseArguments ? new Object[os.length] : null;
+            subscribers = new Zip.InnerSubscriber[os.length];
             for (int i = 0; i < os.length; i++) {
-                InnerObserver io = new InnerObserver();
-                observers[i] = io;
+                InnerSubscriber io = new InnerSubscriber();
+                subscribers[i] = io;
                 childSubscription.add(io);
             }
 
@@ -151,7 +171,7 @@ public final class OperatorZip<R> implements Operator<R, Observable<?>[]> {
         @SuppressWarnings("unchecked")
         public void zip() {
             for (int i = 0; i < os.length; i++) {
-                os[i].subscribe((InnerObserver) observers[i]);
+                os[i].subscribe(subscribers[i]);
             }
         }
 
@@ -163,45 +183,38 @@ public final class OperatorZip<R> implements Operator<R, Observable<?>[]> {
          * This will only allow one thread at a time to do the work, but ensures via `counter` increment/decrement
          * that there is always once who acts on each `tick`. Same concept as used in OperationObserveOn.
          * 
+         * The draining thread is the single consumer of every ring, the inner subscribers are the single producers.
          */
-        @SuppressWarnings("unchecked")
         void tick() {
             if (counter.getAndIncrement() == 0) {
+                final InnerSubscriber[] subscribers = this.subscribers;
+                final int n = subscribers.length;
                 do {
-                    Object[] vs = new Object[observers.length];
-                    boolean allHaveValues = true;
-                    for (int i = 0; i < observers.length; i++) {
-                        vs[i] = ((InnerObserver) observers[i]).items.peek();
-                        if (vs[i] == NULL_SENTINEL) {
-                            // special handling for null
-                            vs[i] = null;
-                        } else if (vs[i] == COMPLETE_SENTINEL) {
-                            // special handling for onComplete
-                            observer.onCompleted();
-                            // we need to unsubscribe from all children since children are independently subscribed
-                            childSubscription.unsubscribe();
-                            return;
-                        } else if (vs[i] == null) {
-                            allHaveValues = false;
-                            // we continue as there may be an onCompleted on one of the others
-                            continue;
-                        }
-                    }
-                    if (allHaveValues) {
-                        // all have something so emit
-                        observer.onNext(zipFunction.call(vs));
-                        // now remove them
-                        for (int i = 0; i < observers.length; i++) {
-                            ((InnerObserver) observers[i]).items.poll();
-                            // eagerly check if the next item on this queue is an onComplete
-                            if (((InnerObserver) observers[i]).items.peek() == COMPLETE_SENTINEL) {
-                                // it is an onComplete so shut down
+                    for (;;) {
+                        boolean allHaveValues = true;
+                        for (int i = 0; i < n; i++) {
+                            Object v = subscribers[i].items.peek();
+                            if (v == COMPLETE_SENTINEL) {
+                                // one of the sources is exhausted so no more tuples can be formed
                                 observer.onCompleted();
                                 // we need to unsubscribe from all children since children are independently subscribed
                                 childSubscription.unsubscribe();
                                 return;
+                            } else if (v == null) {
+                                allHaveValues = false;
+                                // we continue as there may be an onCompleted on one of the others
                             }
                         }
+                        if (!allHaveValues) {
+                            break;
+                        }
+                        // all have something so take them and emit
+                        Object[] vs = reusableArguments != null ? reusableArguments : new Object[n];
+                        for (int i = 0; i < n; i++) {
+                            Object v = subscribers[i].items.poll();
+                            vs[i] = v == NULL_SENTINEL ? null : v;
+                        }
+                        observer.onNext(zipFunction.call(vs));
                     }
                 } while (counter.decrementAndGet() > 0);
             }
@@ -209,16 +222,14 @@ public final class OperatorZip<R> implements Operator<R, Observable<?>[]> {
         }
 
         // used to observe each Observable we are zipping together
-        // it collects all items in an internal queue
+        // it collects all items in its own single-producer/single-consumer ring
         @SuppressWarnings("rawtypes")
-        final class InnerObserver extends Subscriber {
-            // Concurrent* since we need to read it from across threads
-            final ConcurrentLinkedQueue items = new ConcurrentLinkedQueue();
+        final class InnerSubscriber extends Subscriber {
+            final SpscLinkedArrayQueue<Object> items = new SpscLinkedArrayQueue<Object>(RING_SIZE);
 
-            @SuppressWarnings("unchecked")
             @Override
             public void onCompleted() {
-                items.add(COMPLETE_SENTINEL);
+                items.offer(COMPLETE_SENTINEL);
                 tick();
             }
 
@@ -228,14 +239,9 @@ public final class OperatorZip<R> implements Operator<R, Observable<?>[]> {
                 observer.onError(e);
             }
 
-            @SuppressWarnings("unchecked")
             @Override
             public void onNext(Object t) {
-                if (t == null) {
-                    items.add(NULL_SENTINEL);
-                } else {
-                    items.add(t);
-                }
+                items.offer(t == null ? NULL_SENTINEL : t);
                 tick();
             }
         };
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.operators;
+
+/**
+ * A bounded FIFO buffer backed by a circular array, for operators that keep the last <code>capacity</code> items of
+ * a serial stream.
+ * <p>
+ * The array starts small and doubles until it reaches <code>capacity</code>, so a large bound does not cost memory
+ * for short streams. Once it is full, adding and removing items never allocates. Null items are permitted. The buffer
+ * is not thread-safe; it relies on the Observer contract to serialize the calls.
+ * 
+ * @param <T>
+ *            the element type
+ */
+final class RingBuffer<T> {
+    private static final int INITIAL_SIZE = 16;
+
+    private final int capacity;
+    private Object[] array;
+    /** Index of the oldest item. */
+    private int head;
+    private int size;
+
+    /**
+     * @param capacity
+     *            the maximum number of items, must be positive
+     */
+    RingBuffer(int capacity) {
+        this.capacity = capacity;
+        this.array = new Object[Math.min(capacity, INITIAL_SIZE)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Appends an item; the buffer must not be full.
+     */
+    void offer(T item) {
+        if (size == array.length) {
+            grow();
+        }
+        int index = head + size;
+        if (index >= array.length) {
+            index -= array.length;
+        }
+        array[index] = item;
+        size++;
+    }
+
+    /**
+     * Removes and returns the oldest item; the buffer must not be empty.
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        T item = (T) array[head];
+        array[head] = null;
+        if (++head == array.length) {
+            head = 0;
+        }
+        size--;
+        return item;
+    }
+
+    private void grow() {
+        int length = array.length;
+        int newLength = length > capacity >> 1 ? capacity : length << 1;
+        Object[] a = new Object[newLength];
+        int firstPart = Math.min(size, length - head);
+        System.arraycopy(array, head, a, 0, firstPart);
+        System.arraycopy(array, 0, a, firstPart, size - firstPart);
+        array = a;
+        head = 0;
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.operators;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A single-producer/single-consumer queue backed by fixed-size array segments.
+ * <p>
+ * Items are written into a power-of-2 sized ring. As long as the consumer keeps up the producer wraps around in
+ * the same ring and no allocation happens per item. If the ring is full the producer links a new segment of the same
+ * size and continues there; the consumer follows the link once it has drained the old segment. This keeps the common
+ * case bounded and allocation-free while still accepting bursts from sources that cannot be slowed down, such as a
+ * synchronous Observable emitting on the subscribing thread.
+ * <p>
+ * Exactly one thread may call {@link #offer} and exactly one (possibly different) thread may call {@link #poll},
+ * {@link #peek} and {@link #isEmpty} at any one time. Null items are not permitted.
+ *
+ * @param <T>
+ *            the element type
+ */
+public final class SpscLinkedArrayQueue<T> {
+
+    private static final Object HAS_NEXT = new Object();
+
+    private final int mask;
+
+    // producer side
+    private AtomicReferenceArray<Object> producerBuffer;
+    private long producerIndex;
+
+    // consumer side
+    private AtomicReferenceArray<Object> consumerBuffer;
+    private long consumerIndex;
+
+    /**
+     * @param capacityHint
+     *            the size of each array segment, rounded up to the next power of 2 (minimum 2)
+     */
+    public SpscLinkedArrayQueue(int capacityHint) {
+        int capacity = roundToPowerOfTwo(Math.max(2, capacityHint));
+        this.mask = capacity - 1;
+        // the extra slot holds the link to the next segment
+        AtomicReferenceArray<Object> buffer = new AtomicReferenceArray<Object>(capacity + 1);
+        this.producerBuffer = buffer;
+        this.consumerBuffer = buffer;
+    }
+
+    /**
+     * Appends an item; must only be called by the producer thread.
+     *
+     * @param item
+     *            the non-null item
+     */
+    public void offer(T item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+        final AtomicReferenceArray<Object> buffer = producerBuffer;
+        final long index = producerIndex;
+        final int offset = (int) index & mask;
+        // always leave one free slot so the slot at offset is guaranteed to be empty
+        if (buffer.get((int) (index + 1) & mask) == null) {
+            producerIndex = index + 1;
+            buffer.lazySet(offset, item);
+        } else {
+            AtomicReferenceArray<Object> next = new AtomicReferenceArray<Object>(buffer.length());
+            producerBuffer = next;
+            producerIndex = index + 1;
+            next.lazySet(offset, item);
+            buffer.lazySet(mask + 1, next);
+            // publish the marker last so the consumer always sees the link
+            buffer.lazySet(offset, HAS_NEXT);
+        }
+    }
+
+    /**
+     * Removes and returns the head item; must only be called by the consumer thread.
+     *
+     * @return the head item or null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        AtomicReferenceArray<Object> buffer = consumerBuffer;
+        final long index = consumerIndex;
+        final int offset = (int) index & mask;
+        Object o = buffer.get(offset);
+        if (o == HAS_NEXT) {
+            buffer = nextBuffer(buffer);
+            o = buffer.get(offset);
+        }
+        if (o == null) {
+            return null;
+        }
+        consumerIndex = index + 1;
+        buffer.lazySet(offset, null);
+        return (T) o;
+    }
+
+    /**
+     * Returns the head item without removing it; must only be called by the consumer thread.
+     *
+     * @return the head item or null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        AtomicReferenceArray<Object> buffer = consumerBuffer;
+        final int offset = (int) consumerIndex & mask;
+        Object o = buffer.get(offset);
+        if (o == HAS_NEXT) {
+            o = nextBuffer(buffer).get(offset);
+        }
+        return (T) o;
+    }
+
+    /**
+     * @return true if there is nothing to consume; must only be called by the consumer thread
+     */
+    public boolean isEmpty() {
+        return peek() == null;
+    }
+
+    private AtomicReferenceArray<Object> nextBuffer(AtomicReferenceArray<Object> buffer) {
+        @SuppressWarnings("unchecked")
+        AtomicReferenceArray<Object> next = (AtomicReferenceArray<Object>) buffer.get(mask + 1);
+        // unlink so the drained segment can be collected
+        buffer.lazySet(mask + 1, null);
+        consumerBuffer = next;
+        return next;
+    }
+
+    private static int roundToPowerOfTwo(int value) {
+        return 1 << (32 - Integer.numberOfLeadingZeros(value - 1));
+    }
+}
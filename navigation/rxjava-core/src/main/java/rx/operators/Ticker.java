@@ -0,0 +1,178 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.operators;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import rx.Scheduler;
+import rx.Scheduler.Inner;
+import rx.Subscription;
+import rx.subscriptions.Subscriptions;
+import rx.util.functions.Action0;
+import rx.util.functions.Action1;
+
+/**
+ * A periodic task shared by all listeners that use the same {@link Scheduler} and period.
+ * <p>
+ * Operators such as <code>sample</code> need a clock per subscription. Scheduling one periodic task each means that
+ * many subscriptions fill the scheduler with identical timers. Instead they register on the Ticker for their
+ * Scheduler and period. A single task then calls every listener on each tick, and it is cancelled when the last
+ * listener leaves.
+ * <p>
+ * The ticks are coarse: a listener registering on a running Ticker receives its first tick at the next tick of
+ * that Ticker, not one period after it registered. All listeners of a Ticker are called one after another on the
+ * same thread, so they should return quickly.
+ */
+public final class Ticker {
+
+    private static final ConcurrentHashMap<Key, Ticker> TICKERS = new ConcurrentHashMap<Key, Ticker>();
+
+    /**
+     * Registers a listener to be called on every tick of the shared Ticker for the given Scheduler and period.
+     * 
+     * @param scheduler
+     *            the Scheduler the periodic task runs on
+     * @param period
+     *            the time between two ticks
+     * @param unit
+     *            the unit of <code>period</code>
+     * @param onTick
+     *            called on every tick until the returned Subscription is unsubscribed
+     * @return the Subscription that removes the listener again
+     */
+    public static Subscription register(Scheduler scheduler, long period, TimeUnit unit, Action0 onTick) {
+        Key key = new Key(scheduler, unit.toNanos(period));
+        for (;;) {
+            Ticker ticker = TICKERS.get(key);
+            if (ticker == null) {
+                ticker = new Ticker(key);
+                Ticker existing = TICKERS.putIfAbsent(key, ticker);
+                if (existing != null) {
+                    ticker = existing;
+                }
+            }
+            Subscription s = ticker.add(onTick);
+            if (s != null) {
+                return s;
+            }
+            // the last listener of this ticker just left, it is being removed
+            TICKERS.remove(key, ticker);
+        }
+    }
+
+    /**
+     * @return the number of Tickers with at least one listener
+     */
+    static int activeTickers() {
+        return TICKERS.size();
+    }
+
+    private final Key key;
+    private final Set<Action0> listeners = Collections.newSetFromMap(new ConcurrentHashMap<Action0, Boolean>());
+    /** Guarded by this. */
+    private int count;
+    /** Guarded by this. */
+    private boolean terminated;
+    /** Guarded by this. */
+    private Subscription task;
+
+    private Ticker(Key key) {
+        this.key = key;
+    }
+
+    private Subscription add(final Action0 onTick) {
+        // a listener may register the same action twice, so each registration gets its own identity
+        final Action0 listener = new Action0() {
+            @Override
+            public void call() {
+                onTick.call();
+            }
+        };
+        synchronized (this) {
+            if (terminated) {
+                return null;
+            }
+            listeners.add(listener);
+            if (count++ == 0) {
+                task = key.scheduler.schedulePeriodically(new Action1<Inner>() {
+
+                    @Override
+                    public void call(Inner inner) {
+                        tick();
+                    }
+
+                }, key.periodNanos, key.periodNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        return Subscriptions.create(new Action0() {
+            @Override
+            public void call() {
+                remove(listener);
+            }
+        });
+    }
+
+    private void remove(Action0 listener) {
+        Subscription cancel = null;
+        synchronized (this) {
+            if (!listeners.remove(listener)) {
+                return;
+            }
+            if (--count == 0) {
+                terminated = true;
+                cancel = task;
+                task = null;
+            }
+        }
+        if (cancel != null) {
+            cancel.unsubscribe();
+            TICKERS.remove(key, this);
+        }
+    }
+
+    private void tick() {
+        for (Action0 listener : listeners) {
+            listener.call();
+        }
+    }
+
+    private static final class Key {
+        final Scheduler scheduler;
+        final long periodNanos;
+
+        Key(Scheduler scheduler, long periodNanos) {
+            this.scheduler = scheduler;
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return scheduler == other.scheduler && periodNanos == other.periodNanos;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(scheduler) + (int) (periodNanos ^ (periodNanos >>> 32));
+        }
+    }
+}
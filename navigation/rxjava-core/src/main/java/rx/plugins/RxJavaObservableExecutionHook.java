@@ -60,6 +60,25 @@ public abstract class RxJavaObservableExecutionHook {
         return onSubscribe;
     }
 
+    /**
+     * Invoked when {@link Observable#lift} is called, before the operator is applied to any subscriber.
+     * <p>
+     * This can be used to decorate the operator, for example to wrap the {@link Subscriber}s it receives and returns
+     * in order to count the items that go in and out of each operator, or to just pass-thru the function.
+     * <p>
+     * This is invoked once per call to <code>lift</code> and not once per subscription.
+     * 
+     * @param observableInstance
+     *            The {@link Observable} instance the operator is lifted onto.
+     * @param bind
+     *            original operator function
+     * @return operator function that can be modified, decorated, replaced or just returned as a pass-thru.
+     */
+    public <T, R> Func1<Subscriber<? super R>, Subscriber<? super T>> onLift(Observable<? extends T> observableInstance, Func1<Subscriber<? super R>, Subscriber<? super T>> bind) {
+        // pass-thru by default
+        return bind;
+    }
+
     /**
      * Invoked after successful execution of {@link Observable#subscribe(rx.Subscriber)} with returned {@link Subscription}.
      * <p>
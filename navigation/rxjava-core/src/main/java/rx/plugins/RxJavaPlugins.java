@@ -31,6 +31,7 @@ public class RxJavaPlugins {
 
     private final AtomicReference<RxJavaErrorHandler> errorHandler = new AtomicReference<RxJavaErrorHandler>();
     private final AtomicReference<RxJavaObservableExecutionHook> observableExecutionHook = new AtomicReference<RxJavaObservableExecutionHook>();
+    private final AtomicReference<RxJavaSchedulersHook> schedulersHook = new AtomicReference<RxJavaSchedulersHook>();
 
     public static RxJavaPlugins getInstance() {
         return INSTANCE;
@@ -43,6 +44,7 @@ public class RxJavaPlugins {
     /* package accessible for ujnit tests */void reset() {
         INSTANCE.errorHandler.set(null);
         INSTANCE.observableExecutionHook.set(null);
+        INSTANCE.schedulersHook.set(null);
     }
 
     /**
@@ -121,6 +123,44 @@ public class RxJavaPlugins {
         }
     }
 
+    /**
+     * Retrieve instance of {@link RxJavaSchedulersHook} to use based on order of precedence as defined in {@link RxJavaPlugins} class header.
+     * <p>
+     * Override default by using {@link #registerSchedulersHook(RxJavaSchedulersHook)} or setting property: <code>rxjava.plugin.RxJavaSchedulersHook.implementation</code> with the full
+     * classname to load.
+     * 
+     * @return {@link RxJavaSchedulersHook} implementation to use
+     */
+    public RxJavaSchedulersHook getSchedulersHook() {
+        if (schedulersHook.get() == null) {
+            // check for an implementation from System.getProperty first
+            Object impl = getPluginImplementationViaProperty(RxJavaSchedulersHook.class);
+            if (impl == null) {
+                // nothing set via properties so initialize with default 
+                schedulersHook.compareAndSet(null, RxJavaSchedulersHookDefault.getInstance());
+                // we don't return from here but call get() again in case of thread-race so the winner will always get returned
+            } else {
+                // we received an implementation from the system property so use it
+                schedulersHook.compareAndSet(null, (RxJavaSchedulersHook) impl);
+            }
+        }
+        return schedulersHook.get();
+    }
+
+    /**
+     * Register a {@link RxJavaSchedulersHook} implementation as a global override of any injected or default implementations.
+     * 
+     * @param impl
+     *            {@link RxJavaSchedulersHook} implementation
+     * @throws IllegalStateException
+     *             if called more than once or after the default was initialized (if usage occurs before trying to register)
+     */
+    public void registerSchedulersHook(RxJavaSchedulersHook impl) {
+        if (!schedulersHook.compareAndSet(null, impl)) {
+            throw new IllegalStateException("Another strategy was already registered: " + schedulersHook.get());
+        }
+    }
+
     private static Object getPluginImplementationViaProperty(Class<?> pluginClass) {
         String classSimpleName = pluginClass.getSimpleName();
         /*
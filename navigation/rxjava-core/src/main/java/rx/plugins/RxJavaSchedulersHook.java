@@ -0,0 +1,47 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.plugins;
+
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+/**
+ * Abstract hook invoked when {@link Schedulers} creates its built-in {@link Scheduler}s with a default pass-thru implementation.
+ * <p>
+ * See {@link RxJavaPlugins} or the RxJava GitHub Wiki for information on configuring plugins: <a
+ * href="https://github.com/Netflix/RxJava/wiki/Plugins">https://github.com/Netflix/RxJava/wiki/Plugins</a>.
+ * <p>
+ * The hook is consulted once per built-in scheduler when {@link Schedulers} is first used, so it has to be registered before that.
+ */
+public abstract class RxJavaSchedulersHook {
+
+    /**
+     * Invoked for each of the built-in schedulers.
+     * <p>
+     * This can be used to decorate the {@link Scheduler}, for example to measure how long actions wait and run, or to just pass it thru.
+     * 
+     * @param name
+     *            the name of the scheduler: "computation", "io", "newThread" or "trampoline"
+     * @param scheduler
+     *            the original {@link Scheduler}
+     * @return {@link Scheduler} that can be decorated, replaced or just returned as a pass-thru.
+     */
+    public Scheduler onScheduler(String name, Scheduler scheduler) {
+        // pass-thru by default
+        return scheduler;
+    }
+
+}
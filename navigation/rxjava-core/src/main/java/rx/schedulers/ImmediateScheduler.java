@@ -50,6 +50,11 @@ public final class ImmediateScheduler extends Scheduler {
     }
 
     
+    @Override
+    public boolean isCurrentThread() {
+        return true;
+    }
+
     private class InnerImmediateScheduler extends Scheduler.Inner implements Subscription {
 
         final BooleanSubscription innerSubscription = new BooleanSubscription();
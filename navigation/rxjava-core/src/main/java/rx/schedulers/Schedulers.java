@@ -23,14 +23,26 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import rx.Scheduler;
+import rx.plugins.RxJavaPlugins;
+import rx.plugins.RxJavaSchedulersHook;
 
 /**
  * Static factory methods for creating Schedulers.
+ * <p>
+ * The built-in trampoline, newThread, computation and io Schedulers are created once and passed through the
+ * {@link RxJavaSchedulersHook} registered with {@link RxJavaPlugins}, which may decorate them.
  */
 public class Schedulers {
     private static final ScheduledExecutorService COMPUTATION_EXECUTOR = createComputationExecutor();
     private static final Executor IO_EXECUTOR = createIOExecutor();
 
+    // passed through the hook once so a decorating plugin sees one instance per kind of scheduler
+    private static final RxJavaSchedulersHook hook = RxJavaPlugins.getInstance().getSchedulersHook();
+    private static final Scheduler TRAMPOLINE = hook.onScheduler("trampoline", TrampolineScheduler.getInstance());
+    private static final Scheduler NEW_THREAD = hook.onScheduler("newThread", NewThreadScheduler.getInstance());
+    private static final Scheduler COMPUTATION = hook.onScheduler("computation", new ExecutorScheduler(COMPUTATION_EXECUTOR));
+    private static final Scheduler IO = hook.onScheduler("io", new ExecutorScheduler(IO_EXECUTOR));
+
     private Schedulers() {
 
     }
@@ -52,7 +64,7 @@ public class Schedulers {
      */
     @Deprecated
     public static Scheduler currentThread() {
-        return TrampolineScheduler.getInstance();
+        return TRAMPOLINE;
     }
 
     /**
@@ -61,7 +73,7 @@ public class Schedulers {
      * @return {@link TrampolineScheduler} instance
      */
     public static Scheduler trampoline() {
-        return TrampolineScheduler.getInstance();
+        return TRAMPOLINE;
     }
     
     /**
@@ -70,7 +82,7 @@ public class Schedulers {
      * @return {@link NewThreadScheduler} instance
      */
     public static Scheduler newThread() {
-        return NewThreadScheduler.getInstance();
+        return NEW_THREAD;
     }
 
     /**
@@ -107,7 +119,7 @@ public class Schedulers {
      */
     @Deprecated
     public static Scheduler threadPoolForComputation() {
-        return executor(COMPUTATION_EXECUTOR);
+        return COMPUTATION;
     }
 
     /**
@@ -120,7 +132,7 @@ public class Schedulers {
      * @return {@link Scheduler} for computation-bound work.
      */
     public static Scheduler computation() {
-        return executor(COMPUTATION_EXECUTOR);
+        return COMPUTATION;
     }
 
     /**
@@ -137,7 +149,7 @@ public class Schedulers {
      */
     @Deprecated
     public static Scheduler threadPoolForIO() {
-        return executor(IO_EXECUTOR);
+        return IO;
     }
 
     /**
@@ -152,7 +164,7 @@ public class Schedulers {
      * @return {@link ExecutorScheduler} for IO-bound work.
      */
     public static Scheduler io() {
-        return executor(IO_EXECUTOR);
+        return IO;
     }
 
     private static ScheduledExecutorService createComputationExecutor() {
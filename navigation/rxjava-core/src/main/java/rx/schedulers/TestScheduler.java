@@ -37,11 +37,13 @@ public class TestScheduler extends Scheduler {
         private final long time;
         private final Action1<Inner> action;
         private final Inner scheduler;
+        private final long count; // for differentiating tasks at same time
 
-        private TimedAction(Inner scheduler, long time, Action1<Inner> action) {
+        private TimedAction(Inner scheduler, long time, Action1<Inner> action, long count) {
             this.time = time;
             this.action = action;
             this.scheduler = scheduler;
+            this.count = count;
         }
 
         @Override
@@ -53,12 +55,17 @@ public class TestScheduler extends Scheduler {
     private static class CompareActionsByTime implements Comparator<TimedAction> {
         @Override
         public int compare(TimedAction action1, TimedAction action2) {
-            return Long.valueOf(action1.time).compareTo(Long.valueOf(action2.time));
+            if (action1.time == action2.time) {
+                return action1.count < action2.count ? -1 : (action1.count > action2.count ? 1 : 0);
+            }
+            return action1.time < action2.time ? -1 : 1;
         }
     }
 
     // Storing time in nanoseconds internally.
     private long time;
+    // Order in which the actions were scheduled, so those due at the same time run in that order.
+    private long counter;
 
     @Override
     public long now() {
@@ -98,7 +105,7 @@ public class TestScheduler extends Scheduler {
     @Override
     public Subscription schedule(Action1<Inner> action, long delayTime, TimeUnit unit) {
         InnerTestScheduler inner = new InnerTestScheduler();
-        final TimedAction timedAction = new TimedAction(inner, time + unit.toNanos(delayTime), action);
+        final TimedAction timedAction = new TimedAction(inner, time + unit.toNanos(delayTime), action, counter++);
         queue.add(timedAction);
         return inner;
     }
@@ -106,7 +113,7 @@ public class TestScheduler extends Scheduler {
     @Override
     public Subscription schedule(Action1<Inner> action) {
         InnerTestScheduler inner = new InnerTestScheduler();
-        final TimedAction timedAction = new TimedAction(inner, 0, action);
+        final TimedAction timedAction = new TimedAction(inner, 0, action, counter++);
         queue.add(timedAction);
         return inner;
     }
@@ -127,13 +134,13 @@ public class TestScheduler extends Scheduler {
 
         @Override
         public void schedule(Action1<Inner> action, long delayTime, TimeUnit unit) {
-            final TimedAction timedAction = new TimedAction(this, time + unit.toNanos(delayTime), action);
+            final TimedAction timedAction = new TimedAction(this, time + unit.toNanos(delayTime), action, counter++);
             queue.add(timedAction);
         }
 
         @Override
         public void schedule(Action1<Inner> action) {
-            final TimedAction timedAction = new TimedAction(this, 0, action);
+            final TimedAction timedAction = new TimedAction(this, 0, action, counter++);
             queue.add(timedAction);
         }
 
@@ -55,6 +55,11 @@ public class TrampolineScheduler extends Scheduler {
 
     private final AtomicInteger counter = new AtomicInteger(0);
 
+    @Override
+    public boolean isCurrentThread() {
+        return true;
+    }
+
     private class InnerCurrentThreadScheduler extends Scheduler.Inner implements Subscription {
 
         private final BooleanSubscription innerSubscription = new BooleanSubscription();
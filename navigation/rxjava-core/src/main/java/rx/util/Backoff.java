@@ -0,0 +1,199 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import rx.util.functions.Func1;
+
+/**
+ * Immutable policy deciding whether and when <code>retry</code> or <code>repeat</code> resubscribes to a source.
+ * <p>
+ * The delay before resubscription <i>n</i> (starting at 1) is <code>initialDelay * 2^(n-1)</code>, capped at
+ * <code>maxDelay</code>. With jitter <i>j</i> the delay is drawn uniformly from <code>[delay * (1 - j), delay]</code>
+ * so that many clients failing at the same time do not come back at the same time.
+ * <p>
+ * By default a policy resubscribes forever; {@link #withMaxRetries}, {@link #withMaxElapsedTime} and
+ * {@link #retryIf} narrow that down. Every <code>with</code> method returns a new policy.
+ */
+public final class Backoff {
+    private static final int UNLIMITED = -1;
+
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final double jitter;
+    private final int maxRetries;
+    private final long maxElapsedMillis;
+    private final Func1<? super Throwable, Boolean> predicate;
+
+    private Backoff(long initialDelayMillis, long maxDelayMillis, double jitter, int maxRetries, long maxElapsedMillis, Func1<? super Throwable, Boolean> predicate) {
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.jitter = jitter;
+        this.maxRetries = maxRetries;
+        this.maxElapsedMillis = maxElapsedMillis;
+        this.predicate = predicate;
+    }
+
+    /**
+     * Resubscribes immediately.
+     *
+     * @return a policy without delay
+     */
+    public static Backoff immediate() {
+        return new Backoff(0, 0, 0, UNLIMITED, UNLIMITED, null);
+    }
+
+    /**
+     * Waits the same time before every resubscription.
+     *
+     * @param delay
+     *            the delay before each resubscription
+     * @param unit
+     *            the unit of <code>delay</code>
+     * @return a policy with a fixed delay
+     */
+    public static Backoff fixed(long delay, TimeUnit unit) {
+        long d = unit.toMillis(delay);
+        if (d < 0) {
+            throw new IllegalArgumentException("delay must not be negative");
+        }
+        return new Backoff(d, d, 0, UNLIMITED, UNLIMITED, null);
+    }
+
+    /**
+     * Doubles the delay after every resubscription until it reaches <code>maxDelay</code>.
+     *
+     * @param initialDelay
+     *            the delay before the first resubscription
+     * @param maxDelay
+     *            the upper bound of the delay
+     * @param unit
+     *            the unit of both delays
+     * @return an exponential policy
+     */
+    public static Backoff exponential(long initialDelay, long maxDelay, TimeUnit unit) {
+        long initial = unit.toMillis(initialDelay);
+        long max = unit.toMillis(maxDelay);
+        if (initial < 0 || max < initial) {
+            throw new IllegalArgumentException("0 <= initialDelay <= maxDelay required");
+        }
+        return new Backoff(initial, max, 0, UNLIMITED, UNLIMITED, null);
+    }
+
+    /**
+     * @param jitter
+     *            the fraction, between 0 and 1, by which each delay may be shortened at random
+     * @return a copy of this policy with jitter
+     */
+    public Backoff withJitter(double jitter) {
+        if (!(jitter >= 0 && jitter <= 1)) {
+            throw new IllegalArgumentException("jitter must be between 0 and 1");
+        }
+        return new Backoff(initialDelayMillis, maxDelayMillis, jitter, maxRetries, maxElapsedMillis, predicate);
+    }
+
+    /**
+     * @param maxRetries
+     *            the number of resubscriptions after which the failure (or completion) is passed on
+     * @return a copy of this policy limited to <code>maxRetries</code> resubscriptions
+     */
+    public Backoff withMaxRetries(int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative");
+        }
+        return new Backoff(initialDelayMillis, maxDelayMillis, jitter, maxRetries, maxElapsedMillis, predicate);
+    }
+
+    /**
+     * @param time
+     *            the time after the first subscription beyond which no resubscription is scheduled
+     * @param unit
+     *            the unit of <code>time</code>
+     * @return a copy of this policy limited in elapsed time
+     */
+    public Backoff withMaxElapsedTime(long time, TimeUnit unit) {
+        long t = unit.toMillis(time);
+        if (t < 0) {
+            throw new IllegalArgumentException("time must not be negative");
+        }
+        return new Backoff(initialDelayMillis, maxDelayMillis, jitter, maxRetries, t, predicate);
+    }
+
+    /**
+     * Only retries errors accepted by the predicate; others are passed on at once. Ignored by <code>repeat</code>.
+     *
+     * @param predicate
+     *            returns true for errors worth retrying
+     * @return a copy of this policy with the predicate
+     */
+    public Backoff retryIf(Func1<? super Throwable, Boolean> predicate) {
+        if (predicate == null) {
+            throw new NullPointerException("predicate");
+        }
+        return new Backoff(initialDelayMillis, maxDelayMillis, jitter, maxRetries, maxElapsedMillis, predicate);
+    }
+
+    /**
+     * Returns the delay before a resubscription.
+     *
+     * @param retry
+     *            the number of the resubscription, starting at 1
+     * @param random
+     *            the source of the jitter, may be null if this policy has none
+     * @return the delay in milliseconds
+     */
+    public long delayMillis(int retry, Random random) {
+        long d = initialDelayMillis;
+        for (int i = 1; i < retry && d < maxDelayMillis; i++) {
+            d <<= 1;
+        }
+        d = Math.min(d, maxDelayMillis);
+        if (jitter > 0 && d > 0) {
+            d -= (long) (d * jitter * random.nextDouble());
+        }
+        return d;
+    }
+
+    /**
+     * Decides whether to resubscribe.
+     *
+     * @param retry
+     *            the number of the resubscription, starting at 1
+     * @param elapsedMillis
+     *            the time since the first subscription including the coming delay
+     * @param error
+     *            the failure, or null when repeating after completion
+     * @return true to resubscribe, false to pass the notification on
+     */
+    public boolean shouldResubscribe(int retry, long elapsedMillis, Throwable error) {
+        if (maxRetries != UNLIMITED && retry > maxRetries) {
+            return false;
+        }
+        if (maxElapsedMillis != UNLIMITED && elapsedMillis > maxElapsedMillis) {
+            return false;
+        }
+        return error == null || predicate == null || predicate.call(error);
+    }
+
+    /**
+     * @return true if delays are drawn at random
+     */
+    public boolean hasJitter() {
+        return jitter > 0;
+    }
+}
@@ -4,6 +4,7 @@ import rx.Observable;
 import rx.perf.AbstractPerformanceTester;
 import rx.perf.IntegerSumObserver;
 import rx.perf.LongSumObserver;
+import rx.schedulers.Schedulers;
 import rx.util.functions.Action0;
 import rx.util.functions.Func2;
 
@@ -19,6 +20,7 @@ public class OperatorZipPerformance extends AbstractPerformanceTester {
                 public void call() {
                     spt.timeZipAandBwithSingleItems();
                     //                    spt.timeZipAandBwith100Items();
+                    //                    spt.timeZipAandBwithRepetitionsOnSeparateThreads();
                 }
             });
         } catch (Exception e) {
@@ -114,4 +116,33 @@ public class OperatorZipPerformance extends AbstractPerformanceTester {
         }
         return sum;
     }
-}
\ No newline at end of file
+
+    /**
+     * Observable.zip(from(REPETITIONS).subscribeOn(newThread), from(REPETITIONS).subscribeOn(newThread), {a, b -> a+b})
+     * 
+     * Both sources emit concurrently on their own threads so this measures the hand-off through the per-source
+     * rings and the contention on the drain loop rather than the synchronous fast path.
+     */
+    public long timeZipAandBwithRepetitionsOnSeparateThreads() {
+
+        Observable<Long> sA = Observable.from(ITERABLE_OF_REPETITIONS).subscribeOn(Schedulers.newThread());
+        Observable<Long> sB = Observable.from(ITERABLE_OF_REPETITIONS).subscribeOn(Schedulers.newThread());
+        Observable<Long> s = Observable.zip(sA, sB, new Func2<Long, Long, Long>() {
+
+            @Override
+            public Long call(Long t1, Long t2) {
+                return t1 + t2;
+            }
+
+        });
+
+        return s.reduce(0L, new Func2<Long, Long, Long>() {
+
+            @Override
+            public Long call(Long sum, Long v) {
+                return sum + v;
+            }
+
+        }).toBlockingObservable().single();
+    }
+}
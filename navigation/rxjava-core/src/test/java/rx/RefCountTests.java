@@ -16,6 +16,7 @@
 package rx;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
@@ -27,6 +28,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.MockitoAnnotations;
 
+import rx.observables.ConnectableObservable;
 import rx.schedulers.TestScheduler;
 import rx.subscriptions.Subscriptions;
 import rx.util.functions.Action0;
@@ -151,4 +153,76 @@ public class RefCountTests {
         assertEquals(1L, list3.get(1).longValue());
 
     }
+
+    @Test
+    public void testRefCountReconnectsAfterCompletion() {
+        final AtomicInteger subscriptionCount = new AtomicInteger();
+        Observable<Integer> refCounted = Observable.create(new Observable.OnSubscribe<Integer>() {
+
+            @Override
+            public void call(Subscriber<? super Integer> s) {
+                s.onNext(subscriptionCount.incrementAndGet());
+                s.onCompleted();
+            }
+
+        }).publish().refCount();
+
+        assertEquals(Integer.valueOf(1), refCounted.toBlockingObservable().single());
+        assertEquals(Integer.valueOf(2), refCounted.toBlockingObservable().single());
+        assertEquals(2, subscriptionCount.get());
+    }
+
+    @Test
+    public void testPublishLateSubscriberReceivesCompletion() {
+        ConnectableObservable<Integer> published = Observable.from(1, 2).publish();
+        published.connect();
+
+        @SuppressWarnings("unchecked")
+        Observer<Integer> observer = mock(Observer.class);
+        published.subscribe(observer);
+
+        verify(observer, never()).onNext(anyInt());
+        verify(observer, times(1)).onCompleted();
+    }
+
+    @Test
+    public void testRefCountConcurrentSubscribers() throws InterruptedException {
+        final AtomicInteger subscriptionCount = new AtomicInteger();
+        final AtomicInteger unsubscriptionCount = new AtomicInteger();
+        final Observable<Integer> refCounted = Observable.create(new Observable.OnSubscribeFunc<Integer>() {
+            @Override
+            public Subscription onSubscribe(Observer<? super Integer> observer) {
+                subscriptionCount.incrementAndGet();
+                return Subscriptions.create(new Action0() {
+                    @Override
+                    public void call() {
+                        unsubscriptionCount.incrementAndGet();
+                    }
+                });
+            }
+        }).publish().refCount();
+
+        final Subscription keepAlive = refCounted.subscribe();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        refCounted.subscribe().unsubscribe();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        // the first subscriber kept the connection open the whole time
+        assertEquals(1, subscriptionCount.get());
+        assertEquals(0, unsubscriptionCount.get());
+        keepAlive.unsubscribe();
+        assertEquals(1, unsubscriptionCount.get());
+    }
 }
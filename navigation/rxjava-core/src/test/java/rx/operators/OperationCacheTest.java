@@ -16,17 +16,24 @@
 package rx.operators;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 import static rx.operators.OperationCache.*;
 
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import rx.Observable;
 import rx.Observer;
+import rx.Subscriber;
 import rx.Subscription;
+import rx.observables.CachedObservable;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
 import rx.subscriptions.BooleanSubscription;
 import rx.util.functions.Action1;
 
@@ -84,4 +91,129 @@ public class OperationCacheTest {
         }
         assertEquals(1, counter.get());
     }
+
+    /**
+     * Counts its subscriptions and emits the subscription number followed by 1 to 5.
+     */
+    private static Observable<Integer> countingSource(final AtomicInteger subscriptions) {
+        return Observable.create(new Observable.OnSubscribe<Integer>() {
+
+            @Override
+            public void call(Subscriber<? super Integer> s) {
+                s.onNext(subscriptions.incrementAndGet() * 100);
+                for (int i = 1; i <= 5; i++) {
+                    s.onNext(i);
+                }
+                s.onCompleted();
+            }
+
+        });
+    }
+
+    @Test
+    public void testCacheMaxItems() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        CachedObservable<Integer> o = countingSource(subscriptions).cache(2);
+
+        assertEquals(Arrays.asList(100, 1, 2, 3, 4, 5), o.toList().toBlockingObservable().single());
+        assertEquals(Arrays.asList(4, 5), o.toList().toBlockingObservable().single());
+        assertEquals(Arrays.asList(4, 5), o.toList().toBlockingObservable().single());
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void testCacheInvalidate() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        CachedObservable<Integer> o = countingSource(subscriptions).cache(10);
+
+        assertEquals(Arrays.asList(100, 1, 2, 3, 4, 5), o.toList().toBlockingObservable().single());
+        assertEquals(Arrays.asList(100, 1, 2, 3, 4, 5), o.toList().toBlockingObservable().single());
+
+        o.invalidate();
+
+        assertEquals(Arrays.asList(200, 1, 2, 3, 4, 5), o.toList().toBlockingObservable().single());
+        assertEquals(Arrays.asList(200, 1, 2, 3, 4, 5), o.toList().toBlockingObservable().single());
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void testCacheInvalidateUnsubscribesSource() {
+        PublishSubject<Integer> source = PublishSubject.create();
+        CachedObservable<Integer> o = source.cache(10);
+        @SuppressWarnings("unchecked")
+        Observer<Integer> observer = mock(Observer.class);
+        o.subscribe(observer);
+
+        source.onNext(1);
+        o.invalidate();
+        source.onNext(2);
+
+        verify(observer).onNext(1);
+        verify(observer, never()).onNext(2);
+    }
+
+    @Test
+    public void testCacheInvalidateCompletesActiveSubscribers() {
+        PublishSubject<Integer> source = PublishSubject.create();
+        CachedObservable<Integer> o = source.cache(10);
+        @SuppressWarnings("unchecked")
+        Observer<Integer> before = mock(Observer.class);
+        @SuppressWarnings("unchecked")
+        Observer<Integer> after = mock(Observer.class);
+        o.subscribe(before);
+
+        source.onNext(1);
+        o.invalidate();
+        o.subscribe(after);
+        source.onNext(2);
+        source.onCompleted();
+
+        InOrder inOrder = inOrder(before);
+        inOrder.verify(before).onNext(1);
+        inOrder.verify(before).onCompleted();
+        inOrder.verifyNoMoreInteractions();
+
+        // the new cache subscribed to the source again
+        inOrder = inOrder(after);
+        inOrder.verify(after).onNext(2);
+        inOrder.verify(after).onCompleted();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void testCacheExpiryCompletesActiveSubscribers() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishSubject<Integer> source = PublishSubject.create();
+        CachedObservable<Integer> o = source.cache(1, TimeUnit.SECONDS, scheduler);
+        @SuppressWarnings("unchecked")
+        Observer<Integer> before = mock(Observer.class);
+        o.subscribe(before);
+
+        source.onNext(1);
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        o.subscribe(mock(Observer.class));
+        source.onNext(2);
+
+        InOrder inOrder = inOrder(before);
+        inOrder.verify(before).onNext(1);
+        inOrder.verify(before).onCompleted();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void testCacheTimeToLive() {
+        TestScheduler scheduler = new TestScheduler();
+        AtomicInteger subscriptions = new AtomicInteger();
+        CachedObservable<Integer> o = countingSource(subscriptions).cache(1, TimeUnit.SECONDS, scheduler);
+
+        assertEquals(Integer.valueOf(100), o.toBlockingObservable().first());
+
+        scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+        assertEquals(Integer.valueOf(100), o.toBlockingObservable().first());
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        assertEquals(Integer.valueOf(200), o.toBlockingObservable().first());
+        assertEquals(Integer.valueOf(200), o.toBlockingObservable().first());
+        assertEquals(2, subscriptions.get());
+    }
 }
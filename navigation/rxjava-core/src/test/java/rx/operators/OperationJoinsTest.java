@@ -15,10 +15,12 @@
  */
 package rx.operators;
 
+import static org.junit.Assert.*;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -28,8 +30,10 @@ import org.mockito.MockitoAnnotations;
 
 import rx.Observable;
 import rx.Observer;
+import rx.Subscriber;
 import rx.joins.Plan0;
 import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
 import rx.subjects.PublishSubject;
 import rx.util.functions.Func1;
 import rx.util.functions.Func2;
@@ -410,4 +414,89 @@ public class OperationJoinsTest {
         inOrder.verify(observer, times(1)).onCompleted();
         verify(observer, never()).onError(any(Throwable.class));
     }
+
+    @Test
+    public void whenNullValues() {
+        Observable<Integer> source1 = Observable.from(1, null);
+        Observable<Integer> source2 = Observable.from(null, 2);
+
+        Observable<Integer> m = Observable.when(source1.and(source2).then(new Func2<Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2) {
+                return t1 == null ? -t2 : t2 == null ? t1 : 0;
+            }
+        }));
+        m.subscribe(observer);
+
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer, times(1)).onNext(1);
+        inOrder.verify(observer, times(1)).onNext(-2);
+        inOrder.verify(observer, times(1)).onCompleted();
+        verify(observer, never()).onError(any(Throwable.class));
+    }
+
+    @Test
+    public void whenConcurrentSources() throws InterruptedException {
+        final int n = 20000;
+        Observable<Integer> source1 = Observable.range(0, n).subscribeOn(Schedulers.newThread());
+        Observable<Integer> source2 = Observable.range(0, n).subscribeOn(Schedulers.newThread());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final int[] count = { 0 };
+        final boolean[] inOrder = { true };
+        Observable.when(source1.and(source2).then(add2)).subscribe(new Subscriber<Integer>() {
+            @Override
+            public void onNext(Integer t) {
+                // the n-th match pairs the n-th value of each source
+                if (t != 2 * count[0]) {
+                    inOrder[0] = false;
+                }
+                count[0]++;
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                latch.countDown();
+            }
+        });
+
+        latch.await();
+        assertEquals(n, count[0]);
+        assertTrue(inOrder[0]);
+    }
+
+    @Test
+    public void whenErrorAfterQueuedValue() {
+        final PublishSubject<Integer> xs = PublishSubject.create();
+        final PublishSubject<Integer> ys = PublishSubject.create();
+        PublishSubject<Integer> zs = PublishSubject.create();
+        final RuntimeException error = new RuntimeException("Forced failure");
+
+        Observable<Integer> m = Observable.when(
+                xs.and(ys).then(add2),
+                zs.then(new Func1<Integer, Integer>() {
+                    @Override
+                    public Integer call(Integer t1) {
+                        // both arrive while the drain loop is busy with this match
+                        xs.onNext(5);
+                        xs.onError(error);
+                        return t1;
+                    }
+                }));
+        m.subscribe(observer);
+
+        ys.onNext(10);
+        zs.onNext(1);
+
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer, times(1)).onNext(1);
+        inOrder.verify(observer, times(1)).onNext(15);
+        inOrder.verify(observer, times(1)).onError(error);
+        verify(observer, never()).onCompleted();
+    }
 }
@@ -168,4 +168,24 @@ public class OperationLatestTest {
 
         Assert.assertEquals(false, it.hasNext());
     }
+
+    @Test(timeout = 1000)
+    public void testNullValue() {
+        PublishSubject<Integer> source = PublishSubject.create();
+        Iterator<Integer> it = source.toBlockingObservable().latest().iterator();
+
+        source.onNext(1);
+        source.onNext(null);
+
+        Assert.assertEquals(true, it.hasNext());
+        Assert.assertNull(it.next());
+
+        source.onNext(2);
+
+        Assert.assertEquals(Integer.valueOf(2), it.next());
+
+        source.onCompleted();
+
+        Assert.assertEquals(false, it.hasNext());
+    }
 }
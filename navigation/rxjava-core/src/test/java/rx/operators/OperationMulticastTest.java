@@ -15,8 +15,11 @@
  */
 package rx.operators;
 
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import rx.Observer;
@@ -24,6 +27,7 @@ import rx.Subscription;
 import rx.observables.ConnectableObservable;
 import rx.subjects.PublishSubject;
 import rx.subjects.Subject;
+import rx.util.functions.Func0;
 
 public class OperationMulticastTest {
 
@@ -110,4 +114,41 @@ public class OperationMulticastTest {
         verify(observer, times(1)).onCompleted();
 
     }
+
+    @Test
+    public void testMulticastFactoryKeepsTerminatedSubject() {
+        final AtomicInteger subjects = new AtomicInteger();
+        Subject<String, String> source = PublishSubject.create();
+
+        ConnectableObservable<String> multicasted = OperationMulticast.multicast(source, new Func0<Subject<String, String>>() {
+
+            @Override
+            public Subject<String, String> call() {
+                subjects.incrementAndGet();
+                return PublishSubject.create();
+            }
+
+        });
+
+        @SuppressWarnings("unchecked")
+        Observer<String> observer1 = mock(Observer.class);
+        multicasted.subscribe(observer1);
+        multicasted.connect();
+        source.onNext("one");
+        source.onCompleted();
+
+        // the source completed, a new subscriber receives the completion
+        @SuppressWarnings("unchecked")
+        Observer<String> observer2 = mock(Observer.class);
+        multicasted.subscribe(observer2);
+        verify(observer2, times(1)).onCompleted();
+
+        // only refCount() renews the subject, connecting again keeps it
+        multicasted.connect();
+
+        verify(observer1, times(1)).onNext("one");
+        verify(observer1, times(1)).onCompleted();
+        verify(observer2, never()).onNext("one");
+        assertEquals(1, subjects.get());
+    }
 }
@@ -238,6 +238,8 @@ public class OperationNextTest {
         final CountDownLatch timeHasPassed = new CountDownLatch(COUNT);
         final AtomicBoolean running = new AtomicBoolean(true);
         final AtomicInteger count = new AtomicInteger(0);
+        // only emissions after b was taken count as time passing, on a single core the producer may not have run since
+        final AtomicBoolean bTaken = new AtomicBoolean(false);
         final Observable<Integer> obs = Observable.create(new Observable.OnSubscribeFunc<Integer>() {
 
             @Override
@@ -249,7 +251,9 @@ public class OperationNextTest {
                         try {
                             while (running.get()) {
                                 o.onNext(count.incrementAndGet());
-                                timeHasPassed.countDown();
+                                if (bTaken.get()) {
+                                    timeHasPassed.countDown();
+                                }
                             }
                             o.onCompleted();
                         } catch (Throwable e) {
@@ -272,6 +276,7 @@ public class OperationNextTest {
         int b = it.next();
         // we should have a different value
         assertTrue("a and b should be different", a != b);
+        bTaken.set(true);
 
         // wait for some time (if times out we are blocked somewhere so fail ... set very high for very slow, constrained machines)
         timeHasPassed.await(8000, TimeUnit.MILLISECONDS);
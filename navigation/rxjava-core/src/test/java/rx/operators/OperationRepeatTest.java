@@ -17,6 +17,9 @@ package rx.operators;
 
 import static org.junit.Assert.*;
 
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
@@ -26,7 +29,9 @@ import rx.Observable.OnSubscribeFunc;
 import rx.Observer;
 import rx.Subscription;
 import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
 import rx.subscriptions.Subscriptions;
+import rx.util.Backoff;
 
 public class OperationRepeatTest {
 
@@ -59,4 +64,31 @@ public class OperationRepeatTest {
         Observable.from(1).repeat(Schedulers.newThread()).take(100000).toBlockingObservable().last();
     }
 
+
+    @Test
+    public void testRepeatWithBackoff() {
+        TestScheduler scheduler = new TestScheduler();
+        @SuppressWarnings("unchecked")
+        Observer<Integer> observer = mock(Observer.class);
+        final AtomicInteger count = new AtomicInteger();
+        Observable.create(new OnSubscribeFunc<Integer>() {
+
+            @Override
+            public Subscription onSubscribe(Observer<? super Integer> o) {
+                o.onNext(count.incrementAndGet());
+                o.onCompleted();
+                return Subscriptions.empty();
+            }
+        }).repeat(Backoff.fixed(10, TimeUnit.MILLISECONDS).withMaxRetries(2), scheduler).subscribe(observer);
+
+        verify(observer, times(1)).onNext(1);
+        scheduler.advanceTimeBy(10, TimeUnit.MILLISECONDS);
+        verify(observer, times(1)).onNext(2);
+        verify(observer, never()).onCompleted();
+        scheduler.advanceTimeBy(10, TimeUnit.MILLISECONDS);
+        verify(observer, times(1)).onNext(3);
+        verify(observer, times(1)).onCompleted();
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        assertEquals(3, count.get());
+    }
 }
@@ -19,6 +19,10 @@ import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 import static rx.operators.OperationRetry.*;
 
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
@@ -27,7 +31,11 @@ import org.mockito.InOrder;
 import rx.Observable;
 import rx.Observer;
 import rx.Subscription;
+import rx.schedulers.TestScheduler;
 import rx.subscriptions.Subscriptions;
+import rx.util.Backoff;
+import rx.util.functions.Action1;
+import rx.util.functions.Func1;
 
 public class OperationRetryTest {
 
@@ -106,6 +114,147 @@ public class OperationRetryTest {
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    public void testNegativeRetryCountRetriesForever() {
+        int NUM_FAILURES = 20;
+        @SuppressWarnings("unchecked")
+        Observer<String> observer = mock(Observer.class);
+        Observable<String> origin = Observable.create(new FuncWithErrors(NUM_FAILURES));
+        Observable.create(retry(origin, -1)).subscribe(observer);
+
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer, times(1 + NUM_FAILURES)).onNext("beginningEveryTime");
+        inOrder.verify(observer, never()).onError(any(Throwable.class));
+        inOrder.verify(observer, times(1)).onNext("onSuccessOnly");
+        inOrder.verify(observer, times(1)).onCompleted();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void testRetryCountIsPerSubscription() {
+        Observable<String> origin = Observable.create(new FuncWithErrors(Integer.MAX_VALUE));
+        Observable<String> retried = Observable.create(retry(origin, 1));
+        for (int i = 0; i < 2; i++) {
+            @SuppressWarnings("unchecked")
+            Observer<String> observer = mock(Observer.class);
+            retried.subscribe(observer);
+            verify(observer, times(2)).onNext("beginningEveryTime");
+            verify(observer, times(1)).onError(any(RuntimeException.class));
+        }
+    }
+
+    @Test
+    public void testSynchronousRetriesDoNotGrowTheStack() {
+        final int NUM_FAILURES = 100000;
+        final AtomicInteger count = new AtomicInteger();
+        String last = Observable.create(retry(Observable.create(new FuncWithErrors(NUM_FAILURES))))
+                .doOnNext(new Action1<String>() {
+
+                    @Override
+                    public void call(String t1) {
+                        count.incrementAndGet();
+                    }
+                }).toBlockingObservable().last();
+        assertEquals("onSuccessOnly", last);
+        assertEquals(NUM_FAILURES + 2, count.get());
+    }
+
+    @Test
+    public void testRetryWithExponentialBackoff() {
+        TestScheduler scheduler = new TestScheduler();
+        @SuppressWarnings("unchecked")
+        Observer<String> observer = mock(Observer.class);
+        Observable<String> origin = Observable.create(new FuncWithErrors(3));
+        origin.retry(Backoff.exponential(100, 1000, TimeUnit.MILLISECONDS), scheduler).subscribe(observer);
+
+        verify(observer, times(1)).onNext("beginningEveryTime");
+        scheduler.advanceTimeBy(99, TimeUnit.MILLISECONDS);
+        verify(observer, times(1)).onNext("beginningEveryTime");
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        verify(observer, times(2)).onNext("beginningEveryTime");
+        scheduler.advanceTimeBy(199, TimeUnit.MILLISECONDS);
+        verify(observer, times(2)).onNext("beginningEveryTime");
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        verify(observer, times(3)).onNext("beginningEveryTime");
+        scheduler.advanceTimeBy(400, TimeUnit.MILLISECONDS);
+        verify(observer, times(4)).onNext("beginningEveryTime");
+        verify(observer, times(1)).onNext("onSuccessOnly");
+        verify(observer, times(1)).onCompleted();
+        verify(observer, never()).onError(any(Throwable.class));
+    }
+
+    @Test
+    public void testRetryGivesUpAfterMaxElapsedTime() {
+        TestScheduler scheduler = new TestScheduler();
+        @SuppressWarnings("unchecked")
+        Observer<String> observer = mock(Observer.class);
+        Observable<String> origin = Observable.create(new FuncWithErrors(Integer.MAX_VALUE));
+        origin.retry(Backoff.fixed(100, TimeUnit.MILLISECONDS).withMaxElapsedTime(250, TimeUnit.MILLISECONDS), scheduler).subscribe(observer);
+
+        scheduler.advanceTimeBy(200, TimeUnit.MILLISECONDS);
+        verify(observer, times(3)).onNext("beginningEveryTime");
+        verify(observer, times(1)).onError(any(RuntimeException.class));
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        verify(observer, times(3)).onNext("beginningEveryTime");
+    }
+
+    @Test
+    public void testRetryOnlyMatchingErrors() {
+        TestScheduler scheduler = new TestScheduler();
+        @SuppressWarnings("unchecked")
+        Observer<String> observer = mock(Observer.class);
+        Observable<String> origin = Observable.create(new FuncWithErrors(2));
+        Backoff policy = Backoff.immediate().retryIf(new Func1<Throwable, Boolean>() {
+
+            @Override
+            public Boolean call(Throwable e) {
+                return e instanceof IllegalStateException;
+            }
+        });
+        origin.retry(policy, scheduler).subscribe(observer);
+
+        verify(observer, times(1)).onNext("beginningEveryTime");
+        verify(observer, times(1)).onError(any(RuntimeException.class));
+        verify(observer, never()).onCompleted();
+    }
+
+    @Test
+    public void testUnsubscribeCancelsPendingRetry() {
+        TestScheduler scheduler = new TestScheduler();
+        @SuppressWarnings("unchecked")
+        Observer<String> observer = mock(Observer.class);
+        Observable<String> origin = Observable.create(new FuncWithErrors(Integer.MAX_VALUE));
+        Subscription s = origin.retry(Backoff.fixed(100, TimeUnit.MILLISECONDS), scheduler).subscribe(observer);
+
+        scheduler.advanceTimeBy(150, TimeUnit.MILLISECONDS);
+        verify(observer, times(2)).onNext("beginningEveryTime");
+        s.unsubscribe();
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        verify(observer, times(2)).onNext("beginningEveryTime");
+        verify(observer, never()).onError(any(Throwable.class));
+    }
+
+    @Test
+    public void testBackoffDelays() {
+        Backoff policy = Backoff.exponential(100, 1000, TimeUnit.MILLISECONDS);
+        assertEquals(100, policy.delayMillis(1, null));
+        assertEquals(200, policy.delayMillis(2, null));
+        assertEquals(800, policy.delayMillis(4, null));
+        assertEquals(1000, policy.delayMillis(5, null));
+        assertEquals(1000, policy.delayMillis(100, null));
+
+        Backoff jittered = policy.withJitter(0.5);
+        Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            long d = jittered.delayMillis(3, random);
+            assertTrue("delay " + d, d >= 200 && d <= 400);
+        }
+
+        Backoff limited = policy.withMaxRetries(2);
+        assertTrue(limited.shouldResubscribe(2, 0, new RuntimeException()));
+        assertFalse(limited.shouldResubscribe(3, 0, new RuntimeException()));
+    }
+
     public static class FuncWithErrors implements Observable.OnSubscribeFunc<String> {
 
         private final int numFailures;
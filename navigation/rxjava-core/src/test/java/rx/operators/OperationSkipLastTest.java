@@ -15,10 +15,12 @@
  */
 package rx.operators;
 
+import static org.junit.Assert.*;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 import static rx.operators.OperationSkipLast.*;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
@@ -207,4 +209,12 @@ public class OperationSkipLastTest {
         verify(o, never()).onNext(any());
         verify(o, never()).onError(any(Throwable.class));
     }
+
+    @Test
+    public void testSkipLastWrapsAroundBuffer() {
+        // more items than the initial array of the ring holds, so it has to grow and wrap around
+        List<Integer> result = Observable.create(skipLast(Observable.range(0, 100), 40)).toList().toBlockingObservable().single();
+
+        assertEquals(Observable.range(0, 60).toList().toBlockingObservable().single(), result);
+    }
 }
@@ -15,10 +15,14 @@
  */
 package rx.operators;
 
+import static org.junit.Assert.*;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -27,8 +31,11 @@ import org.mockito.InOrder;
 import rx.Observable;
 import rx.Observer;
 import rx.Scheduler.Inner;
+import rx.Subscriber;
 import rx.Subscription;
+import rx.schedulers.Schedulers;
 import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
 import rx.subscriptions.Subscriptions;
 import rx.util.functions.Action0;
 import rx.util.functions.Action1;
@@ -429,4 +436,72 @@ public class OperationSwitchTest {
         inOrder.verify(observer, times(1)).onCompleted();
         inOrder.verifyNoMoreInteractions();
     }
+
+    @Test(timeout = 10000)
+    public void testSwitchDropsOlderAsyncInners() throws InterruptedException {
+        final PublishSubject<Observable<Integer>> outer = PublishSubject.create();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        final AtomicBoolean wentBack = new AtomicBoolean();
+        final AtomicInteger lastSource = new AtomicInteger();
+        final CountDownLatch received = new CountDownLatch(1);
+
+        Subscription s = Observable.switchOnNext(outer).subscribe(new Action1<Integer>() {
+
+            @Override
+            public void call(Integer source) {
+                if (concurrent.incrementAndGet() != 1) {
+                    overlapped.set(true);
+                }
+                if (source < lastSource.get()) {
+                    wentBack.set(true);
+                }
+                lastSource.set(source);
+                if (source == 3) {
+                    received.countDown();
+                }
+                concurrent.decrementAndGet();
+            }
+
+        });
+
+        for (int i = 1; i <= 3; i++) {
+            outer.onNext(chatty(i));
+            Thread.sleep(20);
+        }
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        s.unsubscribe();
+
+        assertFalse("onNext was called concurrently", overlapped.get());
+        assertFalse("an older inner emitted after a newer one", wentBack.get());
+    }
+
+    /**
+     * Emits its id on a new thread until unsubscribed.
+     */
+    private static Observable<Integer> chatty(final int id) {
+        return Observable.create(new Observable.OnSubscribe<Integer>() {
+
+            @Override
+            public void call(Subscriber<? super Integer> s) {
+                while (!s.isUnsubscribed()) {
+                    s.onNext(id);
+                    Thread.yield();
+                }
+            }
+
+        }).subscribeOn(Schedulers.newThread());
+    }
+
+    @Test
+    public void testSwitchWithNullValues() {
+        Observable<Observable<String>> source = Observable.from(Observable.from("one", null), Observable.from((String) null));
+        Observable.switchOnNext(source).subscribe(observer);
+
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onNext("one");
+        inOrder.verify(observer, times(2)).onNext(null);
+        inOrder.verify(observer).onCompleted();
+        verify(observer, never()).onError(any(Throwable.class));
+    }
 }
@@ -15,10 +15,12 @@
  */
 package rx.operators;
 
+import static org.junit.Assert.*;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 import static rx.operators.OperationTakeLast.*;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
@@ -282,4 +284,12 @@ public class OperationTakeLastTest {
         verify(o, never()).onNext(any());
         verify(o, never()).onError(any(Throwable.class));
     }
+
+    @Test
+    public void testTakeLastWrapsAroundBuffer() {
+        // more items than the initial array of the ring holds, so it has to grow and wrap around
+        List<Integer> result = Observable.create(takeLast(Observable.range(0, 100), 40)).toList().toBlockingObservable().single();
+
+        assertEquals(Observable.range(60, 40).toList().toBlockingObservable().single(), result);
+    }
 }
@@ -18,14 +18,21 @@ package rx.operators;
 import static org.junit.Assert.*;
 import static rx.operators.OperationToIterator.*;
 
+import java.io.Closeable;
 import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import rx.Observable;
+import rx.Observable.OnSubscribe;
 import rx.Observable.OnSubscribeFunc;
 import rx.Observer;
+import rx.Subscriber;
 import rx.Subscription;
+import rx.schedulers.Schedulers;
 import rx.subscriptions.Subscriptions;
 
 public class OperationToIteratorTest {
@@ -70,6 +77,110 @@ public class OperationToIteratorTest {
         it.next();
     }
 
+    @Test
+    public void testToIteratorSynchronousSourceLargerThanBuffer() {
+        Iterator<Integer> it = toIterator(Observable.range(0, 1000), 16);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(true, it.hasNext());
+            assertEquals(Integer.valueOf(i), it.next());
+        }
+        assertEquals(false, it.hasNext());
+    }
+
+    @Test
+    public void testToIteratorWithNull() {
+        Iterator<String> it = toIterator(Observable.from("one", null, "three"));
+
+        assertEquals("one", it.next());
+        assertEquals(true, it.hasNext());
+        assertNull(it.next());
+        assertEquals("three", it.next());
+        assertEquals(false, it.hasNext());
+    }
+
+    @Test(timeout = 10000)
+    public void testToIteratorBoundsAsynchronousSource() throws InterruptedException {
+        final AtomicInteger emitted = new AtomicInteger();
+        Observable<Integer> obs = Observable.create(new OnSubscribe<Integer>() {
+
+            @Override
+            public void call(Subscriber<? super Integer> s) {
+                for (int i = 0; i < 1000 && !s.isUnsubscribed(); i++) {
+                    emitted.incrementAndGet();
+                    s.onNext(i);
+                }
+                s.onCompleted();
+            }
+
+        }).subscribeOn(Schedulers.newThread());
+
+        Iterator<Integer> it = toIterator(obs, 16);
+
+        assertEquals(Integer.valueOf(0), it.next());
+        Thread.sleep(100);
+        // the first item plus a full buffer, and the one that is waiting for room
+        assertTrue("emitted " + emitted.get(), emitted.get() <= 18);
+
+        for (int i = 1; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), it.next());
+        }
+        assertEquals(false, it.hasNext());
+    }
+
+    @Test(timeout = 10000)
+    public void testToIteratorHandsOffWithoutLostWakeUps() {
+        // both sides keep running into an empty or full buffer and park without a timeout
+        int n = 200000;
+        Iterator<Integer> it = toIterator(Observable.range(0, n).subscribeOn(Schedulers.newThread()), 1);
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.valueOf(i), it.next());
+        }
+        assertEquals(false, it.hasNext());
+    }
+
+    @Test(timeout = 10000)
+    public void testCloseReleasesWaitingProducer() throws Exception {
+        final CountDownLatch finished = new CountDownLatch(1);
+        Observable<Integer> obs = Observable.create(new OnSubscribe<Integer>() {
+
+            @Override
+            public void call(Subscriber<? super Integer> s) {
+                for (int i = 0; i < 1000 && !s.isUnsubscribed(); i++) {
+                    s.onNext(i);
+                }
+                finished.countDown();
+            }
+
+        }).subscribeOn(Schedulers.newThread());
+
+        Iterator<Integer> it = toIterator(obs, 4);
+        assertEquals(Integer.valueOf(0), it.next());
+
+        // abandon the iteration while the producer waits for room
+        ((Closeable) it).close();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertTrue(((Subscription) it).isUnsubscribed());
+        assertEquals(false, it.hasNext());
+    }
+
+    @Test(timeout = 10000)
+    public void testInterruptIsKeptWhenWaiting() {
+        Iterator<Integer> it = toIterator(Observable.<Integer> never());
+        Thread.currentThread().interrupt();
+        try {
+            it.hasNext();
+            fail("Should have been interrupted");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+        }
+        // clears the flag for the following tests
+        assertTrue(Thread.interrupted());
+        assertTrue(((Subscription) it).isUnsubscribed());
+    }
+
     private static class TestException extends RuntimeException {
         private static final long serialVersionUID = 1L;
     }
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.operators;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import rx.Observable;
+import rx.Observable.OnSubscribe;
+import rx.Observer;
+import rx.Subscriber;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+import rx.util.functions.Action1;
+import rx.util.functions.Func1;
+
+public class OperatorConcatEagerTest {
+
+    @Test
+    public void testKeepsSourceOrderWhileRunningConcurrently() {
+        TestScheduler scheduler = new TestScheduler();
+        // the first inner Observable is the slowest so the others finish ahead of their turn
+        Observable<Long> o = Observable.from(3L, 2L, 1L).concatMapEager(delayedPair(scheduler));
+
+        @SuppressWarnings("unchecked")
+        Observer<Long> observer = mock(Observer.class);
+        o.subscribe(observer);
+
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS);
+        verify(observer, never()).onNext(anyLong());
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onNext(30L);
+        inOrder.verify(observer).onNext(31L);
+        inOrder.verify(observer).onNext(20L);
+        inOrder.verify(observer).onNext(21L);
+        inOrder.verify(observer).onNext(10L);
+        inOrder.verify(observer).onNext(11L);
+        inOrder.verify(observer).onCompleted();
+        verify(observer, never()).onError(any(Throwable.class));
+    }
+
+    @Test
+    public void testMaxConcurrent() {
+        final AtomicInteger subscribed = new AtomicInteger();
+        final List<PublishSubject<Integer>> subjects = new ArrayList<PublishSubject<Integer>>();
+        for (int i = 0; i < 4; i++) {
+            subjects.add(PublishSubject.<Integer> create());
+        }
+        Observable<Integer> o = Observable.range(0, 4).concatMapEager(new Func1<Integer, Observable<Integer>>() {
+
+            @Override
+            public Observable<Integer> call(final Integer i) {
+                return Observable.create(new OnSubscribe<Integer>() {
+
+                    @Override
+                    public void call(Subscriber<? super Integer> s) {
+                        subscribed.incrementAndGet();
+                        subjects.get(i).subscribe(s);
+                    }
+
+                });
+            }
+
+        }, 2);
+
+        final List<Integer> values = new ArrayList<Integer>();
+        o.subscribe(new Action1<Integer>() {
+
+            @Override
+            public void call(Integer t) {
+                values.add(t);
+            }
+
+        });
+        assertEquals(2, subscribed.get());
+
+        subjects.get(1).onNext(10);
+        subjects.get(1).onCompleted();
+        assertEquals(2, subscribed.get());
+        assertTrue(values.isEmpty());
+
+        subjects.get(0).onNext(0);
+        assertEquals(Arrays.asList(0), values);
+        subjects.get(0).onCompleted();
+        // the buffered item of the second one follows and both slots are taken by the remaining ones
+        assertEquals(Arrays.asList(0, 10), values);
+        assertEquals(4, subscribed.get());
+    }
+
+    @Test
+    public void testAsyncInnerObservables() {
+        List<Integer> values = Observable.range(0, 100).concatMapEager(new Func1<Integer, Observable<Integer>>() {
+
+            @Override
+            public Observable<Integer> call(Integer i) {
+                return Observable.range(i * 10, 10).subscribeOn(Schedulers.newThread());
+            }
+
+        }, 8).toList().toBlockingObservable().single();
+
+        assertEquals(1000, values.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, values.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testInnerErrorStops() {
+        @SuppressWarnings("unchecked")
+        Observer<Integer> observer = mock(Observer.class);
+        Observable.concatEager(Observable.from(Observable.from(1, 2), Observable.<Integer> error(new RuntimeException("forced")), Observable.from(3)), 2).subscribe(observer);
+
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onNext(1);
+        inOrder.verify(observer).onNext(2);
+        inOrder.verify(observer).onError(any(RuntimeException.class));
+        verify(observer, never()).onNext(3);
+        verify(observer, never()).onCompleted();
+    }
+
+    private static Func1<Long, Observable<Long>> delayedPair(final TestScheduler scheduler) {
+        return new Func1<Long, Observable<Long>>() {
+
+            @Override
+            public Observable<Long> call(final Long seconds) {
+                return Observable.timer(seconds, TimeUnit.SECONDS, scheduler).mergeMap(new Func1<Long, Observable<Long>>() {
+
+                    @Override
+                    public Observable<Long> call(Long t) {
+                        return Observable.from(seconds * 10, seconds * 10 + 1);
+                    }
+
+                });
+            }
+
+        };
+    }
+}
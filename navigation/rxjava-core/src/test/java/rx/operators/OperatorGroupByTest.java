@@ -17,13 +17,17 @@ package rx.operators;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -35,7 +39,10 @@ import rx.Observer;
 import rx.Subscriber;
 import rx.Subscription;
 import rx.observables.GroupedObservable;
+import rx.observers.TestObserver;
 import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
 import rx.subscriptions.Subscriptions;
 import rx.util.functions.Action1;
 import rx.util.functions.Func1;
@@ -567,6 +574,323 @@ public class OperatorGroupByTest {
         assertEquals(2, eventCounter.get());
     }
 
+    @Test
+    public void testBoundedEvictsLeastRecentlyUsedGroup() {
+        final List<String> events = new ArrayList<String>();
+        Observable.from(1, 2, 1, 3, 2, 1).groupBy(IDENTITY, 2).subscribe(new Action1<GroupedObservable<Integer, Integer>>() {
+
+            @Override
+            public void call(final GroupedObservable<Integer, Integer> g) {
+                events.add("open " + g.getKey());
+                g.subscribe(new Observer<Integer>() {
+
+                    @Override
+                    public void onCompleted() {
+                        events.add("close " + g.getKey());
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        fail(e.getMessage());
+                    }
+
+                    @Override
+                    public void onNext(Integer v) {
+                        events.add(g.getKey() + ":" + v);
+                    }
+
+                });
+            }
+
+        });
+
+        // 2 is the least recently used group when 3 arrives, then 1 is evicted by the new 2
+        assertEquals(Arrays.asList(
+                "open 1", "1:1", "open 2", "2:2", "1:1",
+                "close 2", "open 3", "3:3",
+                "close 1", "open 2", "2:2",
+                "close 3", "open 1", "1:1",
+                "close 2", "close 1"), events);
+    }
+
+    @Test
+    public void testBoundedBuffersUntilSubscribed() {
+        final List<GroupedObservable<Integer, Integer>> groups = new ArrayList<GroupedObservable<Integer, Integer>>();
+        Observable.from(1, 2, 3, 4, 5, 6).groupBy(new Func1<Integer, Integer>() {
+
+            @Override
+            public Integer call(Integer t) {
+                return t % 2;
+            }
+
+        }, 10).toBlockingObservable().forEach(new Action1<GroupedObservable<Integer, Integer>>() {
+
+            @Override
+            public void call(GroupedObservable<Integer, Integer> g) {
+                // do not subscribe yet
+                groups.add(g);
+            }
+
+        });
+
+        assertEquals(2, groups.size());
+        assertEquals(Arrays.asList(1, 3, 5), groups.get(0).toList().toBlockingObservable().single());
+        assertEquals(Arrays.asList(2, 4, 6), groups.get(1).toList().toBlockingObservable().single());
+    }
+
+    @Test
+    public void testBoundedEvictsIdleGroups() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishSubject<Integer> source = PublishSubject.create();
+        final List<GroupedObservable<Integer, Integer>> groups = new ArrayList<GroupedObservable<Integer, Integer>>();
+        final AtomicInteger completed = new AtomicInteger();
+        source.groupBy(IDENTITY, 10, 1, TimeUnit.SECONDS, scheduler).subscribe(new Action1<GroupedObservable<Integer, Integer>>() {
+
+            @Override
+            public void call(GroupedObservable<Integer, Integer> g) {
+                groups.add(g);
+                g.subscribe(new Observer<Integer>() {
+
+                    @Override
+                    public void onCompleted() {
+                        completed.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        fail(e.getMessage());
+                    }
+
+                    @Override
+                    public void onNext(Integer v) {
+                    }
+
+                });
+            }
+
+        });
+
+        source.onNext(1);
+        scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+        source.onNext(2);
+        scheduler.advanceTimeBy(600, TimeUnit.MILLISECONDS);
+        // only group 1 has been idle for a full second
+        assertEquals(1, completed.get());
+
+        source.onNext(2);
+        source.onNext(1);
+        assertEquals(3, groups.size());
+        assertEquals(Integer.valueOf(1), groups.get(2).getKey());
+
+        scheduler.advanceTimeBy(3, TimeUnit.SECONDS);
+        assertEquals(3, completed.get());
+    }
+
+    @Test
+    public void testBoundedBuffersAllItemsUntilSubscribed() {
+        PublishSubject<Integer> source = PublishSubject.create();
+        final List<GroupedObservable<Integer, Integer>> groups = new ArrayList<GroupedObservable<Integer, Integer>>();
+        source.groupBy(IDENTITY, 10, 0, TimeUnit.SECONDS, Schedulers.computation(), 1000, OperatorGroupBy.OverflowPolicy.ERROR).subscribe(new Action1<GroupedObservable<Integer, Integer>>() {
+
+            @Override
+            public void call(GroupedObservable<Integer, Integer> g) {
+                groups.add(g);
+            }
+
+        });
+
+        for (int i = 0; i < 1000; i++) {
+            source.onNext(1);
+        }
+        source.onCompleted();
+
+        assertEquals(1000, groups.get(0).count().toBlockingObservable().single().intValue());
+    }
+
+    @Test
+    public void testBoundedFullBufferDropsItems() {
+        PublishSubject<Integer> source = PublishSubject.create();
+        final List<GroupedObservable<Integer, Integer>> groups = new ArrayList<GroupedObservable<Integer, Integer>>();
+        source.groupBy(IDENTITY, 10, 0, TimeUnit.SECONDS, Schedulers.computation(), 4, OperatorGroupBy.OverflowPolicy.DROP).subscribe(new Action1<GroupedObservable<Integer, Integer>>() {
+
+            @Override
+            public void call(GroupedObservable<Integer, Integer> g) {
+                groups.add(g);
+            }
+
+        });
+
+        for (int i = 0; i < 10; i++) {
+            source.onNext(1);
+        }
+        source.onCompleted();
+
+        assertEquals(4, groups.get(0).count().toBlockingObservable().single().intValue());
+    }
+
+    @Test
+    public void testBoundedFullBufferFails() {
+        PublishSubject<Integer> source = PublishSubject.create();
+        final List<GroupedObservable<Integer, Integer>> groups = new ArrayList<GroupedObservable<Integer, Integer>>();
+        TestObserver<GroupedObservable<Integer, Integer>> observer = new TestObserver<GroupedObservable<Integer, Integer>>(new Observer<GroupedObservable<Integer, Integer>>() {
+
+            @Override
+            public void onCompleted() {
+            }
+
+            @Override
+            public void onError(Throwable e) {
+            }
+
+            @Override
+            public void onNext(GroupedObservable<Integer, Integer> g) {
+                groups.add(g);
+            }
+
+        });
+        source.groupBy(IDENTITY, 10).subscribe(observer);
+
+        for (int i = 0; i <= OperatorGroupBy.DEFAULT_GROUP_BUFFER_SIZE; i++) {
+            source.onNext(1);
+        }
+
+        assertEquals(1, observer.getOnErrorEvents().size());
+        assertTrue(observer.getOnErrorEvents().get(0) instanceof RejectedExecutionException);
+        TestObserver<Integer> groupObserver = new TestObserver<Integer>();
+        groups.get(0).subscribe(groupObserver);
+        assertEquals(OperatorGroupBy.DEFAULT_GROUP_BUFFER_SIZE, groupObserver.getOnNextEvents().size());
+        assertEquals(1, groupObserver.getOnErrorEvents().size());
+    }
+
+    @Test
+    public void testBoundedEmitsDirectlyOnceSubscribed() {
+        PublishSubject<Integer> source = PublishSubject.create();
+        final List<Integer> values = new ArrayList<Integer>();
+        source.groupBy(IDENTITY, 10, 0, TimeUnit.SECONDS, Schedulers.computation(), 4, OperatorGroupBy.OverflowPolicy.ERROR).subscribe(new Action1<GroupedObservable<Integer, Integer>>() {
+
+            @Override
+            public void call(GroupedObservable<Integer, Integer> g) {
+                g.subscribe(new Action1<Integer>() {
+
+                    @Override
+                    public void call(Integer v) {
+                        values.add(v);
+                    }
+
+                });
+            }
+
+        });
+
+        // a subscribed group does not fill its buffer
+        for (int i = 0; i < 10; i++) {
+            source.onNext(1);
+        }
+
+        assertEquals(10, values.size());
+    }
+
+    @Test(timeout = 10000)
+    public void testBoundedDoesNotEmitWhileHoldingLock() throws InterruptedException {
+        PublishSubject<Integer> source = PublishSubject.create();
+        final List<GroupedObservable<Integer, Integer>> groups = new ArrayList<GroupedObservable<Integer, Integer>>();
+        final AtomicBoolean otherThreadFinished = new AtomicBoolean();
+        final CountDownLatch otherThreadDone = new CountDownLatch(1);
+        source.groupBy(IDENTITY, 10).subscribe(new Action1<GroupedObservable<Integer, Integer>>() {
+
+            @Override
+            public void call(GroupedObservable<Integer, Integer> g) {
+                groups.add(g);
+                if (g.getKey() != 1) {
+                    return;
+                }
+                g.subscribe(new Action1<Integer>() {
+
+                    @Override
+                    public void call(Integer v) {
+                        // another thread subscribing to a group while this one receives an item must not block
+                        Thread t = new Thread(new Runnable() {
+
+                            @Override
+                            public void run() {
+                                groups.get(0).subscribe(new Action1<Integer>() {
+
+                                    @Override
+                                    public void call(Integer v) {
+                                    }
+
+                                });
+                                otherThreadDone.countDown();
+                            }
+
+                        });
+                        t.start();
+                        try {
+                            otherThreadFinished.set(otherThreadDone.await(1, TimeUnit.SECONDS));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+
+                });
+            }
+
+        });
+
+        source.onNext(2);
+        source.onNext(1);
+        assertTrue(otherThreadFinished.get());
+        source.onCompleted();
+    }
+
+    @Test
+    public void testBoundedIdleTimeBelowOneMillisecond() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishSubject<Integer> source = PublishSubject.create();
+        final AtomicInteger completed = new AtomicInteger();
+        source.groupBy(IDENTITY, 10, 500, TimeUnit.MICROSECONDS, scheduler).subscribe(new Action1<GroupedObservable<Integer, Integer>>() {
+
+            @Override
+            public void call(GroupedObservable<Integer, Integer> g) {
+                g.subscribe(new Observer<Integer>() {
+
+                    @Override
+                    public void onCompleted() {
+                        completed.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        fail(e.getMessage());
+                    }
+
+                    @Override
+                    public void onNext(Integer v) {
+                    }
+
+                });
+            }
+
+        });
+
+        source.onNext(1);
+        // checked once, but the group was used less than 500 microseconds ago
+        scheduler.advanceTimeBy(600, TimeUnit.MICROSECONDS);
+        assertEquals(0, completed.get());
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        assertEquals(1, completed.get());
+    }
+
+    private static final Func1<Integer, Integer> IDENTITY = new Func1<Integer, Integer>() {
+
+        @Override
+        public Integer call(Integer t) {
+            return t;
+        }
+
+    };
+
     private static class Event {
         int source;
         String message;
@@ -21,19 +21,25 @@ import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import rx.Observable;
+import rx.Observable.OnSubscribe;
 import rx.Observer;
 import rx.Subscriber;
 import rx.Subscription;
@@ -41,6 +47,7 @@ import rx.schedulers.Schedulers;
 import rx.subscriptions.Subscriptions;
 import rx.util.functions.Action0;
 import rx.util.functions.Action1;
+import rx.util.functions.Func1;
 
 public class OperatorMergeTest {
 
@@ -438,6 +445,234 @@ public class OperatorMergeTest {
         }
     }
 
+    @Test
+    public void testBacklogDoesNotBlockSource() {
+        final int n = 6;
+        final List<AtomicReference<Subscriber<? super Integer>>> subscribers = new ArrayList<AtomicReference<Subscriber<? super Integer>>>();
+        for (int i = 0; i < n; i++) {
+            subscribers.add(new AtomicReference<Subscriber<? super Integer>>());
+        }
+        final AtomicInteger emitted = new AtomicInteger();
+        Observable<Observable<Integer>> source = Observable.create(new OnSubscribe<Observable<Integer>>() {
+
+            @Override
+            public void call(Subscriber<? super Observable<Integer>> s) {
+                for (final AtomicReference<Subscriber<? super Integer>> ref : subscribers) {
+                    emitted.incrementAndGet();
+                    s.onNext(Observable.create(new OnSubscribe<Integer>() {
+
+                        @Override
+                        public void call(Subscriber<? super Integer> inner) {
+                            ref.set(inner);
+                        }
+
+                    }));
+                }
+                s.onCompleted();
+            }
+
+        });
+
+        @SuppressWarnings("unchecked")
+        Observer<Integer> o = mock(Observer.class);
+        Observable.merge(source, 1).subscribe(o);
+
+        // the source emitted everything on this thread although only the first is subscribed
+        assertEquals(n, emitted.get());
+        for (int i = 0; i < n; i++) {
+            Subscriber<? super Integer> inner = subscribers.get(i).get();
+            assertNotNull("Observable " + i + " not subscribed", inner);
+            if (i + 1 < n) {
+                assertNull(subscribers.get(i + 1).get());
+            }
+            inner.onNext(i);
+            inner.onCompleted();
+        }
+        InOrder inOrder = inOrder(o);
+        for (int i = 0; i < n; i++) {
+            inOrder.verify(o).onNext(i);
+        }
+        inOrder.verify(o).onCompleted();
+        verify(o, never()).onError(any(Throwable.class));
+    }
+
+    @Test(timeout = 10000)
+    public void testUnboundedBacklogOnSharedScheduler() {
+        // outer and inner Observables share the computation threads, on a single core there is only one
+        Observable<Observable<Integer>> source = Observable.range(0, 1000).subscribeOn(Schedulers.computation()).map(new Func1<Integer, Observable<Integer>>() {
+
+            @Override
+            public Observable<Integer> call(Integer i) {
+                return Observable.just(i).subscribeOn(Schedulers.computation());
+            }
+
+        });
+        int count = Observable.merge(source, 2).count().toBlockingObservable().single();
+
+        assertEquals(1000, count);
+    }
+
+    /**
+     * Emits the given number of Observables that never terminate by themselves, recording each subscriber.
+     */
+    private static Observable<Observable<Integer>> manualSources(final List<AtomicReference<Subscriber<? super Integer>>> subscribers, final List<CountDownLatch> subscribed, final Semaphore emitted, final CountDownLatch sourceDone) {
+        return Observable.create(new OnSubscribe<Observable<Integer>>() {
+
+            @Override
+            public void call(Subscriber<? super Observable<Integer>> s) {
+                try {
+                    for (int i = 0; i < subscribers.size() && !s.isUnsubscribed(); i++) {
+                        final int index = i;
+                        emitted.release();
+                        s.onNext(Observable.create(new OnSubscribe<Integer>() {
+
+                            @Override
+                            public void call(Subscriber<? super Integer> inner) {
+                                subscribers.get(index).set(inner);
+                                subscribed.get(index).countDown();
+                            }
+
+                        }));
+                    }
+                    s.onCompleted();
+                } finally {
+                    sourceDone.countDown();
+                }
+            }
+
+        });
+    }
+
+    @Test(timeout = 10000)
+    public void testFullBacklogThrottlesSource() throws InterruptedException {
+        final int n = 6;
+        final List<AtomicReference<Subscriber<? super Integer>>> subscribers = new ArrayList<AtomicReference<Subscriber<? super Integer>>>();
+        final List<CountDownLatch> subscribed = new ArrayList<CountDownLatch>();
+        for (int i = 0; i < n; i++) {
+            subscribers.add(new AtomicReference<Subscriber<? super Integer>>());
+            subscribed.add(new CountDownLatch(1));
+        }
+        Semaphore emitted = new Semaphore(0);
+        Observable<Observable<Integer>> source = manualSources(subscribers, subscribed, emitted, new CountDownLatch(1)).subscribeOn(Schedulers.newThread());
+
+        final CountDownLatch done = new CountDownLatch(1);
+        final List<Integer> values = Collections.synchronizedList(new ArrayList<Integer>());
+        Observable.merge(source, 1, 2).finallyDo(new Action0() {
+
+            @Override
+            public void call() {
+                done.countDown();
+            }
+
+        }).subscribe(new Action1<Integer>() {
+
+            @Override
+            public void call(Integer t) {
+                values.add(t);
+            }
+
+        });
+
+        // one running and two waiting, the fourth is held up in the source
+        emitted.acquire(4);
+        assertFalse(emitted.tryAcquire(100, TimeUnit.MILLISECONDS));
+
+        for (int i = 0; i < n; i++) {
+            // the next one is only subscribed once the previous one completed
+            subscribed.get(i).await();
+            if (i + 1 < n) {
+                assertNull(subscribers.get(i + 1).get());
+            }
+            Subscriber<? super Integer> inner = subscribers.get(i).get();
+            inner.onNext(i);
+            inner.onCompleted();
+            if (i == 0) {
+                // the freed place in the backlog lets the source go on
+                assertTrue(emitted.tryAcquire(5, TimeUnit.SECONDS));
+            }
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5), values);
+    }
+
+    @Test(timeout = 10000)
+    public void testUnsubscribeReleasesBlockedSource() throws InterruptedException {
+        final int n = 5;
+        final List<AtomicReference<Subscriber<? super Integer>>> subscribers = new ArrayList<AtomicReference<Subscriber<? super Integer>>>();
+        final List<CountDownLatch> subscribed = new ArrayList<CountDownLatch>();
+        for (int i = 0; i < n; i++) {
+            subscribers.add(new AtomicReference<Subscriber<? super Integer>>());
+            subscribed.add(new CountDownLatch(1));
+        }
+        Semaphore emitted = new Semaphore(0);
+        CountDownLatch sourceDone = new CountDownLatch(1);
+        Observable<Observable<Integer>> source = manualSources(subscribers, subscribed, emitted, sourceDone).subscribeOn(Schedulers.newThread());
+
+        Subscription s = Observable.merge(source, 1, 1).subscribe();
+        // one running and one waiting, the third is held up in the source
+        emitted.acquire(3);
+
+        s.unsubscribe();
+        assertTrue(sourceDone.await(5, TimeUnit.SECONDS));
+        assertNull(subscribers.get(1).get());
+    }
+
+    @Test
+    public void testFullBacklogWithErrorPolicy() {
+        final int n = 4;
+        final List<AtomicReference<Subscriber<? super Integer>>> subscribers = new ArrayList<AtomicReference<Subscriber<? super Integer>>>();
+        final List<CountDownLatch> subscribed = new ArrayList<CountDownLatch>();
+        for (int i = 0; i < n; i++) {
+            subscribers.add(new AtomicReference<Subscriber<? super Integer>>());
+            subscribed.add(new CountDownLatch(1));
+        }
+        Semaphore emitted = new Semaphore(0);
+        Observable<Observable<Integer>> source = manualSources(subscribers, subscribed, emitted, new CountDownLatch(1));
+
+        @SuppressWarnings("unchecked")
+        Observer<Integer> o = mock(Observer.class);
+        Observable.merge(source, 1, 2, OperatorMerge.BacklogPolicy.ERROR).subscribe(o);
+
+        // the fourth does not fit, so the source is not kept waiting
+        verify(o).onError(any(RejectedExecutionException.class));
+        verify(o, never()).onCompleted();
+        assertNotNull(subscribers.get(0).get());
+        assertNull(subscribers.get(1).get());
+    }
+
+    @Test
+    public void testFlatMapMaxConcurrent() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        int count = Observable.range(0, 200).flatMap(new Func1<Integer, Observable<Integer>>() {
+
+            @Override
+            public Observable<Integer> call(final Integer i) {
+                return Observable.create(new OnSubscribe<Integer>() {
+
+                    @Override
+                    public void call(Subscriber<? super Integer> s) {
+                        int r = running.incrementAndGet();
+                        for (;;) {
+                            int m = maxRunning.get();
+                            if (r <= m || maxRunning.compareAndSet(m, r)) {
+                                break;
+                            }
+                        }
+                        s.onNext(i);
+                        running.decrementAndGet();
+                        s.onCompleted();
+                    }
+
+                }).subscribeOn(Schedulers.newThread());
+            }
+
+        }, 4).count().toBlockingObservable().single();
+
+        assertEquals(200, count);
+        assertTrue("at most 4 expected but was " + maxRunning.get(), maxRunning.get() <= 4);
+    }
+
     @Test
     public void testMaxConcurrent() {
         for (int times = 0; times < 100; times++) {
@@ -17,11 +17,21 @@ package rx.operators;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import rx.Observable;
+import rx.observers.TestObserver;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
 import rx.util.functions.Action1;
 import rx.util.functions.Func1;
 
@@ -58,4 +68,182 @@ public class OperatorParallelTest {
         // just making sure we finish and get the number we expect
         assertEquals(NUM, count.get());
     }
+
+    @Test
+    public void testParallelByKeyKeepsPerKeyOrder() {
+        final int NUM = 10000;
+        final int KEYS = 7;
+        List<Integer[]> results = Observable.range(0, NUM).parallel(
+                new Func1<Observable<Integer>, Observable<Integer[]>>() {
+
+                    @Override
+                    public Observable<Integer[]> call(Observable<Integer> o) {
+                        return o.map(new Func1<Integer, Integer[]>() {
+
+                            @Override
+                            public Integer[] call(Integer t) {
+                                return new Integer[] { t % KEYS, t };
+                            }
+
+                        });
+                    }
+                }, new Func1<Integer, Integer>() {
+
+                    @Override
+                    public Integer call(Integer t) {
+                        return t % KEYS;
+                    }
+
+                }).toList().toBlockingObservable().single();
+
+        assertEquals(NUM, results.size());
+        int[] last = new int[KEYS];
+        Arrays.fill(last, -1);
+        for (Integer[] r : results) {
+            assertTrue("out of order for key " + r[0], r[1] > last[r[0]]);
+            last[r[0]] = r[1];
+        }
+    }
+
+    @Test
+    public void testParallelByKeyOrdered() {
+        final int NUM = 10000;
+        List<Integer> results = Observable.range(0, NUM).parallel(
+                new Func1<Observable<Integer>, Observable<Integer>>() {
+
+                    @Override
+                    public Observable<Integer> call(Observable<Integer> o) {
+                        return o.map(new Func1<Integer, Integer>() {
+
+                            @Override
+                            public Integer call(Integer t) {
+                                return t * 2;
+                            }
+
+                        });
+                    }
+                }, new Func1<Integer, Integer>() {
+
+                    @Override
+                    public Integer call(Integer t) {
+                        return t;
+                    }
+
+                }, true, Schedulers.newThread()).toList().toBlockingObservable().single();
+
+        assertEquals(NUM, results.size());
+        for (int i = 0; i < NUM; i++) {
+            assertEquals(i * 2, results.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testParallelByKeyRunsRailsConcurrently() {
+        final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+        // a throttled source may process items of a full rail itself
+        final Thread source = Thread.currentThread();
+        int count = Observable.range(0, 1000).parallel(
+                new Func1<Observable<Integer>, Observable<Integer>>() {
+
+                    @Override
+                    public Observable<Integer> call(Observable<Integer> o) {
+                        return o.doOnNext(new Action1<Integer>() {
+
+                            @Override
+                            public void call(Integer t) {
+                                if (Thread.currentThread() != source) {
+                                    threads.add(Thread.currentThread().getName());
+                                }
+                            }
+
+                        });
+                    }
+                }, new Func1<Integer, Integer>() {
+
+                    @Override
+                    public Integer call(Integer t) {
+                        return t;
+                    }
+
+                }, false, Schedulers.newThread()).count().toBlockingObservable().single();
+
+        assertEquals(1000, count);
+        assertEquals(Schedulers.newThread().degreeOfParallelism() > 1, threads.size() > 1);
+    }
+
+    @Test(timeout = 10000)
+    public void testParallelByKeySourceOnSameScheduler() {
+        // the source shares the computation threads with the rails, on a single core there is only one
+        int count = Observable.range(0, 10000).subscribeOn(Schedulers.computation()).parallel(
+                new Func1<Observable<Integer>, Observable<Integer>>() {
+
+                    @Override
+                    public Observable<Integer> call(Observable<Integer> o) {
+                        return o;
+                    }
+                }, new Func1<Integer, Integer>() {
+
+                    @Override
+                    public Integer call(Integer t) {
+                        return t % 7;
+                    }
+
+                }).count().toBlockingObservable().single();
+
+        assertEquals(10000, count);
+    }
+
+    @Test
+    public void testParallelByKeyFullRailThrottlesSource() {
+        // the rails never run on the scheduler, the source has to process the items of the full rail itself
+        TestScheduler scheduler = new TestScheduler();
+        TestObserver<Integer> observer = new TestObserver<Integer>();
+        Observable.range(0, 100).parallel(identity(), constantKey(), false, 4, OperatorParallel.OverflowPolicy.BLOCK, scheduler).subscribe(observer);
+
+        assertTrue(observer.getOnNextEvents().size() >= 96);
+        assertEquals(0, observer.getOnCompletedEvents().size());
+
+        scheduler.triggerActions();
+
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, observer.getOnNextEvents());
+        assertEquals(1, observer.getOnCompletedEvents().size());
+    }
+
+    @Test
+    public void testParallelByKeyFullRailWithErrorPolicy() {
+        TestScheduler scheduler = new TestScheduler();
+        TestObserver<Integer> observer = new TestObserver<Integer>();
+        Observable.range(0, 100).parallel(identity(), constantKey(), false, 4, OperatorParallel.OverflowPolicy.ERROR, scheduler).subscribe(observer);
+
+        scheduler.triggerActions();
+
+        assertEquals(Arrays.asList(0, 1, 2, 3), observer.getOnNextEvents());
+        assertEquals(1, observer.getOnErrorEvents().size());
+        assertTrue(observer.getOnErrorEvents().get(0) instanceof RejectedExecutionException);
+        assertEquals(0, observer.getOnCompletedEvents().size());
+    }
+
+    private static Func1<Observable<Integer>, Observable<Integer>> identity() {
+        return new Func1<Observable<Integer>, Observable<Integer>>() {
+
+            @Override
+            public Observable<Integer> call(Observable<Integer> o) {
+                return o;
+            }
+        };
+    }
+
+    private static Func1<Integer, Integer> constantKey() {
+        return new Func1<Integer, Integer>() {
+
+            @Override
+            public Integer call(Integer t) {
+                return 0;
+            }
+        };
+    }
 }
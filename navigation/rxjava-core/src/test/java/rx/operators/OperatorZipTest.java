@@ -37,6 +37,7 @@ import rx.Observable.OnSubscribe;
 import rx.Observer;
 import rx.Subscriber;
 import rx.Subscription;
+import rx.schedulers.Schedulers;
 import rx.subjects.PublishSubject;
 import rx.subscriptions.Subscriptions;
 import rx.util.functions.Action1;
@@ -956,6 +957,49 @@ public class OperatorZipTest {
         assertEquals("3-null", list.get(2));
     }
 
+    @Test
+    public void testZipLongAsyncSourcesPreservesPairing() {
+        // more items than fit in one ring so the producers have to link new segments
+        final int n = 10000;
+        Observable<Integer> oA = Observable.range(0, n).subscribeOn(Schedulers.newThread());
+        Observable<Integer> oB = Observable.range(0, n).subscribeOn(Schedulers.newThread());
+        List<Integer> list = Observable.zip(oA, oB, new Func2<Integer, Integer, Integer>() {
+
+            @Override
+            public Integer call(Integer t1, Integer t2) {
+                assertEquals(t1, t2);
+                return t1;
+            }
+
+        }).toList().toBlockingObservable().single();
+
+        assertEquals(n, list.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.valueOf(i), list.get(i));
+        }
+    }
+
+    @Test
+    public void testZipReusingArguments() {
+        final List<Object[]> arrays = new ArrayList<Object[]>();
+        FuncN<String> zipr = new FuncN<String>() {
+
+            @Override
+            public String call(Object... args) {
+                arrays.add(args);
+                return args[0] + "-" + args[1];
+            }
+
+        };
+        Observable<?>[] sources = new Observable<?>[] { Observable.from(1, 2, 3), Observable.from("a", "b", "c", "d") };
+        List<String> list = Observable.just(sources).lift(new OperatorZip<String>(zipr, true)).toList().toBlockingObservable().single();
+
+        assertEquals(Arrays.asList("1-a", "2-b", "3-c"), list);
+        assertEquals(3, arrays.size());
+        assertSame(arrays.get(0), arrays.get(1));
+        assertSame(arrays.get(1), arrays.get(2));
+    }
+
     @Test
     public void testEmitMaterializedNotifications() {
         Observable<Notification<Integer>> oi = Observable.from(1, 2, 3).materialize();
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.operators;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class SpscLinkedArrayQueueTest {
+
+    @Test
+    public void testOfferPollWithinOneSegment() {
+        SpscLinkedArrayQueue<Integer> q = new SpscLinkedArrayQueue<Integer>(8);
+        assertTrue(q.isEmpty());
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 5; i++) {
+                q.offer(i);
+            }
+            assertEquals(Integer.valueOf(0), q.peek());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(Integer.valueOf(i), q.poll());
+            }
+            assertNull(q.poll());
+        }
+    }
+
+    @Test
+    public void testGrowsBeyondSegment() {
+        SpscLinkedArrayQueue<Integer> q = new SpscLinkedArrayQueue<Integer>(4);
+        for (int i = 0; i < 100; i++) {
+            q.offer(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(i), q.peek());
+            assertEquals(Integer.valueOf(i), q.poll());
+        }
+        assertTrue(q.isEmpty());
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentProducerConsumer() throws InterruptedException {
+        final SpscLinkedArrayQueue<Integer> q = new SpscLinkedArrayQueue<Integer>(16);
+        final int n = 1000000;
+        Thread producer = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                for (int i = 0; i < n; i++) {
+                    q.offer(i);
+                }
+            }
+
+        });
+        producer.start();
+        int expected = 0;
+        while (expected < n) {
+            Integer v = q.poll();
+            if (v != null) {
+                assertEquals(expected++, v.intValue());
+            }
+        }
+        producer.join();
+        assertNull(q.poll());
+    }
+}
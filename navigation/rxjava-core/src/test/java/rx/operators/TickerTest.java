@@ -0,0 +1,120 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.operators;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import rx.Subscription;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+import rx.util.functions.Action0;
+import rx.util.functions.Action1;
+
+public class TickerTest {
+
+    private static Action0 counting(final AtomicInteger counter) {
+        return new Action0() {
+            @Override
+            public void call() {
+                counter.incrementAndGet();
+            }
+        };
+    }
+
+    @Test
+    public void testListenersShareOneTask() {
+        TestScheduler scheduler = new TestScheduler();
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+        AtomicInteger other = new AtomicInteger();
+        int before = Ticker.activeTickers();
+
+        Subscription s1 = Ticker.register(scheduler, 100, TimeUnit.MILLISECONDS, counting(first));
+        Subscription s2 = Ticker.register(scheduler, 100, TimeUnit.MILLISECONDS, counting(second));
+        Subscription s3 = Ticker.register(scheduler, 200, TimeUnit.MILLISECONDS, counting(other));
+        assertEquals(before + 2, Ticker.activeTickers());
+
+        scheduler.advanceTimeBy(400, TimeUnit.MILLISECONDS);
+        assertEquals(4, first.get());
+        assertEquals(4, second.get());
+        assertEquals(2, other.get());
+
+        s1.unsubscribe();
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+        assertEquals(4, first.get());
+        assertEquals(5, second.get());
+
+        s2.unsubscribe();
+        s3.unsubscribe();
+        assertEquals(before, Ticker.activeTickers());
+        scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+        assertEquals(5, second.get());
+        assertEquals(2, other.get());
+    }
+
+    @Test
+    public void testRestartsAfterLastListenerLeft() {
+        TestScheduler scheduler = new TestScheduler();
+        AtomicInteger counter = new AtomicInteger();
+
+        Ticker.register(scheduler, 100, TimeUnit.MILLISECONDS, counting(counter)).unsubscribe();
+        Subscription s = Ticker.register(scheduler, 100, TimeUnit.MILLISECONDS, counting(counter));
+
+        scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+        assertEquals(3, counter.get());
+        s.unsubscribe();
+    }
+
+    @Test
+    public void testManySampledStreamsKeepTheirOwnValues() {
+        TestScheduler scheduler = new TestScheduler();
+        int before = Ticker.activeTickers();
+        int n = 100;
+        @SuppressWarnings("unchecked")
+        PublishSubject<Integer>[] sources = new PublishSubject[n];
+        final int[] sampled = new int[n];
+        Subscription[] subscriptions = new Subscription[n];
+        for (int i = 0; i < n; i++) {
+            final int index = i;
+            sources[i] = PublishSubject.create();
+            subscriptions[i] = sources[i].sample(1, TimeUnit.SECONDS, scheduler).subscribe(new Action1<Integer>() {
+                @Override
+                public void call(Integer v) {
+                    sampled[index] = v;
+                }
+            });
+        }
+        assertEquals(before + 1, Ticker.activeTickers());
+
+        for (int i = 0; i < n; i++) {
+            sources[i].onNext(i);
+        }
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, sampled[i]);
+        }
+
+        for (Subscription s : subscriptions) {
+            s.unsubscribe();
+        }
+        assertEquals(before, Ticker.activeTickers());
+    }
+}
@@ -106,6 +106,34 @@ public class RxJavaPluginsTest {
         }
     }
 
+    @Test
+    public void testSchedulersHookDefaultImpl() {
+        RxJavaPlugins p = new RxJavaPlugins();
+        RxJavaSchedulersHook impl = p.getSchedulersHook();
+        assertTrue(impl instanceof RxJavaSchedulersHookDefault);
+    }
+
+    @Test
+    public void testSchedulersHookViaRegisterMethod() {
+        RxJavaPlugins p = new RxJavaPlugins();
+        p.registerSchedulersHook(new RxJavaSchedulersHookTestImpl());
+        RxJavaSchedulersHook impl = p.getSchedulersHook();
+        assertTrue(impl instanceof RxJavaSchedulersHookTestImpl);
+    }
+
+    @Test
+    public void testSchedulersHookViaProperty() {
+        try {
+            RxJavaPlugins p = new RxJavaPlugins();
+            String fullClass = getFullClassNameForTestClass(RxJavaSchedulersHookTestImpl.class);
+            System.setProperty("rxjava.plugin.RxJavaSchedulersHook.implementation", fullClass);
+            RxJavaSchedulersHook impl = p.getSchedulersHook();
+            assertTrue(impl instanceof RxJavaSchedulersHookTestImpl);
+        } finally {
+            System.clearProperty("rxjava.plugin.RxJavaSchedulersHook.implementation");
+        }
+    }
+
     @Test
     public void testOnErrorWhenImplementedViaSubscribe() {
         RxJavaErrorHandlerTestImpl errorHandler = new RxJavaErrorHandlerTestImpl();
@@ -150,6 +178,11 @@ public class RxJavaPluginsTest {
         // just use defaults
     }
 
+    // inside test so it is stripped from Javadocs
+    public static class RxJavaSchedulersHookTestImpl extends RxJavaSchedulersHook {
+        // just use defaults
+    }
+
     private static String getFullClassNameForTestClass(Class<?> cls) {
         return RxJavaPlugins.class.getPackage().getName() + "." + RxJavaPluginsTest.class.getSimpleName() + "$" + cls.getSimpleName();
     }